@@ -0,0 +1,97 @@
+package io.github.joke.percolate.benchmarks;
+
+import java.util.List;
+
+import static java.lang.Character.toUpperCase;
+
+// Renders the plain Java every synthetic shape is built from: read-only source beans exposing one getter per
+// property, and target beans assembled through a fluent builder (static builder(), one setter per member, build())
+// so a wide target is never bound by the 255-parameter constructor limit. Types are written fully qualified, so no
+// compilation unit needs an import beyond the mapper annotations.
+final class Beans {
+
+    static final String PACKAGE = "bench";
+
+    private Beans() {}
+
+    static String sourceBean(final String name, final List<Property> properties) {
+        final var text = new StringBuilder(64 * (properties.size() + 1));
+        text.append("package ").append(PACKAGE).append(";\n\npublic final class ").append(name).append(" {\n");
+        properties.forEach(property -> text.append("    private ")
+                .append(property.getType())
+                .append(' ')
+                .append(property.getName())
+                .append(";\n"));
+        properties.forEach(property -> text.append("    public ")
+                .append(property.getType())
+                .append(" get")
+                .append(capitalise(property.getName()))
+                .append("() { return ")
+                .append(property.getName())
+                .append("; }\n"));
+        return text.append("}\n").toString();
+    }
+
+    static String targetBean(final String name, final List<Property> properties) {
+        final var text = new StringBuilder(128 * (properties.size() + 1));
+        text.append("package ").append(PACKAGE).append(";\n\npublic final class ").append(name).append(" {\n");
+        properties.forEach(property -> text.append("    private final ")
+                .append(property.getType())
+                .append(' ')
+                .append(property.getName())
+                .append(";\n"));
+        text.append("    private ").append(name).append("(final Builder builder) {\n");
+        properties.forEach(property -> text.append("        this.")
+                .append(property.getName())
+                .append(" = builder.")
+                .append(property.getName())
+                .append(";\n"));
+        text.append("    }\n    public static Builder builder() { return new Builder(); }\n");
+        properties.forEach(property -> text.append("    public ")
+                .append(property.getType())
+                .append(" get")
+                .append(capitalise(property.getName()))
+                .append("() { return ")
+                .append(property.getName())
+                .append("; }\n"));
+        text.append("    public static final class Builder {\n");
+        properties.forEach(property -> text.append("        private ")
+                .append(property.getType())
+                .append(' ')
+                .append(property.getName())
+                .append(";\n"));
+        properties.forEach(property -> text.append("        public Builder ")
+                .append(property.getName())
+                .append("(final ")
+                .append(property.getType())
+                .append(" value) { this.")
+                .append(property.getName())
+                .append(" = value; return this; }\n"));
+        text.append("        public ").append(name).append(" build() { return new ").append(name);
+        return text.append("(this); }\n    }\n}\n").toString();
+    }
+
+    // The mapper interface header; the caller appends the abstract methods and closes it with "}\n".
+    static StringBuilder mapperHeader(final String name) {
+        return new StringBuilder(256)
+                .append("package ")
+                .append(PACKAGE)
+                .append(";\n\nimport io.github.joke.percolate.Map;\nimport io.github.joke.percolate.Mapper;\n\n")
+                .append("@Mapper\npublic interface ")
+                .append(name)
+                .append(" {\n");
+    }
+
+    static String mapDirective(final String target, final String source) {
+        return "    @Map(target = \"" + target + "\", source = \"" + source + "\")\n";
+    }
+
+    // Null-marks the synthetic package, so the engine resolves every member as non-null rather than unknown.
+    static String packageInfo() {
+        return "@org.jspecify.annotations.NullMarked\npackage " + PACKAGE + ";\n";
+    }
+
+    static String capitalise(final String name) {
+        return toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.joke.percolate.benchmarks;
+
+import io.github.joke.percolate.processor.MapperContext;
+import io.github.joke.percolate.processor.StageHarness;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+// Average time to render every method body of an expanded mapper — plan extraction, member planning, hoisting and
+// the codegen walk — without assembling or writing the type. Under -Apercolate.parallel.extraction only extraction
+// and lowering (the hoist decision and the member-request walk with it) leave the processing thread; member naming
+// and the codegen walk, which renders types and strategy code over javac mirrors, are what stays sequential. The
+// expanded context keeps its plan once extracted, so after the first invocation this times those sequential parts.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+public class BuildMethodBodiesBenchmark {
+
+    // Assigned reflectively by JMH, which requires @Param fields non-final.
+    @SuppressWarnings("PMD.ImmutableField")
+    @Param({"wide-50", "wide-500", "deep-16", "methods-100", "lists-4", "temporal-60"})
+    private String shape = "wide-50";
+
+    private StageHarness harness;
+    private MapperContext expanded;
+
+    @Setup
+    public void setUp() {
+        harness = SyntheticMapper.parse(shape).harness(Map.of());
+        expanded = harness.expanded();
+    }
+
+    @Benchmark
+    public Object build() {
+        return harness.buildMethodBodies(expanded);
+    }
+}
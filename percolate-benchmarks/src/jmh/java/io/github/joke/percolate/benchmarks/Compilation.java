@@ -0,0 +1,39 @@
+package io.github.joke.percolate.benchmarks;
+
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import static java.util.stream.Collectors.joining;
+
+// The outcome of one in-process compilation: whether javac succeeded, how many sources the processor generated,
+// and every diagnostic it reported. A benchmark returns it so the JIT cannot discard the run.
+public final class Compilation {
+
+    private final boolean success;
+    private final int generatedSources;
+    private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+    Compilation(
+            final boolean success,
+            final int generatedSources,
+            final List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        this.success = success;
+        this.generatedSources = generatedSources;
+        this.diagnostics = diagnostics;
+    }
+
+    // Fails a benchmark's setup when the workload does not compile cleanly: a shape the engine rejects would
+    // otherwise be measured on its (much cheaper) error path.
+    public Compilation requireSuccess(final SyntheticMapper mapper) {
+        if (!success || generatedSources == 0) {
+            throw new IllegalStateException(mapper + " did not generate a mapper:\n"
+                    + diagnostics.stream().map(Object::toString).collect(joining("\n")));
+        }
+        return this;
+    }
+
+    public int getGeneratedSources() {
+        return generatedSources;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.joke.percolate.benchmarks;
+
+import io.github.joke.percolate.processor.MapperContext;
+import io.github.joke.percolate.processor.StageHarness;
+import java.util.Map;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static io.github.joke.percolate.processor.ProcessorOptions.EXPANSION_BOUNDED;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+// ExpandStage under full over-emission against -Apercolate.expansion.bounded, one expansion per iteration: the time
+// it takes, and — as auxiliary counters beside it — the vertices and edges of the graph it leaves behind, which is
+// what the bounded mode exists to shrink. The sizes are exact, the same on every iteration.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+public class ExpansionModeBenchmark {
+
+    // Assigned reflectively by JMH, which requires @Param fields non-final.
+    @SuppressWarnings("PMD.ImmutableField")
+    @Param({"wide-50", "deep-16", "lists-4", "temporal-60"})
+    private String shape = "wide-50";
+
+    @SuppressWarnings("PMD.ImmutableField")
+    @Param({"full", "bounded"})
+    private String mode = "full";
+
+    private StageHarness harness;
+    private MapperContext discovered;
+
+    @Setup
+    public void setUp() {
+        final var options = "bounded".equals(mode) ? Map.of(EXPANSION_BOUNDED, "true") : Map.<String, String>of();
+        harness = SyntheticMapper.parse(shape).harness(options);
+    }
+
+    // A fresh context per expansion, discovered outside the measurement: expansion appends to the one it runs over.
+    @Setup(Level.Invocation)
+    public void discover() {
+        discovered = harness.discovered();
+    }
+
+    @Benchmark
+    public MapperContext expand(final GraphSize size) {
+        harness.expand(discovered);
+        final var graph = requireNonNull(discovered.getGraph());
+        size.vertices = graph.vertexCount();
+        size.edges = graph.edgeCount();
+        return discovered;
+    }
+
+    // The size of the graph the last expansion grew. JMH reads the public fields as counters.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class GraphSize {
+        public long vertices;
+        public long edges;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            vertices = 0;
+            edges = 0;
+        }
+    }
+}
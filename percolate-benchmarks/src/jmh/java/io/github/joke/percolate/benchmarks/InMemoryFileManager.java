@@ -0,0 +1,60 @@
+package io.github.joke.percolate.benchmarks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardJavaFileManager;
+import org.jspecify.annotations.Nullable;
+
+// Keeps every output the compilation produces in memory — generated mappers, graph dumps, statistics — so a
+// benchmark iteration touches no disk and leaves nothing behind. Inputs still resolve through the standard manager.
+final class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    private final List<InMemorySource> outputs = new ArrayList<>();
+
+    InMemoryFileManager(final StandardJavaFileManager fileManager) {
+        super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(
+            final Location location, final String className, final Kind kind, final @Nullable FileObject sibling) {
+        return record(URI.create("mem:///" + location.getName() + '/' + className.replace('.', '/') + kind.extension),
+                kind);
+    }
+
+    @Override
+    public FileObject getFileForOutput(
+            final Location location,
+            final String packageName,
+            final String relativeName,
+            final @Nullable FileObject sibling) {
+        return record(
+                URI.create("mem:///" + location.getName() + '/' + packageName.replace('.', '/') + '/' + relativeName),
+                Kind.OTHER);
+    }
+
+    // The standard manager only compares its own path-backed objects; an in-memory one is the same file only as
+    // itself.
+    @Override
+    public boolean isSameFile(final FileObject a, final FileObject b) {
+        if (a instanceof InMemorySource || b instanceof InMemorySource) {
+            return a.toUri().equals(b.toUri());
+        }
+        return super.isSameFile(a, b);
+    }
+
+    int generatedSources() {
+        return (int) outputs.stream().filter(output -> output.getKind() == Kind.SOURCE).count();
+    }
+
+    InMemorySource record(final URI uri, final Kind kind) {
+        final var output = new InMemorySource(uri, kind);
+        outputs.add(output);
+        return output;
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.joke.percolate.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import javax.tools.SimpleJavaFileObject;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// A compilation unit held in memory: either a synthetic input, constructed with its text, or a file the processor
+// wrote through the Filer, whose bytes collect here and are read back when javac parses the next round.
+final class InMemorySource extends SimpleJavaFileObject {
+
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+    InMemorySource(final String packageName, final String simpleName, final String text) {
+        this(URI.create("mem:///" + packageName.replace('.', '/') + '/' + simpleName + Kind.SOURCE.extension),
+                Kind.SOURCE);
+        written.writeBytes(text.getBytes(UTF_8));
+    }
+
+    InMemorySource(final URI uri, final Kind kind) {
+        super(uri, kind);
+    }
+
+    @Override
+    public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+        return written.toString(UTF_8);
+    }
+
+    @Override
+    public OutputStream openOutputStream() {
+        written.reset();
+        return written;
+    }
+}
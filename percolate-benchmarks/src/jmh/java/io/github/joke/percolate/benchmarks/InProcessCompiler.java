@@ -0,0 +1,43 @@
+package io.github.joke.percolate.benchmarks;
+
+import io.github.joke.percolate.processor.PercolateProcessor;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Locale.ROOT;
+import static javax.tools.ToolProvider.getSystemJavaCompiler;
+
+// Runs the real processor over a synthetic mapper, in-process through javax.tools: annotation processing only
+// (-proc:only), so a measurement covers discovery, expansion, planning and generation — plus javac parsing and
+// attributing the sources, which every real build pays too — but never bytecode generation. The classpath is this
+// JVM's own, which carries the annotations, jspecify and the builtin strategies the processor loads.
+public final class InProcessCompiler {
+
+    private final JavaCompiler compiler = getSystemJavaCompiler();
+    private final List<String> options;
+
+    public InProcessCompiler(final List<String> processorOptions) {
+        this.options = new ArrayList<>(List.of(
+                "-proc:only", "-implicit:none", "-classpath", System.getProperty("java.class.path")));
+        processorOptions.forEach(option -> options.add("-A" + option));
+    }
+
+    public Compilation compile(final SyntheticMapper mapper) {
+        final var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try (var fileManager =
+                new InMemoryFileManager(compiler.getStandardFileManager(diagnostics, ROOT, UTF_8))) {
+            final var task = compiler.getTask(null, fileManager, diagnostics, options, null, mapper.sources());
+            task.setProcessors(List.of(new PercolateProcessor()));
+            final boolean success = task.call();
+            return new Compilation(success, fileManager.generatedSources(), diagnostics.getDiagnostics());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.joke.percolate.benchmarks;
+
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+// End-to-end throughput of one annotation-processing compilation per synthetic shape: a fresh javac task and a
+// fresh PercolateProcessor every invocation, exactly as a build would run them. Run with the gc profiler (the
+// module default) for the allocation rate next to the score.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+public class ProcessorBenchmark {
+
+    // Assigned reflectively by JMH, which requires @Param fields non-final.
+    @SuppressWarnings("PMD.ImmutableField")
+    @Param({"wide-50", "wide-500", "deep-16", "methods-100", "lists-4", "temporal-60"})
+    private String shape = "wide-50";
+
+    private SyntheticMapper mapper;
+    private InProcessCompiler compiler;
+
+    @Setup
+    public void setUp() {
+        mapper = SyntheticMapper.parse(shape);
+        compiler = new InProcessCompiler(List.of());
+        compiler.compile(mapper).requireSuccess(mapper);
+    }
+
+    @Benchmark
+    public Compilation process() {
+        return compiler.compile(mapper);
+    }
+}
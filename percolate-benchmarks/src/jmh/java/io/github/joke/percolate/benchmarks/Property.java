@@ -0,0 +1,21 @@
+package io.github.joke.percolate.benchmarks;
+
+// One bean member of a synthetic shape: its name and its fully qualified Java type.
+final class Property {
+
+    private final String name;
+    private final String type;
+
+    Property(final String name, final String type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getType() {
+        return type;
+    }
+}
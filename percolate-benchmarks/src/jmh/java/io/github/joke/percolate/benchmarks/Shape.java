@@ -0,0 +1,160 @@
+package io.github.joke.percolate.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.joke.percolate.benchmarks.Beans.mapDirective;
+import static io.github.joke.percolate.benchmarks.Beans.mapperHeader;
+import static io.github.joke.percolate.benchmarks.Beans.sourceBean;
+import static io.github.joke.percolate.benchmarks.Beans.targetBean;
+
+// The axes a synthetic mapper grows along. Each shape renders one compilation unit per type, keyed by simple name,
+// for a given size; the size means something different per axis (member count, path depth, method count, container
+// nesting, conversion count), and every rendering is deterministic so a run is repeatable across JVM forks.
+public enum Shape {
+
+    // One method whose builder target has `size` members, each with its own @Map — alternately a plain copy, a
+    // boxing conversion and a widening one, so the member demands do not all ground the same way.
+    WIDE("WideMapper") {
+        @Override
+        void render(final int size, final Map<String, String> units) {
+            final var sources = new ArrayList<Property>(size);
+            final var targets = new ArrayList<Property>(size);
+            final var mapper = mapperHeader(mapperName());
+            for (var i = 0; i < size; i++) {
+                final var name = "p" + i;
+                sources.add(new Property(name, i % 3 == 0 ? "String" : "int"));
+                targets.add(new Property(name, WIDE_TARGET_TYPES[i % 3]));
+                mapper.append(mapDirective(name, "source." + name));
+            }
+            mapper.append("    WideTarget map(WideSource source);\n}\n");
+            units.put("WideSource", sourceBean("WideSource", sources));
+            units.put("WideTarget", targetBean("WideTarget", targets));
+            units.put(mapperName(), mapper.toString());
+        }
+    },
+
+    // A source chain `size` levels deep; level i's name lands on target member i through an i-hop source path, so
+    // the descended path length grows quadratically with the size.
+    DEEP("DeepMapper") {
+        @Override
+        void render(final int size, final Map<String, String> units) {
+            final var targets = new ArrayList<Property>(size);
+            final var mapper = mapperHeader(mapperName());
+            final var path = new StringBuilder("root");
+            for (var i = 0; i < size; i++) {
+                final var level = new ArrayList<Property>(2);
+                level.add(new Property("name", "String"));
+                if (i + 1 < size) {
+                    level.add(new Property("next", "Level" + (i + 1)));
+                }
+                units.put("Level" + i, sourceBean("Level" + i, level));
+                targets.add(new Property("name" + i, "String"));
+                mapper.append(mapDirective("name" + i, path + ".name"));
+                path.append(".next");
+            }
+            mapper.append("    DeepTarget map(Level0 root);\n}\n");
+            units.put("DeepTarget", targetBean("DeepTarget", targets));
+            units.put(mapperName(), mapper.toString());
+        }
+    },
+
+    // `size` abstract methods on one mapper, each over its own small source/target pair, so the callable-method index
+    // and the per-method scopes grow while every single method stays trivial.
+    METHODS("MethodsMapper") {
+        @Override
+        void render(final int size, final Map<String, String> units) {
+            final var mapper = mapperHeader(mapperName());
+            final var properties = List.of(
+                    new Property("id", "long"), new Property("name", "String"), new Property("active", "boolean"));
+            for (var i = 0; i < size; i++) {
+                units.put("Source" + i, sourceBean("Source" + i, properties));
+                units.put("Target" + i, targetBean("Target" + i, properties));
+                properties.forEach(property ->
+                        mapper.append(mapDirective(property.getName(), "source." + property.getName())));
+                mapper.append("    Target")
+                        .append(i)
+                        .append(" map")
+                        .append(i)
+                        .append("(Source")
+                        .append(i)
+                        .append(" source);\n");
+            }
+            units.put(mapperName(), mapper.append("}\n").toString());
+        }
+    },
+
+    // A member of `size`-deep nested lists, List<…List<Item>…> to List<…List<ItemView>…>, whose innermost
+    // element reuses a per-element mapper method — one container expansion per nesting level.
+    LISTS("ListsMapper") {
+        @Override
+        void render(final int size, final Map<String, String> units) {
+            final var item = List.of(new Property("name", "String"));
+            units.put("Item", sourceBean("Item", item));
+            units.put("ItemView", targetBean("ItemView", item));
+            units.put("Nest", sourceBean("Nest", List.of(new Property("items", nestedList("Item", size)))));
+            units.put(
+                    "NestView", targetBean("NestView", List.of(new Property("items", nestedList("ItemView", size)))));
+            units.put(
+                    mapperName(),
+                    mapperHeader(mapperName())
+                            .append(mapDirective("items", "nest.items"))
+                            .append("    NestView map(Nest nest);\n")
+                            .append(mapDirective("name", "item.name"))
+                            .append("    ItemView toView(Item item);\n}\n")
+                            .toString());
+        }
+    },
+
+    // `size` temporal members, each a conversion that composes through the Instant hub rather than a single hop.
+    TEMPORAL("TemporalMapper") {
+        @Override
+        void render(final int size, final Map<String, String> units) {
+            final var sources = new ArrayList<Property>(size);
+            final var targets = new ArrayList<Property>(size);
+            final var mapper = mapperHeader(mapperName());
+            for (var i = 0; i < size; i++) {
+                final var name = "t" + i;
+                sources.add(new Property(name, TEMPORAL_SOURCE_TYPES[i % TEMPORAL_SOURCE_TYPES.length]));
+                targets.add(new Property(name, TEMPORAL_TARGET_TYPES[i % TEMPORAL_TARGET_TYPES.length]));
+                mapper.append(mapDirective(name, "source." + name));
+            }
+            mapper.append("    TemporalTarget map(TemporalSource source);\n}\n");
+            units.put("TemporalSource", sourceBean("TemporalSource", sources));
+            units.put("TemporalTarget", targetBean("TemporalTarget", targets));
+            units.put(mapperName(), mapper.toString());
+        }
+    };
+
+    private static final String[] WIDE_TARGET_TYPES = {"String", "Integer", "long"};
+    private static final String[] TEMPORAL_SOURCE_TYPES = {
+        "java.time.OffsetDateTime", "java.time.ZonedDateTime", "java.util.Date"
+    };
+    private static final String[] TEMPORAL_TARGET_TYPES = {"java.util.Date", "java.util.Date", "java.time.Instant"};
+
+    private final String mapperName;
+
+    Shape(final String mapperName) {
+        this.mapperName = mapperName;
+    }
+
+    public String mapperName() {
+        return mapperName;
+    }
+
+    // Every compilation unit of this shape at size, keyed by simple name, the package-info included.
+    public Map<String, String> units(final int size) {
+        final var units = new LinkedHashMap<String, String>();
+        units.put("package-info", Beans.packageInfo());
+        render(size, units);
+        return units;
+    }
+
+    abstract void render(int size, Map<String, String> units);
+
+    static String nestedList(final String element, final int depth) {
+        return "java.util.List<".repeat(depth) + element + ">".repeat(depth);
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.joke.percolate.benchmarks;
+
+import io.github.joke.percolate.processor.MapperContext;
+import io.github.joke.percolate.processor.StageHarness;
+import io.github.joke.percolate.processor.internal.graph.ExtractedPlan;
+import io.github.joke.percolate.processor.internal.graph.MapperGraph;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+// Average time of the two engine stages that dominate a mapper's cost, isolated from javac and from each other:
+// ExpandStage over an already-discovered context, and ExtractedPlan.extract over an already-expanded graph.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+public class StageBenchmark {
+
+    // Assigned reflectively by JMH, which requires @Param fields non-final.
+    @SuppressWarnings("PMD.ImmutableField")
+    @Param({"wide-50", "wide-500", "deep-16", "methods-100", "lists-4", "temporal-60"})
+    private String shape = "wide-50";
+
+    private StageHarness harness;
+    private MapperContext discovered;
+    private MapperGraph graph;
+
+    @Setup
+    public void setUp() {
+        harness = SyntheticMapper.parse(shape).harness(Map.of());
+        graph = requireNonNull(harness.expanded().getGraph());
+    }
+
+    // Expansion appends its diagnostics and goals to the context it runs over, so every invocation gets a fresh one;
+    // discovery runs here, outside the measurement.
+    @Setup(Level.Invocation)
+    public void discover() {
+        discovered = harness.discovered();
+    }
+
+    @Benchmark
+    public MapperContext expand() {
+        harness.expand(discovered);
+        return discovered;
+    }
+
+    @Benchmark
+    public ExtractedPlan extract() {
+        return ExtractedPlan.extract(graph);
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.joke.percolate.benchmarks;
+
+import io.github.joke.percolate.processor.StageHarness;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaFileObject;
+
+import static java.lang.Integer.parseInt;
+import static java.util.Locale.ROOT;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+// One benchmark workload: a Shape at a size, named by a `<shape>-<size>` spec (e.g. "wide-500") so it fits a single
+// JMH @Param. The compilation units are rendered once, at construction, and shared by every invocation.
+public final class SyntheticMapper {
+
+    private final Shape shape;
+    private final int size;
+    private final List<JavaFileObject> sources;
+
+    public SyntheticMapper(final Shape shape, final int size) {
+        this.shape = shape;
+        this.size = size;
+        this.sources = shape.units(size).entrySet().stream()
+                .map(unit -> new InMemorySource(Beans.PACKAGE, unit.getKey(), unit.getValue()))
+                .collect(toUnmodifiableList());
+    }
+
+    public static SyntheticMapper parse(final String spec) {
+        final var dash = spec.lastIndexOf('-');
+        if (dash < 0) {
+            throw new IllegalArgumentException("expected <shape>-<size>, got " + spec);
+        }
+        return new SyntheticMapper(
+                Shape.valueOf(spec.substring(0, dash).toUpperCase(ROOT)), parseInt(spec.substring(dash + 1)));
+    }
+
+    public List<JavaFileObject> sources() {
+        return sources;
+    }
+
+    public String mapperName() {
+        return Beans.PACKAGE + '.' + shape.mapperName();
+    }
+
+    // The processor's stages over this workload, built with the given -A options, for the stage-level benchmarks.
+    public StageHarness harness(final Map<String, String> options) {
+        return StageHarness.analyze(sources, mapperName(), options);
+    }
+
+    @Override
+    public String toString() {
+        return shape.name().toLowerCase(ROOT) + '-' + size;
+    }
+}
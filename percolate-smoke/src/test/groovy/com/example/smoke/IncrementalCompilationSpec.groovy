@@ -0,0 +1,116 @@
+package com.example.smoke
+
+import org.gradle.testkit.runner.GradleRunner
+import spock.lang.Specification
+import spock.lang.Tag
+import spock.lang.TempDir
+import spock.lang.Timeout
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import static java.util.concurrent.TimeUnit.MINUTES
+
+// Builds a two-mapper project with Gradle TestKit, edits one mapper and builds again. percolate is registered as an
+// isolating processor, so — each generated <Mapper>Impl naming its mapper as originating element — Gradle
+// recompiles only the edited mapper and its implementation, never the other mapper's. The untouched
+// implementation's class file is back-dated after the first build: a second build that rewrote it would show.
+@Tag('integration')
+@Timeout(value = 5, unit = MINUTES)
+class IncrementalCompilationSpec extends Specification {
+
+    static final long BACK_DATED = 1_000_000_000_000L
+
+    @TempDir
+    Path project
+
+    def 'editing one mapper recompiles only that mapper\'s implementation'() {
+        given:
+        write('settings.gradle', "rootProject.name = 'incremental'\n")
+        write('build.gradle', """\
+            plugins {
+                id 'java'
+            }
+            dependencies {
+                annotationProcessor files(${paths('nested.processorPath')})
+                compileOnly files(${paths('nested.compilePath')})
+            }
+            """.stripIndent())
+        write('src/main/java/test/Person.java', model('Person'))
+        write('src/main/java/test/Human.java', model('Human'))
+        write('src/main/java/test/Pet.java', model('Pet'))
+        write('src/main/java/test/Animal.java', model('Animal'))
+        write('src/main/java/test/PersonMapper.java', mapper('PersonMapper', 'Human', 'Person', ''))
+        write('src/main/java/test/PetMapper.java', mapper('PetMapper', 'Animal', 'Pet', ''))
+        build()
+        def personImpl = classFile('PersonMapperImpl')
+        def petImpl = classFile('PetMapperImpl')
+        personImpl.toFile().setLastModified(BACK_DATED)
+        petImpl.toFile().setLastModified(BACK_DATED)
+
+        when:
+        write('src/main/java/test/PersonMapper.java', mapper('PersonMapper', 'Human', 'Person', '// edited'))
+        def result = build()
+
+        then:
+        !result.output.contains('Full recompilation is required')
+        Files.getLastModifiedTime(personImpl).toMillis() != BACK_DATED
+        Files.getLastModifiedTime(petImpl).toMillis() == BACK_DATED
+    }
+
+    private build() {
+        GradleRunner.create()
+                .withProjectDir(project.toFile())
+                .withArguments('compileJava', '--info', '--stacktrace')
+                .build()
+    }
+
+    private Path classFile(final String simpleName) {
+        project.resolve("build/classes/java/main/test/${simpleName}.class")
+    }
+
+    private void write(final String path, final String content) {
+        def file = project.resolve(path)
+        Files.createDirectories(file.parent)
+        Files.writeString(file, content)
+    }
+
+    // The -D<property> path as a Groovy list literal of quoted file names, for a nested build script.
+    private static String paths(final String property) {
+        System.getProperty(property).split(File.pathSeparator).collect { "'${it.replace('\\', '/')}'" }.join(', ')
+    }
+
+    private static String model(final String name) {
+        """\
+        package test;
+
+        public final class ${name} {
+            private final String name;
+
+            public ${name}(final String name) {
+                this.name = name;
+            }
+
+            public String getName() {
+                return name;
+            }
+        }
+        """.stripIndent()
+    }
+
+    private static String mapper(final String name, final String target, final String source, final String comment) {
+        """\
+        package test;
+
+        import io.github.joke.percolate.Map;
+        import io.github.joke.percolate.Mapper;
+
+        @Mapper
+        public interface ${name} {
+            ${comment}
+            @Map(target = "name", source = "source.name")
+            ${target} map(${source} source);
+        }
+        """.stripIndent()
+    }
+}
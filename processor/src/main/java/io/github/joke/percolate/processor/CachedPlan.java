@@ -0,0 +1,12 @@
+package io.github.joke.percolate.processor;
+
+import lombok.Value;
+
+// One mapper's entry in the -Apercolate.cache.dir cache: the fingerprint it was planned under and the implementation
+// it generated — its qualified name and source text.
+@Value
+class CachedPlan {
+    PlanFingerprint fingerprint;
+    String implementation;
+    String source;
+}
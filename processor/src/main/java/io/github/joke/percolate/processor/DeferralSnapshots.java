@@ -0,0 +1,43 @@
+package io.github.joke.percolate.processor;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+
+// What a deferred mapper's run read, kept across rounds so a retry that could only fail the same way is not run
+// (-Apercolate.deferral.snapshots, on by default). The expansion itself cannot be carried into a later round: its
+// MapperGraph holds javac model objects, which go stale (see MapperStep). A snapshot holds strings only — the
+// TypeDigests of every type the run read.
+//
+// A retry re-digests the same names. While every digest is unchanged — no upstream processor generated one of those
+// types or added a member to one — expansion would stop at the same frontier of demands nothing produces, so
+// MapperStep defers the mapper again without running the Pipeline. Any change runs the mapper in full.
+@Singleton
+@RequiredArgsConstructor(onConstructor_ = @Inject)
+final class DeferralSnapshots {
+
+    private final TypeDigests typeDigests;
+    private final ProcessorOptions options;
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: processing rounds run sequentially
+    private final Map<String, Map<String, String>> snapshots = new HashMap<>();
+
+    // Snapshots what ctx's run read, under fqn — the mapper being deferred.
+    void record(final String fqn, final MapperContext ctx) {
+        if (options.isDeferralSnapshots()) {
+            snapshots.put(fqn, typeDigests.digests(typeDigests.namesRead(ctx)));
+        }
+    }
+
+    void forget(final String fqn) {
+        snapshots.remove(fqn);
+    }
+
+    // Whether fqn was deferred with a snapshot that every type it read still matches.
+    boolean unchanged(final String fqn) {
+        final var snapshot = snapshots.get(fqn);
+        return snapshot != null && snapshot.equals(typeDigests.digests(snapshot.keySet()));
+    }
+}
@@ -1,7 +1,11 @@
 package io.github.joke.percolate.processor;
 
+import io.github.joke.percolate.lib.javapoet.JavaFile;
+import io.github.joke.percolate.processor.internal.graph.ExtractedPlan;
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan;
 import io.github.joke.percolate.processor.internal.graph.MapperGraph;
 import io.github.joke.percolate.processor.internal.graph.Scope;
+import io.github.joke.percolate.processor.internal.stats.MapperStatistics;
 import io.github.joke.percolate.processor.model.GoalSpec;
 import io.github.joke.percolate.processor.model.MapperShape;
 import io.github.joke.percolate.processor.model.MethodDirectives;
@@ -12,12 +16,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.lang.model.element.TypeElement;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.jspecify.annotations.Nullable;
 
+import static java.util.Objects.requireNonNull;
 import static lombok.AccessLevel.NONE;
 
 @RequiredArgsConstructor(onConstructor_ = @Inject)
@@ -30,18 +36,72 @@ public final class MapperContext {
     private @Nullable MapperGraph graph;
     private @Nullable CallableMethods callableMethods;
 
+    // The graph's extracted plan, extracted once on first read and shared by every stage after expansion; setting
+    // the graph releases it.
+    @Getter(NONE)
+    @Setter(NONE)
+    private @Nullable ExtractedPlan plan;
+
+    // The extracted plan lowered for realisation, lowered once on first read like the plan itself.
+    @Getter(NONE)
+    @Setter(NONE)
+    private @Nullable LoweredPlan loweredPlan;
+
     // The per-mapper ResolveCtx the expansion driver built, reused by generate for BodyCodegen rendering.
     private @Nullable ResolveCtx resolveCtx;
 
+    // The qualified names of the types on the graph's Values, kept by GenerateStage when it releases the graph:
+    // DeferralSnapshots and PlanCache fingerprint a run by the types it read, after the pipeline has finished.
+    private Set<String> graphTypeNames = Set.of();
+
+    // The implementation AssembleMapperType wrote, and its qualified name, for PlanCache to keep.
+    private @Nullable JavaFile generatedFile;
+    private @Nullable String generatedName;
+
     // Per-method declared-bindings goal specs, keyed by the method's Scope (design D9).
     @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded per-mapper context
     private final Map<Scope, GoalSpec> goalSpecs = new HashMap<>();
 
+    // This run's stage timings and expansion size, written out by MapperStep when -Apercolate.stats is on.
+    private final MapperStatistics statistics = new MapperStatistics();
+
     // Diagnostics collected for this mapper's round, in report order (design D14) — flushed by MapperStep, never
     // eagerly.
     @Getter(NONE)
     private final List<Diagnostic> diagnostics = new ArrayList<>();
 
+    public void setGraph(final @Nullable MapperGraph graph) {
+        this.graph = graph;
+        plan = null;
+        loweredPlan = null;
+    }
+
+    // The current graph's extracted plan, extracted on the first read. Only a context with a graph has one.
+    public ExtractedPlan getPlan() {
+        final var current = graph;
+        if (current == null) {
+            throw new IllegalStateException("no graph to extract a plan from");
+        }
+        var extracted = plan;
+        if (extracted == null) {
+            extracted = ExtractedPlan.extract(current);
+            plan = extracted;
+        }
+        return extracted;
+    }
+
+    // The current graph's plan lowered for realisation, lowered on the first read. Only a context with a graph has
+    // one.
+    public LoweredPlan getLoweredPlan() {
+        var lowered = loweredPlan;
+        if (lowered == null) {
+            final var extracted = getPlan();
+            lowered = LoweredPlan.lower(requireNonNull(graph), extracted);
+            loweredPlan = lowered;
+        }
+        return lowered;
+    }
+
     // Records diagnostic, collected rather than emitted.
     public void report(final Diagnostic diagnostic) {
         diagnostics.add(diagnostic);
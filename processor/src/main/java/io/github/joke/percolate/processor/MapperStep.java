@@ -4,10 +4,16 @@ import com.google.auto.common.BasicAnnotationProcessor.Step;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import io.github.joke.percolate.Mapper;
+import io.github.joke.percolate.processor.internal.stages.expand.TypeQueryCache;
+import io.github.joke.percolate.processor.internal.stats.MapperStatistics;
+import io.github.joke.percolate.processor.internal.stats.RoundStatistics;
+import io.github.joke.percolate.processor.internal.stats.StatisticsWriter;
+import io.github.joke.percolate.processor.nullability.JspecifyNullabilityResolver;
 import io.github.joke.percolate.spi.Subjects;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -17,8 +23,10 @@ import javax.lang.model.util.Elements;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static java.util.Collections.newSetFromMap;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static java.util.stream.Collectors.toUnmodifiableSet;
+import static java.util.stream.Stream.concat;
 
 // The single Step for @Mapper types and the sole round-aware component (stages stay round-agnostic). For each
 // mapper it runs the Pipeline and classifies the outcome:
@@ -36,7 +44,22 @@ import static java.util.stream.Collectors.toUnmodifiableSet;
 // invoked at processingOver).
 //
 // The only cross-round state is .deferred, keyed by fully-qualified name and holding strings only — never
-// elements (which go stale across rounds); the location is re-resolved by name at flush.
+// elements (which go stale across rounds); the location is re-resolved by name at flush. For the same reason every
+// round starts by emptying the TypeQueryCache, whose counters then feed the round's statistics, and the
+// JspecifyNullabilityResolver's memos. With -Apercolate.stats on, each consumed mapper's MapperStatistics is written
+// as it is consumed and the round's summary — deferred attempts included — once its last mapper has run; the round
+// counter is the only other state kept. DeferralSnapshots keeps, for each deferred mapper, string digests of every
+// type its run read: while none has changed, a retry could only fail the same way, so the mapper is deferred again
+// without running the Pipeline. With -Apercolate.cache.dir set, a mapper whose PlanCache entry is current is replayed
+// from it instead of running the Pipeline, and a consumed one is stored.
+//
+// With -Apercolate.parallel.extraction on, a round runs the Pipeline in two halves instead: every mapper is planned
+// first, then the plans are extracted and lowered all at once on the common fork-join pool, then every mapper is
+// realised and classified in turn. Extraction and lowering — which also makes the hoist decision and collects the
+// member requests — read nothing but the mapper's own graph. Planning and the rest of realisation stay on the
+// processing thread, in mapper order, so the output is unchanged: expansion's type queries, the realisation
+// checks, member naming, the codegen walk (type rendering and strategy codegen, over javac mirrors), assembling
+// the type and the Filer write.
 @Singleton
 @RequiredArgsConstructor(onConstructor_ = @Inject)
 final class MapperStep implements Step {
@@ -46,12 +69,20 @@ final class MapperStep implements Step {
     private final Pipeline pipeline;
     private final DiagnosticEmitter diagnosticEmitter;
     private final Elements elements;
+    private final StatisticsWriter statisticsWriter;
+    private final ProcessorOptions options;
+    private final TypeQueryCache typeQueries;
+    private final JspecifyNullabilityResolver nullability;
+    private final DeferralSnapshots snapshots;
+    private final PlanCache planCache;
 
     // Retained by FQN, message text only — never an Element/javax.lang.model.type.TypeMirror, which go stale across
     // rounds (design D14).
     @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: processing rounds run sequentially
     private final Map<String, List<String>> deferred = new HashMap<>();
 
+    private int rounds;
+
     @Override
     public Set<String> annotations() {
         return ImmutableSet.of(MAPPER_FQN);
@@ -59,34 +90,128 @@ final class MapperStep implements Step {
 
     @Override
     public Set<? extends Element> process(final ImmutableSetMultimap<String, Element> elementsByAnnotation) {
-        return elementsByAnnotation.get(MAPPER_FQN).stream()
+        final var round = new RoundStatistics(++rounds, typeQueries.startRound());
+        nullability.startRound();
+        final var mapperTypes = elementsByAnnotation.get(MAPPER_FQN).stream()
                 .filter(TypeElement.class::isInstance)
                 .map(TypeElement.class::cast)
-                .filter(this::processAndShouldDefer)
-                .collect(toUnmodifiableSet());
+                .collect(toUnmodifiableList());
+        final var toDefer = options.isParallelExtraction()
+                ? processPlanningFirst(mapperTypes, round)
+                : mapperTypes.stream()
+                        .filter(mapperType -> processAndShouldDefer(mapperType, round))
+                        .collect(toUnmodifiableSet());
+        writeRoundStatistics(round, mapperTypes);
+        return toDefer;
     }
 
     // Runs the pipeline for one mapper and returns true iff it must be deferred to a later round: a mapper defers
     // iff it recorded at least one error and every recorded error is transient (design D14). Deferring retains only
     // the message text; consuming (whether realised, scarred, or warning-only) flushes every collected diagnostic
-    // immediately.
+    // immediately. A deferred mapper nothing it read has changed for is deferred again, its recorded messages kept.
+    @VisibleForTesting
+    boolean processAndShouldDefer(final TypeElement mapperType, final RoundStatistics round) {
+        return deferredUnchanged(mapperType, round)
+                || shouldDefer(planCache.replay(mapperType).orElseGet(() -> pipeline.process(mapperType)), round);
+    }
+
+    // The whole round's mappers, planned, then extracted in parallel, then realised and classified one by one —
+    // each exactly as processAndShouldDefer would. Returns the mappers to defer.
+    @VisibleForTesting
+    Set<TypeElement> processPlanningFirst(final List<TypeElement> mapperTypes, final RoundStatistics round) {
+        final var unchanged = mapperTypes.stream()
+                .filter(mapperType -> deferredUnchanged(mapperType, round))
+                .collect(toUnmodifiableSet());
+        final var replayed = newSetFromMap(new IdentityHashMap<MapperContext, Boolean>());
+        final var contexts = mapperTypes.stream()
+                .filter(mapperType -> !unchanged.contains(mapperType))
+                .map(mapperType -> planOrReplay(mapperType, replayed))
+                .collect(toUnmodifiableList());
+        contexts.parallelStream()
+                .filter(ctx -> !replayed.contains(ctx) && ctx.getGraph() != null)
+                .forEach(this::extractPlan);
+        final var realised = contexts.stream()
+                .filter(ctx -> shouldDefer(replayed.contains(ctx) ? ctx : pipeline.realise(ctx), round))
+                .map(MapperContext::getMapperType);
+        return concat(unchanged.stream(), realised).collect(toUnmodifiableSet());
+    }
+
+    // mapperType's context replayed from the PlanCache, recorded in replayed, or else planned by the Pipeline.
     @VisibleForTesting
-    boolean processAndShouldDefer(final TypeElement mapperType) {
-        final var ctx = pipeline.process(mapperType);
+    MapperContext planOrReplay(final TypeElement mapperType, final Set<MapperContext> replayed) {
+        final var cached = planCache.replay(mapperType);
+        cached.ifPresent(replayed::add);
+        return cached.orElseGet(() -> pipeline.plan(mapperType));
+    }
+
+    // Extracts and lowers ctx's plan, off the processing thread. An extraction that throws is left undone: the first
+    // realisation stage to read the plan extracts it again and fails the same way, on the processing thread, where
+    // the Pipeline flushes what ctx had collected.
+    @VisibleForTesting
+    @SuppressWarnings("PMD.AvoidCatchingGenericException") // rethrown by the realisation stage that retries it
+    void extractPlan(final MapperContext ctx) {
+        try {
+            ctx.getLoweredPlan();
+        } catch (final RuntimeException ignored) {
+            // retried by the first realisation stage to read the plan
+        }
+    }
+
+    // Whether mapperType was deferred with nothing it read changed since, in which case it is deferred again — its
+    // recorded messages kept — without running at all.
+    @VisibleForTesting
+    boolean deferredUnchanged(final TypeElement mapperType, final RoundStatistics round) {
         final var fqn = mapperType.getQualifiedName().toString();
+        if (!snapshots.unchanged(fqn)) {
+            return false;
+        }
+        round.add(fqn, new MapperStatistics(), true);
+        return true;
+    }
+
+    // Classifies ctx, the mapper's completed run, returning true iff it must be deferred.
+    @VisibleForTesting
+    boolean shouldDefer(final MapperContext ctx, final RoundStatistics round) {
+        final var fqn = ctx.getMapperType().getQualifiedName().toString();
         final var errors = ctx.getDiagnostics().stream()
                 .filter(diagnostic -> diagnostic.getSeverity() == Diagnostic.Severity.ERROR)
                 .collect(toUnmodifiableList());
 
         if (!errors.isEmpty() && errors.stream().noneMatch(Diagnostic::isPermanent)) {
             deferred.put(fqn, errors.stream().map(Diagnostic::getMessage).collect(toUnmodifiableList()));
+            round.add(fqn, ctx.getStatistics(), true);
+            snapshots.record(fqn, ctx);
             return true;
         }
         deferred.remove(fqn);
-        diagnosticEmitter.flush(mapperType, ctx.getDiagnostics());
+        snapshots.forget(fqn);
+        planCache.store(ctx);
+        round.add(fqn, ctx.getStatistics(), false);
+        writeMapperStatistics(ctx);
+        diagnosticEmitter.flush(ctx.getMapperType(), ctx.getDiagnostics());
         return false;
     }
 
+    // Writes a consumed mapper's figures when -Apercolate.stats is on, reporting a failed write on ctx so it is
+    // flushed with the mapper's other diagnostics.
+    @VisibleForTesting
+    void writeMapperStatistics(final MapperContext ctx) {
+        if (options.isStats()) {
+            statisticsWriter.writeMapper(ctx.getMapperType(), ctx.getStatistics()).ifPresent(ctx::report);
+        }
+    }
+
+    // Writes the round summary when -Apercolate.stats is on and the round ran any mapper; a failed write is
+    // reported on the round's first mapper.
+    @VisibleForTesting
+    void writeRoundStatistics(final RoundStatistics round, final List<TypeElement> mapperTypes) {
+        if (options.isStats() && !round.isEmpty()) {
+            statisticsWriter
+                    .writeRound(round, mapperTypes)
+                    .ifPresent(failure -> diagnosticEmitter.flush(mapperTypes.get(0), List.of(failure)));
+        }
+    }
+
     // Emits the recorded no plan diagnostic for every mapper still deferred when processing ends, re-resolving each
     // location by name. Invoked from PercolateProcessor.postRound on the final round, because
     // BasicAnnotationProcessor does not invoke a Step at processingOver.
@@ -12,17 +12,28 @@ import org.jetbrains.annotations.VisibleForTesting;
 import org.jspecify.annotations.Nullable;
 
 import static io.github.joke.percolate.processor.DaggerProcessorComponent.factory;
+import static io.github.joke.percolate.processor.ProcessorOptions.BINDING_BUDGET;
+import static io.github.joke.percolate.processor.ProcessorOptions.CACHE_DIR;
+import static io.github.joke.percolate.processor.ProcessorOptions.CHILD_PLANS_SHARED;
+import static io.github.joke.percolate.processor.ProcessorOptions.CHILD_PLAN_HELPERS;
 import static io.github.joke.percolate.processor.ProcessorOptions.CLASSES_FINAL;
+import static io.github.joke.percolate.processor.ProcessorOptions.COLLECTIONS_STYLE;
 import static io.github.joke.percolate.processor.ProcessorOptions.CONSTRUCTION_PREFERENCE;
 import static io.github.joke.percolate.processor.ProcessorOptions.DEBUG_GRAPHS;
+import static io.github.joke.percolate.processor.ProcessorOptions.DEFERRAL_SNAPSHOTS;
+import static io.github.joke.percolate.processor.ProcessorOptions.DEMAND_BUDGET;
 import static io.github.joke.percolate.processor.ProcessorOptions.DOC_TAGS;
+import static io.github.joke.percolate.processor.ProcessorOptions.EXPANSION_BOUNDED;
 import static io.github.joke.percolate.processor.ProcessorOptions.LOCALS_FINAL;
 import static io.github.joke.percolate.processor.ProcessorOptions.LOCALS_VAR;
 import static io.github.joke.percolate.processor.ProcessorOptions.METHODS_FINAL;
 import static io.github.joke.percolate.processor.ProcessorOptions.NULLABLE_ANNOTATIONS;
+import static io.github.joke.percolate.processor.ProcessorOptions.PARALLEL_EXTRACTION;
 import static io.github.joke.percolate.processor.ProcessorOptions.PARAMETERS_FINAL;
+import static io.github.joke.percolate.processor.ProcessorOptions.STATS;
 import static io.github.joke.percolate.processor.ProcessorOptions.SWITCH_STYLE;
 import static io.github.joke.percolate.processor.ProcessorOptions.TIME_ZONE;
+import static io.github.joke.percolate.processor.ProcessorOptions.VERTEX_BUDGET;
 import static java.util.Objects.requireNonNull;
 import static javax.lang.model.SourceVersion.latestSupported;
 
@@ -50,7 +61,18 @@ public final class PercolateProcessor extends BasicAnnotationProcessor {
                 DOC_TAGS,
                 TIME_ZONE,
                 SWITCH_STYLE,
-                CONSTRUCTION_PREFERENCE);
+                COLLECTIONS_STYLE,
+                CONSTRUCTION_PREFERENCE,
+                STATS,
+                EXPANSION_BOUNDED,
+                VERTEX_BUDGET,
+                DEMAND_BUDGET,
+                BINDING_BUDGET,
+                CHILD_PLANS_SHARED,
+                CHILD_PLAN_HELPERS,
+                DEFERRAL_SNAPSHOTS,
+                CACHE_DIR,
+                PARALLEL_EXTRACTION);
     }
 
     @Override
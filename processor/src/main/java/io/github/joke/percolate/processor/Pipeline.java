@@ -2,34 +2,76 @@ package io.github.joke.percolate.processor;
 
 import io.github.joke.percolate.processor.internal.stages.Stage;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import java.util.List;
 import javax.lang.model.element.TypeElement;
 import lombok.EqualsAndHashCode;
-import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
-@RequiredArgsConstructor(onConstructor_ = @Inject)
+import static java.lang.System.nanoTime;
+
+// The stages, in two halves: planning (discovery, validation, expansion) builds a mapper's graph, realisation
+// (the outcome checks, dumps and generation) reads its extracted plan. MapperStep runs them back to back per
+// mapper, or — with -Apercolate.parallel.extraction — plans a round's mappers first, extracts every plan at once,
+// then realises each.
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 final class Pipeline {
 
-    private final List<Stage> stages;
+    private final List<Stage> planning;
+    private final List<Stage> realisation;
     private final DiagnosticEmitter diagnosticEmitter;
 
-    // Runs every stage for element. A stage throwing mid-pipeline would otherwise lose whatever diagnostics were
-    // already collected on ctx (design D14) — the finally flushes them in that case only, leaving the normal, non-
-    // throwing path's emit-or-defer decision to MapperStep.
+    // Written out because the two stage lists are told apart by qualifier, which Lombok does not copy onto a
+    // generated constructor's parameters.
+    @Inject
+    Pipeline(
+            @Named("planning") final List<Stage> planning,
+            @Named("realisation") final List<Stage> realisation,
+            final DiagnosticEmitter diagnosticEmitter) {
+        this.planning = planning;
+        this.realisation = realisation;
+        this.diagnosticEmitter = diagnosticEmitter;
+    }
+
+    // Runs every stage for element.
     @VisibleForTesting
     MapperContext process(final TypeElement element) {
-        final var ctx = new MapperContext(element);
+        return realise(plan(element));
+    }
+
+    // Runs the planning stages for element on a fresh context.
+    @VisibleForTesting
+    MapperContext plan(final TypeElement element) {
+        return run(planning, new MapperContext(element));
+    }
+
+    // Runs the realisation stages on ctx, which the planning stages have run on.
+    @VisibleForTesting
+    MapperContext realise(final MapperContext ctx) {
+        return run(realisation, ctx);
+    }
+
+    // Runs stages on ctx, timing each onto ctx's MapperStatistics. A stage throwing mid-pipeline would otherwise
+    // lose whatever diagnostics were already collected on ctx (design D14) — the finally flushes them in that case
+    // only, leaving the normal, non-throwing path's emit-or-defer decision to MapperStep.
+    @VisibleForTesting
+    MapperContext run(final List<Stage> stages, final MapperContext ctx) {
         var completed = false;
         try {
-            stages.forEach(s -> s.run(ctx));
+            stages.forEach(stage -> runTimed(stage, ctx));
             completed = true;
             return ctx;
         } finally {
             if (!completed) {
-                diagnosticEmitter.flush(element, ctx.getDiagnostics());
+                diagnosticEmitter.flush(ctx.getMapperType(), ctx.getDiagnostics());
             }
         }
     }
+
+    @VisibleForTesting
+    void runTimed(final Stage stage, final MapperContext ctx) {
+        final var start = nanoTime();
+        stage.run(ctx);
+        ctx.getStatistics().recordStage(stage.getClass().getSimpleName(), nanoTime() - start);
+    }
 }
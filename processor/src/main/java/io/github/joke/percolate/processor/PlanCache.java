@@ -0,0 +1,208 @@
+package io.github.joke.percolate.processor;
+
+import io.github.joke.percolate.spi.DirectiveReader;
+import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.SourceProjection;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.processing.Filer;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.jspecify.annotations.Nullable;
+
+import static io.github.joke.percolate.processor.Diagnostic.error;
+import static io.github.joke.percolate.processor.Diagnostic.warning;
+import static io.github.joke.percolate.processor.ProcessorOptions.CACHE_DIR;
+import static io.github.joke.percolate.spi.Subjects.none;
+import static java.lang.System.nanoTime;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.stream.Collectors.joining;
+
+// A cache of generated mapper implementations on disk, for builds that recompile a whole module every time (Maven,
+// Bazel) and so re-plan every mapper (-Apercolate.cache.dir=<directory>, off unless set). Each consumed mapper that
+// generated cleanly — no diagnostic at all — is kept as one CachedPlan file, <mapper FQN>.plan, under the
+// PlanFingerprint it was planned under. A later compilation replays it through the Filer instead of running the
+// Pipeline when the mapper's fingerprint, taken afresh, is equal; any difference is a miss and the mapper is planned
+// as usual, its entry then overwritten.
+//
+// The extracted plan itself cannot be kept: its Operations' codegen closes over javac model objects, which do not
+// outlive a compilation. What is kept is what the plan rendered to, which is exactly what a hit needs. An entry
+// that cannot be read — absent, truncated, another FORMAT — is a miss; one that cannot be written is a warning.
+// Under -Apercolate.debug.graphs every mapper is a miss: the graphs to dump exist only when the mapper is planned.
+@Singleton
+@RequiredArgsConstructor(onConstructor_ = @Inject)
+final class PlanCache {
+
+    static final int FORMAT = 1;
+    static final String EXTENSION = ".plan";
+    static final String STAGE = "PlanCache";
+
+    private final TypeDigests typeDigests;
+    private final ProcessorOptions options;
+    private final Filer filer;
+    private final SourceVersion sourceVersion;
+    private final List<ExpansionStrategy> strategies;
+    private final List<SourceProjection> projections;
+    private final List<DirectiveReader> directiveReaders;
+
+    private @Nullable String environment;
+
+    // The context of replaying mapperType's cached implementation, when it has a current one: nothing recorded, or
+    // the permanent error of a failed write. Empty on a miss, and always when the cache is off or graphs are dumped.
+    Optional<MapperContext> replay(final TypeElement mapperType) {
+        if (options.getCacheDir().isEmpty() || options.isDebugGraphs()) {
+            return Optional.empty();
+        }
+        final var start = nanoTime();
+        return read(entryOf(mapperType.getQualifiedName().toString()))
+                .filter(this::current)
+                .map(plan -> emit(mapperType, plan, start));
+    }
+
+    // Keeps ctx's generated implementation under the fingerprint of the run that generated it. A mapper that
+    // generated nothing, or recorded any diagnostic — a warning's only record is its report — is not kept.
+    void store(final MapperContext ctx) {
+        final var generated = ctx.getGeneratedFile();
+        final var implementation = ctx.getGeneratedName();
+        if (options.getCacheDir().isEmpty()
+                || generated == null
+                || implementation == null
+                || !ctx.getDiagnostics().isEmpty()) {
+            return;
+        }
+        final var fqn = ctx.getMapperType().getQualifiedName().toString();
+        final var fingerprint = new PlanFingerprint(environment(), typeDigests.digests(typeDigests.namesRead(ctx)));
+        try {
+            write(entryOf(fqn), new CachedPlan(fingerprint, implementation, generated.toString()));
+        } catch (final IOException e) {
+            ctx.report(warning(none(), "Failed to write plan cache entry for " + fqn + ": " + e.getMessage()));
+        }
+    }
+
+    // Whether plan was planned under the fingerprint its mapper has now.
+    @VisibleForTesting
+    boolean current(final CachedPlan plan) {
+        final var fingerprint = plan.getFingerprint();
+        return fingerprint.getEnvironment().equals(environment())
+                && fingerprint.getTypeDigests().equals(typeDigests.digests(fingerprint.getTypeDigests().keySet()));
+    }
+
+    @VisibleForTesting
+    MapperContext emit(final TypeElement mapperType, final CachedPlan plan, final long start) {
+        final var ctx = new MapperContext(mapperType);
+        try (var writer = filer.createSourceFile(plan.getImplementation(), mapperType).openWriter()) {
+            writer.write(plan.getSource());
+        } catch (final IOException e) {
+            ctx.report(error(none(), "code generation failed: " + e.getMessage()).asPermanent());
+        }
+        ctx.getStatistics().recordStage(STAGE, nanoTime() - start);
+        return ctx;
+    }
+
+    @VisibleForTesting
+    Path entryOf(final String fqn) {
+        return Paths.get(options.getCacheDir()).resolve(fqn + EXTENSION);
+    }
+
+    // Reads the entry at path, empty when there is none or it is not in this FORMAT.
+    @VisibleForTesting
+    Optional<CachedPlan> read(final Path path) {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (var in = new DataInputStream(new GZIPInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FORMAT) {
+                return Optional.empty();
+            }
+            final var planned = in.readUTF();
+            final var digests = new TreeMap<String, String>();
+            for (int remaining = in.readInt(); remaining > 0; remaining--) {
+                digests.put(in.readUTF(), in.readUTF());
+            }
+            final var implementation = in.readUTF();
+            final var source = new String(in.readNBytes(in.readInt()), UTF_8);
+            return Optional.of(new CachedPlan(new PlanFingerprint(planned, digests), implementation, source));
+        } catch (final IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Writes plan to path through a sibling temporary file moved into place, so a reader never sees half an entry.
+    @VisibleForTesting
+    void write(final Path path, final CachedPlan plan) throws IOException {
+        Files.createDirectories(path.getParent());
+        final var partial = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".partial");
+        try (var out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(partial)))) {
+            out.writeInt(FORMAT);
+            out.writeUTF(plan.getFingerprint().getEnvironment());
+            out.writeInt(plan.getFingerprint().getTypeDigests().size());
+            for (final var digest : plan.getFingerprint().getTypeDigests().entrySet()) {
+                out.writeUTF(digest.getKey());
+                out.writeUTF(digest.getValue());
+            }
+            out.writeUTF(plan.getImplementation());
+            final var source = plan.getSource().getBytes(UTF_8);
+            out.writeInt(source.length);
+            out.write(source);
+        }
+        Files.move(partial, path, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    // A digest of everything besides the types read that a plan is a function of: the percolate options but the
+    // cache directory, the source version the bodies were rendered for (switch expressions only from 14 on), and the
+    // processor and every discovered extension — by class, jar version and jar file.
+    @VisibleForTesting
+    String environment() {
+        var current = environment;
+        if (current == null) {
+            final var settings = new TreeMap<>(options.getRaw());
+            settings.keySet().removeIf(key -> !key.startsWith("percolate.") || CACHE_DIR.equals(key));
+            final var components = Stream.of(List.of(this), strategies, projections, directiveReaders)
+                    .flatMap(List::stream)
+                    .map(component -> origin(component.getClass()))
+                    .collect(joining("\n"));
+            final var digested = FORMAT + "\n" + settings + "\n" + sourceVersion + "\n" + components;
+            current = UUID.nameUUIDFromBytes(digested.getBytes(UTF_8)).toString();
+            environment = current;
+        }
+        return current;
+    }
+
+    // type's name, its package's Implementation-Version and — when it was loaded from a jar — that jar's size and
+    // modification time, so a rebuilt snapshot jar counts as a different version.
+    @VisibleForTesting
+    String origin(final Class<?> type) {
+        final var pkg = type.getPackage();
+        final var origin = type.getName() + " " + (pkg == null ? null : pkg.getImplementationVersion());
+        final var source = type.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            return origin;
+        }
+        try {
+            final var jar = Paths.get(source.getLocation().toURI());
+            return Files.isRegularFile(jar)
+                    ? origin + " " + jar + " " + Files.size(jar) + " " + Files.getLastModifiedTime(jar)
+                    : origin + " " + jar;
+        } catch (final URISyntaxException | IllegalArgumentException | IOException e) {
+            return origin + " " + source.getLocation();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.joke.percolate.processor;
+
+import java.util.Map;
+import lombok.Value;
+
+// What a cached plan was a function of: the environment it was planned in — the processor, every ServiceLoader-
+// discovered extension and its version, the percolate options — and the TypeDigests of every type the run read. A
+// cached plan is replayed only onto a mapper whose fingerprint, taken now, is equal.
+@Value
+class PlanFingerprint {
+    String environment;
+    Map<String, String> typeDigests;
+}
@@ -1,7 +1,10 @@
 package io.github.joke.percolate.processor;
 
 import dagger.Component;
+import io.github.joke.percolate.processor.internal.stages.Stage;
+import io.github.joke.percolate.processor.internal.stages.generate.BuildMethodBodies;
 import jakarta.inject.Singleton;
+import java.util.List;
 
 @Singleton
 @Component(modules = ProcessorModule.class)
@@ -9,6 +12,12 @@ interface ProcessorComponent {
 
     MapperStep mapperStep();
 
+    // The stage list and the body builder on their own, for the StageHarness test fixture the stage-level benchmarks
+    // drive, which runs one stage at a time instead of a whole MapperStep round.
+    List<Stage> stages();
+
+    BuildMethodBodies buildMethodBodies();
+
     @Component.Factory
     interface Factory {
         ProcessorComponent create(ProcessorModule processorModule);
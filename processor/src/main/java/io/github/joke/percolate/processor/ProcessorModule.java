@@ -10,6 +10,8 @@ import io.github.joke.percolate.processor.internal.stages.dump.DumpFullGraphStag
 import io.github.joke.percolate.processor.internal.stages.dump.DumpPlanStage;
 import io.github.joke.percolate.processor.internal.stages.dump.DumpTransformsStage;
 import io.github.joke.percolate.processor.internal.stages.expand.ExpandStage;
+import io.github.joke.percolate.processor.internal.stages.expand.StrategyIndex;
+import io.github.joke.percolate.processor.internal.stages.expand.TypeQueryCache;
 import io.github.joke.percolate.processor.internal.stages.generate.GenerateStage;
 import io.github.joke.percolate.processor.internal.stages.validate.RealisationDiagnosticsStage;
 import io.github.joke.percolate.processor.internal.stages.validate.ValidateNoDuplicateTargetsStage;
@@ -117,13 +119,14 @@ public final class ProcessorModule {
     @VisibleForTesting
     @Provides
     ExpandStage expandStage(
-            final List<ExpansionStrategy> strategies,
+            final StrategyIndex strategies,
             final List<SourceProjection> projections,
             final Types types,
             final Elements elements,
             final NullabilityResolver nullabilityResolver,
-            final ProcessorOptions options) {
-        return new ExpandStage(strategies, projections, types, elements, nullabilityResolver, options);
+            final ProcessorOptions options,
+            final TypeQueryCache typeQueries) {
+        return new ExpandStage(strategies, projections, types, elements, nullabilityResolver, options, typeQueries);
     }
 
     @VisibleForTesting
@@ -138,33 +141,45 @@ public final class ProcessorModule {
 
     @VisibleForTesting
     @Provides
-    @SuppressWarnings("PMD.ExcessiveParameterList")
-    static List<Stage> stages(
+    @Named("planning")
+    static List<Stage> planningStages(
             @Named("discover") final List<Stage> discoverStages,
             final ValidateNoDuplicateTargetsStage validateNoDuplicateTargets,
             final ValidateSourceParametersStage validateSourceParameters,
-            final ExpandStage expandStage,
+            final ExpandStage expandStage) {
+        return concat(
+                        discoverStages.stream(),
+                        Stream.<Stage>of(validateNoDuplicateTargets, validateSourceParameters, expandStage))
+                .collect(toUnmodifiableList());
+    }
+
+    // Realisation outcome is computed before the Filer-writing stages (dumps, generate) so they can skip a deferred
+    // round and write each artifact once.
+    @VisibleForTesting
+    @Provides
+    @Named("realisation")
+    static List<Stage> realisationStages(
+            final ValidateOptionConsumptionStage validateOptionConsumption,
+            final RealisationDiagnosticsStage realisationDiagnostics,
             final DumpFullGraphStage dumpFullGraph,
             final DumpTransformsStage dumpTransforms,
             final DumpPlanStage dumpPlan,
-            final ValidateOptionConsumptionStage validateOptionConsumption,
-            final RealisationDiagnosticsStage realisationDiagnostics,
             final GenerateStage generateStage) {
-        return concat(
-                        discoverStages.stream(),
-                        Stream.<Stage>of(
-                                validateNoDuplicateTargets,
-                                validateSourceParameters,
-                                expandStage,
-                                // Realisation outcome is computed before the Filer-writing stages (dumps,
-                                // generate) so they can skip a deferred round and write each artifact once.
-                                validateOptionConsumption,
-                                realisationDiagnostics,
-                                dumpFullGraph,
-                                dumpTransforms,
-                                dumpPlan,
-                                generateStage))
-                .collect(toUnmodifiableList());
+        return List.of(
+                validateOptionConsumption,
+                realisationDiagnostics,
+                dumpFullGraph,
+                dumpTransforms,
+                dumpPlan,
+                generateStage);
+    }
+
+    // Every stage, planning then realisation, as one list.
+    @VisibleForTesting
+    @Provides
+    static List<Stage> stages(
+            @Named("planning") final List<Stage> planning, @Named("realisation") final List<Stage> realisation) {
+        return concat(planning.stream(), realisation.stream()).collect(toUnmodifiableList());
     }
 
     // The single ExpansionStrategy list, loaded once and tried as one round each pass (no kind-ordering). Ordered
@@ -182,6 +197,15 @@ public final class ProcessorModule {
                 .collect(toUnmodifiableList());
     }
 
+    // The dispatch index over that same list, built once from each strategy's declared Applicability so a demand
+    // consults only the strategies that could answer it.
+    @VisibleForTesting
+    @Singleton
+    @Provides
+    static StrategyIndex strategyIndex(final List<ExpansionStrategy> strategies) {
+        return new StrategyIndex(strategies);
+    }
+
     // The DirectiveReader list (design D7 of change decouple-engine-from-strategy-semantics), loaded once via
     // ServiceLoader exactly as ExpansionStrategy is; ordered by FQN for deterministic discovery.
     @VisibleForTesting
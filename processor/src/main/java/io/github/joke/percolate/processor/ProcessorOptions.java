@@ -21,7 +21,18 @@ public class ProcessorOptions {
     public static final String DOC_TAGS = "percolate.docTags";
     public static final String TIME_ZONE = "percolate.time.zone";
     public static final String SWITCH_STYLE = "percolate.switch.style";
+    public static final String COLLECTIONS_STYLE = "percolate.collections.style";
     public static final String CONSTRUCTION_PREFERENCE = "percolate.construction.preference";
+    public static final String STATS = "percolate.stats";
+    public static final String EXPANSION_BOUNDED = "percolate.expansion.bounded";
+    public static final String VERTEX_BUDGET = "percolate.budget.vertices";
+    public static final String DEMAND_BUDGET = "percolate.budget.demands";
+    public static final String BINDING_BUDGET = "percolate.budget.bindings";
+    public static final String CHILD_PLANS_SHARED = "percolate.childPlans.shared";
+    public static final String CHILD_PLAN_HELPERS = "percolate.childPlans.helpers";
+    public static final String DEFERRAL_SNAPSHOTS = "percolate.deferral.snapshots";
+    public static final String CACHE_DIR = "percolate.cache.dir";
+    public static final String PARALLEL_EXTRACTION = "percolate.parallel.extraction";
 
     boolean debugGraphs;
     Set<String> customNullableAnnotations;
@@ -31,6 +42,26 @@ public class ProcessorOptions {
     boolean methodsFinal;
     boolean classesFinal;
     boolean docTags;
+    boolean stats;
+    boolean expansionBounded;
+
+    // Per-mapper expansion limits, and the bindings one spec may ground to; 0 means unlimited.
+    int vertexBudget;
+    int demandBudget;
+    int bindingBudget;
+
+    // Repeated element mappings: one shared plan (on unless set to false), optionally rendered as a helper method.
+    boolean childPlansShared;
+    boolean childPlanHelpers;
+
+    // A deferred mapper's retry is skipped while nothing it read has changed (on unless set to false).
+    boolean deferralSnapshots;
+
+    // The directory generated implementations are cached in across compilations; empty means no cache.
+    String cacheDir;
+
+    // Each round's mappers have their plans extracted in parallel between expansion and realisation (off unless set).
+    boolean parallelExtraction;
 
     // The raw -A option map, carried verbatim so the per-mapper ResolveCtx can answer ResolveCtx.option(key) for
     // any declared key without a per-feature field (change add-builder-assembly). The typed fields above exist
@@ -48,6 +79,16 @@ public class ProcessorOptions {
             final boolean methodsFinal,
             final boolean classesFinal,
             final boolean docTags,
+            final boolean stats,
+            final boolean expansionBounded,
+            final int vertexBudget,
+            final int demandBudget,
+            final int bindingBudget,
+            final boolean childPlansShared,
+            final boolean childPlanHelpers,
+            final boolean deferralSnapshots,
+            final String cacheDir,
+            final boolean parallelExtraction,
             final Map<String, String> raw) {
         this.debugGraphs = debugGraphs;
         this.customNullableAnnotations = Set.copyOf(customNullableAnnotations);
@@ -57,6 +98,16 @@ public class ProcessorOptions {
         this.methodsFinal = methodsFinal;
         this.classesFinal = classesFinal;
         this.docTags = docTags;
+        this.stats = stats;
+        this.expansionBounded = expansionBounded;
+        this.vertexBudget = vertexBudget;
+        this.demandBudget = demandBudget;
+        this.bindingBudget = bindingBudget;
+        this.childPlansShared = childPlansShared;
+        this.childPlanHelpers = childPlanHelpers;
+        this.deferralSnapshots = deferralSnapshots;
+        this.cacheDir = cacheDir;
+        this.parallelExtraction = parallelExtraction;
         this.raw = Map.copyOf(raw);
     }
 }
@@ -6,14 +6,26 @@ import java.util.Set;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.processor.ProcessorOptions.BINDING_BUDGET;
+import static io.github.joke.percolate.processor.ProcessorOptions.CACHE_DIR;
+import static io.github.joke.percolate.processor.ProcessorOptions.CHILD_PLANS_SHARED;
+import static io.github.joke.percolate.processor.ProcessorOptions.CHILD_PLAN_HELPERS;
 import static io.github.joke.percolate.processor.ProcessorOptions.CLASSES_FINAL;
 import static io.github.joke.percolate.processor.ProcessorOptions.DEBUG_GRAPHS;
+import static io.github.joke.percolate.processor.ProcessorOptions.DEFERRAL_SNAPSHOTS;
+import static io.github.joke.percolate.processor.ProcessorOptions.DEMAND_BUDGET;
 import static io.github.joke.percolate.processor.ProcessorOptions.DOC_TAGS;
+import static io.github.joke.percolate.processor.ProcessorOptions.EXPANSION_BOUNDED;
 import static io.github.joke.percolate.processor.ProcessorOptions.LOCALS_FINAL;
 import static io.github.joke.percolate.processor.ProcessorOptions.LOCALS_VAR;
 import static io.github.joke.percolate.processor.ProcessorOptions.METHODS_FINAL;
 import static io.github.joke.percolate.processor.ProcessorOptions.NULLABLE_ANNOTATIONS;
+import static io.github.joke.percolate.processor.ProcessorOptions.PARALLEL_EXTRACTION;
 import static io.github.joke.percolate.processor.ProcessorOptions.PARAMETERS_FINAL;
+import static io.github.joke.percolate.processor.ProcessorOptions.STATS;
+import static io.github.joke.percolate.processor.ProcessorOptions.VERTEX_BUDGET;
+import static java.lang.Integer.parseInt;
+import static java.lang.Math.max;
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
@@ -38,6 +50,16 @@ public class ProcessorOptionsReader {
                 .methodsFinal(flag(options, METHODS_FINAL))
                 .classesFinal(flag(options, CLASSES_FINAL))
                 .docTags(flag(options, DOC_TAGS))
+                .stats(flag(options, STATS))
+                .expansionBounded(flag(options, EXPANSION_BOUNDED))
+                .vertexBudget(budget(options, VERTEX_BUDGET))
+                .demandBudget(budget(options, DEMAND_BUDGET))
+                .bindingBudget(budget(options, BINDING_BUDGET))
+                .childPlansShared(unlessOff(options, CHILD_PLANS_SHARED))
+                .childPlanHelpers(flag(options, CHILD_PLAN_HELPERS))
+                .deferralSnapshots(unlessOff(options, DEFERRAL_SNAPSHOTS))
+                .cacheDir(options.getOrDefault(CACHE_DIR, "").trim())
+                .parallelExtraction(flag(options, PARALLEL_EXTRACTION))
                 .raw(options)
                 .build();
     }
@@ -52,8 +74,24 @@ public class ProcessorOptionsReader {
         return stream(raw.split(",")).filter(segment -> !segment.isEmpty()).collect(toUnmodifiableSet());
     }
 
+    // A positive whole-number limit; absent, zero, negative or unparsable all mean 0, unlimited.
+    @VisibleForTesting
+    int budget(final Map<String, String> options, final String key) {
+        try {
+            return max(0, parseInt(options.getOrDefault(key, "0").trim()));
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+
     @VisibleForTesting
     boolean flag(final Map<String, String> options, final String key) {
         return "true".equalsIgnoreCase(options.getOrDefault(key, "false"));
     }
+
+    // A flag that is on unless explicitly set to false.
+    @VisibleForTesting
+    boolean unlessOff(final Map<String, String> options, final String key) {
+        return !"false".equalsIgnoreCase(options.getOrDefault(key, "true"));
+    }
 }
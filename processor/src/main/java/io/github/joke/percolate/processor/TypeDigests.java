@@ -0,0 +1,92 @@
+package io.github.joke.percolate.processor;
+
+import io.github.joke.percolate.processor.internal.graph.TypeNames;
+import io.github.joke.percolate.processor.internal.stages.expand.TypeQueryCache;
+import jakarta.inject.Inject;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+// Fingerprints the types a mapper's run read, in strings only, so the fingerprint can be kept past the round — or
+// the compilation — its mirrors belong to. A type's digest covers what expansion could have read of it: its
+// supertypes, its own annotations and those of every element enclosing it — outer classes however deep, the
+// package and the module, each a scope a @NullMarked or @NullUnmarked is resolved over — and every member's kind,
+// modifiers, annotations and signature, a method's parameter names and annotations included. A name that does not
+// resolve digests to ABSENT, so a type that appears later changes the digest too.
+//
+// The types a run read are the mapper itself, every type in an abstract method's signature or on the graph's Values
+// (type arguments and array components included) and every name a strategy looked up that round
+// (TypeQueryCache.namesAsked — the whole round's, a superset of this mapper's, so conservative).
+@RequiredArgsConstructor(onConstructor_ = @Inject)
+final class TypeDigests {
+
+    static final String ABSENT = "absent";
+
+    private final TypeQueryCache typeQueries;
+
+    // The qualified names of every type ctx's run read.
+    Set<String> namesRead(final MapperContext ctx) {
+        final var names = new TreeSet<String>();
+        names.add(ctx.getMapperType().getQualifiedName().toString());
+        names.addAll(typeQueries.namesAsked());
+        names.addAll(ctx.getGraphTypeNames());
+        final var shape = ctx.getShape();
+        if (shape != null) {
+            shape.getAbstractMethods().forEach(method -> {
+                TypeNames.collect(method.getReturnType(), names);
+                method.getParameters().forEach(parameter -> TypeNames.collect(parameter.asType(), names));
+            });
+        }
+        return names;
+    }
+
+    // Each of names with its digest as this round sees it, in name order.
+    Map<String, String> digests(final Set<String> names) {
+        final var digests = new TreeMap<String, String>();
+        names.forEach(name -> digests.put(name, digest(name)));
+        return digests;
+    }
+
+    @VisibleForTesting
+    String digest(final String name) {
+        final var element = typeQueries.typeElementNamed(name);
+        if (element == null) {
+            return ABSENT;
+        }
+        final var shape = element.asType() + " " + element.getSuperclass() + " " + element.getInterfaces() + " "
+                + element.getAnnotationMirrors() + " " + enclosingAnnotations(element)
+                + "\n" + typeQueries.membersOf(element).stream().map(this::signature).collect(joining("\n"));
+        return UUID.nameUUIDFromBytes(shape.getBytes(UTF_8)).toString();
+    }
+
+    // The annotations of every element enclosing element, innermost first, up to and including its module.
+    @VisibleForTesting
+    String enclosingAnnotations(final Element element) {
+        return Stream.iterate(element.getEnclosingElement(), Objects::nonNull, Element::getEnclosingElement)
+                .map(enclosing -> enclosing.getKind() + " " + enclosing.getAnnotationMirrors())
+                .collect(joining(" "));
+    }
+
+    @VisibleForTesting
+    String signature(final Element member) {
+        final var signature = member.getKind() + " " + member.getModifiers() + " " + member.getAnnotationMirrors() + " "
+                + member.getSimpleName() + " " + member.asType();
+        if (member instanceof ExecutableElement) {
+            return signature + ((ExecutableElement) member).getParameters().stream()
+                    .map(parameter -> parameter.getAnnotationMirrors() + " " + parameter.getSimpleName())
+                    .collect(joining(", ", " (", ")"));
+        }
+        return signature;
+    }
+}
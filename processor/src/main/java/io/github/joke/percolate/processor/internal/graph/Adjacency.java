@@ -0,0 +1,216 @@
+package io.github.joke.percolate.processor.internal.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+
+// MapperGraph's topology as append-only primitive arrays: every vertex and every Dep gets a slot, the next free int,
+// in the order it lands, and each vertex's inbound and outbound Deps are threaded through the edge arrays as singly
+// linked lists (a per-vertex first/last edge, a per-edge next edge). A vertex or Dep records its own slot as it lands
+// (GraphVertex.slot, Dep.slot), so every lookup is an array index: no map keyed by vertex or Dep, and no boxed slot.
+// The graph never removes a vertex or an edge, so no slot is ever freed and a list only ever grows at its tail —
+// nothing here is a JGraphT container, which would allocate an edge wrapper, a map entry and two edge sets per vertex
+// for the same topology.
+//
+// A vertex's inbound list is kept in source-slot order. Vertices land before the Deps touching them and an Operation
+// lands after every earlier one, so that is an append for a graph built through MapperGraph.apply — a Value's
+// producers therefore come out in Operation.getSeq() order — and an ordered insert only for one assembled by hand.
+final class Adjacency {
+
+    static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<GraphVertex> vertices = new ArrayList<>();
+    private final List<Dep> deps = new ArrayList<>();
+
+    // Per vertex slot: the first and last Dep of its inbound and outbound lists, NONE when empty.
+    private int[] firstIn = empty();
+    private int[] lastIn = empty();
+    private int[] firstOut = empty();
+    private int[] lastOut = empty();
+
+    // Per Dep slot: its endpoints' vertex slots and the next Dep of its target's inbound and source's outbound list.
+    private int[] sources = empty();
+    private int[] targets = empty();
+    private int[] nextIn = empty();
+    private int[] nextOut = empty();
+
+    // Adds vertex in the next free slot; a vertex already present keeps the slot it has. A vertex landed in another
+    // graph is rejected by GraphVertex.landAt.
+    void addVertex(final GraphVertex vertex) {
+        if (holds(vertex)) {
+            return;
+        }
+        final var slot = vertices.size();
+        if (slot == firstIn.length) {
+            final var capacity = slot * 2;
+            firstIn = grow(firstIn, capacity);
+            lastIn = grow(lastIn, capacity);
+            firstOut = grow(firstOut, capacity);
+            lastOut = grow(lastOut, capacity);
+        }
+        vertex.landAt(slot);
+        vertices.add(vertex);
+    }
+
+    // Adds dep from from to to, both already present; a Dep already present is left where it is.
+    void addEdge(final GraphVertex from, final GraphVertex to, final Dep dep) {
+        if (holds(dep)) {
+            return;
+        }
+        final var source = slotOf(from);
+        final var target = slotOf(to);
+        final var edge = deps.size();
+        if (edge == sources.length) {
+            final var capacity = edge * 2;
+            sources = grow(sources, capacity);
+            targets = grow(targets, capacity);
+            nextIn = grow(nextIn, capacity);
+            nextOut = grow(nextOut, capacity);
+        }
+        dep.landAt(edge);
+        deps.add(dep);
+        sources[edge] = source;
+        targets[edge] = target;
+        linkOut(source, edge);
+        linkIn(target, edge);
+    }
+
+    @VisibleForTesting
+    void linkOut(final int vertex, final int edge) {
+        if (lastOut[vertex] == NONE) {
+            firstOut[vertex] = edge;
+        } else {
+            nextOut[lastOut[vertex]] = edge;
+        }
+        lastOut[vertex] = edge;
+    }
+
+    // Threads edge into vertex's inbound list at its source-slot position: after the tail in every graph built
+    // through MapperGraph.apply, before the first later-landed source in one assembled by hand.
+    @VisibleForTesting
+    void linkIn(final int vertex, final int edge) {
+        final var tail = lastIn[vertex];
+        if (tail == NONE) {
+            firstIn[vertex] = edge;
+            lastIn[vertex] = edge;
+            return;
+        }
+        if (sources[tail] <= sources[edge]) {
+            nextIn[tail] = edge;
+            lastIn[vertex] = edge;
+            return;
+        }
+        var before = NONE;
+        var at = firstIn[vertex];
+        while (sources[at] <= sources[edge]) {
+            before = at;
+            at = nextIn[at];
+        }
+        nextIn[edge] = at;
+        if (before == NONE) {
+            firstIn[vertex] = edge;
+        } else {
+            nextIn[before] = edge;
+        }
+    }
+
+    // The slot vertex landed in.
+    int slotOf(final GraphVertex vertex) {
+        if (!holds(vertex)) {
+            throw new IllegalArgumentException("no such vertex: " + vertex.id());
+        }
+        return vertex.slot();
+    }
+
+    // The slot dep landed in.
+    int edgeOf(final Dep dep) {
+        if (!holds(dep)) {
+            throw new IllegalArgumentException("no such edge: " + dep);
+        }
+        return dep.slot();
+    }
+
+    // Whether vertex landed here: the slot it records holds it.
+    @VisibleForTesting
+    boolean holds(final GraphVertex vertex) {
+        final var slot = vertex.slot();
+        return slot >= 0 && slot < vertices.size() && vertices.get(slot).equals(vertex);
+    }
+
+    @VisibleForTesting
+    boolean holds(final Dep dep) {
+        final var edge = dep.slot();
+        return edge >= 0 && edge < deps.size() && deps.get(edge).equals(dep);
+    }
+
+    int vertexCount() {
+        return vertices.size();
+    }
+
+    int edgeCount() {
+        return deps.size();
+    }
+
+    GraphVertex vertex(final int slot) {
+        return vertices.get(slot);
+    }
+
+    Dep dep(final int edge) {
+        return deps.get(edge);
+    }
+
+    // The first Dep into vertex slot, or NONE; walk on with .nextIn.
+    int firstIn(final int slot) {
+        return firstIn[slot];
+    }
+
+    int nextIn(final int edge) {
+        return nextIn[edge];
+    }
+
+    // The first Dep out of vertex slot, or NONE; walk on with .nextOut.
+    int firstOut(final int slot) {
+        return firstOut[slot];
+    }
+
+    int nextOut(final int edge) {
+        return nextOut[edge];
+    }
+
+    int source(final int edge) {
+        return sources[edge];
+    }
+
+    int target(final int edge) {
+        return targets[edge];
+    }
+
+    // Every vertex in landing order.
+    List<GraphVertex> vertices() {
+        return vertices;
+    }
+
+    // Every Dep in landing order.
+    List<Dep> deps() {
+        return deps;
+    }
+
+    @VisibleForTesting
+    static int[] empty() {
+        final var slots = new int[INITIAL_CAPACITY];
+        fill(slots, NONE);
+        return slots;
+    }
+
+    @VisibleForTesting
+    static int[] grow(final int[] slots, final int capacity) {
+        final var grown = copyOf(slots, capacity);
+        fill(grown, slots.length, capacity, NONE);
+        return grown;
+    }
+}
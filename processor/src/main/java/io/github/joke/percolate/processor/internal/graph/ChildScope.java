@@ -1,5 +1,7 @@
 package io.github.joke.percolate.processor.internal.graph;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.VisibleForTesting;
@@ -17,12 +19,17 @@ import static java.util.Objects.requireNonNull;
 // is materialised lazily only if the child plan sources from it — an element mapped to a constant never mints
 // one — while its binding (the lambda variable) is still emitted from the declaration. Both are set exactly
 // once.
+//
+// A child scope may instead share the plan of an earlier, identical one (MapperGraph.sharePlan): its own return
+// root is then never demanded, and extraction and code generation read the donor's plan through .getPlanScope.
 public final class ChildScope implements Scope {
 
     private final Operation owner;
     private final Scope parentScope;
+    private final List<ChildScope> sharers = new ArrayList<>();
     private @Nullable Value returnRoot;
     private @Nullable InputDecl elementInput;
+    private @Nullable ChildScope donor;
 
     ChildScope(final Operation owner, final Scope parentScope) {
         this.owner = owner;
@@ -43,6 +50,21 @@ public final class ChildScope implements Scope {
         return requireNonNull(elementInput, "child scope roots are minted when the owning Operation lands");
     }
 
+    // The scope whose plan maps this scope's elements: the donor whose plan it shares, else itself.
+    public ChildScope getPlanScope() {
+        return donor == null ? this : donor;
+    }
+
+    // The return root of the plan mapping this scope's elements — the plan scope's.
+    public Value getPlanRoot() {
+        return getPlanScope().getReturnRoot();
+    }
+
+    // The child scopes sharing this one's plan, in the order they were recorded.
+    public Stream<ChildScope> sharers() {
+        return sharers.stream();
+    }
+
     @VisibleForTesting
     void initialise(final Value newReturnRoot, final InputDecl newElementInput) {
         if (returnRoot != null || elementInput != null) {
@@ -52,6 +74,17 @@ public final class ChildScope implements Scope {
         this.elementInput = newElementInput;
     }
 
+    // Records this scope as sharing planDonor's plan. A donor never shares another's plan itself, so every sharer
+    // reads its plan in one step.
+    @VisibleForTesting
+    void share(final ChildScope planDonor) {
+        if (donor != null || planDonor.donor != null || planDonor.equals(this)) {
+            throw new IllegalStateException("a child scope shares the plan of one unshared child scope, once");
+        }
+        this.donor = planDonor;
+        planDonor.sharers.add(this);
+    }
+
     // The single element input declaration — already resolved, set when the owning Operation lands.
     @Override
     public Stream<InputDecl> inputDecls() {
@@ -40,6 +40,11 @@ public final class Cost implements Comparable<Cost> {
         return new Cost(false, partials, weight);
     }
 
+    // A single production's own cost, before its inputs': one partial if it is partial, and its weight.
+    public static Cost own(final boolean partial, final int weight) {
+        return finite(partial ? 1 : 0, weight);
+    }
+
     public boolean isReachable() {
         return !infinite;
     }
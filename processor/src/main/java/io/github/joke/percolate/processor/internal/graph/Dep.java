@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.ToString;
 
 import static java.lang.System.identityHashCode;
+import static lombok.AccessLevel.NONE;
 
 // A pure dependency edge of the bipartite graph — payload only, carrying no endpoints (topology is maintained
 // solely by the graph and supplied at mutation time). A Dep into an Operation carries the .portId it feeds; a
@@ -19,6 +20,11 @@ public final class Dep {
 
     private final Optional<String> portId;
 
+    // The slot the graph landed this Dep in, -1 until it lands: its index into the graph's edge arrays.
+    @Getter(NONE)
+    @ToString.Exclude
+    private int landedAt = -1;
+
     private Dep(final Optional<String> portId) {
         this.portId = portId;
     }
@@ -33,6 +39,18 @@ public final class Dep {
         return new Dep(Optional.empty());
     }
 
+    int slot() {
+        return landedAt;
+    }
+
+    // Records the slot the graph landed this Dep in. Graph-only, once per Dep.
+    void landAt(final int landed) {
+        if (landedAt != -1) {
+            throw new IllegalStateException("Dep already landed: " + this);
+        }
+        this.landedAt = landed;
+    }
+
     @Override
     public boolean equals(final Object o) {
         return this == o;
@@ -1,27 +1,47 @@
 package io.github.joke.percolate.processor.internal.graph;
 
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import static io.github.joke.percolate.processor.internal.graph.Cost.INFINITE;
 import static io.github.joke.percolate.processor.internal.graph.Cost.ZERO;
-import static io.github.joke.percolate.processor.internal.graph.Cost.finite;
+import static io.github.joke.percolate.processor.internal.graph.Cost.own;
 import static io.github.joke.percolate.processor.internal.graph.Location.Role.LEAF;
+import static java.util.stream.Collectors.toUnmodifiableList;
 
 // The read-only extracted plan (design D1/D8): a single chosenProducer per in-plan Value, selected by one
-// bottom-up minimum-cost-hyperpath fold over the bipartite graph. Cost is the lexicographic vector (partials,
-// weight): cost(Value) is the min (⊕) over its producers, and cost(Operation) is its own Cost combined (⊗,
-// Cost.plus) with the sum over its port Values and the child return-root. Totality therefore dominates weight
-// by construction, and a partial producer is chosen only when no total one is reachable; ties break on the
-// graph-assigned seq (creation order), compared numerically — never on Operation.id(), whose seq substring
-// compares lexicographically and silently inverts across a digit-count boundary (e.g. "op9" > "op10") — for
-// compilation-stable selection. The one fold subsumes satisfaction — a vertex is reachable iff its cost is
-// finite (there is no separate SAT pass). Losing producers remain in the underlying graph, unselected; this
-// view never mutates it.
-// IdentityHashMap is the point: every memo here is keyed by vertex instance identity, not value equality.
+// minimum-cost-hyperpath pass over the bipartite graph. Cost is the lexicographic vector (partials, weight):
+// cost(Value) is the min (⊕) over its producers, and cost(Operation) is its own Cost combined (⊗, Cost.plus) with
+// the sum over its port Values and the child return-root. Totality therefore dominates weight by construction, and
+// a partial producer is chosen only when no total one is reachable; ties break on the graph-assigned seq (creation
+// order), compared numerically — never on Operation.id(), whose seq substring compares lexicographically and
+// silently inverts across a digit-count boundary (e.g. "op9" > "op10") — for compilation-stable selection. The one
+// pass subsumes satisfaction — a vertex is reachable iff its cost is finite (there is no separate SAT pass). Losing
+// producers remain in the underlying graph, unselected; this view never mutates it.
+//
+// The pass is Knuth's generalisation of Dijkstra to AND/OR graphs, run eagerly and iteratively by .solve: supply
+// roots start at ZERO, a vertex is settled in ascending Cost order off a priority queue, and an Operation is
+// offered only once every input (each port edge, and the child return-root) has settled. Weights are never
+// negative, so ⊗ never makes a cost cheaper than its inputs and a settled cost is final — whichever order the graph
+// was built in, and however deep a conversion chain runs, since nothing recurses. A cycle no supply root feeds never
+// settles: it stays INFINITE. A child scope sharing another's plan (ChildScope.getPlanScope) is costed through the
+// donor's return root, which — once settled — offers every sharing owner as well as its own.
+//
+// A Value's chosen producer must have settled before the Value last did. Whatever made the Value's Cost did, and
+// an Operation that consumes the Value, directly or round a cycle, only settles after it — so a zero-weight cycle
+// tying on Cost, or a fallback LEAF whose producers are reachable only through the LEAF itself, never selects a
+// producer that depends on the Value it produces.
+// IdentityHashMap is the point: every map here is keyed by vertex instance identity, not value equality.
 @SuppressWarnings({"PMD.UseConcurrentHashMap", "IdentityHashMapUsage"})
 public final class ExtractedPlan {
 
@@ -29,20 +49,32 @@ public final class ExtractedPlan {
 
     private final Map<Value, Operation> chosen = new IdentityHashMap<>();
 
-    private final Map<Value, Cost> valueCost = new IdentityHashMap<>();
+    // The best Cost found so far per vertex — final once the vertex is settled; absent means INFINITE.
+    private final Map<GraphVertex, Cost> costs = new IdentityHashMap<>();
 
-    private final Map<Operation, Cost> operationCost = new IdentityHashMap<>();
+    // Per Operation, the inputs (port edges plus any child return-root) not yet settled.
+    private final Map<Operation, Integer> pending = new IdentityHashMap<>();
+
+    // When each settled vertex last settled, as a running count — the order .cheapestProducer checks candidates by.
+    private final Map<GraphVertex, Long> settledAt = new IdentityHashMap<>();
+
+    private final Queue<Offer> queue = new PriorityQueue<>();
+
+    private long offers;
+
+    private long settles;
 
     private ExtractedPlan(final MapperGraph graph) {
         this.graph = graph;
     }
 
     // Extracts the plan, rooted at every reachable seeded method return root (the graph's recorded roots, not every
-    // Value at the empty-path location). Child element plans flow from there through .walk's child-scope recursion,
+    // Value at the empty-path location). Child element plans flow from there through .walk's child-scope descent,
     // so a same-location conversion way-point (a Stream<E> minted while producing a List<E> root) participates only
     // as a producer's port, never as an independent root.
     public static ExtractedPlan extract(final MapperGraph graph) {
         final var plan = new ExtractedPlan(graph);
+        plan.solve();
         graph.returnRoots().filter(plan::reachable).forEach(plan::walk);
         return plan;
     }
@@ -59,63 +91,169 @@ public final class ExtractedPlan {
 
     // The extraction Cost of value (finite ⇒ reachable).
     public Cost cost(final Value value) {
-        final var memo = valueCost.get(value);
-        if (memo != null) {
-            return memo;
-        }
-        valueCost.put(value, INFINITE); // cycle guard: a not-yet-resolved value is unreachable
-        final var cost = cheapestProducer(value).map(this::cost).orElseGet(() -> isBaseCase(value) ? ZERO : INFINITE);
-        valueCost.put(value, cost);
-        return cost;
+        return costOf(value);
+    }
+
+    @VisibleForTesting
+    Cost cost(final Operation operation) {
+        return costOf(operation);
     }
 
     @VisibleForTesting
     Cost costOf(final GraphVertex vertex) {
-        return vertex instanceof Value ? cost((Value) vertex) : cost((Operation) vertex);
+        return costs.getOrDefault(vertex, INFINITE);
     }
 
+    // Settles every reachable vertex. Producerless LEAF Values (parameter and element roots) seed the queue at ZERO
+    // and zero-input Operations at their own Cost. A LEAF Value that does have producers is a base case only when
+    // none of them turns out reachable (.isBaseCase), which is known once the queue drains — so such Values are
+    // seeded at ZERO then, and the pass resumes from them.
     @VisibleForTesting
-    void walk(final Value value) {
-        if (chosen.containsKey(value)) {
+    void solve() {
+        graph.verticesInLandingOrder().forEach(this::seed);
+        drain();
+        var fallbacks = unreachableBaseCases();
+        while (!fallbacks.isEmpty()) {
+            fallbacks.forEach(value -> offer(value, ZERO));
+            drain();
+            fallbacks = unreachableBaseCases();
+        }
+    }
+
+    // The LEAF Values left unreachable, in landing order.
+    @VisibleForTesting
+    List<Value> unreachableBaseCases() {
+        return graph.verticesInLandingOrder()
+                .filter(Value.class::isInstance)
+                .map(Value.class::cast)
+                .filter(value -> isBaseCase(value) && !reachable(value))
+                .collect(toUnmodifiableList());
+    }
+
+    @VisibleForTesting
+    void seed(final GraphVertex vertex) {
+        if (vertex instanceof Value) {
+            final var value = (Value) vertex;
+            if (isBaseCase(value) && graph.producersOf(value).findAny().isEmpty()) {
+                offer(value, ZERO);
+            }
             return;
         }
-        final var producer = cheapestProducer(value);
-        if (producer.isEmpty()) {
+        final var operation = (Operation) vertex;
+        final var ports = (int) graph.portSourcesOf(operation).count();
+        final var inputs = ports + (operation.getChildScope().isPresent() ? 1 : 0);
+        pending.put(operation, inputs);
+        if (inputs == 0) {
+            offer(operation, combined(operation));
+        }
+    }
+
+    // Settles queued vertices in ascending Cost order until none is left. An offer outbid since it was queued is
+    // stale and skipped.
+    @VisibleForTesting
+    void drain() {
+        while (!queue.isEmpty()) {
+            final var next = queue.poll();
+            if (next.getCost().compareTo(costOf(next.getVertex())) <= 0) {
+                settle(next.getVertex());
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void settle(final GraphVertex vertex) {
+        final var first = settledAt.put(vertex, settles) == null;
+        settles++;
+        if (vertex instanceof Operation) {
+            final var operation = (Operation) vertex;
+            graph.outputOf(operation).ifPresent(output -> offer(output, costOf(operation)));
             return;
         }
-        chosen.put(value, producer.get());
-        graph.portSourcesOf(producer.get()).forEach(this::walk);
-        producer.get().getChildScope().ifPresent(child -> walk(child.getReturnRoot()));
+        final var value = (Value) vertex;
+        graph.consumersOf(value).forEach(consumer -> inputSettled(consumer, first));
+        if (value.getScope() instanceof ChildScope) {
+            final var child = (ChildScope) value.getScope();
+            if (child.getReturnRoot().equals(value)) {
+                inputSettled(child.getOwner(), first);
+                child.sharers().forEach(sharer -> inputSettled(sharer.getOwner(), first));
+            }
+        }
+    }
+
+    // One of operation's inputs has settled: the first time, one fewer is pending; once none is, operation is offered
+    // at the sum over its inputs' Costs. An input settling again (only a fallback LEAF Value resuming the pass can
+    // make that happen) re-offers the sum, which .offer keeps only if it is cheaper.
+    @VisibleForTesting
+    void inputSettled(final Operation operation, final boolean first) {
+        final var remaining = pending.getOrDefault(operation, 0) - (first ? 1 : 0);
+        pending.put(operation, remaining);
+        if (remaining == 0) {
+            offer(operation, combined(operation));
+        }
+    }
+
+    // operation's Cost from its inputs' current Costs: its own, plus every port Value's, plus its child plan root's.
+    @VisibleForTesting
+    Cost combined(final Operation operation) {
+        final var ports = graph.portSourcesOf(operation).map(this::costOf).reduce(ZERO, Cost::plus);
+        final var child = operation
+                .getChildScope()
+                .map(scope -> costOf(scope.getPlanRoot()))
+                .orElse(ZERO);
+        return own(operation.isPartial(), operation.getWeight()).plus(ports).plus(child);
+    }
+
+    // Queues vertex at cost when that beats the best Cost found for it so far.
+    @VisibleForTesting
+    void offer(final GraphVertex vertex, final Cost cost) {
+        if (cost.compareTo(costOf(vertex)) < 0) {
+            costs.put(vertex, cost);
+            queue.add(new Offer(cost, offers, vertex));
+            offers++;
+        }
+    }
+
+    // Records the chosen producer of value and of every Value its plan reaches — port sources and child
+    // return-roots — depth-first off an explicit stack, so a deep plan never deepens the call stack.
+    @VisibleForTesting
+    void walk(final Value value) {
+        final var stack = new ArrayDeque<Value>();
+        stack.push(value);
+        while (!stack.isEmpty()) {
+            final var next = stack.pop();
+            if (!chosen.containsKey(next)) {
+                cheapestProducer(next).ifPresent(producer -> choose(next, producer, stack));
+            }
+        }
+    }
+
+    // Records producer as value's chosen producer and stacks the Values it consumes for .walk.
+    @VisibleForTesting
+    void choose(final Value value, final Operation producer, final Deque<Value> stack) {
+        chosen.put(value, producer);
+        producer.getChildScope().ifPresent(child -> stack.push(child.getPlanRoot()));
+        graph.portSourcesOf(producer).forEach(stack::push);
     }
 
     // The chosen producer of value: the reachable producer of least Cost (totality dominating weight by the vector
-    // order), with Operation.getSeq() the deterministic, numeric tie-break. Empty when the value has no reachable
-    // producer (so an all-unreachable Value falls back to its base case in .cost).
+    // order), with Operation.getSeq() the deterministic, numeric tie-break, among those that settled before value
+    // did — never one depending on value itself. Empty when the value has no such producer: a LEAF that fell back to
+    // its base case in .solve is a supply root, whichever of its producers became reachable through it.
     // Comparator.comparing needs an explicit type witness here, which a static import cannot carry.
     @VisibleForTesting
     @SuppressWarnings("PMD.UseStaticImports")
     Optional<Operation> cheapestProducer(final Value value) {
+        final var settledBy = settledAt(value);
         return graph.producersOf(value)
-                .filter(operation -> cost(operation).isReachable())
+                .filter(this::reachable)
+                .filter(producer -> settledAt(producer) < settledBy)
                 .min(Comparator.<Operation, Cost>comparing(this::cost).thenComparingInt(Operation::getSeq));
     }
 
+    // When vertex last settled; never, for one that did not.
     @VisibleForTesting
-    Cost cost(final Operation operation) {
-        final var memo = operationCost.get(operation);
-        if (memo != null) {
-            return memo;
-        }
-        operationCost.put(operation, INFINITE);
-        final var own = finite(operation.isPartial() ? 1 : 0, operation.getWeight());
-        final var ports = graph.portSourcesOf(operation).map(this::cost).reduce(ZERO, Cost::plus);
-        final var child = operation
-                .getChildScope()
-                .map(scope -> cost(scope.getReturnRoot()))
-                .orElse(ZERO);
-        final var cost = own.plus(ports).plus(child);
-        operationCost.put(operation, cost);
-        return cost;
+    long settledAt(final GraphVertex vertex) {
+        return settledAt.getOrDefault(vertex, Long.MAX_VALUE);
     }
 
     // A producerless Value is a base case (cost ZERO) only when it is a LEAF — a parameter root or a container
@@ -125,4 +263,20 @@ public final class ExtractedPlan {
     boolean isBaseCase(final Value value) {
         return value.getLoc().role() == LEAF;
     }
+
+    // A queued vertex at the Cost it was offered at, ordered by Cost and then by offer order, so equal-Cost vertices
+    // settle first-offered first. (Not a Lombok @Value — the name is taken by the graph's own Value.)
+    @Getter
+    @RequiredArgsConstructor
+    static final class Offer implements Comparable<Offer> {
+        private final Cost cost;
+        private final long order;
+        private final GraphVertex vertex;
+
+        @Override
+        public int compareTo(final Offer other) {
+            final var byCost = cost.compareTo(other.cost);
+            return byCost != 0 ? byCost : Long.compare(order, other.order);
+        }
+    }
 }
@@ -11,4 +11,11 @@ public interface GraphVertex {
 
     // A deterministic identifier used for stable ordering and rendering, never for equality.
     String id();
+
+    // The slot the graph landed this vertex in — its index into the graph's adjacency arrays, handed out in landing
+    // order — or -1 while it has not landed.
+    int slot();
+
+    // Records the slot the graph landed this vertex in. Graph-only, once per vertex.
+    void landAt(int slot);
 }
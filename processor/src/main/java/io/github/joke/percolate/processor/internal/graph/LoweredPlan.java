@@ -0,0 +1,211 @@
+package io.github.joke.percolate.processor.internal.graph;
+
+import io.github.joke.percolate.spi.LoopCodegen;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static java.util.Collections.newSetFromMap;
+import static java.util.Comparator.comparing;
+
+// The ExtractedPlan lowered, once, into the linear form realisation reads (.lower). Every scope the plan reaches
+// becomes a schedule: its produced Values in dependency order — each after every Value its chosen producer's ports
+// consume — with the scope's return root last. Every in-plan Operation carries its operands, the port sources
+// resolved by port name. Each Value carries its hoist flag: a Value with a chosen producer that feeds a port of an
+// n-ary Operation (getPorts().size() >= 2 — a multi-argument assembly call) or more than one in-plan port
+// materialises as a named local. So does a Value a LoopCodegen Operation produces — it is declared, then filled by
+// statements — and that Operation's source, which the loop reads twice (to presize, then to iterate).
+//
+// Every in-plan Operation's MemberRequests are filed under their dedup key, in Operation.id() order, for
+// MemberPlanFactory to settle and name.
+//
+// Hoisting, member planning, the option-consumption check and code generation all read this one lowering instead
+// of each walking the plan through the MapperGraph's adjacency on its own, and it is the place a further pass over
+// the plan would read and annotate. The walk mirrors the plan's: port sources within a scope, and a scope-owning
+// Operation's child plan (the donor's, for a child scope sharing another's plan) scheduled as a scope of its own.
+// Dep edges never cross a scope boundary, so a schedule holds only its own scope's Values. Read-only once built;
+// the graph and the plan are never mutated. Lowering reads nothing but the graph and the plan, so under
+// -Apercolate.parallel.extraction it runs off the processing thread, right after extraction.
+// IdentityHashMap is the point: every map here is keyed by vertex instance identity, not value equality.
+@SuppressWarnings({"PMD.UseConcurrentHashMap", "IdentityHashMapUsage"})
+public final class LoweredPlan {
+
+    private static final int NARY = 2;
+
+    private final ExtractedPlan plan;
+
+    // Every in-plan Operation, in the order the lowering first reached it, with its port sources by port name in
+    // declared port order. A port with no source edge has no entry.
+    private final Map<Operation, Map<String, Value>> operands = new LinkedHashMap<>();
+
+    // Each reached scope's schedule. Keys are identity-equal scopes, as in MapperGraph.
+    private final Map<Scope, List<Value>> schedules = new HashMap<>();
+
+    // How many in-plan ports consume each Value, and which of them feed a port that needs a named operand: an n-ary
+    // Operation's or a loop's.
+    private final Map<Value, Integer> consumers = new IdentityHashMap<>();
+    private final Set<Value> feedsNamed = newSetFromMap(new IdentityHashMap<>());
+
+    private final Set<Value> hoisted = newSetFromMap(new IdentityHashMap<>());
+
+    // Keys in the order first requested.
+    private final Map<String, List<RequestedMember>> memberRequests = new LinkedHashMap<>();
+
+    private LoweredPlan(final ExtractedPlan plan) {
+        this.plan = plan;
+    }
+
+    // Lowers plan from every seeded method return root of graph, child plans included.
+    public static LoweredPlan lower(final MapperGraph graph, final ExtractedPlan plan) {
+        final var lowered = new LoweredPlan(plan);
+        graph.returnRoots().forEach(root -> lowered.scheduleScope(graph, root));
+        lowered.consumers.forEach(lowered::flagHoisted);
+        lowered.operations().sorted(comparing(Operation::id)).forEach(lowered::fileMemberRequests);
+        return lowered;
+    }
+
+    // The chosen producer of value in the plan, or empty when it is a leaf (a supply root).
+    public Optional<Operation> chosenProducer(final Value value) {
+        return plan.chosenProducer(value);
+    }
+
+    // Every in-plan Operation, in the order the lowering first reached it.
+    public Stream<Operation> operations() {
+        return operands.keySet().stream();
+    }
+
+    // The Value feeding operation's named port, or empty when no such port edge exists or operation is not in the
+    // plan.
+    public Optional<Value> portSource(final Operation operation, final String portId) {
+        return Optional.ofNullable(operands.getOrDefault(operation, Map.of()).get(portId));
+    }
+
+    // All Values feeding operation's ports, in declared port order; none when operation is not in the plan.
+    public Stream<Value> portSourcesOf(final Operation operation) {
+        return operands.getOrDefault(operation, Map.of()).values().stream();
+    }
+
+    // The schedule of root's scope: its produced Values in dependency order, root last. Empty when the plan does not
+    // reach the scope.
+    public List<Value> schedule(final Value root) {
+        return schedules.getOrDefault(root.getScope(), List.of());
+    }
+
+    // Whether value materialises as a named local.
+    public boolean isHoisted(final Value value) {
+        return hoisted.contains(value);
+    }
+
+    // Every in-plan Operation's MemberRequests by dedup key, each key's in Operation.id() order.
+    public Map<String, List<RequestedMember>> memberRequests() {
+        return memberRequests;
+    }
+
+    // Every Operation the plan reaches from value — its chosen producer, the producers of what that consumes, and
+    // their child plans' — each once, in the order first reached.
+    public Set<Operation> operationsFrom(final Value value) {
+        final var reached = newSetFromMap(new LinkedHashMap<Operation, Boolean>());
+        collectFrom(value, reached, newSetFromMap(new IdentityHashMap<>()));
+        return reached;
+    }
+
+    @VisibleForTesting
+    void collectFrom(final Value value, final Set<Operation> reached, final Set<Value> seen) {
+        if (!seen.add(value)) {
+            return;
+        }
+        chosenProducer(value).filter(reached::add).ifPresent(producer -> descendFrom(producer, reached, seen));
+    }
+
+    // Recurses into everything producer consumes: each port source, and its child plan's root.
+    @VisibleForTesting
+    void descendFrom(final Operation producer, final Set<Operation> reached, final Set<Value> seen) {
+        portSourcesOf(producer).forEach(source -> collectFrom(source, reached, seen));
+        producer.getChildScope().ifPresent(child -> collectFrom(child.getPlanRoot(), reached, seen));
+    }
+
+    // Schedules root's scope from root, unless an earlier root already scheduled it.
+    @VisibleForTesting
+    void scheduleScope(final MapperGraph graph, final Value root) {
+        if (schedules.containsKey(root.getScope())) {
+            return;
+        }
+        final var schedule = new ArrayList<Value>();
+        schedules.put(root.getScope(), schedule);
+        scheduleFrom(graph, root, schedule, newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    // Appends value to schedule after everything its chosen producer consumes; a leaf is not scheduled.
+    @VisibleForTesting
+    void scheduleFrom(final MapperGraph graph, final Value value, final List<Value> schedule, final Set<Value> seen) {
+        if (!seen.add(value)) {
+            return;
+        }
+        chosenProducer(value).ifPresent(producer -> scheduleProduced(graph, value, producer, schedule, seen));
+    }
+
+    // Schedules what producer consumes, then value; producer's child plan is scheduled as a scope of its own. A
+    // loop's value is hoisted whether or not anything consumes it.
+    @VisibleForTesting
+    void scheduleProduced(
+            final MapperGraph graph,
+            final Value value,
+            final Operation producer,
+            final List<Value> schedule,
+            final Set<Value> seen) {
+        lowerOperation(graph, producer).values().forEach(source -> scheduleFrom(graph, source, schedule, seen));
+        producer.getChildScope().ifPresent(child -> scheduleScope(graph, child.getPlanRoot()));
+        if (producer.getCodegen() instanceof LoopCodegen) {
+            hoisted.add(value);
+        }
+        schedule.add(value);
+    }
+
+    // operation's operands, resolved from graph and tallied the first time operation is reached.
+    @VisibleForTesting
+    Map<String, Value> lowerOperation(final MapperGraph graph, final Operation operation) {
+        final var existing = operands.get(operation);
+        if (existing != null) {
+            return existing;
+        }
+        final var byPort = new LinkedHashMap<String, Value>();
+        operation.getPorts().forEach(port -> graph.portSource(operation, port.getName())
+                .ifPresent(source -> byPort.put(port.getName(), source)));
+        operands.put(operation, byPort);
+        final var named = operation.getPorts().size() >= NARY || operation.getCodegen() instanceof LoopCodegen;
+        byPort.values().forEach(source -> tallyConsumer(source, named));
+        return byPort;
+    }
+
+    // Counts one more port consuming source, and records it when its consumer needs it named.
+    @VisibleForTesting
+    void tallyConsumer(final Value source, final boolean named) {
+        consumers.merge(source, 1, Integer::sum);
+        if (named) {
+            feedsNamed.add(source);
+        }
+    }
+
+    // Flags value hoisted when it has a chosen producer and feeds an n-ary op, a loop, or more than one port.
+    @VisibleForTesting
+    void flagHoisted(final Value value, final int count) {
+        if (chosenProducer(value).isPresent() && (feedsNamed.contains(value) || count > 1)) {
+            hoisted.add(value);
+        }
+    }
+
+    // Files each of operation's MemberRequests under its dedup key.
+    @VisibleForTesting
+    void fileMemberRequests(final Operation operation) {
+        operation.getMemberRequests().forEach(request -> memberRequests
+                .computeIfAbsent(request.getDedupKey(), key -> new ArrayList<>())
+                .add(new RequestedMember(operation, request)));
+    }
+}
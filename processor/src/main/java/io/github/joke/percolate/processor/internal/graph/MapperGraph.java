@@ -1,39 +1,48 @@
 package io.github.joke.percolate.processor.internal.graph;
 
 import io.github.joke.percolate.spi.Nullability;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.lang.model.type.TypeMirror;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
-import org.jgrapht.Graph;
-import org.jgrapht.graph.AsUnmodifiableGraph;
-import org.jgrapht.graph.DirectedMultigraph;
-import org.jgrapht.graph.MaskSubgraph;
 
+import static io.github.joke.percolate.processor.internal.graph.Adjacency.NONE;
 import static io.github.joke.percolate.processor.internal.graph.Dep.port;
 import static io.github.joke.percolate.processor.internal.graph.Visibility.LOCAL;
+import static java.lang.Math.min;
 import static java.util.Comparator.comparing;
+import static java.util.stream.IntStream.iterate;
 import static java.util.stream.Collectors.toUnmodifiableList;
 
-// The bipartite resolution graph: a single JGraphT DirectedMultigraph of GraphVertex (Value / Operation)
-// connected by pure Dep dependency edges. It is append-only after construction — vertices and edges are never
-// removed; plan selection is a read-only view, not a mutation. It owns the (scope, location, type, nullness)
-// Value dedup index (.valueFor), applies the AddValue/AddOperation deltas (Applier-only during expansion),
-// holds the memoized SAT predicate, and exposes scope-confined MaskSubgraph views.
-@NoArgsConstructor
+// The bipartite resolution graph: GraphVertex (Value / Operation) connected by pure Dep dependency edges, stored
+// as compact Adjacency arrays indexed by each vertex's landing slot. It is append-only after construction — vertices
+// and edges are never removed; plan selection is a read-only view, not a mutation. It owns the (scope, location,
+// type, nullness) Value dedup index (.valueFor) and applies the AddValue/AddOperation deltas (Applier-only during
+// expansion).
+@RequiredArgsConstructor
 public final class MapperGraph {
 
-    private final DirectedMultigraph<GraphVertex, Dep> bipartite = new DirectedMultigraph<>(Dep.class);
+    // The interner the Value index keys types by: the round's structural one during expansion.
+    @Getter
+    private final TypeKeys typeKeys;
+
+    private final Adjacency adjacency = new Adjacency();
 
     // The (scope, location, type, nullness) dedup index behind .valueFor.
     @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded per-mapper graph
-    private final Map<String, Value> valueIndex = new HashMap<>();
+    private final Map<ValueKey, Value> valueIndex = new HashMap<>();
 
     // The method return-root Values seeded by the driver, in seeding (method) order. This is the authority for
     // return-root identity — distinct from the same-location conversion way-points over-emission later mints at the
@@ -41,8 +50,19 @@ public final class MapperGraph {
     // so a LinkedHashSet is a deterministic identity set.
     private final Set<Value> seededRoots = new LinkedHashSet<>();
 
+    // The Values living in each scope in minting order, maintained at .valueFor so .valuesIn answers from the scope
+    // rather than by scanning every vertex. Keys are identity-equal scopes. Every other adjacency query walks the
+    // vertex's own Dep lists in the Adjacency arrays.
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded per-mapper graph
+    private final Map<Scope, List<Value>> valuesByScope = new HashMap<>();
+
     private int operationSeq;
 
+    // A graph keying its Values' types by mirror identity, for a graph driven without a round's interner.
+    public MapperGraph() {
+        this(TypeKeys.identity());
+    }
+
     // The canonical Value for (scope, location, type, nullness) — get-or-create. Nullness is part of identity
     // (JSpecify: String! and String? are different types), so type-identical demands share one instance while type-
     // or nullness-divergent demands stay distinct.
@@ -54,8 +74,9 @@ public final class MapperGraph {
             return existing;
         }
         final var value = new Value(location, scope, Optional.of(type), Optional.of(nullness));
-        bipartite.addVertex(value);
+        addVertex(value);
         valueIndex.put(key, value);
+        valuesByScope.computeIfAbsent(scope, unused -> new ArrayList<>()).add(value);
         return value;
     }
 
@@ -91,7 +112,7 @@ public final class MapperGraph {
                 delta.getChildScope().isPresent(),
                 delta.getConsumed(),
                 delta.getMemberRequests());
-        bipartite.addVertex(operation);
+        addVertex(operation);
         delta.getChildScope().ifPresent(decl -> initChildScope(operation, decl));
         addDep(operation, output, Dep.output());
         for (final var binding : delta.getPorts()) {
@@ -114,6 +135,19 @@ public final class MapperGraph {
         child.initialise(returnRoot, elementInput);
     }
 
+    // Records child as sharing donor's element plan: an identical plan expanded once, for both. No Dep edge joins the
+    // two — the sharer's owning Operation consumes the donor's return root through ChildScope.getPlanRoot, as it
+    // would its own. Driver-only during expansion.
+    public void sharePlan(final ChildScope child, final ChildScope donor) {
+        child.share(donor);
+    }
+
+    // Lands a vertex the graph did not mint itself — an Operation, or a vertex of a graph assembled by hand.
+    @VisibleForTesting
+    void addVertex(final GraphVertex vertex) {
+        adjacency.addVertex(vertex);
+    }
+
     // The single dependency-edge mutation site: enforces the no-Dep-crosses-scope invariant.
     @VisibleForTesting
     void addDep(final GraphVertex from, final GraphVertex to, final Dep dep) {
@@ -121,18 +155,20 @@ public final class MapperGraph {
             throw new IllegalStateException(
                     "Dep edge must not cross a scope boundary: " + from.id() + " -> " + to.id());
         }
-        bipartite.addEdge(from, to, dep);
+        adjacency.addEdge(from, to, dep);
     }
 
     // ---- Queries (read-only) ----------------------------------------------------------------------------------
 
-    // The producer Operations of value: the sources of its inbound output Deps.
+    // The producer Operations of value: the sources of its inbound output Deps, in Operation.getSeq() order — a
+    // Value's inbound list is kept in source-slot order, so this walks the list rather than sorting it.
     public Stream<Operation> producersOf(final Value value) {
-        return bipartite.incomingEdgesOf(value).stream()
-                .map(bipartite::getEdgeSource)
+        return inbound(value)
+                .filter(edge -> adjacency.dep(edge).getPortId().isEmpty())
+                .mapToObj(adjacency::source)
+                .mapToObj(adjacency::vertex)
                 .filter(Operation.class::isInstance)
-                .map(Operation.class::cast)
-                .sorted(comparing(GraphVertex::id));
+                .map(Operation.class::cast);
     }
 
     // All Values feeding operation's ports, in declared port order.
@@ -143,48 +179,70 @@ public final class MapperGraph {
                 .map(Optional::get);
     }
 
-    // The Value feeding operation's named port, or empty when no such port edge exists.
+    // The Value feeding operation's named port, or empty when no such port edge exists. An Operation's inbound list
+    // holds just its port Deps, a handful, so it is walked rather than indexed.
     public Optional<Value> portSource(final Operation operation, final String portId) {
-        return bipartite.incomingEdgesOf(operation).stream()
-                .filter(dep -> dep.getPortId().map(portId::equals).orElse(false))
-                .map(bipartite::getEdgeSource)
+        return inbound(operation)
+                .filter(edge -> adjacency.dep(edge).getPortId().filter(portId::equals).isPresent())
+                .mapToObj(adjacency::source)
+                .mapToObj(adjacency::vertex)
                 .filter(Value.class::isInstance)
                 .map(Value.class::cast)
                 .findFirst();
     }
 
-    // The Value an Operation produces: the target of its output Dep.
+    // The Value an Operation produces: the target of its output Dep, the one Dep on its outbound list.
     public Optional<Value> outputOf(final Operation operation) {
-        return bipartite.outgoingEdgesOf(operation).stream()
-                .filter(dep -> dep.getPortId().isEmpty())
-                .map(bipartite::getEdgeTarget)
+        return outbound(operation)
+                .filter(edge -> adjacency.dep(edge).getPortId().isEmpty())
+                .mapToObj(adjacency::target)
+                .mapToObj(adjacency::vertex)
                 .filter(Value.class::isInstance)
                 .map(Value.class::cast)
                 .findFirst();
     }
 
-    // All Values living directly in scope, deterministically ordered.
+    // The Operations value feeds, once per port edge, in landing order.
+    public Stream<Operation> consumersOf(final Value value) {
+        return outbound(value)
+                .mapToObj(adjacency::target)
+                .mapToObj(adjacency::vertex)
+                .filter(Operation.class::isInstance)
+                .map(Operation.class::cast);
+    }
+
+    // The Dep slots on vertex's inbound list, walked lazily off the Adjacency arrays.
+    @VisibleForTesting
+    IntStream inbound(final GraphVertex vertex) {
+        return iterate(adjacency.firstIn(adjacency.slotOf(vertex)), edge -> edge != NONE, adjacency::nextIn);
+    }
+
+    // The Dep slots on vertex's outbound list, walked lazily off the Adjacency arrays.
+    @VisibleForTesting
+    IntStream outbound(final GraphVertex vertex) {
+        return iterate(adjacency.firstOut(adjacency.slotOf(vertex)), edge -> edge != NONE, adjacency::nextOut);
+    }
+
+    // All Values living directly in scope, in the deterministic order they were minted.
     public Stream<Value> valuesIn(final Scope scope) {
-        return bipartite.vertexSet().stream()
-                .filter(Value.class::isInstance)
-                .map(Value.class::cast)
-                .filter(value -> value.getScope().equals(scope))
-                .sorted(comparing(GraphVertex::id));
+        return valuesByScope.getOrDefault(scope, List.of()).stream();
     }
 
-    // A read-only view of the whole bipartite graph.
-    public Graph<GraphVertex, Dep> bipartiteView() {
-        return new AsUnmodifiableGraph<>(bipartite);
+    // The Values living directly in scope minted after its first from, in minting order — what a reader that has
+    // seen from of them has yet to see. A scope's Values only ever grow at the end.
+    public Stream<Value> valuesIn(final Scope scope, final int from) {
+        final var values = valuesByScope.getOrDefault(scope, List.of());
+        return values.subList(min(from, values.size()), values.size()).stream();
     }
 
-    // A read-only view confined to scope: candidate search never sees another scope's vertices.
-    public Graph<GraphVertex, Dep> scopeView(final Scope scope) {
-        return new MaskSubgraph<>(bipartite, vertex -> !vertex.getScope().equals(scope), dep -> false);
+    // All bipartite vertices in landing order: deterministic too, and free of .vertices()' sort.
+    public Stream<GraphVertex> verticesInLandingOrder() {
+        return adjacency.vertices().stream();
     }
 
     // All bipartite vertices in deterministic GraphVertex.id() order.
     public Stream<GraphVertex> vertices() {
-        return bipartite.vertexSet().stream().sorted(comparing(GraphVertex::id));
+        return adjacency.vertices().stream().sorted(comparing(GraphVertex::id));
     }
 
     // All Values in deterministic order.
@@ -192,6 +250,13 @@ public final class MapperGraph {
         return vertices().filter(Value.class::isInstance).map(Value.class::cast);
     }
 
+    // The qualified name of every declared type on a Value, type arguments and array components included.
+    public Set<String> typeNames() {
+        final var names = new TreeSet<String>();
+        values().flatMap(value -> value.getType().stream()).forEach(type -> TypeNames.collect(type, names));
+        return names;
+    }
+
     // The seeded method return-root Values, in seeding (method) order. The authority for root identity.
     public Stream<Value> returnRoots() {
         return seededRoots.stream();
@@ -214,27 +279,41 @@ public final class MapperGraph {
     // Comparator.comparing needs an explicit type witness here, which a static import cannot carry.
     @SuppressWarnings("PMD.UseStaticImports")
     public Stream<Dep> deps() {
-        return bipartite.edgeSet().stream()
-                .sorted(Comparator.<Dep, String>comparing(
-                                dep -> bipartite.getEdgeSource(dep).id())
-                        .thenComparing(dep -> bipartite.getEdgeTarget(dep).id())
+        return adjacency.deps().stream()
+                .sorted(Comparator.<Dep, String>comparing(dep -> getDepSource(dep).id())
+                        .thenComparing(dep -> getDepTarget(dep).id())
                         .thenComparing(dep -> dep.getPortId().orElse("")));
     }
 
     public GraphVertex getDepSource(final Dep dep) {
-        return bipartite.getEdgeSource(dep);
+        return adjacency.vertex(adjacency.source(adjacency.edgeOf(dep)));
     }
 
     public GraphVertex getDepTarget(final Dep dep) {
-        return bipartite.getEdgeTarget(dep);
+        return adjacency.vertex(adjacency.target(adjacency.edgeOf(dep)));
     }
 
     public int vertexCount() {
-        return bipartite.vertexSet().size();
+        return adjacency.vertexCount();
+    }
+
+    public int edgeCount() {
+        return adjacency.edgeCount();
     }
 
     @VisibleForTesting
-    String valueKey(final Scope scope, final Location location, final TypeMirror type, final Nullability nullness) {
-        return scope.encode() + "::" + location.segment() + "::" + type + "::" + nullness.name();
+    ValueKey valueKey(final Scope scope, final Location location, final TypeMirror type, final Nullability nullness) {
+        return new ValueKey(scope, location.segment(), typeKeys.keyOf(type), nullness);
+    }
+
+    // A Value's identity: its scope, location segment, interned type key and nullness. (Not a Lombok @Value — the
+    // name is taken by the graph's own Value.)
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static final class ValueKey {
+        private final Scope scope;
+        private final String location;
+        private final int type;
+        private final Nullability nullness;
     }
 }
@@ -10,6 +10,7 @@ import java.util.Set;
 import lombok.Getter;
 
 import static java.lang.System.identityHashCode;
+import static lombok.AccessLevel.NONE;
 
 // A single production (constructor call, accessor, conversion, container operation, constant): the AND-kind
 // vertex of the bipartite graph — it is usable only when every port of its ordered Port signature is fed. The
@@ -35,6 +36,9 @@ public final class Operation implements GraphVertex {
     private final Set<DirectiveInput> consumed;
     private final List<MemberRequest> memberRequests;
 
+    @Getter(NONE)
+    private int landedAt = -1;
+
     @SuppressWarnings("PMD.ExcessiveParameterList")
     Operation(
             final int seq,
@@ -64,6 +68,19 @@ public final class Operation implements GraphVertex {
         return scope.encode() + "::op" + seq + "::" + label;
     }
 
+    @Override
+    public int slot() {
+        return landedAt;
+    }
+
+    @Override
+    public void landAt(final int landed) {
+        if (landedAt != -1) {
+            throw new IllegalStateException("vertex already landed: " + id());
+        }
+        this.landedAt = landed;
+    }
+
     @Override
     public boolean equals(final Object o) {
         return this == o;
@@ -0,0 +1,12 @@
+package io.github.joke.percolate.processor.internal.graph;
+
+import io.github.joke.percolate.spi.MemberRequest;
+import lombok.Value;
+
+// One MemberRequest of an in-plan Operation, as LoweredPlan files it under its dedup key: the request and the
+// Operation that made it, whose label names it in a conflict report.
+@Value
+public class RequestedMember {
+    Operation operation;
+    MemberRequest request;
+}
@@ -0,0 +1,123 @@
+package io.github.joke.percolate.processor.internal.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.jspecify.annotations.Nullable;
+
+import static javax.lang.model.type.TypeKind.ARRAY;
+import static javax.lang.model.type.TypeKind.DECLARED;
+import static javax.lang.model.type.TypeKind.NONE;
+import static javax.lang.model.type.TypeKind.TYPEVAR;
+import static javax.lang.model.type.TypeKind.VOID;
+import static javax.lang.model.type.TypeKind.WILDCARD;
+import static lombok.AccessLevel.PRIVATE;
+
+// Canonical int keys for type structures, so the graph's Value index, spec dedup and hierarchy walks key on an int
+// rather than a rendered TypeMirror.toString(). Two mirrors share a key exactly when they have the same structure:
+// the same kind, declaring element (or type variable), type arguments, enclosing type, bounds and type-use
+// annotations — what toString() would have told apart, without rendering it. A mirror keyed before is answered by
+// identity; a new one is keyed from its parts' keys, so each distinct type argument is decomposed once.
+//
+// Keys are only comparable within one interner, and an interner lives no longer than the round its mirrors belong
+// to: TypeQueryCache owns the processor's and forgets every key when MapperStep starts a round. A graph built on its
+// own — as the unit suites build one, over opaque mock mirrors the graph never interrogates — keys by identity
+// instead, the equality javac's own mirrors have.
+@RequiredArgsConstructor(access = PRIVATE)
+public final class TypeKeys {
+
+    private final boolean structural;
+
+    private final Map<TypeMirror, Integer> byMirror = new IdentityHashMap<>();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: processing rounds run sequentially
+    private final Map<Shape, Integer> byShape = new HashMap<>();
+
+    // Keys by structure: the same key for every mirror of one type.
+    public static TypeKeys structural() {
+        return new TypeKeys(true);
+    }
+
+    // Keys by identity: a distinct key per mirror instance, never asking the mirror anything.
+    public static TypeKeys identity() {
+        return new TypeKeys(false);
+    }
+
+    // The canonical key of type.
+    public int keyOf(final TypeMirror type) {
+        final var known = byMirror.get(type);
+        if (known != null) {
+            return known;
+        }
+        if (!structural) {
+            final var key = byMirror.size();
+            byMirror.put(type, key);
+            return key;
+        }
+        final var shape = shapeOf(type);
+        final var key = byShape.computeIfAbsent(shape, unused -> byShape.size());
+        byMirror.put(type, key);
+        return key;
+    }
+
+    // Forgets every key, for a round whose mirrors are all new.
+    public void clear() {
+        byMirror.clear();
+        byShape.clear();
+    }
+
+    @VisibleForTesting
+    Shape shapeOf(final TypeMirror type) {
+        final var kind = type.getKind();
+        final var annotations = type.getAnnotationMirrors().isEmpty() ? "" : type.getAnnotationMirrors().toString();
+        if (kind == DECLARED) {
+            final var declared = (DeclaredType) type;
+            final var parts = new ArrayList<Integer>();
+            parts.add(keyOf(declared.getEnclosingType()));
+            declared.getTypeArguments().forEach(argument -> parts.add(keyOf(argument)));
+            return new Shape(kind, declared.asElement(), annotations, parts);
+        }
+        if (kind == ARRAY) {
+            return new Shape(kind, null, annotations, List.of(keyOf(((ArrayType) type).getComponentType())));
+        }
+        if (kind == TYPEVAR) {
+            return new Shape(kind, ((TypeVariable) type).asElement(), annotations, List.of());
+        }
+        if (kind == WILDCARD) {
+            final var wildcard = (WildcardType) type;
+            final var bounds = List.of(boundKey(wildcard.getExtendsBound()), boundKey(wildcard.getSuperBound()));
+            return new Shape(kind, null, annotations, bounds);
+        }
+        if (kind.isPrimitive() || kind == VOID || kind == NONE) {
+            return new Shape(kind, null, annotations, List.of());
+        }
+        // Error, intersection, union and executable types are rare enough here to be told apart by their text.
+        return new Shape(kind, type.toString(), annotations, List.of());
+    }
+
+    // A wildcard bound's key, or -1 for an absent bound.
+    @VisibleForTesting
+    int boundKey(final @Nullable TypeMirror bound) {
+        return bound == null ? -1 : keyOf(bound);
+    }
+
+    // One type's structure, its parts already reduced to keys.
+    @Value
+    static class Shape {
+        TypeKind kind;
+        @Nullable Object symbol;
+        String annotations;
+        List<Integer> parts;
+    }
+}
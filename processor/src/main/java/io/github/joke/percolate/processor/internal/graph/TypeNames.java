@@ -0,0 +1,26 @@
+package io.github.joke.percolate.processor.internal.graph;
+
+import java.util.Set;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import lombok.experimental.UtilityClass;
+
+// The qualified names of the declared types a mirror mentions — the only form of a type that may be kept past the
+// round its mirror belongs to (DeferralSnapshots, PlanCache).
+@UtilityClass
+public class TypeNames {
+
+    // Adds the qualified name of every declared type within type: itself, its type arguments, an array's component.
+    // Primitives, type variables and wildcards name nothing.
+    public void collect(final TypeMirror type, final Set<String> names) {
+        if (type instanceof ArrayType) {
+            collect(((ArrayType) type).getComponentType(), names);
+        } else if (type instanceof DeclaredType) {
+            final var declared = (DeclaredType) type;
+            names.add(((TypeElement) declared.asElement()).getQualifiedName().toString());
+            declared.getTypeArguments().forEach(argument -> collect(argument, names));
+        }
+    }
+}
@@ -37,6 +37,9 @@ public final class Value implements GraphVertex {
     @Getter(NONE)
     private final List<Refusal> inadmissible = new ArrayList<>();
 
+    @Getter(NONE)
+    private int landedAt = -1;
+
     Value(
             final Location loc,
             final Scope scope,
@@ -92,6 +95,19 @@ public final class Value implements GraphVertex {
         return nullness.map(Enum::name).orElse(UNKNOWN);
     }
 
+    @Override
+    public int slot() {
+        return landedAt;
+    }
+
+    @Override
+    public void landAt(final int landed) {
+        if (landedAt != -1) {
+            throw new IllegalStateException("vertex already landed: " + id());
+        }
+        this.landedAt = landed;
+    }
+
     @Override
     public boolean equals(final Object o) {
         return this == o;
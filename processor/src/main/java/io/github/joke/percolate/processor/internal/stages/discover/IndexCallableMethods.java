@@ -3,30 +3,105 @@ package io.github.joke.percolate.processor.internal.stages.discover;
 import io.github.joke.percolate.spi.CallableMethods;
 import io.github.joke.percolate.spi.MethodCandidate;
 import io.github.joke.percolate.spi.ThisReceiver;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
+import javax.lang.model.element.Element;
+import javax.lang.model.type.PrimitiveType;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
-import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
 
 import static java.util.stream.Collectors.toUnmodifiableList;
+import static javax.lang.model.type.TypeKind.DECLARED;
 
 // The CallableMethods view over a mapper's callable candidates: .producing answers with the candidates whose
-// return type is assignable to the demanded output, each invoked on the mapper itself (ThisReceiver).
-// Assignability is the one type question it asks, routed through Types.isAssignable — a single seam call a unit
-// spec stubs while the return-type/output TypeMirrors stay opaque never-stubbed tokens.
-@RequiredArgsConstructor
+// return type is assignable to the demanded output, each invoked on the mapper itself (ThisReceiver), in candidate
+// order. A mapper inheriting shared conversion interfaces carries dozens of candidates and MethodCallBridge asks
+// for every leaf demand, so rather than confirming each of them per demand the candidates are indexed once by their
+// return type's class and every superclass/superinterface — a primitive return under its wrapper's, the type boxing
+// would assign — keyed by the TypeElement, which javac shares however the mirror is parameterised or annotated.
+// A declared output then confirms only the candidates filed under its own class, plus the returns the index cannot
+// key (type variables, arrays); Types.isAssignable still has the last word on each, since List<String> and
+// List<Integer> share a bucket. Any other output (a primitive, an array, a type variable) confirms every candidate.
+// Each output's answer is computed once per mapper, keyed by the mirror asked about.
 final class IndexCallableMethods implements CallableMethods {
 
     private final List<CandidateDescriptor> candidates;
     private final Types types;
+    private final BitSet unkeyed = new BitSet();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // built once, read-only afterwards
+    private final Map<Element, BitSet> byElement = new HashMap<>();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: one mapper's expansion
+    private final Map<TypeMirror, List<MethodCandidate>> answers = new HashMap<>();
+
+    IndexCallableMethods(final List<CandidateDescriptor> candidates, final Types types) {
+        this.candidates = candidates;
+        this.types = types;
+        for (var index = 0; index < candidates.size(); index++) {
+            register(index, candidates.get(index).getReturnType());
+        }
+    }
 
     @Override
     public Stream<MethodCandidate> producing(final TypeMirror outputType) {
-        return candidates.stream()
+        return answers.computeIfAbsent(outputType, this::answer).stream();
+    }
+
+    @VisibleForTesting
+    List<MethodCandidate> answer(final TypeMirror outputType) {
+        return shortlist(outputType).stream()
+                .mapToObj(candidates::get)
                 .filter(candidate -> types.isAssignable(candidate.getReturnType(), outputType))
                 .map(candidate -> new MethodCandidate(candidate.getMethod(), ThisReceiver.INSTANCE))
-                .collect(toUnmodifiableList())
-                .stream();
+                .collect(toUnmodifiableList());
+    }
+
+    // The candidates whose return type could be assignable to outputType, as indexes into candidates.
+    @VisibleForTesting
+    BitSet shortlist(final TypeMirror outputType) {
+        final var shortlist = new BitSet();
+        if (outputType.getKind() != DECLARED) {
+            shortlist.set(0, candidates.size());
+            return shortlist;
+        }
+        shortlist.or(unkeyed);
+        final var bucket = byElement.get(types.asElement(outputType));
+        if (bucket != null) {
+            shortlist.or(bucket);
+        }
+        return shortlist;
+    }
+
+    @VisibleForTesting
+    void register(final int index, final TypeMirror returnType) {
+        final var kind = returnType.getKind();
+        if (kind == DECLARED) {
+            fileUnderSupertypes(index, returnType);
+        } else if (kind.isPrimitive()) {
+            fileUnderSupertypes(index, types.boxedClass((PrimitiveType) returnType).asType());
+        } else {
+            unkeyed.set(index);
+        }
+    }
+
+    // Files candidate index under type's class and, transitively, each of its direct supertypes' classes.
+    @VisibleForTesting
+    void fileUnderSupertypes(final int index, final TypeMirror type) {
+        final var pending = new ArrayDeque<TypeMirror>();
+        pending.add(type);
+        while (!pending.isEmpty()) {
+            final var next = pending.pop();
+            final var bucket = byElement.computeIfAbsent(types.asElement(next), key -> new BitSet());
+            if (!bucket.get(index)) {
+                bucket.set(index);
+                pending.addAll(types.directSupertypes(next));
+            }
+        }
     }
 }
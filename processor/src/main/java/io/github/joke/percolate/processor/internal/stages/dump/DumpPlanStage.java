@@ -11,7 +11,6 @@ import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
-import static io.github.joke.percolate.processor.internal.graph.ExtractedPlan.extract;
 import static java.util.Collections.newSetFromMap;
 
 // Dumps the chosen-plan view (in-plan vertices only), one .plan.dot file per scope.
@@ -26,7 +25,7 @@ public final class DumpPlanStage implements Stage {
         if (graph == null) {
             return;
         }
-        final var plan = extract(graph);
+        final var plan = ctx.getPlan();
         final var inPlan = newSetFromMap(new IdentityHashMap<GraphVertex, Boolean>());
         graph.values().forEach(value -> collectInPlan(plan, value, inPlan));
         writer.dumpWithRefusals(ctx, "plan", inPlan::contains, false);
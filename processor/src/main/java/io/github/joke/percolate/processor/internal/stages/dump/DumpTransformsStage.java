@@ -5,8 +5,6 @@ import io.github.joke.percolate.processor.internal.stages.Stage;
 import jakarta.inject.Inject;
 import lombok.RequiredArgsConstructor;
 
-import static io.github.joke.percolate.processor.internal.graph.ExtractedPlan.extract;
-
 // Dumps the transforms view (reachable vertices only), one .transforms.dot file per scope.
 @RequiredArgsConstructor(onConstructor_ = @Inject)
 public final class DumpTransformsStage implements Stage {
@@ -15,12 +13,11 @@ public final class DumpTransformsStage implements Stage {
 
     @Override
     public void run(final MapperContext ctx) {
-        final var graph = ctx.getGraph();
-        if (graph == null) {
+        if (ctx.getGraph() == null) {
             writer.dump(ctx, "transforms", vertex -> false);
             return;
         }
-        final var plan = extract(graph);
+        final var plan = ctx.getPlan();
         writer.dump(ctx, "transforms", plan::reachable);
     }
 }
@@ -23,7 +23,6 @@ import org.jgrapht.Graph;
 import org.jgrapht.graph.DirectedMultigraph;
 
 import static io.github.joke.percolate.processor.Diagnostic.warning;
-import static io.github.joke.percolate.processor.internal.graph.ExtractedPlan.extract;
 import static io.github.joke.percolate.spi.Subjects.none;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Comparator.comparing;
@@ -71,7 +70,7 @@ public final class GraphDumpWriter {
         }
         // var cannot infer a conditional whose branches are a method call and a lambda.
         @SuppressWarnings("PMD.UseVarForLocalVariables")
-        final Predicate<GraphVertex> dimmed = dimUnreachable ? dimmedByCost(graph) : vertex -> false;
+        final Predicate<GraphVertex> dimmed = dimUnreachable ? dimmedByCost(ctx) : vertex -> false;
         final var mapperType = ctx.getMapperType();
         final var fqn = mapperType.getQualifiedName().toString();
         final var infixes = infixes(orderedScopes(graph, include));
@@ -92,8 +91,8 @@ public final class GraphDumpWriter {
     }
 
     @VisibleForTesting
-    Predicate<GraphVertex> dimmedByCost(final MapperGraph graph) {
-        final var plan = extract(graph);
+    Predicate<GraphVertex> dimmedByCost(final MapperContext ctx) {
+        final var plan = ctx.getPlan();
         return vertex -> !plan.reachable(vertex);
     }
 
@@ -11,6 +11,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.processor.internal.stages.expand.ExpansionBudget.UNLIMITED;
 import static java.util.Objects.requireNonNull;
 
 // Collects every consistent cross-product binding of a spec's template Ports against a match set (design D4 of
@@ -19,28 +20,44 @@ import static java.util.Objects.requireNonNull;
 // the next port, so the result is one binding map per fully-consistent choice (the cross-product minus the
 // trials the Unifier rejects). Its own recursion is over the port index and match set — not self-recursion into
 // its own type structure — so it needs no Spy, only a mocked Unifier.
+//
+// Each port is tried only against its MatchIndex candidates — the sources of its template's erasure, for a
+// parameterised template — rather than the whole match set. With -Apercolate.budget.bindings, enumeration stops
+// once that many bindings are collected (.full); UNLIMITED (the default) collects every one.
 @RequiredArgsConstructor
 final class BindingEnumerator {
 
     private final Unifier unifier;
+    private final int maxBindings;
 
-    // Every consistent binding map assigning each of ports' templates to a unifying source in sources; every bound
-    // refusal along the way is recorded to refusals.
+    // An enumerator collecting every binding.
+    BindingEnumerator(final Unifier unifier) {
+        this(unifier, UNLIMITED);
+    }
+
+    // Every consistent binding map assigning each of ports' templates to a unifying source among matches, up to the
+    // bound; every bound refusal along the way is recorded to refusals.
     @VisibleForTesting
     List<Map<Integer, TypeMirror>> enumerate(
-            final List<Port> ports, final List<TypeMirror> sources, final List<Offer> refusals) {
+            final List<Port> ports, final MatchIndex matches, final List<Offer> refusals) {
         final var out = new ArrayList<Map<Integer, TypeMirror>>();
-        assign(ports, 0, sources, new HashMap<>(), out, refusals);
+        assign(ports, 0, matches, new HashMap<>(), out, refusals);
         return out;
     }
 
-    // Assigns ports.get(index) to each unifying source, recording each consistent binding map once all ports are
-    // assigned.
+    // Whether bindings has reached the bound, so enumeration may have stopped short of every binding.
+    @VisibleForTesting
+    boolean full(final List<Map<Integer, TypeMirror>> bindings) {
+        return maxBindings != UNLIMITED && bindings.size() >= maxBindings;
+    }
+
+    // Assigns ports.get(index) to each unifying candidate source, recording each consistent binding map once all
+    // ports are assigned — until the bound is reached.
     @VisibleForTesting
     void assign(
             final List<Port> ports,
             final int index,
-            final List<TypeMirror> sources,
+            final MatchIndex matches,
             final Map<Integer, TypeMirror> current,
             final List<Map<Integer, TypeMirror>> out,
             final List<Offer> refusals) {
@@ -49,8 +66,9 @@ final class BindingEnumerator {
             return;
         }
         final var template = requireNonNull(ports.get(index).getTemplate());
-        for (final var source : sources) {
-            tryAssign(ports, index, sources, current, out, template, source, refusals);
+        final var candidates = matches.candidates(template);
+        for (var i = 0; i < candidates.size() && !full(out); i++) {
+            tryAssign(ports, index, matches, current, out, template, candidates.get(i), refusals);
         }
     }
 
@@ -58,7 +76,7 @@ final class BindingEnumerator {
     void tryAssign(
             final List<Port> ports,
             final int index,
-            final List<TypeMirror> sources,
+            final MatchIndex matches,
             final Map<Integer, TypeMirror> current,
             final List<Map<Integer, TypeMirror>> out,
             final PortType template,
@@ -66,7 +84,7 @@ final class BindingEnumerator {
             final List<Offer> refusals) {
         final var trial = new HashMap<>(current);
         if (unifier.unify(template, source, trial, 0, refusals)) {
-            assign(ports, index + 1, sources, trial, out, refusals);
+            assign(ports, index + 1, matches, trial, out, refusals);
         }
     }
 }
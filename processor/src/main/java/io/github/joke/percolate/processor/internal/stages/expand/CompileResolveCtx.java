@@ -4,6 +4,10 @@ import io.github.joke.percolate.spi.CallableMethods;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +19,10 @@ import org.jspecify.annotations.Nullable;
 // .callableMethods(), and the generic .option(key) lookup over the raw -A processor options — the single
 // option-reading seam every strategy uses (change add-builder-assembly), replacing the former per-feature
 // .configuredTimeZone() accessor; mapperType/currentMethod were dead and are gone.
+//
+// The named-element lookup, erasure, typeKey, isType/isAssignableToNamed and member-list defaults are answered from
+// the processor-wide TypeQueryCache instead of javac on every call; the cache is emptied between rounds by MapperStep,
+// so one mapper's answers are shared with every other mapper of its round and with no later one.
 @RequiredArgsConstructor
 final class CompileResolveCtx implements ResolveCtx {
 
@@ -26,6 +34,8 @@ final class CompileResolveCtx implements ResolveCtx {
 
     private final Map<String, String> elemOptions;
 
+    private final TypeQueryCache elemTypeQueries;
+
     @Override
     public Types types() {
         return elemTypes;
@@ -45,4 +55,34 @@ final class CompileResolveCtx implements ResolveCtx {
     public Optional<String> option(final String key) {
         return Optional.ofNullable(elemOptions.get(key));
     }
+
+    @Override
+    public TypeMirror erasure(final TypeMirror type) {
+        return elemTypeQueries.erasure(type);
+    }
+
+    @Override
+    public Object typeKey(final TypeMirror type) {
+        return elemTypeQueries.typeKey(type);
+    }
+
+    @Override
+    public @Nullable TypeElement typeElementNamed(final String fqn) {
+        return elemTypeQueries.typeElementNamed(fqn);
+    }
+
+    @Override
+    public boolean isType(final TypeMirror type, final String fqn) {
+        return isDeclared(type) && elemTypeQueries.isType(type, fqn);
+    }
+
+    @Override
+    public boolean isAssignableToNamed(final TypeMirror type, final String fqn) {
+        return isDeclared(type) && elemTypeQueries.isAssignableToNamed(type, fqn);
+    }
+
+    @Override
+    public Stream<? extends Element> membersOf(final TypeElement parent) {
+        return elemTypeQueries.membersOf(parent).stream();
+    }
 }
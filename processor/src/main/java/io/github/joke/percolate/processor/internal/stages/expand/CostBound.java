@@ -0,0 +1,95 @@
+package io.github.joke.percolate.processor.internal.stages.expand;
+
+import io.github.joke.percolate.processor.internal.graph.Cost;
+import io.github.joke.percolate.processor.internal.graph.ExtractedPlan;
+import io.github.joke.percolate.processor.internal.graph.MapperGraph;
+import io.github.joke.percolate.processor.internal.graph.Operation;
+import io.github.joke.percolate.processor.internal.graph.Value;
+import io.github.joke.percolate.spi.OperationSpec;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static io.github.joke.percolate.processor.internal.graph.Cost.INFINITE;
+import static io.github.joke.percolate.processor.internal.graph.Cost.own;
+
+// Cost-bounded expansion (-Apercolate.expansion.bounded): holds back the follow-up demands of a landed Operation
+// that cannot beat its cheapest sibling until a plan shows whether it still could. Every admitted spec still lands —
+// only its ports and child scope wait — so the graph keeps every producer over-emission would, and only the subtrees
+// behind a dominated one go unexpanded.
+//
+// An Operation's own Cost (Cost.own: its partiality and weight) is a lower bound on its full Cost, since ⊗ never
+// makes anything cheaper. While the work-list drains, an Operation whose own Cost exceeds the least own Cost among
+// the specs offered for the same demand (the floor) is deferred. Once it drains, .release extracts a plan over the
+// graph grown so far and releases every deferred Operation whose own Cost does not exceed its output's plan Cost —
+// that output still unreachable included; the rest stay deferred. A plan Cost only falls as the graph grows, so an
+// Operation whose bound already exceeds a complete plan for its output can never be chosen: it is never expanded,
+// and the extracted plan is the one full over-emission would select. Disabled, it defers nothing.
+@RequiredArgsConstructor
+final class CostBound {
+
+    private final MapperGraph graph;
+    private final boolean enabled;
+    private final List<Operation> deferred = new ArrayList<>();
+
+    // The least own Cost among specs — INFINITE when disabled, so nothing exceeds it.
+    @VisibleForTesting
+    Cost floor(final List<OperationSpec> specs) {
+        if (!enabled) {
+            return INFINITE;
+        }
+        return specs.stream().map(spec -> own(spec.isPartial(), spec.getWeight())).reduce(INFINITE, Cost::min);
+    }
+
+    // Whether operation's follow-ups wait for .release: its own Cost exceeds floor. A deferred operation is recorded.
+    @VisibleForTesting
+    boolean defers(final Operation operation, final Cost floor) {
+        if (!enabled || ownCost(operation).compareTo(floor) <= 0) {
+            return false;
+        }
+        deferred.add(operation);
+        return true;
+    }
+
+    // The follow-up demands of every deferred Operation a plan over the graph so far no longer dominates, in
+    // deferral order; empty when nothing is released, which ends expansion.
+    @VisibleForTesting
+    List<Value> release() {
+        if (deferred.isEmpty()) {
+            return List.of();
+        }
+        final var plan = ExtractedPlan.extract(graph);
+        final var kept = new ArrayList<Operation>();
+        final var demands = new ArrayList<Value>();
+        for (final var operation : deferred) {
+            if (dominated(operation, plan)) {
+                kept.add(operation);
+            } else {
+                graph.portSourcesOf(operation).forEach(demands::add);
+                operation.getChildScope().ifPresent(child -> demands.add(child.getPlanRoot()));
+            }
+        }
+        deferred.clear();
+        deferred.addAll(kept);
+        return demands;
+    }
+
+    // Whether operation's own Cost already exceeds plan's Cost for its output.
+    @VisibleForTesting
+    boolean dominated(final Operation operation, final ExtractedPlan plan) {
+        final var bound = graph.outputOf(operation).map(plan::cost).orElse(INFINITE);
+        return ownCost(operation).compareTo(bound) > 0;
+    }
+
+    // The Operations deferred and not yet released.
+    @VisibleForTesting
+    List<Operation> deferred() {
+        return List.copyOf(deferred);
+    }
+
+    @VisibleForTesting
+    static Cost ownCost(final Operation operation) {
+        return own(operation.isPartial(), operation.getWeight());
+    }
+}
@@ -1,5 +1,7 @@
 package io.github.joke.percolate.processor.internal.stages.expand;
 
+import io.github.joke.percolate.processor.internal.graph.MethodScope;
+import io.github.joke.percolate.processor.internal.graph.Scope;
 import io.github.joke.percolate.processor.nullability.NullabilityResolver;
 import io.github.joke.percolate.spi.Directive;
 import io.github.joke.percolate.spi.Nullability;
@@ -7,13 +9,16 @@ import io.github.joke.percolate.spi.ProduceDemand;
 import java.util.Optional;
 import java.util.Set;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.type.TypeMirror;
 import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
 
 // The myopic ProduceDemand the driver hands a producer strategy for one unsatisfied Value (design D9). It
 // exposes only local decision context — the demanded type and nullness, the in-effect @Map Directive, the
-// declared-children goal set, the binding/slot name the demand serves, and the nullness oracle — and no graph
-// or engine handle. It carries no candidate snapshot: the engine sources every input port (design D1).
+// declared-children goal set, the binding/slot name the demand serves, and the nullness oracle, which also answers
+// for a type as written in the mapper method the demand's scope is planned in — and no graph or engine handle. It
+// carries no candidate snapshot: the engine sources every input port (design D1).
 @RequiredArgsConstructor
 // each field backs the ProduceDemand accessor of the same name; this is a deliberate myopic data-carrier adapter
 @SuppressWarnings({"PMD.AvoidFieldNameMatchingMethodName", "PMD.DataClass"})
@@ -24,6 +29,7 @@ final class DemandView implements ProduceDemand {
     private final Optional<Directive> directive;
     private final Set<String> declaredChildren;
     private final String bindingName;
+    private final Scope valueScope;
     private final NullabilityResolver resolver;
 
     @Override
@@ -55,4 +61,19 @@ final class DemandView implements ProduceDemand {
     public Nullability nullnessOf(final TypeMirror type, final Element scope) {
         return resolver.resolve(type, scope);
     }
+
+    @Override
+    public Nullability declaredNullness(final TypeMirror type) {
+        return methodOf(valueScope).map(method -> resolver.resolve(type, method)).orElse(Nullability.UNKNOWN);
+    }
+
+    // The mapper method scope is planned in: its own, or the nearest enclosing method scope's for a child (element)
+    // scope; empty for the mapper root.
+    @VisibleForTesting
+    static Optional<ExecutableElement> methodOf(final Scope scope) {
+        if (scope instanceof MethodScope) {
+            return Optional.of(((MethodScope) scope).getMethod());
+        }
+        return scope.parent().flatMap(DemandView::methodOf);
+    }
 }
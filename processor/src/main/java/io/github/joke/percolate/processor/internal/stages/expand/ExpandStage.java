@@ -11,11 +11,11 @@ import io.github.joke.percolate.processor.internal.graph.Scope;
 import io.github.joke.percolate.processor.internal.graph.TargetLocation;
 import io.github.joke.percolate.processor.internal.graph.Value;
 import io.github.joke.percolate.processor.internal.stages.Stage;
+import io.github.joke.percolate.processor.internal.stats.MapperStatistics;
 import io.github.joke.percolate.processor.model.GoalSpec;
 import io.github.joke.percolate.processor.model.MapperShape;
 import io.github.joke.percolate.processor.nullability.NullabilityResolver;
 import io.github.joke.percolate.spi.BoundPort;
-import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.SourceProjection;
@@ -30,6 +30,9 @@ import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 import org.jspecify.annotations.Nullable;
 
+import static io.github.joke.percolate.processor.Diagnostic.error;
+import static io.github.joke.percolate.processor.Diagnostic.warning;
+import static io.github.joke.percolate.spi.Subjects.none;
 import static java.util.stream.Collectors.toUnmodifiableList;
 
 // The expansion driver (design D6/D9), a single uniform demand work-list over the bipartite graph: a demanded
@@ -55,12 +58,13 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 @RequiredArgsConstructor
 public final class ExpandStage implements Stage {
 
-    private final List<ExpansionStrategy> strategies;
+    private final StrategyIndex strategies;
     private final List<SourceProjection> projections;
     private final Types types;
     private final Elements elements;
     private final NullabilityResolver resolver;
     private final ProcessorOptions options;
+    private final TypeQueryCache typeQueries;
 
     @Override
     public void run(final MapperContext ctx) {
@@ -68,17 +72,32 @@ public final class ExpandStage implements Stage {
         if (shape == null) {
             return;
         }
-        final var graph = new MapperGraph();
+        final var graph = new MapperGraph(typeQueries.getTypeKeys());
         ctx.setGraph(graph);
-        final var resolveCtx = new CompileResolveCtx(elements, types, ctx.getCallableMethods(), options.getRaw());
+        final var resolveCtx = new CompileResolveCtx(
+                elements, types, ctx.getCallableMethods(), options.getRaw(), typeQueries);
         ctx.setResolveCtx(resolveCtx);
-        new Driver(strategies, projections, resolver, graph, ctx.getGoalSpecs(), resolveCtx).seedAndExpand(shape);
+        final var driver = new Driver(
+                strategies,
+                projections,
+                resolver,
+                graph,
+                ctx.getGoalSpecs(),
+                resolveCtx,
+                options,
+                typeQueries);
+        driver.seedAndExpand(shape);
+        driver.recordStatistics(ctx.getStatistics());
+        // Permanent: a later round's types could only grow the graph further.
+        driver.blame().ifPresent(message -> ctx.report(error(none(), message).asPermanent()));
+        driver.boundWarning().ifPresent(message -> ctx.report(warning(none(), message)));
     }
 
     // One expansion run over a single graph (design D5, decomposed by change decompose-engine-stages into single-
     // method collaborators): an orchestrator composing TargetProducer (what a FREE demand admits),
     // SourcePathDescender (a directive's pinned source), PortBinder/PortSourceResolver (port sourcing),
-    // SelfCallGuard, and OperationLander (landing), driven to fixpoint by ExpansionLoop. Package-visible and static
+    // SelfCallGuard, OperationLander (landing), CostBound (bounded mode's deferrals), ExpansionBudget and
+    // SharedChildPlans, driven to fixpoint by ExpansionLoop. Package-visible and static
     // so the unit suite drives it directly with constructed strategies and an injected ResolveCtx, asserting on the
     // resulting MapperGraph. Production code reaches it only through .run(MapperContext).
     static final class Driver {
@@ -90,39 +109,57 @@ public final class ExpandStage implements Stage {
         private final ResolveCtx resolveCtx;
         private final OperationLander operationLander;
         private final ExpansionLoop expansionLoop;
+        private final CostBound costBound;
+        private final ExpansionBudget budget;
+        private final SharedChildPlans sharedChildPlans;
+        private final Grounding grounding;
+        private final int maxBindings;
 
         Driver(
-                final List<ExpansionStrategy> strategies,
+                final StrategyIndex strategies,
                 final List<SourceProjection> projections,
                 final NullabilityResolver resolver,
                 final MapperGraph graph,
                 final Map<Scope, GoalSpec> goalSpecs,
-                final ResolveCtx resolveCtx) {
+                final ResolveCtx resolveCtx,
+                final ProcessorOptions options,
+                final TypeQueryCache typeQueries) {
             this.graph = graph;
             this.resolveCtx = resolveCtx;
+            this.costBound = new CostBound(graph, options.isExpansionBounded());
+            this.budget = new ExpansionBudget(graph, options.getVertexBudget(), options.getDemandBudget());
+            this.sharedChildPlans = new SharedChildPlans(graph, goalSpecs, options.isChildPlansShared());
             final var applier = new Applier();
-            final var deduplicator = new SpecDeduplicator();
-            final var sourceCandidates = new SourceCandidates(graph, applier, resolveCtx);
-            final var unifier = new Unifier(resolveCtx);
-            final var grounding = new Grounding(
-                    new SourceWidener(resolveCtx, projections),
-                    new BindingEnumerator(unifier),
+            final var deduplicator = new SpecDeduplicator(graph.getTypeKeys());
+            final var sourceCandidates =
+                    new SourceCandidates(graph, applier, resolveCtx, new SourceWidener(resolveCtx, projections));
+            this.maxBindings = options.getBindingBudget();
+            this.grounding = new Grounding(
+                    new BindingEnumerator(new Unifier(resolveCtx), maxBindings),
                     new SpecInstantiator(resolveCtx));
             this.targetProducer = new TargetProducer(
-                    strategies, goalSpecs, sourceCandidates, grounding, resolveCtx, resolver, deduplicator);
+                    strategies,
+                    goalSpecs,
+                    sourceCandidates,
+                    grounding,
+                    resolveCtx,
+                    resolver,
+                    deduplicator,
+                    typeQueries);
             this.operationLander = new OperationLander(graph, applier);
             final var portSourceResolver = new PortSourceResolver(sourceCandidates, operationLander);
             this.portBinder = new PortBinder(portSourceResolver);
             this.sourcePathDescender = new SourcePathDescender(
                     strategies, resolveCtx, resolver, graph, applier, operationLander, deduplicator);
             final var seeder = new Seeder(graph, applier, resolver, goalSpecs);
-            this.expansionLoop = new ExpansionLoop(seeder, this::expandValue);
+            this.expansionLoop = new ExpansionLoop(seeder, this::expandValue, costBound::release, budget::allows);
         }
 
         // Test-only seam (package-visible): assembles a Driver from already-constructed collaborators, so the unit
         // suite can mock TargetProducer/SourcePathDescender/PortBinder/OperationLander and exercise .land/.expandValue
         // in isolation, per engine-test-quality's orchestrator scenario. resolveCtx backs only the built-in self-call
-        // Constraint.
+        // Constraint. Expansion is unbounded: nothing is deferred, there is no budget, no child plan is shared, and
+        // grounding — inside the given TargetProducer — is not bounded either.
         Driver(
                 final MapperGraph graph,
                 final TargetProducer targetProducer,
@@ -138,6 +175,12 @@ public final class ExpandStage implements Stage {
             this.resolveCtx = resolveCtx;
             this.operationLander = operationLander;
             this.expansionLoop = expansionLoop;
+            this.costBound = new CostBound(graph, false);
+            this.budget = new ExpansionBudget(graph);
+            this.sharedChildPlans = new SharedChildPlans(graph, Map.of(), false);
+            this.maxBindings = ExpansionBudget.UNLIMITED;
+            this.grounding =
+                    new Grounding(new BindingEnumerator(new Unifier(resolveCtx)), new SpecInstantiator(resolveCtx));
         }
 
         // Self-seeds one return-root demand per abstract method into the empty graph, then drains the work-list.
@@ -146,9 +189,30 @@ public final class ExpandStage implements Stage {
             expansionLoop.seedAndExpand(shape);
         }
 
+        // Records the drained run's size — the graph it grew and the demand/offer traffic behind it.
+        @VisibleForTesting
+        void recordStatistics(final MapperStatistics statistics) {
+            statistics.recordGraph(graph.vertexCount(), graph.edgeCount());
+            statistics.recordExpansion(
+                    expansionLoop.drainedDemands(), targetProducer.offerCount(), targetProducer.refusalCount());
+        }
+
+        // The error explaining where the graph grew, when expansion stopped over its budget; empty otherwise.
+        @VisibleForTesting
+        Optional<String> blame() {
+            return budget.blame(expansionLoop.drainedDemands());
+        }
+
+        // The warning naming the specs whose grounding stopped at the bindings bound; empty when none did.
+        @VisibleForTesting
+        Optional<String> boundWarning() {
+            return grounding.boundWarning(maxBindings);
+        }
+
         // One step of expansion (the ExpansionLoop.Expander this driver installs): a FREE target demand asks
         // TargetProducer what it admits and SourcePathDescender for its directive-pinned source, then lands each
-        // admitted spec, enqueueing every follow-up demand a landed operation's ports and child scope raise. ACCESS
+        // admitted spec, enqueueing every follow-up demand a landed operation's ports and child scope raise — unless
+        // CostBound defers them, its own Cost exceeding the cheapest spec's. ACCESS
         // (source-path Values produced by forward descent), LEAF (parameter/element roots), and CONSTANT are base
         // cases: nothing to expand.
         @VisibleForTesting
@@ -158,16 +222,22 @@ public final class ExpandStage implements Stage {
             }
             final var pinnedSource = sourcePathDescender.pinnedSource(
                     value.getScope(), targetProducer.pinnedSourcePath(value), targetProducer.pinnedDirective(value));
-            for (final var spec : targetProducer.produce(value)) {
-                land(value, spec, pinnedSource).ifPresent(operation -> enqueueFollowUps(operation, enqueue));
+            final var specs = targetProducer.produce(value);
+            final var floor = costBound.floor(specs);
+            for (final var spec : specs) {
+                final var landed = land(value, spec, pinnedSource);
+                landed.ifPresent(operation -> budget.landed(targetProducer.originOf(spec)));
+                landed.filter(operation -> !costBound.defers(operation, floor))
+                        .ifPresent(operation -> enqueueFollowUps(operation, enqueue));
             }
         }
 
-        // Every demand a landed operation raises: one per port source, plus its child scope's return root.
+        // Every demand a landed operation raises: one per port source, plus its child plan's return root — that of
+        // an identical plan demanded before, when SharedChildPlans finds one.
         @VisibleForTesting
         void enqueueFollowUps(final Operation operation, final Consumer<Value> enqueue) {
             graph.portSourcesOf(operation).forEach(enqueue);
-            operation.getChildScope().ifPresent(child -> enqueue.accept(child.getReturnRoot()));
+            operation.getChildScope().ifPresent(child -> enqueue.accept(sharedChildPlans.demandFor(child)));
         }
 
         // Turns spec into a landed Operation bound by pinnedSource-ranked sources, or empty when a port can't be
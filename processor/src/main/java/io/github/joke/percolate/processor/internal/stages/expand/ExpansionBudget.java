@@ -0,0 +1,157 @@
+package io.github.joke.percolate.processor.internal.stages.expand;
+
+import io.github.joke.percolate.processor.internal.graph.ChildScope;
+import io.github.joke.percolate.processor.internal.graph.Location;
+import io.github.joke.percolate.processor.internal.graph.MapperGraph;
+import io.github.joke.percolate.processor.internal.graph.Operation;
+import io.github.joke.percolate.processor.internal.graph.TargetLocation;
+import io.github.joke.percolate.processor.internal.graph.Value;
+import io.github.joke.percolate.spi.ExpansionStrategy;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static java.lang.Math.max;
+import static java.util.Comparator.comparing;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.joining;
+
+// A mapper's expansion budget (-Apercolate.budget.vertices, -Apercolate.budget.demands), checked by ExpansionLoop
+// before it hands out each demand: once the graph holds more vertices, or the work-list has handed out as many
+// demands, as the budget allows, expansion stops for good and .blame explains where the graph grew. UNLIMITED
+// (the default) leaves that dimension unchecked.
+//
+// The blame names the strategies that landed the most Operations — counted as they land, the only figure the graph
+// cannot answer afterwards — the target paths the most demanded Values sit at, and the longest conversion chain
+// from a return root. The last two are read off the graph only once the budget is spent.
+@RequiredArgsConstructor
+final class ExpansionBudget {
+
+    static final int UNLIMITED = 0;
+
+    private static final int BLAMED = 3;
+
+    private final MapperGraph graph;
+    private final int maxVertices;
+    private final int maxDemands;
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded per-mapper expansion
+    private final Map<String, Long> landings = new HashMap<>();
+
+    private boolean spent;
+
+    // A budget that never runs out.
+    ExpansionBudget(final MapperGraph graph) {
+        this(graph, UNLIMITED, UNLIMITED);
+    }
+
+    // Whether expansion may hand out one more demand, drained having been handed out so far. Once it may not, it
+    // never may again.
+    @VisibleForTesting
+    boolean allows(final int drained) {
+        spent = spent
+                || (maxDemands != UNLIMITED && drained >= maxDemands)
+                || (maxVertices != UNLIMITED && graph.vertexCount() > maxVertices);
+        return !spent;
+    }
+
+    // Counts one Operation landed from a spec strategy offered; a spec of unknown origin is not counted.
+    @VisibleForTesting
+    void landed(final Optional<ExpansionStrategy> strategy) {
+        strategy.map(offered -> offered.getClass().getSimpleName())
+                .ifPresent(name -> landings.put(name, landings.getOrDefault(name, 0L) + 1));
+    }
+
+    // The error explaining where the graph grew, once the budget is spent after drained demands; empty otherwise.
+    @VisibleForTesting
+    Optional<String> blame(final int drained) {
+        if (!spent) {
+            return Optional.empty();
+        }
+        return Optional.of("expansion stopped at " + graph.vertexCount() + " vertices and " + drained
+                + " demands, over its budget (-Apercolate.budget.vertices=" + limit(maxVertices)
+                + ", -Apercolate.budget.demands=" + limit(maxDemands) + "). Most operations landed by: "
+                + top(landings) + ". Most demands at: " + top(demandsByTarget()) + ". Longest conversion chain: "
+                + longestChain() + " operations.");
+    }
+
+    // How many FREE Values — demands — sit at each target, by .targetOf.
+    @VisibleForTesting
+    Map<String, Long> demandsByTarget() {
+        return graph.verticesInLandingOrder()
+                .filter(Value.class::isInstance)
+                .map(Value.class::cast)
+                .filter(value -> value.getLoc().role() == Location.Role.FREE)
+                .map(this::targetOf)
+                .collect(groupingBy(identity(), counting()));
+    }
+
+    // The method scope and target path value is demanded for. A Value inside a container's element scope is
+    // blamed on the target its owning Operation produces, so every demand traces back to a directive's path.
+    @VisibleForTesting
+    String targetOf(final Value value) {
+        var current = value;
+        while (current.getScope() instanceof ChildScope) {
+            current = graph.outputOf(((ChildScope) current.getScope()).getOwner()).orElseThrow();
+        }
+        final var path = ((TargetLocation) current.getLoc()).getPath().toString();
+        return current.getScope().encode() + " → " + (path.isEmpty() ? "return" : path);
+    }
+
+    // The most Operations on any path from a return root through producers to a Value, breadth-first so each Value
+    // counts at its shortest distance — the distance the work-list reached it at.
+    @VisibleForTesting
+    int longestChain() {
+        final var depths = new HashMap<Value, Integer>();
+        final var queue = new ArrayDeque<Value>();
+        graph.returnRoots().forEach(root -> {
+            depths.put(root, 0);
+            queue.add(root);
+        });
+        var longest = 0;
+        while (!queue.isEmpty()) {
+            final var value = queue.poll();
+            final var depth = depths.getOrDefault(value, 0);
+            longest = max(longest, depth);
+            graph.producersOf(value)
+                    .flatMap(this::inputsOf)
+                    .filter(input -> !depths.containsKey(input))
+                    .forEach(input -> {
+                        depths.put(input, depth + 1);
+                        queue.add(input);
+                    });
+        }
+        return longest;
+    }
+
+    // The Values operation consumes: its port sources and any child plan's return root.
+    @VisibleForTesting
+    Stream<Value> inputsOf(final Operation operation) {
+        return Stream.concat(
+                graph.portSourcesOf(operation), operation.getChildScope().map(ChildScope::getPlanRoot).stream());
+    }
+
+    @VisibleForTesting
+    static String top(final Map<String, Long> counts) {
+        if (counts.isEmpty()) {
+            return "none";
+        }
+        return counts.entrySet().stream()
+                .sorted(comparing(Entry<String, Long>::getValue).reversed().thenComparing(Entry::getKey))
+                .limit(BLAMED)
+                .map(entry -> entry.getKey() + " (" + entry.getValue() + ")")
+                .collect(joining(", "));
+    }
+
+    @VisibleForTesting
+    static String limit(final int limit) {
+        return limit == UNLIMITED ? "unlimited" : String.valueOf(limit);
+    }
+}
@@ -5,6 +5,7 @@ import io.github.joke.percolate.processor.model.MapperShape;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
@@ -14,36 +15,85 @@ import org.jetbrains.annotations.VisibleForTesting;
 // ExpandStage.Driver by decompose-engine-stages): self-seeds one return-root demand per abstract method, then
 // repeatedly pops a demand and, the first time it is visited, hands it to the injected Expander — which may
 // enqueue further demands through the callback it is given. Graph-agnostic: it holds no expansion-specific
-// logic itself, only the fixpoint mechanics.
+// logic itself, only the fixpoint mechanics. Once the work-list drains, the injected Resumer may hand back demands
+// held back meanwhile (CostBound), which are drained in turn until it has none left. The injected Budget is asked
+// before each demand is handed out; once it refuses, expansion stops with whatever is still queued unexpanded.
 @RequiredArgsConstructor
 final class ExpansionLoop {
 
     private final Seeder seeder;
     private final Expander expander;
+    private final Resumer resumer;
+    private final Budget budget;
     private final Deque<Value> workList = new ArrayDeque<>();
     private final Set<Value> visited = new HashSet<>();
+    private int drained;
 
-    // Self-seeds one return-root demand per abstract method into the empty graph, then drains the work-list.
+    // A loop that drains the work-list once, without a budget: nothing is ever held back or refused.
+    ExpansionLoop(final Seeder seeder, final Expander expander) {
+        this(seeder, expander, List::of, drained -> true);
+    }
+
+    // Self-seeds one return-root demand per abstract method into the empty graph, then drains the work-list, and
+    // again after each batch of demands the resumer releases.
     @VisibleForTesting
     void seedAndExpand(final MapperShape shape) {
         shape.getAbstractMethods().forEach(method -> enqueue(seeder.seed(method)));
-        while (!workList.isEmpty()) {
+        drain();
+        var resumed = resume();
+        while (!resumed.isEmpty()) {
+            resumed.forEach(this::enqueue);
+            drain();
+            resumed = resume();
+        }
+    }
+
+    // Pops demands until the work-list is empty or the budget refuses one, expanding each on its first visit.
+    @VisibleForTesting
+    void drain() {
+        while (!workList.isEmpty() && budget.allows(drained)) {
             final var value = workList.poll();
+            drained++;
             if (visited.add(value)) {
                 expander.expand(value, this::enqueue);
             }
         }
     }
 
+    // The demands the resumer releases, or none once the budget refuses further work.
+    @VisibleForTesting
+    List<Value> resume() {
+        final var resumed = resumer.resume();
+        return resumed.isEmpty() || budget.allows(drained) ? resumed : List.of();
+    }
+
     // Adds value to the work-list, to be expanded once (first visit only) when its turn comes.
     @VisibleForTesting
     void enqueue(final Value value) {
         workList.add(value);
     }
 
+    // How many demands the work-list has handed out so far, revisits included — the -Apercolate.stats figure.
+    @VisibleForTesting
+    int drainedDemands() {
+        return drained;
+    }
+
     // One step of expansion: process value, enqueueing any further demand it admits through enqueue.
     @FunctionalInterface
     interface Expander {
         void expand(Value value, Consumer<Value> enqueue);
     }
+
+    // The demands held back while the work-list drained that may now be expanded; empty when there are none.
+    @FunctionalInterface
+    interface Resumer {
+        List<Value> resume();
+    }
+
+    // Whether one more demand may be handed out, drained having been handed out so far.
+    @FunctionalInterface
+    interface Budget {
+        boolean allows(int drained);
+    }
 }
@@ -2,42 +2,72 @@ package io.github.joke.percolate.processor.internal.stages.expand;
 
 import io.github.joke.percolate.spi.Offer;
 import io.github.joke.percolate.spi.OperationSpec;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
-import javax.lang.model.type.TypeMirror;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import static java.util.stream.Collectors.toUnmodifiableList;
 
 // Grounding-by-match (design D2/D5, change target-driven-engine §§ 2.2–2.4), decomposed (change decompose-
-// engine-stages) into an orchestrator over three collaborators: an OperationSpec with no type-variable port
-// passes through unchanged; a spec carrying a template port has its match set widened (SourceWidener), every
-// consistent binding enumerated (BindingEnumerator, matching each port via the injected Unifier), and one
-// fully-concrete spec instantiated per binding (SpecInstantiator). When several sources match, every match is
-// instantiated (over-emit); the engine applies no preference and lets cost extraction prune the unreachable
-// ones.
+// engine-stages) into an orchestrator over its collaborators: an OperationSpec with no type-variable port
+// passes through unchanged; a spec carrying a template port reads its scope's widened, indexed match set
+// (ScopeSources), has every consistent binding enumerated (BindingEnumerator, matching each port via the injected
+// Unifier), and one fully-concrete spec instantiated per binding (SpecInstantiator). When several sources match,
+// every match is instantiated (over-emit); the engine applies no preference and lets cost extraction prune the
+// unreachable ones.
+//
+// A spec whose enumeration reached the bindings bound is reported by label to the caller, which keeps it with the
+// answer it grounded for (StrategyAnswer.capped) and hands it back through .recordCapped for .boundWarning — also
+// when that answer is replayed from the round's memo, whose grounding never ran for this mapper.
 @RequiredArgsConstructor
 final class Grounding {
 
-    private final SourceWidener widener;
     private final BindingEnumerator enumerator;
     private final SpecInstantiator instantiator;
 
+    private final Set<String> capped = new LinkedHashSet<>();
+
     // Grounds spec against the sources in scope: a spec with no type-variable port is returned as-is; otherwise one
     // concrete spec is emitted per consistent match (none when nothing unifies — no bridge invented). Every bound
     // refusal encountered along the way (design D6 of change decouple-engine-from-strategy-semantics) is recorded
-    // to refusals.
+    // to refusals, and spec's label to capped when its enumeration reached the bindings bound.
     @VisibleForTesting
-    Stream<OperationSpec> ground(final OperationSpec spec, final List<TypeMirror> sources, final List<Offer> refusals) {
+    Stream<OperationSpec> ground(
+            final OperationSpec spec,
+            final ScopeSources sources,
+            final List<Offer> refusals,
+            final Set<String> capped) {
         final var templatePorts = spec.getPorts().stream()
                 .filter(port -> port.getTemplate() != null)
                 .collect(toUnmodifiableList());
         if (templatePorts.isEmpty()) {
             return Stream.of(spec);
         }
-        final var matchSet = widener.widen(sources);
-        final var bindingSets = enumerator.enumerate(templatePorts, matchSet, refusals);
+        final var bindingSets = enumerator.enumerate(templatePorts, sources.matches(), refusals);
+        if (enumerator.full(bindingSets)) {
+            capped.add(spec.getLabel());
+        }
         return bindingSets.stream().map(bindings -> instantiator.instantiate(spec, bindings));
     }
+
+    // Remembers labels, specs whose grounding stopped at the bindings bound, for .boundWarning.
+    @VisibleForTesting
+    void recordCapped(final Collection<String> labels) {
+        capped.addAll(labels);
+    }
+
+    // The warning naming every spec recorded as stopped at the bindings bound; empty when none was.
+    @VisibleForTesting
+    Optional<String> boundWarning(final int maxBindings) {
+        if (capped.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of("grounding stopped at " + maxBindings + " bindings (-Apercolate.budget.bindings) for: "
+                + String.join(", ", capped) + ". The plan was chosen among the bindings enumerated up to the bound.");
+    }
 }
@@ -0,0 +1,60 @@
+package io.github.joke.percolate.processor.internal.stages.expand;
+
+import io.github.joke.percolate.spi.PortType;
+import io.github.joke.percolate.spi.ResolveCtx;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static lombok.AccessLevel.PRIVATE;
+
+// A grounding match set indexed by erased head type, so BindingEnumerator tries each template port only against
+// the sources the Unifier could accept. Each bucket holds exactly the sources one template shape's first check
+// admits: a PortType.App matches only a declared source of its own erasure — one whose element is the template's
+// erasure — and a PortType.Var only a groundable (declared or array) source. A PortType.Concrete is tried against
+// every source. The Unifier still decides every pair; a source left out of a bucket is one it would reject before
+// binding or refusing anything, so the bindings and the refusals enumerated are unchanged.
+//
+// Every bucket keeps the match set's order, which is what makes grounding-by-match over-emit deterministically.
+@RequiredArgsConstructor(access = PRIVATE)
+final class MatchIndex {
+
+    private final List<TypeMirror> sources;
+    private final List<TypeMirror> groundable;
+    private final Map<TypeElement, List<TypeMirror>> byErasure;
+
+    // Indexes matchSet, asking ctx once per source for its kind and declaring element.
+    @VisibleForTesting
+    static MatchIndex of(final List<TypeMirror> matchSet, final ResolveCtx ctx) {
+        final var groundable = new ArrayList<TypeMirror>();
+        @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded per-mapper expansion
+        final var byErasure = new HashMap<TypeElement, List<TypeMirror>>();
+        for (final var source : matchSet) {
+            ctx.asTypeElement(source)
+                    .ifPresent(element -> byErasure
+                            .computeIfAbsent(element, unused -> new ArrayList<>())
+                            .add(source));
+            if (ctx.isDeclared(source) || ctx.isArray(source)) {
+                groundable.add(source);
+            }
+        }
+        return new MatchIndex(matchSet, groundable, byErasure);
+    }
+
+    // The sources template may unify with, in match-set order.
+    @VisibleForTesting
+    List<TypeMirror> candidates(final PortType template) {
+        if (template instanceof PortType.Var) {
+            return groundable;
+        }
+        if (template instanceof PortType.App) {
+            return byErasure.getOrDefault(((PortType.App) template).getErasure(), List.of());
+        }
+        return sources;
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.joke.percolate.processor.internal.stages.expand;
+
+import io.github.joke.percolate.spi.ResolveCtx;
+import java.util.ArrayList;
+import java.util.List;
+import javax.lang.model.type.TypeMirror;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.jspecify.annotations.Nullable;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+// One scope's source types and their widened grounding match set, kept up to date as the scope grows rather than
+// rebuilt for every demand. The graph is append-only, so a scope only ever gains sources, and SourceCandidates.
+// sourcesOf .adds each one once, as it is minted. A new source is projected on its own (SourceWidener.views) and
+// its views appended to each projector's list, so the widened set keeps the order a widening of the whole set
+// would have — every source, then each projector's views of them in projector order — and grounding-by-match
+// over-emits exactly as before.
+//
+// The type keys a PureStrategy's answer is memoized under and the MatchIndex grounding reads are derived on first
+// use after a change and kept until the next one, so demands between two new sources share them.
+@RequiredArgsConstructor
+final class ScopeSources {
+
+    private final SourceWidener widener;
+    private final ResolveCtx ctx;
+
+    private final List<TypeMirror> types = new ArrayList<>();
+
+    // Each projector's views of types, in projector order.
+    private final List<List<TypeMirror>> views = new ArrayList<>();
+
+    // How many of the scope's graph Values SourceCandidates has already looked at.
+    @Getter
+    @Setter
+    private int seen;
+
+    private @Nullable List<Object> typeKeys;
+    private @Nullable MatchIndex matches;
+
+    // Appends source, projecting it through every projector.
+    @VisibleForTesting
+    void add(final TypeMirror source) {
+        types.add(source);
+        final var sourceViews = widener.views(source);
+        for (var i = 0; i < sourceViews.size(); i++) {
+            if (i == views.size()) {
+                views.add(new ArrayList<>());
+            }
+            views.get(i).addAll(sourceViews.get(i));
+        }
+        typeKeys = null;
+        matches = null;
+    }
+
+    // The scope's source types: declared inputs first, then discovered graph sources, each in a stable order.
+    @VisibleForTesting
+    List<TypeMirror> types() {
+        return unmodifiableList(types);
+    }
+
+    // The type key of every source type, in order.
+    @VisibleForTesting
+    List<Object> typeKeys() {
+        var current = typeKeys;
+        if (current == null) {
+            current = types.stream().map(ctx::typeKey).collect(toUnmodifiableList());
+            typeKeys = current;
+        }
+        return current;
+    }
+
+    // The widened match set, indexed for BindingEnumerator.
+    @VisibleForTesting
+    MatchIndex matches() {
+        var current = matches;
+        if (current == null) {
+            current = MatchIndex.of(widened(), ctx);
+            matches = current;
+        }
+        return current;
+    }
+
+    // The source types plus each projector's views of them, copied: the index outlives later .add calls.
+    @VisibleForTesting
+    List<TypeMirror> widened() {
+        final var widened = new ArrayList<>(types);
+        views.forEach(widened::addAll);
+        return unmodifiableList(widened);
+    }
+}
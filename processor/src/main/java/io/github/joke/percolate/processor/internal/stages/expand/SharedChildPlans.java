@@ -0,0 +1,88 @@
+package io.github.joke.percolate.processor.internal.stages.expand;
+
+import io.github.joke.percolate.processor.internal.graph.ChildScope;
+import io.github.joke.percolate.processor.internal.graph.MapperGraph;
+import io.github.joke.percolate.processor.internal.graph.Scope;
+import io.github.joke.percolate.processor.internal.graph.Value;
+import io.github.joke.percolate.processor.internal.graph.Visibility;
+import io.github.joke.percolate.processor.model.GoalSpec;
+import io.github.joke.percolate.spi.Nullability;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+// Shares one element plan among every scope-owning Operation mapping the same elements (-Apercolate.childPlans.shared,
+// on by default): the same Person → PersonView mapping under ten list properties, or in several methods, is expanded
+// and extracted once. A child plan is a function of what its scope declares — the element input, the element return
+// root and the scope's goal spec — so child scopes agreeing on all of them (.keyOf) have the same plan. The first
+// such scope demanded is the donor; each later one is recorded as sharing its plan (MapperGraph.sharePlan) and
+// demands the donor's return root, which the work-list expands once, instead of its own.
+//
+// A child scope beneath an ancestor that declares a Visibility.INHERITED input can source from that binding, so its
+// plan depends on where it sits: it neither donates nor shares. Disabled, every child scope demands its own plan.
+@RequiredArgsConstructor
+final class SharedChildPlans {
+
+    private final MapperGraph graph;
+    private final Map<Scope, GoalSpec> goalSpecs;
+    private final boolean enabled;
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded per-mapper expansion
+    private final Map<PlanKey, ChildScope> donors = new HashMap<>();
+
+    // The return root child's owning Operation demands: the donor's, when an identical plan was demanded before,
+    // otherwise child's own.
+    @VisibleForTesting
+    Value demandFor(final ChildScope child) {
+        if (!enabled || inheritsBindings(child)) {
+            return child.getReturnRoot();
+        }
+        final var donor = donors.putIfAbsent(keyOf(child), child);
+        if (donor == null) {
+            return child.getReturnRoot();
+        }
+        graph.sharePlan(child, donor);
+        return donor.getReturnRoot();
+    }
+
+    // What child's plan is a function of: its element input and return root — each by type key and nullness — and
+    // its goal spec (a child scope is given none of its own today, so every one has the empty spec).
+    @VisibleForTesting
+    PlanKey keyOf(final ChildScope child) {
+        final var typeKeys = graph.getTypeKeys();
+        final var input = child.getElementInput();
+        final var root = child.getReturnRoot();
+        return new PlanKey(
+                typeKeys.keyOf(input.getType()),
+                input.getNullness(),
+                typeKeys.keyOf(root.getType().orElseThrow()),
+                root.getNullness().orElseThrow(),
+                goalSpecs.getOrDefault(child, GoalSpec.empty()));
+    }
+
+    // Whether any ancestor of child declares an input its descendants may source from.
+    @VisibleForTesting
+    boolean inheritsBindings(final ChildScope child) {
+        var ancestor = child.parent();
+        while (ancestor.isPresent()) {
+            if (ancestor.get().inputDecls().anyMatch(decl -> decl.getVisibility() == Visibility.INHERITED)) {
+                return true;
+            }
+            ancestor = ancestor.flatMap(Scope::parent);
+        }
+        return false;
+    }
+
+    // The identity of a child plan. (Not a Lombok @Value — the name is taken by the graph's own Value.)
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static final class PlanKey {
+        private final int elementIn;
+        private final Nullability elementInNullness;
+        private final int elementOut;
+        private final Nullability elementOutNullness;
+        private final GoalSpec goalSpec;
+    }
+}
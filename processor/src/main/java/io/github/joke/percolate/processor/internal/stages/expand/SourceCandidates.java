@@ -9,7 +9,9 @@ import io.github.joke.percolate.processor.internal.graph.Visibility;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Port;
 import io.github.joke.percolate.spi.ResolveCtx;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 import javax.lang.model.type.TypeMirror;
@@ -23,38 +25,57 @@ import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Nullability.NULLABLE;
 import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toUnmodifiableList;
-import static java.util.stream.Stream.concat;
 
 // Source-binding lookup for the expansion driver (demand-driven-expansion D4): given a scope, the in-scope
 // source Value that can feed a demanded Port — an already-materialised graph source first, else a matching
 // scope input declaration (Scope.inputDecls) materialised on demand as a LEAF through the Applier (inputs are
 // declared, not pre-seeded). It also exposes the in-scope source types (declared inputs plus discovered graph
-// sources) that grounding-by-match unifies a type-variable port against — never a strategy-facing candidate
-// snapshot (the engine sources inputs). The path is uniform across scope kinds: a method parameter and a
-// container element root are both just input declarations, with no instanceof test. A cohesive collaborator the
-// work-list driver delegates to, so the driver stays the work-list dispatch + Operation landing site.
+// sources) that grounding-by-match unifies a type-variable port against, kept per scope as ScopeSources — never a
+// strategy-facing candidate snapshot (the engine sources inputs). The path is uniform across scope kinds: a method
+// parameter and a container element root are both just input declarations, with no instanceof test. A cohesive
+// collaborator the work-list driver delegates to, so the driver stays the work-list dispatch + Operation landing
+// site.
 @RequiredArgsConstructor
 final class SourceCandidates {
 
     private final MapperGraph graph;
     private final Applier applier;
     private final ResolveCtx resolveCtx;
+    private final SourceWidener widener;
+
+    // Each scope's source types and grounding match set, caught up on read (.sourcesOf). Keys are identity-equal
+    // scopes, as in MapperGraph.
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded per-mapper expansion
+    private final Map<Scope, ScopeSources> byScope = new HashMap<>();
 
     // The in-scope source types — declared inputs plus discovered graph sources — that grounding-by-match unifies a
-    // type-variable port against. The declared input types are available without materialising any Value, so a
-    // template port grounds without the (producer-facing) candidate snapshot.
+    // type-variable port against, with their widened match set. The declared input types are available without
+    // materialising any Value, so a template port grounds without the (producer-facing) candidate snapshot.
+    //
+    // Kept per scope and only ever extended: the scope's declared inputs are fixed when it is first asked about, and
+    // its graph Values only grow at the end of MapperGraph.valuesIn, so each call adds just the source Values minted
+    // in scope since the previous one. Every FREE demand of the scope reads the same entry.
     //
     // Deterministic by construction (graph-expansion "Type-matched source selection SHALL be deterministic"):
     // declared inputs precede discovered graph sources, each in a stable order — Scope.inputDecls streams an
-    // ordered List in declaration order, and MapperGraph.valuesIn is sorted by Value.id. A same-typed pair of
+    // ordered List in declaration order, and MapperGraph.valuesIn streams in minting order. A same-typed pair of
     // parameters is therefore always offered to BindingEnumerator in declaration order, so grounding-by-match over-
     // emits and the extraction fold prunes ties in that same order.
     @VisibleForTesting
-    List<TypeMirror> sourceTypes(final Scope scope) {
-        return concat(
-                        scope.inputDecls().map(InputDecl::getType),
-                        sourceValues(scope).map(Value::type))
-                .collect(toUnmodifiableList());
+    ScopeSources sourcesOf(final Scope scope) {
+        final var sources = byScope.computeIfAbsent(scope, this::declaredSources);
+        final var minted = graph.valuesIn(scope, sources.getSeen()).collect(toUnmodifiableList());
+        minted.stream().filter(this::isSourceRole).map(Value::type).forEach(sources::add);
+        sources.setSeen(sources.getSeen() + minted.size());
+        return sources;
+    }
+
+    // A fresh entry for scope holding its declared input types.
+    @VisibleForTesting
+    ScopeSources declaredSources(final Scope scope) {
+        final var sources = widener.scopeSources();
+        scope.inputDecls().map(InputDecl::getType).forEach(sources::add);
+        return sources;
     }
 
     // The in-scope source Value that can feed port, ranked: a matching directive-pinnedSource first (so a same-
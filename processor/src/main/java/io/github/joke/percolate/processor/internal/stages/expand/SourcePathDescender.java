@@ -9,7 +9,6 @@ import io.github.joke.percolate.processor.internal.graph.SourceLocation;
 import io.github.joke.percolate.processor.internal.graph.Value;
 import io.github.joke.percolate.processor.nullability.NullabilityResolver;
 import io.github.joke.percolate.spi.Directive;
-import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Offer;
 import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.ResolveCtx;
@@ -29,7 +28,7 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 @RequiredArgsConstructor
 final class SourcePathDescender {
 
-    private final List<ExpansionStrategy> strategies;
+    private final StrategyIndex strategies;
     private final ResolveCtx resolveCtx;
     private final NullabilityResolver resolver;
     private final MapperGraph graph;
@@ -87,12 +86,12 @@ final class SourcePathDescender {
         return child;
     }
 
-    // Every production an accessor offers for demand. No accessor in the repo refuses today (design D9): a decline
-    // is always silence, so a descend refusal — were one ever authored — is dropped here rather than anchored, for
-    // want of a materialised demanded Value to record it against.
+    // Every production an accessor offers for demand; only strategies declaring they descend are asked. No accessor
+    // in the repo refuses today (design D9): a decline is always silence, so a descend refusal — were one ever
+    // authored — is dropped here rather than anchored, for want of a materialised demanded Value to record it against.
     @VisibleForTesting
     List<OperationSpec> descend(final DescendView demand, final ResolveCtx ctx) {
-        return strategies.stream()
+        return strategies.accessors().stream()
                 .flatMap(strategy -> strategy.descend(demand, ctx))
                 .filter(Offer.Production.class::isInstance)
                 .map(Offer.Production.class::cast)
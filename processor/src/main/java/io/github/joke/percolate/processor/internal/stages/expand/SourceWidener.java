@@ -2,35 +2,36 @@ package io.github.joke.percolate.processor.internal.stages.expand;
 
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.SourceProjection;
-import java.util.ArrayList;
 import java.util.List;
 import javax.lang.model.type.TypeMirror;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
-// Widens a source list by each registered SourceProjection's one-step view of it (design D8 of change target-
-// driven-engine, decomposed out of Grounding by decompose-engine-stages): the grounding match set is the in-
-// scope sources plus every projector's derived view of them, so e.g. a Stream<A> port grounds against the
-// Stream<X> a List<X> source projects to. The engine consumes a projection's result structurally and names no
-// container kind.
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+// Widens a source by each registered SourceProjection's one-step view of it (design D8 of change target-driven-
+// engine, decomposed out of Grounding by decompose-engine-stages): the grounding match set is the in-scope sources
+// plus every projector's derived view of them, so e.g. a Stream<A> port grounds against the Stream<X> a List<X>
+// source projects to. The engine consumes a projection's result structurally and names no container kind.
+// ScopeSources asks once per source, as the source joins its scope, and assembles the widened set itself.
 @RequiredArgsConstructor
 final class SourceWidener {
 
     private final ResolveCtx ctx;
     private final List<SourceProjection> projections;
 
-    // The in-scope sources plus each projector's one-step view of them.
+    // Each projector's one-step view of source, in projector order — one list per projector, empty where a
+    // projector has no view of it.
+    @VisibleForTesting
+    List<List<TypeMirror>> views(final TypeMirror source) {
+        return projections.stream()
+                .map(projection -> projection.project(source, ctx).collect(toUnmodifiableList()))
+                .collect(toUnmodifiableList());
+    }
+
+    // A fresh, empty match set for one scope, widened by this widener.
     @VisibleForTesting
-    List<TypeMirror> widen(final List<TypeMirror> sources) {
-        if (projections.isEmpty()) {
-            return sources;
-        }
-        final var widened = new ArrayList<>(sources);
-        for (final var projection : projections) {
-            for (final var source : sources) {
-                projection.project(source, ctx).forEach(widened::add);
-            }
-        }
-        return widened;
+    ScopeSources scopeSources() {
+        return new ScopeSources(this, ctx);
     }
 }
@@ -1,26 +1,37 @@
 package io.github.joke.percolate.processor.internal.stages.expand;
 
+import io.github.joke.percolate.processor.internal.graph.TypeKeys;
+import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.OperationSpec;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.HashSet;
 import java.util.List;
-import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.jetbrains.annotations.VisibleForTesting;
 
-import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toUnmodifiableList;
 
 // Drops duplicate OperationSpecs from an over-emitted offer set, keeping the first of each structural
 // signature. Two strategies independently offering the same operation is normal under over-emission (design
 // "the engine never chooses"), so both TargetProducer and SourcePathDescender deduplicate — which is why this
 // is its own collaborator rather than a helper on either: change tighten-testability-conventions made it an
-// instance method, and a shared instance method needs an owner both callers can hold.
-@NoArgsConstructor
+// instance method, and a shared instance method needs an owner both callers can hold. Types enter a signature as
+// their interned TypeKeys key, the same one the graph's Value index uses, so no offered type is rendered to text.
+@RequiredArgsConstructor
 final class SpecDeduplicator {
 
+    private final TypeKeys typeKeys;
+
+    // A deduplicator keying types by mirror identity, for a graph driven without a round's interner.
+    SpecDeduplicator() {
+        this(TypeKeys.identity());
+    }
+
     // specs with duplicate structural signatures dropped, preserving first-seen order.
     @VisibleForTesting
     List<OperationSpec> dedup(final List<OperationSpec> specs) {
-        final var seen = new LinkedHashSet<String>();
+        final var seen = new HashSet<Signature>();
         final var unique = new ArrayList<OperationSpec>();
         for (final var spec : specs) {
             if (seen.add(signature(spec))) {
@@ -32,10 +43,24 @@ final class SpecDeduplicator {
 
     // The structural signature (label, output type, port shapes) two specs share iff they are duplicates.
     @VisibleForTesting
-    String signature(final OperationSpec spec) {
+    Signature signature(final OperationSpec spec) {
         final var ports = spec.getPorts().stream()
-                .map(port -> port.getName() + ':' + port.getType() + ':' + port.getNullness())
-                .collect(joining(","));
-        return spec.getLabel() + '|' + spec.getOutputType() + '|' + ports;
+                .map(port -> new PortShape(port.getName(), typeKeys.keyOf(port.getType()), port.getNullness()))
+                .collect(toUnmodifiableList());
+        return new Signature(spec.getLabel(), typeKeys.keyOf(spec.getOutputType()), ports);
+    }
+
+    @Value
+    static class Signature {
+        String label;
+        int outputType;
+        List<PortShape> ports;
+    }
+
+    @Value
+    static class PortShape {
+        String name;
+        int type;
+        Nullability nullness;
     }
 }
@@ -0,0 +1,21 @@
+package io.github.joke.percolate.processor.internal.stages.expand;
+
+import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.Offer;
+import io.github.joke.percolate.spi.OperationSpec;
+import java.util.List;
+import lombok.Value;
+
+// What one strategy answered for one demand, grounded against the demand's in-scope source types: the offers it made
+// (productions and refusals alike, in its own order), the concrete specs its productions ground to, every refusal
+// grounding collected along the way, and the labels of the productions whose grounding stopped at the bindings
+// bound — so a replayed answer still warns about it. Nothing here is bound to a Value, so a PureStrategy's answer can be
+// replayed onto a later, identical demand (TypeQueryCache.offersFor).
+@Value
+class StrategyAnswer {
+    ExpansionStrategy strategy;
+    List<Offer> offers;
+    List<OperationSpec> grounded;
+    List<Offer> groundingRefusals;
+    List<String> capped;
+}
@@ -0,0 +1,102 @@
+package io.github.joke.percolate.processor.internal.stages.expand;
+
+import io.github.joke.percolate.spi.Applicability;
+import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.ResolveCtx;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.type.TypeKind;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.jspecify.annotations.Nullable;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static javax.lang.model.type.TypeKind.DECLARED;
+
+// The strategy dispatch index, built once per processor from every strategy's declared Applicability: which
+// producers a produce demand consults (bucketed by target erasure and TypeKind, with the undeclared ones always
+// consulted) and which accessors a descend demand consults. Consulting a subset never reorders it — every lookup
+// answers in the strategy list's own priority-then-FQN order, so offer order, and with it dedup and tie-breaks, is
+// exactly what asking every strategy would give, minus the empty answers.
+public final class StrategyIndex {
+
+    private final List<ExpansionStrategy> producers = new ArrayList<>();
+    private final List<Applicability> declarations = new ArrayList<>();
+    private final List<ExpansionStrategy> accessors = new ArrayList<>();
+    private final BitSet anyTarget = new BitSet();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // built once, read-only afterwards
+    private final Map<String, BitSet> byErasure = new HashMap<>();
+
+    private final Map<TypeKind, BitSet> byKind = new EnumMap<>(TypeKind.class);
+
+    public StrategyIndex(final List<ExpansionStrategy> strategies) {
+        strategies.forEach(this::register);
+    }
+
+    // The producers demand's target and directive admit, in strategy-list order.
+    @VisibleForTesting
+    List<ExpansionStrategy> producersFor(final ProduceDemand demand, final ResolveCtx ctx) {
+        final var candidates = (BitSet) anyTarget.clone();
+        final var target = demand.targetType();
+        final var kind = ctx.kind(target);
+        or(candidates, byKind.get(kind));
+        if (kind == DECLARED) {
+            or(candidates, byErasure.get(ctx.qualifiedName(target)));
+        }
+        return candidates.stream()
+                .filter(index -> hasRequiredInputs(declarations.get(index), demand))
+                .mapToObj(producers::get)
+                .collect(toUnmodifiableList());
+    }
+
+    // Every accessor, in strategy-list order — a descend demand carries no key the index narrows on.
+    @VisibleForTesting
+    List<ExpansionStrategy> accessors() {
+        return accessors;
+    }
+
+    @VisibleForTesting
+    void register(final ExpansionStrategy strategy) {
+        final var applicability = strategy.applicability();
+        if (applicability.isDescends()) {
+            accessors.add(strategy);
+        }
+        if (!applicability.isProduces()) {
+            return;
+        }
+        final var index = producers.size();
+        producers.add(strategy);
+        declarations.add(applicability);
+        if (applicability.isAnyTarget()) {
+            anyTarget.set(index);
+            return;
+        }
+        applicability
+                .getTargetErasures()
+                .forEach(fqn -> byErasure.computeIfAbsent(fqn, key -> new BitSet()).set(index));
+        applicability
+                .getTargetKinds()
+                .forEach(kind -> byKind.computeIfAbsent(kind, key -> new BitSet()).set(index));
+    }
+
+    // Whether demand's directive declares an input under every key applicability requires.
+    @VisibleForTesting
+    static boolean hasRequiredInputs(final Applicability applicability, final ProduceDemand demand) {
+        return applicability.getRequiredInputs().stream()
+                .allMatch(key -> demand.directive()
+                        .flatMap(directive -> directive.input(key))
+                        .isPresent());
+    }
+
+    @VisibleForTesting
+    static void or(final BitSet into, final @Nullable BitSet bucket) {
+        if (bucket != null) {
+            into.or(bucket);
+        }
+    }
+}
@@ -8,14 +8,21 @@ import io.github.joke.percolate.processor.model.GoalSpec;
 import io.github.joke.percolate.processor.nullability.NullabilityResolver;
 import io.github.joke.percolate.spi.Constraint;
 import io.github.joke.percolate.spi.Directive;
+import io.github.joke.percolate.spi.DirectiveInput;
 import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
 import io.github.joke.percolate.spi.OperationSpec;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
@@ -23,23 +30,41 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 
 // Enumerates the grounded OperationSpecs a FREE target demand admits (design D6/D9 of change target-driven-
 // engine, decomposed out of ExpandStage.Driver.expandFree by decompose-engine-stages): builds the myopic
-// DemandView from the value's in-effect @Map directive, asks the full strategy set, grounds every type-variable
-// port against the in-scope source types, and deduplicates by structural signature — the work-list only ever
-// sees concrete, deduplicated specs.
+// DemandView from the value's in-effect @Map directive, asks every strategy the StrategyIndex admits for it,
+// grounds every type-variable port against the in-scope source types, and deduplicates by structural signature —
+// the work-list only ever sees concrete, deduplicated specs. Each spec of the latest demand remembers the strategy
+// that offered it (.originOf), for the expansion budget's blame.
+//
+// A PureStrategy's grounded answer is taken from the round-wide TypeQueryCache.offersFor when a demand agreeing on
+// everything it may read was answered before — in this mapper or another of the round — and computed and memoized
+// otherwise (.answerOf). Every answer, replayed or not, hands the specs it was capped on to Grounding for the
+// mapper's bound warning. The demand's directive is keyed by its inputs as written, Subject included: a spec records
+// the very inputs it consumed, so it can only be replayed onto a demand carrying equal ones.
+// IdentityHashMap: a spec's origin is per instance — two strategies may offer value-equal specs.
 @RequiredArgsConstructor
+@SuppressWarnings({"PMD.UseConcurrentHashMap", "IdentityHashMapUsage"})
 final class TargetProducer {
 
-    private final List<ExpansionStrategy> strategies;
+    private final StrategyIndex strategies;
     private final Map<Scope, GoalSpec> goalSpecs;
     private final SourceCandidates sourceCandidates;
     private final Grounding grounding;
     private final ResolveCtx resolveCtx;
     private final NullabilityResolver resolver;
     private final SpecDeduplicator deduplicator;
+    private final TypeQueryCache typeQueries;
+
+    // Running totals across every demand produced for, reported by -Apercolate.stats.
+    private int offerTotal;
+    private int refusalTotal;
+
+    // The strategy behind each spec grounded for the latest demand produced for.
+    private final Map<OperationSpec, ExpansionStrategy> origins = new IdentityHashMap<>();
 
     // Every concrete, deduplicated spec the strategy set + grounding admit for the FREE demand value.
     @VisibleForTesting
     List<OperationSpec> produce(final Value value) {
+        origins.clear();
         final var scope = value.getScope();
         final var path = ((TargetLocation) value.getLoc()).getPath().toString();
         final var goalSpec = goalSpecs.getOrDefault(scope, GoalSpec.empty());
@@ -51,21 +76,66 @@ final class TargetProducer {
                 directive,
                 children,
                 value.getLoc().slotName(),
+                scope,
                 resolver);
-        final var sourceTypes = sourceCandidates.sourceTypes(scope);
-        final var refusals = new ArrayList<Offer>();
-        final var grounded = productionsOf(run(demand, resolveCtx), value).stream()
-                .flatMap(spec -> grounding.ground(spec, sourceTypes, refusals))
+        final var sources = sourceCandidates.sourcesOf(scope);
+        final var answers = strategies.producersFor(demand, resolveCtx).stream()
+                .map(strategy -> answerOf(strategy, demand, sources))
+                .collect(toUnmodifiableList());
+        answers.forEach(answer -> recordOffers(answer.getOffers(), value));
+        answers.forEach(answer -> recordRefusals(answer.getGroundingRefusals(), value));
+        answers.forEach(answer -> grounding.recordCapped(answer.getCapped()));
+        final var grounded = answers.stream()
+                .flatMap(answer -> answer.getGrounded().stream().map(spec -> attribute(spec, answer.getStrategy())))
                 .collect(toUnmodifiableList());
-        recordRefusals(refusals, value);
         return deduplicator.dedup(grounded);
     }
 
+    // strategy's grounded answer to demand: the round's memoized one for a PureStrategy, otherwise asked afresh.
+    @VisibleForTesting
+    StrategyAnswer answerOf(final ExpansionStrategy strategy, final DemandView demand, final ScopeSources sources) {
+        if (!(strategy instanceof PureStrategy)) {
+            return answer(strategy, demand, sources);
+        }
+        return typeQueries.offersFor(keyOf(strategy, demand, sources), () -> answer(strategy, demand, sources));
+    }
+
+    // Asks strategy about demand and grounds every production it offers against sources.
+    @VisibleForTesting
+    StrategyAnswer answer(final ExpansionStrategy strategy, final DemandView demand, final ScopeSources sources) {
+        final var offers = strategy.expand(demand, resolveCtx).collect(toUnmodifiableList());
+        final var refusals = new ArrayList<Offer>();
+        final var capped = new LinkedHashSet<String>();
+        final var grounded = offers.stream()
+                .filter(Offer.Production.class::isInstance)
+                .map(offer -> ((Offer.Production) offer).getSpec())
+                .flatMap(spec -> grounding.ground(spec, sources, refusals, capped))
+                .collect(toUnmodifiableList());
+        return new StrategyAnswer(strategy, offers, grounded, List.copyOf(refusals), List.copyOf(capped));
+    }
+
+    // Everything a PureStrategy's answer to demand may depend on: the strategy, the demanded type (by type key) and
+    // nullness, the directive's source path and inputs, the declared children, and the in-scope source types (by
+    // type key, in order) its productions are grounded against.
+    @VisibleForTesting
+    OfferKey keyOf(final ExpansionStrategy strategy, final DemandView demand, final ScopeSources sources) {
+        final var directive = demand.directive();
+        return new OfferKey(
+                strategy,
+                resolveCtx.typeKey(demand.targetType()),
+                demand.targetNullness(),
+                directive.map(Directive::sourcePath),
+                directive.map(Directive::inputs),
+                demand.declaredChildren(),
+                sources.typeKeys());
+    }
+
     // Records every bound refusal Grounding collected on value's inadmissible list.
     @VisibleForTesting
     void recordRefusals(final List<Offer> refusals, final Value value) {
         for (final var refusal : refusals) {
             if (refusal instanceof Offer.Refusal) {
+                refusalTotal++;
                 final var offerRefusal = (Offer.Refusal) refusal;
                 value.addInadmissible(new Refusal(offerRefusal.getSubject(), offerRefusal.getMessage()));
             }
@@ -89,20 +159,30 @@ final class TargetProducer {
         return goalSpecs.getOrDefault(scope, GoalSpec.empty()).constraintsFor(path);
     }
 
-    // Splits offers into their productions, recording every refusal on value's inadmissible list (design D2 of
-    // change decouple-engine-from-strategy-semantics) — a refusal never becomes an Operation vertex.
+    // Counts offers, recording every refusal among them on value's inadmissible list (design D2 of change
+    // decouple-engine-from-strategy-semantics) — a refusal never becomes an Operation vertex.
     @VisibleForTesting
-    List<OperationSpec> productionsOf(final List<Offer> offers, final Value value) {
-        final var productions = new ArrayList<OperationSpec>();
+    void recordOffers(final List<Offer> offers, final Value value) {
         for (final var offer : offers) {
-            if (offer instanceof Offer.Production) {
-                productions.add(((Offer.Production) offer).getSpec());
-            } else if (offer instanceof Offer.Refusal) {
+            offerTotal++;
+            if (offer instanceof Offer.Refusal) {
+                refusalTotal++;
                 final var refusal = (Offer.Refusal) offer;
                 value.addInadmissible(new Refusal(refusal.getSubject(), refusal.getMessage()));
             }
         }
-        return productions;
+    }
+
+    // Every offer the strategies made so far, productions and refusals alike.
+    @VisibleForTesting
+    int offerCount() {
+        return offerTotal;
+    }
+
+    // Every refusal recorded so far — a strategy's own plus each one grounding collected.
+    @VisibleForTesting
+    int refusalCount() {
+        return refusalTotal;
     }
 
     // The directive-pinned source path of the FREE demand value's binding, or none.
@@ -114,11 +194,30 @@ final class TargetProducer {
         return goalSpec.bindingFor(path).map(Directive::sourcePath).orElse(List.of());
     }
 
-    // Every offer the strategy set makes for demand.
+    // The strategy whose offer spec was grounded from, for the latest demand; empty for a spec that demand was not
+    // offered.
     @VisibleForTesting
-    List<Offer> run(final DemandView demand, final ResolveCtx ctx) {
-        return strategies.stream()
-                .flatMap(strategy -> strategy.expand(demand, ctx))
-                .collect(toUnmodifiableList());
+    Optional<ExpansionStrategy> originOf(final OperationSpec spec) {
+        return Optional.ofNullable(origins.get(spec));
+    }
+
+    // Records strategy as the origin of grounded, a spec its answer grounds to; returns grounded.
+    @VisibleForTesting
+    OperationSpec attribute(final OperationSpec grounded, final ExpansionStrategy strategy) {
+        origins.put(grounded, strategy);
+        return grounded;
+    }
+
+    // The identity of a PureStrategy's answer (.keyOf). Not a Lombok @Value — the name is taken by the graph's Value.
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    static final class OfferKey {
+        private final ExpansionStrategy strategy;
+        private final Object target;
+        private final Nullability targetNullness;
+        private final Optional<List<String>> sourcePath;
+        private final Optional<List<DirectiveInput>> inputs;
+        private final Set<String> declaredChildren;
+        private final List<Object> sourceTypes;
     }
 }
@@ -0,0 +1,151 @@
+package io.github.joke.percolate.processor.internal.stages.expand;
+
+import io.github.joke.percolate.processor.internal.graph.TypeKeys;
+import io.github.joke.percolate.processor.internal.stats.QueryCounters;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.jspecify.annotations.Nullable;
+
+// The round-scoped memo behind CompileResolveCtx's hottest type queries. Strategies ask isType (and through it
+// isList/isOptional/isStream) and isAssignableToNamed over and over for the same few names, each answer paying a
+// module-aware Elements.getTypeElement, two erasures and an isSameType/isAssignable; accessor descent re-ran
+// getAllMembers for every segment of every path. Each answer is now computed once per round and kept until
+// MapperStep starts the next one: a later round may bring a regenerated element under the same name, so nothing
+// memoized here — element, mirror or answer — survives into it.
+//
+// Keys are javac's own model objects, whose equality is identity. An erasure is keyed by the mirror asked about;
+// isType/isAssignableToNamed answers are keyed by that erasure, which javac shares per class, so List<String> and
+// List<Integer> meet in one entry. Every lookup counts a hit or a miss on the round's QueryCounters.
+//
+// It also owns the round's TypeKeys, the structural type interner the graph's Value index, spec dedup and
+// ResolveCtx.typeKey share, so a key minted for one mapper means the same type for every other in the round — and,
+// keyed on those type keys, the round's memo of what each PureStrategy answered (.offersFor), so the same leaf
+// demand raised by many mappers is offered for and grounded once.
+@Singleton
+@RequiredArgsConstructor(onConstructor_ = @Inject)
+public final class TypeQueryCache {
+
+    static final String NAMED = "typeElementNamed";
+    static final String ERASURE = "erasure";
+    static final String IS_TYPE = "isType";
+    static final String ASSIGNABLE_TO_NAMED = "isAssignableToNamed";
+    static final String MEMBERS = "membersOf";
+    static final String OFFERS = "offers";
+
+    private final Types types;
+    private final Elements elements;
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: processing rounds run sequentially
+    private final Map<String, Optional<TypeElement>> named = new HashMap<>();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: processing rounds run sequentially
+    private final Map<TypeMirror, TypeMirror> erasures = new HashMap<>();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: processing rounds run sequentially
+    private final Map<TypeMirror, Map<String, Boolean>> sameErasure = new HashMap<>();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: processing rounds run sequentially
+    private final Map<TypeMirror, Map<String, Boolean>> assignableErasure = new HashMap<>();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: processing rounds run sequentially
+    private final Map<TypeElement, List<? extends Element>> members = new HashMap<>();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: processing rounds run sequentially
+    private final Map<TargetProducer.OfferKey, StrategyAnswer> offers = new HashMap<>();
+
+    @Getter
+    private final TypeKeys typeKeys = TypeKeys.structural();
+
+    @Getter
+    private QueryCounters counters = new QueryCounters();
+
+    // Forgets every memoized answer and starts fresh counters for the round about to run, returning them.
+    public QueryCounters startRound() {
+        named.clear();
+        erasures.clear();
+        sameErasure.clear();
+        assignableErasure.clear();
+        members.clear();
+        offers.clear();
+        typeKeys.clear();
+        counters = new QueryCounters();
+        return counters;
+    }
+
+    public @Nullable TypeElement typeElementNamed(final String fqn) {
+        return memo(named, fqn, NAMED, name -> Optional.ofNullable(elements.getTypeElement(name)))
+                .orElse(null);
+    }
+
+    // Every name looked up by name so far this round, resolvable or not.
+    public Set<String> namesAsked() {
+        return Set.copyOf(named.keySet());
+    }
+
+    public TypeMirror erasure(final TypeMirror type) {
+        return memo(erasures, type, ERASURE, types::erasure);
+    }
+
+    // Whether declared type's erasure is the type named fqn; the caller has checked type is declared.
+    public boolean isType(final TypeMirror type, final String fqn) {
+        final var erasure = erasure(type);
+        final var answers = sameErasure.computeIfAbsent(erasure, key -> new HashMap<>());
+        return memo(answers, fqn, IS_TYPE, name -> {
+            final var element = typeElementNamed(name);
+            return element != null && types.isSameType(erasure, erasure(element.asType()));
+        });
+    }
+
+    // Whether declared type's erasure is assignable to the type named fqn; the caller has checked type is declared.
+    public boolean isAssignableToNamed(final TypeMirror type, final String fqn) {
+        final var erasure = erasure(type);
+        final var answers = assignableErasure.computeIfAbsent(erasure, key -> new HashMap<>());
+        return memo(answers, fqn, ASSIGNABLE_TO_NAMED, name -> {
+            final var element = typeElementNamed(name);
+            return element != null && types.isAssignable(erasure, erasure(element.asType()));
+        });
+    }
+
+    public int typeKey(final TypeMirror type) {
+        return typeKeys.keyOf(type);
+    }
+
+    public List<? extends Element> membersOf(final TypeElement parent) {
+        return memo(members, parent, MEMBERS, elements::getAllMembers);
+    }
+
+    // The answer a PureStrategy gave a demand agreeing with key: compute's, the first time key is asked in a round.
+    @VisibleForTesting
+    StrategyAnswer offersFor(final TargetProducer.OfferKey key, final Supplier<StrategyAnswer> compute) {
+        return memo(offers, key, OFFERS, any -> compute.get());
+    }
+
+    // The answer cached under key, else compute's answer, cached; counted as a hit or a miss of query either way.
+    @VisibleForTesting
+    <K, V> V memo(final Map<K, V> cache, final K key, final String query, final Function<K, V> compute) {
+        final var cached = cache.get(key);
+        if (cached != null) {
+            counters.hit(query);
+            return cached;
+        }
+        counters.miss(query);
+        final var answer = compute.apply(key);
+        cache.put(key, answer);
+        return answer;
+    }
+}
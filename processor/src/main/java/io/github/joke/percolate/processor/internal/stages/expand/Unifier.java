@@ -99,12 +99,12 @@ final class Unifier {
     // static (not an instance method): unifyApp is exercised through a Spy in UnifierSpec to isolate the
     // self-recursive unify() call, and a static call bypasses the spy's interaction recording entirely — unlike
     // an instance helper, which would show up as an extra untracked interaction under strict `0 * _` mocking.
-    // Whether source is declared, erases to template's erasure, and has as many type arguments.
+    // Whether source is declared, erases to template's erasure, and has as many type arguments. Two declared types
+    // have the same erasure exactly when they share their element, so neither erasure is computed: the template's
+    // erasure is its element already.
     @VisibleForTesting
     boolean matchesErasure(final PortType.App template, final TypeMirror source, final ResolveCtx ctx) {
-        return ctx.isDeclared(source)
-                && ctx.isSameType(
-                        ctx.erasure(source), ctx.erasure(template.getErasure().asType()))
+        return ctx.asTypeElement(source).filter(template.getErasure()::equals).isPresent()
                 && ctx.typeArgumentCount(source) == template.getArgs().size();
     }
 
@@ -23,6 +23,7 @@ import org.jetbrains.annotations.VisibleForTesting;
 import static io.github.joke.percolate.lib.javapoet.MethodSpec.constructorBuilder;
 import static io.github.joke.percolate.lib.javapoet.MethodSpec.methodBuilder;
 import static io.github.joke.percolate.lib.javapoet.TypeSpec.classBuilder;
+import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
 
 // Assembles and writes the generated mapper implementation via JavaPoet and the Filer. The thin
@@ -47,7 +48,10 @@ public final class AssembleMapperType {
         final var packageName =
                 elements.getPackageOf(mapperType).getQualifiedName().toString();
 
+        // The mapper is the implementation's one originating element: Gradle's isolating incremental mode relinks
+        // the implementation to it, recompiling it when, and only when, the mapper's source changes.
         final var typeBuilder = classBuilder(simpleName)
+                .addOriginatingElement(mapperType)
                 .addModifiers(decisions.publicModifiers(options.isClassesFinal()))
                 .addAnnotation(generatedAnnotation())
                 .addFields(methodBodies.getMembers())
@@ -60,8 +64,12 @@ public final class AssembleMapperType {
         }
 
         methodBodies.getBodies().forEach(body -> typeBuilder.addMethod(overrideMethod(body)));
+        methodBodies.getHelpers().forEach(helper -> typeBuilder.addMethod(helperMethod(helper)));
 
-        JavaFile.builder(packageName, typeBuilder.build()).build().writeTo(filer);
+        final var javaFile = JavaFile.builder(packageName, typeBuilder.build()).build();
+        javaFile.writeTo(filer);
+        ctx.setGeneratedFile(javaFile);
+        ctx.setGeneratedName(packageName.isEmpty() ? simpleName : packageName + "." + simpleName);
     }
 
     @VisibleForTesting
@@ -93,6 +101,19 @@ public final class AssembleMapperType {
         return builder.build();
     }
 
+    // A shared element plan's private helper method, its one parameter styled like a generated method's.
+    @VisibleForTesting
+    MethodSpec helperMethod(final HelperImpl helper) {
+        return methodBuilder(helper.getName())
+                .addModifiers(PRIVATE)
+                .returns(TypeName.get(helper.getElementOut()))
+                .addParameter(ParameterSpec.builder(TypeName.get(helper.getElementIn()), helper.getParameter())
+                        .addModifiers(decisions.parameterModifiers(options.isParametersFinal()))
+                        .build())
+                .addCode(helper.getBody())
+                .build();
+    }
+
     @VisibleForTesting
     ParameterSpec parameterSpec(final VariableElement parameter) {
         return ParameterSpec.builder(
@@ -1,7 +1,7 @@
 package io.github.joke.percolate.processor.internal.stages.generate;
 
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
-import io.github.joke.percolate.processor.internal.graph.MapperGraph;
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan;
 import io.github.joke.percolate.processor.internal.graph.Operation;
 import io.github.joke.percolate.processor.internal.graph.Value;
 import io.github.joke.percolate.spi.BodyCodegen;
@@ -29,7 +29,7 @@ final class BodyRenderContextFactory {
     // OperationCodegen producer, or no chosen producer at all).
     @VisibleForTesting
     Optional<CodeBlock> renderIfBodyCodegen(
-            final MapperGraph graph,
+            final LoweredPlan plan,
             final Optional<Operation> producer,
             final Function<Value, CodeBlock> operandRenderer,
             final MemberPlan memberPlan,
@@ -43,14 +43,14 @@ final class BodyRenderContextFactory {
         if (!(codegen instanceof BodyCodegen)) {
             return Optional.empty();
         }
-        final var context = buildFor(graph, operation, operandRenderer, memberPlan, resolveCtx, sourceVersion);
+        final var context = buildFor(plan, operation, operandRenderer, memberPlan, resolveCtx, sourceVersion);
         return Optional.of(((BodyCodegen) codegen).render(context));
     }
 
     // Builds the render context for operation's BodyCodegen, rendering each port via operandRenderer.
     @VisibleForTesting
     BodyRenderContext buildFor(
-            final MapperGraph graph,
+            final LoweredPlan plan,
             final Operation operation,
             final Function<Value, CodeBlock> operandRenderer,
             final MemberPlan memberPlan,
@@ -60,7 +60,7 @@ final class BodyRenderContextFactory {
         final var byName = new LinkedHashMap<String, CodeBlock>();
         final var portTypes = new LinkedHashMap<String, TypeMirror>();
         for (final var port : operation.getPorts()) {
-            final var source = graph.portSource(operation, port.getName())
+            final var source = plan.portSource(operation, port.getName())
                     .orElseThrow(() -> new IllegalStateException("operation port has no source: " + port.getName()));
             final var operand = operandRenderer.apply(source);
             positional.add(operand);
@@ -6,18 +6,18 @@ import io.github.joke.percolate.processor.MapperContext;
 import io.github.joke.percolate.processor.ProcessorOptions;
 import io.github.joke.percolate.processor.internal.graph.ChildScope;
 import io.github.joke.percolate.processor.internal.graph.ElementLocation;
-import io.github.joke.percolate.processor.internal.graph.ExtractedPlan;
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan;
 import io.github.joke.percolate.processor.internal.graph.MapperGraph;
 import io.github.joke.percolate.processor.internal.graph.MethodScope;
 import io.github.joke.percolate.processor.internal.graph.Operation;
 import io.github.joke.percolate.processor.internal.graph.SourceLocation;
 import io.github.joke.percolate.processor.internal.graph.Value;
+import io.github.joke.percolate.spi.LoopCodegen;
 import io.github.joke.percolate.spi.OperationCodegen;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.ScopeCodegen;
 import jakarta.inject.Inject;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -29,10 +29,9 @@ import javax.lang.model.element.ExecutableElement;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
-import static io.github.joke.percolate.processor.internal.graph.ExtractedPlan.extract;
 import static java.util.stream.Collectors.toUnmodifiableList;
 
-// Composes each abstract method body by walking the ExtractedPlan from the method's return-root Value (design
+// Composes each abstract method body by walking the LoweredPlan from the method's return-root Value (design
 // D8/codegen). Each scope renders as an ordered list of local-variable declarations followed by a single result
 // expression: a plan Value is hoisted to a local (per HoistPlan — assembly arguments and shared Values) and
 // referenced by name, while single-port chains and the return-root render inline, so fluent container pipelines
@@ -40,8 +39,11 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 // io.github.joke.percolate.spi.IncomingValues keyed by port name; a leaf (a supply root) renders the parameter
 // or the element lambda variable. A scope-owning Operation (container element mapping) weaves its container
 // codegen around the child scope rendered as a lambda — an expression lambda when the child hoists nothing, a
-// block lambda when it does. Producer identity is structural — no group, label, or shared-codegen inference —
-// and no nullability is read (crossings are ordinary plan Operations).
+// block lambda when it does — or, for an element plan several such Operations share under
+// -Apercolate.childPlans.helpers, a call to the private helper method it renders as once. A loop-rendered mapping
+// (LoopCodegen, -Apercolate.collections.style=loop) is a hoisted local instead: declared presized, then filled by a
+// loop whose body is the child scope's locals as statements. Producer identity is structural — no group, label,
+// or shared-codegen inference — and no nullability is read (crossings are ordinary plan Operations).
 @RequiredArgsConstructor(onConstructor_ = @Inject)
 public final class BuildMethodBodies {
 
@@ -57,20 +59,23 @@ public final class BuildMethodBodies {
         final var graph = ctx.getGraph();
         final var resolveCtx = ctx.getResolveCtx();
         if (shape == null || graph == null || resolveCtx == null) {
-            return new MethodBodies(List.of(), List.of());
+            return new MethodBodies(List.of(), List.of(), List.of());
         }
-        final var plan = extract(graph);
-        final var memberPlan = memberPlanFactory.forMapper(graph, plan, ctx);
+        final var plan = ctx.getLoweredPlan();
+        final var memberPlan = memberPlanFactory.forMapper(plan, ctx, options.isChildPlanHelpers());
         final var bodies = shape.getAbstractMethods().stream()
                 .map(method -> renderMethod(graph, plan, memberPlan, method, resolveCtx))
                 .collect(toUnmodifiableList());
-        return new MethodBodies(bodies, memberPlan.fields());
+        final var helpers = memberPlan.helpers().entrySet().stream()
+                .map(helper -> renderHelper(graph, plan, memberPlan, helper.getKey(), helper.getValue(), resolveCtx))
+                .collect(toUnmodifiableList());
+        return new MethodBodies(bodies, memberPlan.fields(), helpers);
     }
 
     @VisibleForTesting
     MethodImpl renderMethod(
             final MapperGraph graph,
-            final ExtractedPlan plan,
+            final LoweredPlan plan,
             final MemberPlan memberPlan,
             final ExecutableElement method,
             final ResolveCtx resolveCtx) {
@@ -78,22 +83,51 @@ public final class BuildMethodBodies {
         final var reserved = method.getParameters().stream()
                 .map(parameter -> parameter.getSimpleName().toString())
                 .collect(toUnmodifiableList());
-        final var hoist = hoistPlanFactory.forMethod(graph, plan, root, reserved);
-        final var style = new LocalStyle(options.isLocalsFinal(), options.isLocalsVar());
-        final var body = new Walk(
-                        graph,
-                        plan,
-                        hoist,
-                        memberPlan,
-                        style,
-                        new TypeNameRenderer(),
-                        resolveCtx,
-                        sourceVersion,
-                        bodyRenderContextFactory)
-                .renderMethodBody(root);
+        final var hoist = hoistPlanFactory.forMethod(plan, reserved);
+        final var body = walk(graph, plan, hoist, memberPlan, resolveCtx).renderMethodBody(root);
         return new MethodImpl(method, body, Set.of());
     }
 
+    // The helper method named name rendering planScope's element plan: a method body like an abstract method's, its
+    // one parameter bound to the element.
+    @VisibleForTesting
+    HelperImpl renderHelper(
+            final MapperGraph graph,
+            final LoweredPlan plan,
+            final MemberPlan memberPlan,
+            final ChildScope planScope,
+            final String name,
+            final ResolveCtx resolveCtx) {
+        final var root = planScope.getReturnRoot();
+        final var elementIn = planScope.getElementInput().getType();
+        final var hoist = hoistPlanFactory.forMethod(plan, List.of());
+        final var parameter = hoist.lambdaName(elementIn);
+        final var walk = walk(graph, plan, hoist, memberPlan, resolveCtx);
+        walk.bindElement(planScope, parameter);
+        final var elementOut = root.getType()
+                .orElseThrow(() -> new IllegalStateException("element return root has no type: " + root.id()));
+        return new HelperImpl(name, elementIn, parameter, elementOut, walk.renderMethodBody(root));
+    }
+
+    @VisibleForTesting
+    Walk walk(
+            final MapperGraph graph,
+            final LoweredPlan plan,
+            final HoistPlan hoist,
+            final MemberPlan memberPlan,
+            final ResolveCtx resolveCtx) {
+        return new Walk(
+                graph,
+                plan,
+                hoist,
+                memberPlan,
+                new LocalStyle(options.isLocalsFinal(), options.isLocalsVar()),
+                new TypeNameRenderer(),
+                resolveCtx,
+                sourceVersion,
+                bodyRenderContextFactory);
+    }
+
     // One method-body render (decomposed by change decompose-engine-stages): holds the graph, the plan, the hoist
     // decision, the lambda-variable environment, and the injected TypeNameRenderer — the sole compiler-backed leaf,
     // so every other method here is pure assembly logic a spec can mock/spy in isolation. Package-visible so the
@@ -104,7 +138,7 @@ public final class BuildMethodBodies {
     static final class Walk {
 
         private final MapperGraph graph;
-        private final ExtractedPlan plan;
+        private final LoweredPlan plan;
         private final HoistPlan hoist;
         private final MemberPlan memberPlan;
         private final LocalStyle style;
@@ -120,7 +154,7 @@ public final class BuildMethodBodies {
         // switch.style option moved onto the generic ResolveCtx.option(…) seam and took a parameter with it.
         Walk(
                 final MapperGraph graph,
-                final ExtractedPlan plan,
+                final LoweredPlan plan,
                 final HoistPlan hoist,
                 final MemberPlan memberPlan,
                 final LocalStyle style,
@@ -146,7 +180,7 @@ public final class BuildMethodBodies {
         @VisibleForTesting
         CodeBlock renderMethodBody(final Value root) {
             final var bodyRendered = bodyRenderContextFactory.renderIfBodyCodegen(
-                    graph, plan.chosenProducer(root), this::renderOperand, memberPlan, resolveCtx, sourceVersion);
+                    plan, plan.chosenProducer(root), this::renderOperand, memberPlan, resolveCtx, sourceVersion);
             if (bodyRendered.isPresent()) {
                 return bodyRendered.get();
             }
@@ -175,14 +209,50 @@ public final class BuildMethodBodies {
                     .build();
         }
 
-        // Emit one hoisted local: [final] <Type|var> <name> = <expr>; per the configured LocalStyle.
+        // Emit one hoisted local: [final] <Type|var> <name> = <expr>; per the configured LocalStyle, or a loop-filled
+        // one when a LoopCodegen produces value.
         @VisibleForTesting
         void emitLocal(final CodeBlock.Builder builder, final Value value) {
+            final var loop =
+                    plan.chosenProducer(value).filter(producer -> producer.getCodegen() instanceof LoopCodegen);
+            if (loop.isPresent()) {
+                emitLoop(builder, value, loop.get());
+                return;
+            }
             final var name = hoist.declare(value);
             final var rhs = renderInline(value);
             builder.addStatement("$L$L $N = $L", style.isMakeFinal() ? "final " : "", typeToken(value), name, rhs);
         }
 
+        // A loop-filled local: [final] <Type> <name> = <init>; then the fill over the source, the child's locals as the
+        // loop body's statements and its return-root (or its helper's call) as the element added. The declared type is
+        // always spelled out — var would infer the initialiser's diamond as <Object>.
+        @VisibleForTesting
+        void emitLoop(final CodeBlock.Builder builder, final Value value, final Operation operation) {
+            final var codegen = (LoopCodegen) operation.getCodegen();
+            final var source = plan.portSource(operation, operation.getPorts().get(0).getName())
+                    .map(this::renderOperand)
+                    .orElseThrow(() -> new IllegalStateException("collection loop has no source port"));
+            final var name = hoist.declare(value);
+            final var target = CodeBlock.of("$N", name);
+            builder.addStatement(
+                    "$L$T $N = $L", style.isMakeFinal() ? "final " : "", localType(value), name, codegen.init(source));
+            final var child = operation.getChildScope().orElseThrow().getPlanScope();
+            final var elementType = child.getElementInput().getType();
+            final var var = hoist.lambdaName(elementType);
+            final var helper = memberPlan.helperFor(child);
+            final var statements = CodeBlock.builder();
+            if (helper.isEmpty()) {
+                bindElement(child, var);
+                hoistedInScope(child.getReturnRoot()).forEach(local -> emitLocal(statements, local));
+            }
+            final var element = helper.map(method -> CodeBlock.of("$N($N)", method, var))
+                    .orElseGet(() -> renderInline(child.getReturnRoot()));
+            final var index = hoist.indexName();
+            builder.add(codegen.fill(
+                    source, target, typeNameRenderer.render(elementType), var, index, statements.build(), element));
+        }
+
         // The declaration's type token: var when configured, otherwise the Value's rendered type.
         @VisibleForTesting
         CodeBlock typeToken(final Value value) {
@@ -203,6 +273,9 @@ public final class BuildMethodBodies {
                 return renderLeaf(value);
             }
             final var operation = producer.get();
+            if (operation.getCodegen() instanceof LoopCodegen) {
+                return hoist.reference(value);
+            }
             if (operation.getChildScope().isPresent()) {
                 return renderContainerMapping(operation);
             }
@@ -214,7 +287,7 @@ public final class BuildMethodBodies {
             final var positional = new ArrayList<CodeBlock>();
             final var byName = new LinkedHashMap<String, CodeBlock>();
             for (final var port : operation.getPorts()) {
-                final var operand = graph.portSource(operation, port.getName())
+                final var operand = plan.portSource(operation, port.getName())
                         .map(this::renderOperand)
                         .orElseThrow(
                                 () -> new IllegalStateException("operation port has no source: " + port.getName()));
@@ -233,16 +306,31 @@ public final class BuildMethodBodies {
         @VisibleForTesting
         CodeBlock renderContainerMapping(final Operation operation) {
             final var sourcePort = operation.getPorts().get(0);
-            final var sourceExpr = graph.portSource(operation, sourcePort.getName())
+            final var sourceExpr = plan.portSource(operation, sourcePort.getName())
                     .map(this::renderOperand)
                     .orElseThrow(() -> new IllegalStateException("container mapping has no source port"));
-            final var child = operation.getChildScope().orElseThrow();
+            final var child = operation.getChildScope().orElseThrow().getPlanScope();
             final var var = hoist.lambdaName(child.getElementInput().getType());
-            materialisedElementRoot(child).ifPresent(paramRoot -> lambdaVars.put(paramRoot, CodeBlock.of("$N", var)));
-            final var childBody = renderScopeBody(child.getReturnRoot());
+            final var childBody = memberPlan
+                    .helperFor(child)
+                    .map(helper -> CodeBlock.of("$N($N)", helper, var))
+                    .orElseGet(() -> renderChildBody(child, var));
             return ((ScopeCodegen) operation.getCodegen()).weave(sourceExpr, var, childBody);
         }
 
+        // child's plan rendered as the lambda body, its element bound to var.
+        @VisibleForTesting
+        CodeBlock renderChildBody(final ChildScope child, final String var) {
+            bindElement(child, var);
+            return renderScopeBody(child.getReturnRoot());
+        }
+
+        // Binds child's element root to the variable var, when child's plan sources from it.
+        @VisibleForTesting
+        void bindElement(final ChildScope child, final String var) {
+            materialisedElementRoot(child).ifPresent(paramRoot -> lambdaVars.put(paramRoot, CodeBlock.of("$N", var)));
+        }
+
         // The element param-root Value if the child plan sourced from it (lazily materialised), else empty.
         @VisibleForTesting
         Optional<Value> materialisedElementRoot(final ChildScope child) {
@@ -279,39 +367,13 @@ public final class BuildMethodBodies {
         }
 
         // The hoisted Values of root's scope in dependency (post-order) order, so each local precedes its first
-        // reference. The walk stays within the scope — it descends a producer's port sources but never its child scope
-        // — and excludes root itself (the return-root renders inline).
+        // reference: root's schedule in the LoweredPlan, which stays within the scope. root itself renders inline
+        // unless it is loop-filled, the one case the plan hoists a return-root.
         @VisibleForTesting
         List<Value> hoistedInScope(final Value root) {
-            final var ordered = new ArrayList<Value>();
-            // Value is identity-equal (equals/hashCode are identity), so a HashSet is effectively an identity set.
-            collectHoisted(root, root, ordered, new HashSet<>());
-            return ordered;
-        }
-
-        @VisibleForTesting
-        void collectHoisted(final Value value, final Value root, final List<Value> ordered, final Set<Value> seen) {
-            if (!seen.add(value)) {
-                return;
-            }
-            final var producer = plan.chosenProducer(value);
-            if (producer.isEmpty()) {
-                return;
-            }
-            descendAndRecord(value, root, ordered, seen, producer.get());
-        }
-
-        @VisibleForTesting
-        void descendAndRecord(
-                final Value value,
-                final Value root,
-                final List<Value> ordered,
-                final Set<Value> seen,
-                final Operation producer) {
-            graph.portSourcesOf(producer).forEach(source -> collectHoisted(source, root, ordered, seen));
-            if (!value.equals(root) && hoist.isHoisted(value)) {
-                ordered.add(value);
-            }
+            return plan.schedule(root).stream()
+                    .filter(hoist::isHoisted)
+                    .collect(toUnmodifiableList());
         }
     }
 }
@@ -4,6 +4,7 @@ import io.github.joke.percolate.processor.MapperContext;
 import io.github.joke.percolate.processor.internal.stages.Stage;
 import jakarta.inject.Inject;
 import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
 
 import static io.github.joke.percolate.processor.Diagnostic.error;
 import static io.github.joke.percolate.spi.Subjects.none;
@@ -15,8 +16,26 @@ public final class GenerateStage implements Stage {
     private final BuildMethodBodies buildMethodBodies;
     private final AssembleMapperType assembleMapperType;
 
+    // The last stage: once it has run — emitted, failed or skipped — nothing reads the mapper's graph again, so it
+    // is released, its extracted plan with it, together with the mapper's ResolveCtx. The context itself outlives the
+    // pipeline (MapperStep's defer decision, statistics and diagnostic flush), none of which needs either — only the
+    // names of the graph's types.
     @Override
     public void run(final MapperContext ctx) {
+        try {
+            generate(ctx);
+        } finally {
+            final var graph = ctx.getGraph();
+            if (graph != null) {
+                ctx.setGraphTypeNames(graph.typeNames());
+            }
+            ctx.setGraph(null);
+            ctx.setResolveCtx(null);
+        }
+    }
+
+    @VisibleForTesting
+    void generate(final MapperContext ctx) {
         // Skip a mapper that already has an error — whether scarred by an earlier stage, or unrealised
         // (recorded transient by RealisationDiagnosticsStage, deferred for a later round, or genuinely
         // un-realisable) — its graph is incomplete, so there is nothing to emit.
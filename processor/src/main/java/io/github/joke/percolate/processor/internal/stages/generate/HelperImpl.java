@@ -0,0 +1,16 @@
+package io.github.joke.percolate.processor.internal.stages.generate;
+
+import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import javax.lang.model.type.TypeMirror;
+import lombok.Value;
+
+// A shared element plan rendered once as a private helper method (-Apercolate.childPlans.helpers): name(parameter)
+// maps one elementIn to an elementOut through body.
+@Value
+final class HelperImpl {
+    String name;
+    TypeMirror elementIn;
+    String parameter;
+    TypeMirror elementOut;
+    CodeBlock body;
+}
@@ -2,10 +2,10 @@ package io.github.joke.percolate.processor.internal.stages.generate;
 
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
 import io.github.joke.percolate.lib.javapoet.NameAllocator;
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan;
 import io.github.joke.percolate.processor.internal.graph.Value;
 import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Set;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
 import lombok.RequiredArgsConstructor;
@@ -13,25 +13,23 @@ import org.jetbrains.annotations.VisibleForTesting;
 
 import static java.lang.Character.toLowerCase;
 
-// The separable, pure hoist decision plus variable naming for one method body (design D1/D2/D5). Given the
-// ExtractedPlan reachable from a method return-root, it decides which in-plan Values materialise as named
-// locals: a Value with a chosen producer that either feeds a port of an n-ary Operation (getPorts().size() >= 2
-// — a multi-argument assembly call) or is consumed by more than one in-plan port (so it is evaluated once, not
-// re-rendered per use). Single-port chains (container iterate/collect/flatMap/wrap/unwrap, conversions,
-// accessors, nullness crossings) and bare leaves (parameter / element-lambda roots, which have no chosen
-// producer) stay inline.
+// The hoist decision plus variable naming for one method body (design D1/D2/D5). Which in-plan Values
+// materialise as named locals is read off the LoweredPlan: a Value with a chosen producer that either feeds a port
+// of an n-ary Operation (getPorts().size() >= 2 — a multi-argument assembly call) or is consumed by more than one
+// in-plan port (so it is evaluated once, not re-rendered per use), plus a loop-filled collection and the source its
+// loop reads. Single-port chains (container iterate/collect/flatMap/wrap/unwrap, conversions, accessors, nullness
+// crossings) and bare leaves (parameter / element-lambda roots, which have no chosen producer) stay inline.
 //
-// It mutates neither the MapperGraph nor the ExtractedPlan and adds no codegen IR — it is the seam toward a
-// future per-scope binding schedule. Naming lives here too: each hoisted local is named after the slot it
-// materialises (Location.slotName() — the target field, source segment, or element role) and a lambda parameter
-// after its element type, made unique within the method by a NameAllocator seeded with the method's parameter
+// It mutates neither the MapperGraph nor the plan. Naming lives here too: each hoisted local is named after the
+// slot it materialises (Location.slotName() — the target field, source segment, or element role) and a lambda
+// parameter after its element type, made unique within the method by a NameAllocator seeded with the method's parameter
 // names (so a local never shadows a parameter, collisions get a suffix, and reserved words are sanitised).
-// IdentityHashMap is the point: every memo here is keyed by Value/Operation instance identity, not value equality.
+// IdentityHashMap is the point: every memo here is keyed by Value instance identity, not value equality.
 @SuppressWarnings({"PMD.UseConcurrentHashMap", "IdentityHashMapUsage"})
 @RequiredArgsConstructor
 final class HoistPlan {
 
-    private final Set<Value> hoisted;
+    private final LoweredPlan lowered;
 
     private final NameAllocator names;
 
@@ -39,7 +37,7 @@ final class HoistPlan {
 
     @VisibleForTesting
     boolean isHoisted(final Value value) {
-        return hoisted.contains(value);
+        return lowered.isHoisted(value);
     }
 
     // Allocates a unique name for a hoisted value from its slot name, records its reference, returns it.
@@ -66,6 +64,12 @@ final class HoistPlan {
         return names.newName(typeBase(elementType));
     }
 
+    // Allocates a unique name a loop may declare as its position counter.
+    @VisibleForTesting
+    String indexName() {
+        return names.newName("index");
+    }
+
     @VisibleForTesting
     String slotBase(final Value value) {
         final var slot = value.getLoc().slotName();
@@ -2,9 +2,11 @@ package io.github.joke.percolate.processor.internal.stages.generate;
 
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
 import io.github.joke.percolate.lib.javapoet.FieldSpec;
+import io.github.joke.percolate.processor.internal.graph.ChildScope;
 import io.github.joke.percolate.spi.MemberRequest;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
@@ -22,11 +24,21 @@ import static javax.lang.model.element.Modifier.STATIC;
 // io.github.joke.percolate.spi.IncomingValues.member(String) — the same indirection a hoisted local reaches its
 // codegen through — so the composer stays field-syntax-free. It mutates neither the MapperGraph nor the
 // ExtractedPlan.
+//
+// Under -Apercolate.childPlans.helpers it also names the private helper method each element plan shared by more
+// than one in-plan scope-owning Operation renders as, once per mapper, so every lambda mapping those elements calls
+// it rather than repeating its body.
 @RequiredArgsConstructor
 final class MemberPlan {
 
     private final Map<String, String> namesByDedupKey;
     private final Map<String, MemberRequest> requestByDedupKey;
+    private final Map<ChildScope, String> helperNames;
+
+    // A member plan rendering no element plan as a helper method.
+    MemberPlan(final Map<String, String> namesByDedupKey, final Map<String, MemberRequest> requestByDedupKey) {
+        this(namesByDedupKey, requestByDedupKey, Map.of());
+    }
 
     // The reference to the member registered under dedupKey.
     @VisibleForTesting
@@ -38,6 +50,18 @@ final class MemberPlan {
         return CodeBlock.of("$N", name);
     }
 
+    // The helper method planScope's element plan renders as, or empty when it renders inline in each lambda.
+    @VisibleForTesting
+    Optional<String> helperFor(final ChildScope planScope) {
+        return Optional.ofNullable(helperNames.get(planScope));
+    }
+
+    // Every element plan rendered as a helper method, with its name, in allocation order.
+    @VisibleForTesting
+    Map<ChildScope, String> helpers() {
+        return helperNames;
+    }
+
     // Every distinct requested member as a private static final field, in allocation order.
     @VisibleForTesting
     List<FieldSpec> fields() {
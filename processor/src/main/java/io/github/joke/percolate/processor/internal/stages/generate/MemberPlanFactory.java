@@ -4,18 +4,21 @@ import io.github.joke.percolate.lib.javapoet.ClassName;
 import io.github.joke.percolate.lib.javapoet.NameAllocator;
 import io.github.joke.percolate.lib.javapoet.TypeName;
 import io.github.joke.percolate.processor.MapperContext;
-import io.github.joke.percolate.processor.internal.graph.ExtractedPlan;
-import io.github.joke.percolate.processor.internal.graph.MapperGraph;
+import io.github.joke.percolate.processor.internal.graph.ChildScope;
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan;
 import io.github.joke.percolate.processor.internal.graph.Operation;
-import io.github.joke.percolate.processor.internal.graph.Value;
+import io.github.joke.percolate.processor.internal.graph.RequestedMember;
 import io.github.joke.percolate.spi.MemberRequest;
 import jakarta.inject.Inject;
-import java.util.ArrayList;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import lombok.RequiredArgsConstructor;
+import java.util.Optional;
+import java.util.Set;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import static io.github.joke.percolate.processor.Diagnostic.error;
@@ -26,72 +29,110 @@ import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toUnmodifiableList;
 
-// Builds a MemberPlan — the class-wide MemberRequest walk, the dedup-key conflict report, and member naming.
+// Builds a MemberPlan — the dedup-key conflict report and member naming over the MemberRequests LoweredPlan filed.
 // Split from MemberPlan by change tighten-testability-conventions (design D2), for the same reason as
 // HoistPlanFactory: the conflict rule (requests sharing a dedup key must agree on (fieldType, initializer),
-// first-seen wins the field) is a decision, and it was unreachable behind a static. It shares
-// HoistPlanFactory's reachability walk rather than owning a second copy.
-// IdentityHashMap for the reachability walk; LinkedHashMap for deterministic class-scope field-emission order —
+// first-seen wins the field) is a decision, and it was unreachable behind a static. It reads the requests and the
+// in-plan Operations off the LoweredPlan rather than owning a reachability walk, so the walk over the plan runs
+// with lowering — in parallel under -Apercolate.parallel.extraction — and only this settling stays on the
+// processing thread.
+// IdentityHashMap for the Operation set; LinkedHashMap for deterministic class-scope field-emission order —
 // both single-threaded, no concurrent access.
 @SuppressWarnings("IdentityHashMapUsage")
-@RequiredArgsConstructor(onConstructor_ = @Inject)
+@NoArgsConstructor(onConstructor_ = @Inject)
 final class MemberPlanFactory {
 
     private static final int ONE_DEFINITION = 1;
+    private static final int ONE_OWNER = 1;
 
-    private final HoistPlanFactory hoistPlanFactory;
-
-    // Builds the member plan for every MemberRequest reachable from any of graph's return roots. Requests sharing a
-    // dedup key must agree on (fieldType, initializer) (design D11 of change decouple-engine-from-strategy-
-    // semantics); a disagreement is reported at the mapper type and the first-seen request wins the field.
+    // Builds the member plan for every MemberRequest of an Operation in lowered, which filed them by dedup key.
+    // Requests sharing a dedup key must agree on (fieldType, initializer) (design D11 of change
+    // decouple-engine-from-strategy-semantics); a disagreement is reported at the mapper type and the first-seen
+    // request wins the field. With helpers, every shared element plan is also named a helper method (.helperNames).
     @VisibleForTesting
-    MemberPlan forMapper(final MapperGraph graph, final ExtractedPlan plan, final MapperContext ctx) {
-        final var ops = newSetFromMap(new IdentityHashMap<Operation, Boolean>());
-        final var seen = newSetFromMap(new IdentityHashMap<Value, Boolean>());
-        graph.returnRoots().forEach(root -> hoistPlanFactory.collectOps(graph, plan, root, ops, seen));
-
-        final var byDedupKey = new LinkedHashMap<String, List<Attribution>>();
-        ops.stream().sorted(comparing(Operation::id)).forEach(op -> op.getMemberRequests()
-                .forEach(request -> byDedupKey
-                        .computeIfAbsent(request.getDedupKey(), key -> new ArrayList<>())
-                        .add(new Attribution(op.getLabel(), request))));
-
-        byDedupKey.forEach((key, attributions) -> reportConflict(ctx, key, attributions));
+    MemberPlan forMapper(final LoweredPlan lowered, final MapperContext ctx, final boolean helpers) {
+        final var byDedupKey = lowered.memberRequests();
+        byDedupKey.forEach((key, requested) -> reportConflict(ctx, key, requested));
 
         final var names = new NameAllocator();
         final var namesByDedupKey = new LinkedHashMap<String, String>();
         final var requestByDedupKey = new LinkedHashMap<String, MemberRequest>();
         byDedupKey.forEach(
-                (key, attributions) -> allocateMember(key, attributions, names, namesByDedupKey, requestByDedupKey));
-        return new MemberPlan(namesByDedupKey, requestByDedupKey);
+                (key, requested) -> allocateMember(key, requested, names, namesByDedupKey, requestByDedupKey));
+        final var helperNames = helpers ? helperNames(inPlan(lowered), ctx) : Map.<ChildScope, String>of();
+        return new MemberPlan(namesByDedupKey, requestByDedupKey, helperNames);
+    }
+
+    // lowered's in-plan Operations, by identity.
+    @VisibleForTesting
+    Set<Operation> inPlan(final LoweredPlan lowered) {
+        final var ops = newSetFromMap(new IdentityHashMap<Operation, Boolean>());
+        lowered.operations().forEach(ops::add);
+        return ops;
+    }
+
+    // A helper method name for each element plan that more than one of ops maps elements through, in Operation.id()
+    // order. Names never repeat one of the mapper's abstract methods', so a helper can neither override nor overload
+    // one.
+    @VisibleForTesting
+    Map<ChildScope, String> helperNames(final Set<Operation> ops, final MapperContext ctx) {
+        final var owners = new LinkedHashMap<ChildScope, Integer>();
+        ops.stream()
+                .sorted(comparing(Operation::id))
+                .flatMap(op -> op.getChildScope().stream())
+                .forEach(child -> owners.merge(child.getPlanScope(), 1, Integer::sum));
+        final var names = new NameAllocator();
+        Optional.ofNullable(ctx.getShape()).stream()
+                .flatMap(shape -> shape.getAbstractMethods().stream())
+                .forEach(method -> names.newName(method.getSimpleName().toString()));
+        final var helperNames = new LinkedHashMap<ChildScope, String>();
+        owners.entrySet().stream()
+                .filter(owned -> owned.getValue() > ONE_OWNER)
+                .forEach(owned -> helperNames.put(owned.getKey(), names.newName(helperBase(owned.getKey()))));
+        return helperNames;
+    }
+
+    // map<In>To<Out>, after the simple names of the element types planScope maps between.
+    @VisibleForTesting
+    String helperBase(final ChildScope planScope) {
+        final var out = planScope.getReturnRoot().getType().map(this::simpleName).orElse("");
+        return "map" + simpleName(planScope.getElementInput().getType()) + "To" + out;
+    }
+
+    // type's simple name, or "Element" when it is not a declared type.
+    @VisibleForTesting
+    String simpleName(final TypeMirror type) {
+        return type instanceof DeclaredType
+                ? ((DeclaredType) type).asElement().getSimpleName().toString()
+                : "Element";
     }
 
     // The first attribution wins the key (conflicts were already reported), and allocates the field's name.
     @VisibleForTesting
     void allocateMember(
             final String key,
-            final List<Attribution> attributions,
+            final List<RequestedMember> requested,
             final NameAllocator names,
             final Map<String, String> namesByDedupKey,
             final Map<String, MemberRequest> requestByDedupKey) {
-        final var winner = attributions.get(0).getRequest();
+        final var winner = requested.get(0).getRequest();
         requestByDedupKey.put(key, winner);
         namesByDedupKey.put(key, names.newName(memberBase(winner.getFieldType())));
     }
 
-    // Reports a mapper-type-positioned error when attributions disagree on (fieldType, initializer).
+    // Reports a mapper-type-positioned error when requested disagree on (fieldType, initializer).
     @VisibleForTesting
-    void reportConflict(final MapperContext ctx, final String key, final List<Attribution> attributions) {
+    void reportConflict(final MapperContext ctx, final String key, final List<RequestedMember> requested) {
         final var distinctRequests =
-                attributions.stream().map(Attribution::getRequest).distinct().collect(toUnmodifiableList());
+                requested.stream().map(RequestedMember::getRequest).distinct().collect(toUnmodifiableList());
         if (distinctRequests.size() <= ONE_DEFINITION) {
             return;
         }
         final var definitions = distinctRequests.stream()
                 .map(request -> request.getFieldType() + " = " + request.getInitializer())
                 .collect(joining("; "));
-        final var operationLabels = attributions.stream()
-                .map(Attribution::getOperationLabel)
+        final var operationLabels = requested.stream()
+                .map(member -> member.getOperation().getLabel())
                 .distinct()
                 .collect(joining(", "));
         ctx.report(error(
@@ -110,11 +151,4 @@ final class MemberPlanFactory {
         final var simple = ((ClassName) fieldType).simpleName();
         return toLowerCase(simple.charAt(0)) + simple.substring(1);
     }
-
-    // Pairs a MemberRequest with the label of the Operation that requested it.
-    @lombok.Value
-    private static class Attribution {
-        String operationLabel;
-        MemberRequest request;
-    }
 }
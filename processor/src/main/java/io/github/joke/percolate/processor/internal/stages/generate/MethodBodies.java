@@ -4,9 +4,11 @@ import io.github.joke.percolate.lib.javapoet.FieldSpec;
 import java.util.List;
 import lombok.Value;
 
-// BuildMethodBodies.build's result: every method body, plus every strategy-requested class member.
+// BuildMethodBodies.build's result: every method body, plus every strategy-requested class member and every shared
+// element plan's helper method.
 @Value
 final class MethodBodies {
     List<MethodImpl> bodies;
     List<FieldSpec> members;
+    List<HelperImpl> helpers;
 }
@@ -16,7 +16,6 @@ import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import static io.github.joke.percolate.processor.Diagnostic.error;
-import static io.github.joke.percolate.processor.internal.graph.ExtractedPlan.extract;
 import static io.github.joke.percolate.spi.Subjects.none;
 import static java.lang.String.format;
 
@@ -37,7 +36,7 @@ public final class RealisationDiagnosticsStage implements Stage {
         if (graph == null || ctx.hasErrors()) {
             return;
         }
-        final var plan = extract(graph);
+        final var plan = ctx.getPlan();
         graph.returnRoots().filter(root -> !plan.reachable(root)).forEach(root -> report(ctx, graph, plan, root));
     }
 
@@ -2,26 +2,21 @@ package io.github.joke.percolate.processor.internal.stages.validate;
 
 import io.github.joke.percolate.processor.Diagnostic;
 import io.github.joke.percolate.processor.MapperContext;
-import io.github.joke.percolate.processor.internal.graph.ExtractedPlan;
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan;
 import io.github.joke.percolate.processor.internal.graph.MapperGraph;
 import io.github.joke.percolate.processor.internal.graph.MethodScope;
-import io.github.joke.percolate.processor.internal.graph.Operation;
 import io.github.joke.percolate.processor.internal.graph.Value;
 import io.github.joke.percolate.processor.internal.stages.Stage;
 import io.github.joke.percolate.processor.model.MethodDirectives;
 import io.github.joke.percolate.spi.DirectiveInput;
 import jakarta.inject.Inject;
 import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 import org.jspecify.annotations.Nullable;
 
-import static io.github.joke.percolate.processor.internal.graph.ExtractedPlan.extract;
-import static java.util.Collections.newSetFromMap;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 // The consumption-tracked directive-option rail's diagnostic half (design D3/D7 of change decouple-engine-from-
@@ -35,7 +30,7 @@ import static java.util.stream.Collectors.toUnmodifiableSet;
 // when the sole strategy for that demand is refused outright (design D6's bound), nothing ever consumes
 // anything and this rail would otherwise report a spurious "no effect" ahead of — and, per
 // RealisationDiagnosticsStage's once-erred guard, in place of — the strategy's own, more specific refusal
-// message. This is a read-only pass over the plan already extracted for
+// message. This is a read-only pass over the plan already extracted and lowered (LoweredPlan) for
 // io.github.joke.percolate.processor.internal.stages.generate.GenerateStage; it mutates neither the graph nor
 // the plan (no engine-core change), and names no annotation.
 @RequiredArgsConstructor(onConstructor_ = @Inject)
@@ -48,7 +43,7 @@ public final class ValidateOptionConsumptionStage implements Stage {
         if (methodDirectives == null || graph == null) {
             return;
         }
-        final var plan = extract(graph);
+        final var plan = ctx.getLoweredPlan();
         methodDirectives.forEach(directives -> checkMethod(directives, graph, plan, ctx));
     }
 
@@ -56,7 +51,7 @@ public final class ValidateOptionConsumptionStage implements Stage {
     void checkMethod(
             final MethodDirectives directives,
             final MapperGraph graph,
-            final ExtractedPlan plan,
+            final LoweredPlan plan,
             final MapperContext ctx) {
         final var scope = new MethodScope(directives.getMethod());
         final var boundPaths = directives.getBinds().stream()
@@ -73,13 +68,13 @@ public final class ValidateOptionConsumptionStage implements Stage {
             final List<DirectiveInput> declared,
             final MethodScope scope,
             final MapperGraph graph,
-            final ExtractedPlan plan,
+            final LoweredPlan plan,
             final MapperContext ctx) {
         if (declared.isEmpty()) {
             return;
         }
-        final var target = targetValue(graph, scope, path);
-        final var consumed = target == null ? Set.<DirectiveInput>of() : consumedInputs(graph, plan, target);
+        final var target = targetValue(graph, plan, scope, path);
+        final var consumed = target == null ? Set.<DirectiveInput>of() : consumedInputs(plan, target);
         declared.stream()
                 .filter(input -> !consumed.contains(input))
                 .forEach(input -> ctx.report(Diagnostic.error(
@@ -91,62 +86,27 @@ public final class ValidateOptionConsumptionStage implements Stage {
 
     // The consumed-input union over every Operation the winning plan reaches from target.
     @VisibleForTesting
-    Set<DirectiveInput> consumedInputs(final MapperGraph graph, final ExtractedPlan plan, final Value target) {
-        final var ops = new HashSet<Operation>();
-        collectWinningOps(graph, plan, target, ops, newSeenSet());
+    Set<DirectiveInput> consumedInputs(final LoweredPlan plan, final Value target) {
         final var inputs = new HashSet<DirectiveInput>();
-        ops.forEach(op -> inputs.addAll(op.getConsumed()));
+        plan.operationsFrom(target).forEach(op -> inputs.addAll(op.getConsumed()));
         return inputs;
     }
 
-    @VisibleForTesting
-    void collectWinningOps(
-            final MapperGraph graph,
-            final ExtractedPlan plan,
-            final Value value,
-            final Set<Operation> ops,
-            final Set<Value> seen) {
-        if (!seen.add(value)) {
-            return;
-        }
-        plan.chosenProducer(value).ifPresent(producer -> descendInto(graph, plan, producer, ops, seen));
-    }
-
-    // Records producer and recurses into everything it consumes: each port source, and its child scope's root.
-    @VisibleForTesting
-    void descendInto(
-            final MapperGraph graph,
-            final ExtractedPlan plan,
-            final Operation producer,
-            final Set<Operation> ops,
-            final Set<Value> seen) {
-        ops.add(producer);
-        graph.portSourcesOf(producer).forEach(source -> collectWinningOps(graph, plan, source, ops, seen));
-        producer.getChildScope().ifPresent(child -> collectWinningOps(graph, plan, child.getReturnRoot(), ops, seen));
-    }
-
-    @VisibleForTesting
-    @SuppressWarnings("IdentityHashMapUsage")
-    Set<Value> newSeenSet() {
-        return newSetFromMap(new IdentityHashMap<>());
-    }
-
-    // The target Value at the end of target's dotted path, walked from the method's assembly root. The base case is
-    // the graph-recorded MapperGraph.returnRootIn(Scope) — never a location-only lookup — because the engine may
-    // over-emit a same-located conversion intermediate at the empty root TargetLocation (e.g. a String intermediate
-    // en route to a format-configured target), and a location-only match could resolve to that intermediate instead
-    // of the declared return type.
+    // The target Value at the end of target's dotted path, walked from the method's assembly root along the winning
+    // plan — each segment the named port of the current Value's chosen producer. The base case is the graph-recorded
+    // MapperGraph.returnRootIn(Scope) — never a location-only lookup — because the engine may over-emit a
+    // same-located conversion intermediate at the empty root TargetLocation (e.g. a String intermediate en route to a
+    // format-configured target), and a location-only match could resolve to that intermediate instead of the
+    // declared return type.
     @VisibleForTesting
     @Nullable
-    Value targetValue(final MapperGraph graph, final MethodScope scope, final String target) {
+    Value targetValue(
+            final MapperGraph graph, final LoweredPlan plan, final MethodScope scope, final String target) {
         var current = graph.returnRootIn(scope);
         for (final var segment : splitPath(target)) {
-            final var declared = current;
-            final var next = graph.producersOf(declared)
-                    .map(op -> graph.portSource(op, segment))
-                    .flatMap(Optional::stream)
+            final var next = plan.chosenProducer(current)
+                    .flatMap(op -> plan.portSource(op, segment))
                     .filter(value -> value.getType().isPresent())
-                    .findFirst()
                     .orElse(null);
             if (next == null) {
                 return null;
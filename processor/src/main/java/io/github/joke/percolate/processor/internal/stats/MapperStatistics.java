@@ -0,0 +1,60 @@
+package io.github.joke.percolate.processor.internal.stats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+
+import static java.util.Collections.unmodifiableMap;
+import static lombok.AccessLevel.NONE;
+
+// The figures -Apercolate.stats reports for one pipeline run over one mapper: the wall time of every stage, in run
+// order, plus the size of the expansion it drove — the MapperGraph's vertex and edge counts, the demands
+// ExpansionLoop drained, and the offers and refusals TargetProducer saw. Collected unconditionally (two nanoTime
+// reads per stage and a handful of counters cost nothing worth gating); only the write is opt-in.
+@Getter
+public final class MapperStatistics {
+
+    @Getter(NONE)
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+
+    private int vertices;
+    private int edges;
+    private int demands;
+    private int offers;
+    private int refusals;
+
+    // Adds nanos to stage's wall time — summed, so a stage run twice is reported once.
+    public void recordStage(final String stage, final long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+    }
+
+    public void recordGraph(final int vertexCount, final int edgeCount) {
+        vertices = vertexCount;
+        edges = edgeCount;
+    }
+
+    public void recordExpansion(final int demandCount, final int offerCount, final int refusalCount) {
+        demands = demandCount;
+        offers = offerCount;
+        refusals = refusalCount;
+    }
+
+    // Folds other into this one, summing every figure — how a round's totals are built.
+    public void absorb(final MapperStatistics other) {
+        other.stageNanos.forEach(this::recordStage);
+        vertices += other.vertices;
+        edges += other.edges;
+        demands += other.demands;
+        offers += other.offers;
+        refusals += other.refusals;
+    }
+
+    // Every stage's wall time in nanoseconds, in first-run order.
+    public Map<String, Long> getStageNanos() {
+        return unmodifiableMap(stageNanos);
+    }
+
+    public long totalNanos() {
+        return stageNanos.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
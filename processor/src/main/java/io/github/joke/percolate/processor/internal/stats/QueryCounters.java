@@ -0,0 +1,56 @@
+package io.github.joke.percolate.processor.internal.stats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static java.util.Collections.unmodifiableMap;
+
+// Hit and miss counts per memoized query family (a named-element lookup, an erasure, an isType answer, …) over one
+// processing round, in first-asked order. The round's -Apercolate.stats summary reports them, so a cache's hit rate
+// on a real build is read off the same document as the stage timings it is meant to move.
+public final class QueryCounters {
+
+    private final Map<String, Count> counts = new LinkedHashMap<>();
+
+    public void hit(final String query) {
+        count(query).recordHit();
+    }
+
+    public void miss(final String query) {
+        count(query).recordMiss();
+    }
+
+    // Every family's counts, in first-asked order.
+    public Map<String, Count> getCounts() {
+        return unmodifiableMap(counts);
+    }
+
+    public long hits() {
+        return counts.values().stream().mapToLong(Count::getHits).sum();
+    }
+
+    public long misses() {
+        return counts.values().stream().mapToLong(Count::getMisses).sum();
+    }
+
+    @VisibleForTesting
+    Count count(final String query) {
+        return counts.computeIfAbsent(query, key -> new Count());
+    }
+
+    @Getter
+    public static final class Count {
+        private long hits;
+        private long misses;
+
+        public void recordHit() {
+            hits++;
+        }
+
+        public void recordMiss() {
+            misses++;
+        }
+    }
+}
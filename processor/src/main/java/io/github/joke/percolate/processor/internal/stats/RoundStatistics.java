@@ -0,0 +1,45 @@
+package io.github.joke.percolate.processor.internal.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+// One processing round's -Apercolate.stats figures: every mapper the round ran the pipeline for, consumed or
+// deferred, in run order, plus the round's type-query cache hits and misses. Lives for a single MapperStep.process
+// call and holds strings and numbers only, so it never carries an Element across rounds.
+@Getter
+@RequiredArgsConstructor
+public final class RoundStatistics {
+
+    private final int round;
+    private final QueryCounters typeQueries;
+    private final List<Entry> entries = new ArrayList<>();
+
+    public void add(final String mapper, final MapperStatistics statistics, final boolean deferred) {
+        entries.add(new Entry(mapper, statistics, deferred));
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public long deferredCount() {
+        return entries.stream().filter(Entry::isDeferred).count();
+    }
+
+    // Every entry's figures summed.
+    public MapperStatistics totals() {
+        final var totals = new MapperStatistics();
+        entries.forEach(entry -> totals.absorb(entry.getStatistics()));
+        return totals;
+    }
+
+    @Value
+    public static class Entry {
+        String mapper;
+        MapperStatistics statistics;
+        boolean deferred;
+    }
+}
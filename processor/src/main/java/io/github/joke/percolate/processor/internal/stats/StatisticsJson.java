@@ -0,0 +1,131 @@
+package io.github.joke.percolate.processor.internal.stats;
+
+import jakarta.inject.Inject;
+import java.util.Map;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+// Renders MapperStatistics/RoundStatistics as the small, stable JSON documents -Apercolate.stats writes. Hand-
+// assembled for the same reason DotRenderer is: a handful of fixed keys does not justify shading a JSON library
+// into the processor jar. Keys are emitted in a fixed order and stages in run order, so two runs over the same
+// sources differ only in their timings.
+@NoArgsConstructor(onConstructor_ = @Inject)
+final class StatisticsJson {
+
+    private static final String INDENT = "  ";
+
+    @VisibleForTesting
+    String mapper(final String fqn, final MapperStatistics statistics) {
+        final var json = new StringBuilder(256).append("{\n");
+        field(json, 1, "mapper", quote(fqn)).append(",\n");
+        figures(json, 1, statistics);
+        return json.append("\n}\n").toString();
+    }
+
+    @VisibleForTesting
+    String round(final RoundStatistics round) {
+        final var json = new StringBuilder(512).append("{\n");
+        field(json, 1, "round", String.valueOf(round.getRound())).append(",\n");
+        field(json, 1, "mappers", String.valueOf(round.getEntries().size())).append(",\n");
+        field(json, 1, "deferred", String.valueOf(round.deferredCount())).append(",\n");
+        figures(json, 1, round.totals());
+        json.append(",\n");
+        indent(json, 1).append("\"typeQueries\": ").append(queries(round.getTypeQueries(), 1));
+        json.append(",\n");
+        indent(json, 1).append("\"perMapper\": [");
+        final var entries = round.getEntries();
+        for (var index = 0; index < entries.size(); index++) {
+            final var entry = entries.get(index);
+            final var statistics = entry.getStatistics();
+            json.append(index == 0 ? "\n" : ",\n");
+            indent(json, 2)
+                    .append("{\"mapper\": ")
+                    .append(quote(entry.getMapper()))
+                    .append(", \"deferred\": ")
+                    .append(entry.isDeferred())
+                    .append(", \"totalNanos\": ")
+                    .append(statistics.totalNanos())
+                    .append(", \"vertices\": ")
+                    .append(statistics.getVertices())
+                    .append(", \"demands\": ")
+                    .append(statistics.getDemands())
+                    .append('}');
+        }
+        json.append(entries.isEmpty() ? "]" : "\n" + INDENT + "]");
+        return json.append("\n}\n").toString();
+    }
+
+    // The totalNanos/stages/graph/expansion block shared by both documents, without a trailing separator.
+    @VisibleForTesting
+    StringBuilder figures(final StringBuilder json, final int depth, final MapperStatistics statistics) {
+        field(json, depth, "totalNanos", String.valueOf(statistics.totalNanos())).append(",\n");
+        indent(json, depth).append("\"stages\": ").append(stages(statistics.getStageNanos(), depth));
+        json.append(",\n");
+        field(
+                        json,
+                        depth,
+                        "graph",
+                        "{\"vertices\": " + statistics.getVertices() + ", \"edges\": " + statistics.getEdges() + "}")
+                .append(",\n");
+        return field(
+                json,
+                depth,
+                "expansion",
+                "{\"demands\": " + statistics.getDemands() + ", \"offers\": " + statistics.getOffers()
+                        + ", \"refusals\": " + statistics.getRefusals() + "}");
+    }
+
+    @VisibleForTesting
+    String stages(final Map<String, Long> stageNanos, final int depth) {
+        if (stageNanos.isEmpty()) {
+            return "{}";
+        }
+        final var json = new StringBuilder(128).append('{');
+        var first = true;
+        for (final var stage : stageNanos.entrySet()) {
+            json.append(first ? "\n" : ",\n");
+            field(json, depth + 1, stage.getKey(), String.valueOf(stage.getValue()));
+            first = false;
+        }
+        json.append('\n');
+        return indent(json, depth).append('}').toString();
+    }
+
+    // One {"hits", "misses"} object per query family, in first-asked order; {} when the round asked none.
+    @VisibleForTesting
+    String queries(final QueryCounters counters, final int depth) {
+        if (counters.getCounts().isEmpty()) {
+            return "{}";
+        }
+        final var json = new StringBuilder(128).append('{');
+        var first = true;
+        for (final var query : counters.getCounts().entrySet()) {
+            final var count = query.getValue();
+            json.append(first ? "\n" : ",\n");
+            field(
+                    json,
+                    depth + 1,
+                    query.getKey(),
+                    "{\"hits\": " + count.getHits() + ", \"misses\": " + count.getMisses() + "}");
+            first = false;
+        }
+        json.append('\n');
+        return indent(json, depth).append('}').toString();
+    }
+
+    @VisibleForTesting
+    StringBuilder field(final StringBuilder json, final int depth, final String key, final String value) {
+        return indent(json, depth).append(quote(key)).append(": ").append(value);
+    }
+
+    @VisibleForTesting
+    StringBuilder indent(final StringBuilder json, final int depth) {
+        return json.append(INDENT.repeat(depth));
+    }
+
+    // A JSON string literal for text; FQNs and stage names never need more than the quote/backslash escapes.
+    @VisibleForTesting
+    String quote(final String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.joke.percolate.processor.internal.stats;
+
+import io.github.joke.percolate.processor.Diagnostic;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static io.github.joke.percolate.processor.Diagnostic.warning;
+import static io.github.joke.percolate.spi.Subjects.none;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.tools.StandardLocation.SOURCE_OUTPUT;
+
+// Writes the -Apercolate.stats documents through the Filer, next to the generated sources under percolate-stats/:
+// one <MapperFQN>.json per consumed mapper and one round-<n>.json summary per processing round. The Filer forbids
+// reopening a path, so the caller writes a mapper's document only on the round that consumes it. A failed write
+// is a warning, never an error — statistics must not fail a build.
+//
+// A round summary is a function of every mapper the round ran, but Gradle's isolating incremental mode — the one
+// percolate declares — holds each generated file to exactly one originating element, then keeps, deletes or rewrites
+// it as that element alone changes. No round summary can honour that, so under Gradle's incremental processing
+// (its Filer wraps javac's, .incremental) none is written; the per-mapper documents still are.
+@RequiredArgsConstructor(onConstructor_ = @Inject)
+public final class StatisticsWriter {
+
+    private static final String DIRECTORY = "percolate-stats/";
+    private static final String GRADLE_PACKAGE = "org.gradle.";
+
+    private final Filer filer;
+    private final StatisticsJson json;
+
+    // Writes mapperType's figures; the failure warning, if any, for the caller to report on the mapper.
+    public Optional<Diagnostic> writeMapper(final TypeElement mapperType, final MapperStatistics statistics) {
+        final var fqn = mapperType.getQualifiedName().toString();
+        return write(DIRECTORY + fqn + ".json", json.mapper(fqn, statistics), mapperType);
+    }
+
+    // Writes round's summary, originating from every mapper the round ran; nothing under incremental processing.
+    public Optional<Diagnostic> writeRound(final RoundStatistics round, final List<TypeElement> mapperTypes) {
+        if (incremental(filer.getClass().getName())) {
+            return Optional.empty();
+        }
+        return write(
+                DIRECTORY + "round-" + round.getRound() + ".json",
+                json.round(round),
+                mapperTypes.toArray(new Element[0]));
+    }
+
+    // Whether a Filer of the class named filerType is Gradle's, which tracks every generated file's origins for
+    // incremental processing.
+    @VisibleForTesting
+    static boolean incremental(final String filerType) {
+        return filerType.startsWith(GRADLE_PACKAGE);
+    }
+
+    @VisibleForTesting
+    Optional<Diagnostic> write(final String fileName, final String content, final Element... originatingElements) {
+        try {
+            final var resource = filer.createResource(SOURCE_OUTPUT, "", fileName, originatingElements);
+            try (var os = resource.openOutputStream();
+                    var writer = new OutputStreamWriter(os, UTF_8)) {
+                writer.write(content);
+                writer.flush();
+            }
+            return Optional.empty();
+        } catch (final IOException e) {
+            return Optional.of(warning(none(), "Failed to write statistics " + fileName + ": " + e.getMessage()));
+        }
+    }
+}
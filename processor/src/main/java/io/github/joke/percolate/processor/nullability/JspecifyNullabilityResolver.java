@@ -2,6 +2,11 @@ package io.github.joke.percolate.processor.nullability;
 
 import io.github.joke.percolate.spi.Nullability;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import javax.lang.model.AnnotatedConstruct;
 import javax.lang.model.element.AnnotationMirror;
@@ -17,15 +22,35 @@ import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Nullability.NULLABLE;
 import static io.github.joke.percolate.spi.Nullability.UNKNOWN;
 
+// Resolves a type's nullability from JSpecify-style annotations: a nullable type annotation wins, else the nearest
+// enclosing @NullMarked/@NullUnmarked scope decides, else the package's.
+//
+// Resolution runs for every port, getter and demand, and the answers for a scope's enclosing elements are the same
+// every time. So each enclosing element's and package's marked status is memoized once it is settled — an element's
+// from its own annotations or, failing them, its enclosing element's memo — and each annotation type element's
+// membership in the nullable, marked and unmarked sets is decided on its first sighting, so a resolution is one
+// type-annotation check plus cached lookups. The memos hold javac model objects, which go stale across rounds:
+// MapperStep empties them when it starts a round (.startRound). Planning, the only caller, runs on the processing
+// thread.
+@Singleton
 @RequiredArgsConstructor(onConstructor_ = @Inject)
 public final class JspecifyNullabilityResolver implements NullabilityResolver {
 
     private final NullabilityAnnotations annotations;
     private final Elements elements;
 
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: planning runs on the processing thread
+    private final Map<Element, Set<Role>> roles = new HashMap<>();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: planning runs on the processing thread
+    private final Map<Element, Optional<Nullability>> enclosing = new HashMap<>();
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // single-threaded: planning runs on the processing thread
+    private final Map<Element, Optional<Nullability>> packages = new HashMap<>();
+
     @Override
     public Nullability resolve(final TypeMirror type, final Element scope) {
-        if (hasAny(type, annotations.getNullableFqns())) {
+        if (hasAny(type, Role.NULLABLE)) {
             return NULLABLE;
         }
         final var fromEnclosing = markedNullabilityOfEnclosing(scope);
@@ -36,53 +61,89 @@ public final class JspecifyNullabilityResolver implements NullabilityResolver {
         return fromPackage != null ? fromPackage : UNKNOWN;
     }
 
+    // Forgets every memo, so no element of a finished round is consulted in the next.
+    public void startRound() {
+        roles.clear();
+        enclosing.clear();
+        packages.clear();
+    }
+
+    // The marked nullability of scope or, failing its own annotations, of its nearest annotated enclosing element;
+    // memoized for scope and every element the walk settled on the way out.
     @VisibleForTesting
     @Nullable
     Nullability markedNullabilityOfEnclosing(final Element scope) {
-        for (var current = scope; current != null; current = current.getEnclosingElement()) {
-            final var marked = markedNullability(current);
-            if (marked != null) {
-                return marked;
-            }
+        final var known = enclosing.get(scope);
+        if (known != null) {
+            return known.orElse(null);
         }
-        return null;
+        final var own = markedNullability(scope);
+        final var parent = scope.getEnclosingElement();
+        final var settled = own != null || parent == null ? own : markedNullabilityOfEnclosing(parent);
+        enclosing.put(scope, Optional.ofNullable(settled));
+        return settled;
     }
 
     @VisibleForTesting
     @Nullable
     Nullability markedNullabilityOfPackage(final Element scope) {
         final var pkg = elements.getPackageOf(scope);
-        return pkg == null ? null : markedNullability(pkg);
+        if (pkg == null) {
+            return null;
+        }
+        return packages.computeIfAbsent(pkg, key -> Optional.ofNullable(markedNullability(key)))
+                .orElse(null);
     }
 
     @VisibleForTesting
     @Nullable
     Nullability markedNullability(final AnnotatedConstruct construct) {
-        if (hasAny(construct, annotations.getUnmarkedFqns())) {
+        if (hasAny(construct, Role.UNMARKED)) {
             return UNKNOWN;
         }
-        return hasAny(construct, annotations.getMarkedFqns()) ? NON_NULL : null;
+        return hasAny(construct, Role.MARKED) ? NON_NULL : null;
     }
 
     @VisibleForTesting
-    boolean hasAny(final AnnotatedConstruct construct, final Set<String> fqns) {
+    boolean hasAny(final AnnotatedConstruct construct, final Role role) {
         for (final var mirror : construct.getAnnotationMirrors()) {
-            final var fqn = annotationFqn(mirror);
-            if (fqn != null && fqns.contains(fqn)) {
+            if (rolesOf(mirror).contains(role)) {
                 return true;
             }
         }
         return false;
     }
 
+    // The sets mirror's annotation type belongs to, decided once per annotation type element.
     @VisibleForTesting
-    @Nullable
-    String annotationFqn(final AnnotationMirror mirror) {
-        final var annotationType = mirror.getAnnotationType();
-        final var annotationElement = annotationType.asElement();
-        if (annotationElement instanceof TypeElement) {
-            return ((TypeElement) annotationElement).getQualifiedName().toString();
+    Set<Role> rolesOf(final AnnotationMirror mirror) {
+        return roles.computeIfAbsent(mirror.getAnnotationType().asElement(), this::classify);
+    }
+
+    @VisibleForTesting
+    Set<Role> classify(final Element annotationElement) {
+        final var classified = EnumSet.noneOf(Role.class);
+        if (!(annotationElement instanceof TypeElement)) {
+            return classified;
+        }
+        final var fqn = ((TypeElement) annotationElement).getQualifiedName().toString();
+        if (annotations.getNullableFqns().contains(fqn)) {
+            classified.add(Role.NULLABLE);
+        }
+        if (annotations.getMarkedFqns().contains(fqn)) {
+            classified.add(Role.MARKED);
         }
-        return null;
+        if (annotations.getUnmarkedFqns().contains(fqn)) {
+            classified.add(Role.UNMARKED);
+        }
+        return classified;
+    }
+
+    // Which configured annotation set an annotation type is in.
+    @VisibleForTesting
+    enum Role {
+        NULLABLE,
+        MARKED,
+        UNMARKED
     }
 }
@@ -27,6 +27,7 @@ class CompileTimeSwitchesDocExampleSpec extends Specification {
     private static final JavaFileObject CUSTOM_NULLABLE = forResource('examples/switches/CustomNullable.java')
     private static final JavaFileObject ZONED_MAPPER = forResource('examples/switches/ZonedMapper.java')
     private static final JavaFileObject ENUM_SWITCH_MAPPER = forResource('examples/switches/EnumSwitchMapper.java')
+    private static final JavaFileObject COLLECTION_MAPPER = forResource('examples/switches/CollectionMapper.java')
 
     def 'percolate.docTags brackets each whole generated method in include-tags, off by default'() {
         when:
@@ -222,6 +223,28 @@ class CompileTimeSwitchesDocExampleSpec extends Specification {
         materialise('switch-style-arrow/EnumSwitchMapperImpl.java', arrowContent)
     }
 
+    def 'percolate.collections.style=loop fills a presized list in a for loop instead of a stream pipeline'() {
+        when:
+        Compilation stream = PercolateCompiler.compileWith(['-Apercolate.docTags=true'], COLLECTION_MAPPER)
+        Compilation loop = PercolateCompiler.compileWith(
+                ['-Apercolate.docTags=true', '-Apercolate.collections.style=loop'], COLLECTION_MAPPER)
+
+        then:
+        stream.errors().empty
+        loop.errors().empty
+        def streamContent = sourceOf(stream, 'examples.switches.CollectionMapperImpl')
+        def loopContent = sourceOf(loop, 'examples.switches.CollectionMapperImpl')
+        streamContent.contains('lines.stream()')
+        streamContent.contains('Collectors.toList()')
+        loopContent.contains('new ArrayList<>(lines.size())')
+        loopContent.contains('for (Line line : lines)')
+        !loopContent.contains('.stream()')
+
+        and:
+        materialise('collections-style-stream/CollectionMapperImpl.java', streamContent)
+        materialise('collections-style-loop/CollectionMapperImpl.java', loopContent)
+    }
+
     private static Optional<JavaFileObject> anyDotFile(final Compilation compilation) {
         compilation.generatedFiles().stream()
                 .filter(file -> file.name.endsWith('.dot'))
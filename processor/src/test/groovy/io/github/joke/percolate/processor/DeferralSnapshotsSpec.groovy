@@ -0,0 +1,88 @@
+package io.github.joke.percolate.processor
+
+import io.github.joke.percolate.processor.test.FakeElements
+import spock.lang.Specification
+import spock.lang.Tag
+
+/**
+ * {@link DeferralSnapshots} over a mocked {@link TypeDigests}: a deferred mapper stays unchanged while every type its
+ * run read digests as it did when it was recorded, and changes as soon as one digests differently. A forgotten
+ * mapper, or one deferred while the option is off, has no snapshot, so its retry runs.
+ */
+@Tag('unit')
+class DeferralSnapshotsSpec extends Specification {
+
+    static final String MAPPER = 'test.PersonMapper'
+
+    TypeDigests typeDigests = Mock()
+    MapperContext ctx = new MapperContext(FakeElements.simpleElement(MAPPER))
+    Map<String, String> recorded = [(MAPPER): 'm1', 'test.Person': 'p1']
+
+    final DeferralSnapshots snapshots = new DeferralSnapshots(typeDigests, new ProcessorOptionsReader().from([:]))
+
+    def 'a mapper never deferred has no snapshot, so it is not unchanged'() {
+        when:
+        def unchanged = snapshots.unchanged(MAPPER)
+
+        then:
+        0 * _
+        !unchanged
+    }
+
+    def 'a recorded mapper is unchanged while every type it read digests the same'() {
+        when:
+        snapshots.record(MAPPER, ctx)
+
+        then:
+        1 * typeDigests.namesRead(ctx) >> recorded.keySet()
+        1 * typeDigests.digests(recorded.keySet()) >> recorded
+        0 * _
+
+        when:
+        def unchanged = snapshots.unchanged(MAPPER)
+
+        then:
+        1 * typeDigests.digests(recorded.keySet()) >> [(MAPPER): 'm1', 'test.Person': 'p1']
+        0 * _
+        unchanged
+    }
+
+    def 'a type the run read digesting differently changes the mapper'() {
+        when:
+        snapshots.record(MAPPER, ctx)
+        def unchanged = snapshots.unchanged(MAPPER)
+
+        then:
+        1 * typeDigests.namesRead(ctx) >> recorded.keySet()
+        1 * typeDigests.digests(recorded.keySet()) >> recorded
+        1 * typeDigests.digests(recorded.keySet()) >> [(MAPPER): 'm1', 'test.Person': 'p2']
+        0 * _
+        !unchanged
+    }
+
+    def 'a forgotten mapper is no longer unchanged'() {
+        when:
+        snapshots.record(MAPPER, ctx)
+        snapshots.forget(MAPPER)
+        def unchanged = snapshots.unchanged(MAPPER)
+
+        then:
+        1 * typeDigests.namesRead(ctx) >> recorded.keySet()
+        1 * typeDigests.digests(recorded.keySet()) >> recorded
+        0 * _
+        !unchanged
+    }
+
+    def 'disabled, nothing is recorded and every retry runs'() {
+        def disabled = new DeferralSnapshots(typeDigests,
+                new ProcessorOptionsReader().from(['percolate.deferral.snapshots': 'false']))
+
+        when:
+        disabled.record(MAPPER, ctx)
+        def unchanged = disabled.unchanged(MAPPER)
+
+        then:
+        0 * _
+        !unchanged
+    }
+}
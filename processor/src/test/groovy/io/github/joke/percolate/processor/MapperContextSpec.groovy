@@ -0,0 +1,97 @@
+package io.github.joke.percolate.processor
+
+import io.github.joke.percolate.processor.internal.graph.MapperGraph
+import io.github.joke.percolate.processor.test.FakeElements
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Tag
+
+/**
+ * {@link MapperContext} seam, unit-tested directly: the extracted plan is extracted from the current graph on its
+ * first read and shared by every later one, as is its lowering; setting the graph drops both, and without a graph
+ * there is neither.
+ */
+@Tag('unit')
+class MapperContextSpec extends Specification {
+
+    @Subject
+    MapperContext ctx = new MapperContext(FakeElements.simpleElement('test.PersonMapper'))
+
+    def 'getPlan fails while there is no graph'() {
+        when:
+        ctx.plan
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def 'getPlan extracts the graph\'s plan once and answers the same plan afterwards'() {
+        given:
+        ctx.graph = new MapperGraph()
+
+        when:
+        def first = ctx.plan
+
+        then:
+        first != null
+        ctx.plan.is(first)
+    }
+
+    def 'setting the graph drops the plan extracted from the previous one'() {
+        given:
+        ctx.graph = new MapperGraph()
+        def previous = ctx.plan
+
+        when:
+        ctx.graph = new MapperGraph()
+
+        then:
+        ctx.plan != null
+        !ctx.plan.is(previous)
+    }
+
+    def 'releasing the graph releases its plan'() {
+        given:
+        ctx.graph = new MapperGraph()
+        ctx.plan
+        ctx.graph = null
+
+        when:
+        ctx.plan
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def 'getLoweredPlan lowers the graph\'s plan once and answers the same lowering afterwards'() {
+        given:
+        ctx.graph = new MapperGraph()
+
+        when:
+        def first = ctx.loweredPlan
+
+        then:
+        first != null
+        ctx.loweredPlan.is(first)
+    }
+
+    def 'setting the graph drops the lowering of the previous plan'() {
+        given:
+        ctx.graph = new MapperGraph()
+        def previous = ctx.loweredPlan
+
+        when:
+        ctx.graph = new MapperGraph()
+
+        then:
+        !ctx.loweredPlan.is(previous)
+    }
+
+    def 'getLoweredPlan fails while there is no graph'() {
+        when:
+        ctx.loweredPlan
+
+        then:
+        thrown(IllegalStateException)
+    }
+}
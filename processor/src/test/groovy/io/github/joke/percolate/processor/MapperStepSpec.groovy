@@ -1,6 +1,12 @@
 package io.github.joke.percolate.processor
 
 import com.google.common.collect.ImmutableSetMultimap
+import io.github.joke.percolate.processor.internal.graph.MapperGraph
+import io.github.joke.percolate.processor.internal.stages.expand.TypeQueryCache
+import io.github.joke.percolate.processor.internal.stats.RoundStatistics
+import io.github.joke.percolate.processor.internal.stats.StatisticsWriter
+import io.github.joke.percolate.processor.nullability.JspecifyNullabilityResolver
+import io.github.joke.percolate.processor.nullability.NullabilityAnnotations
 import io.github.joke.percolate.processor.test.FakeElements
 import io.github.joke.percolate.spi.Subjects
 import spock.lang.Specification
@@ -10,6 +16,7 @@ import spock.lang.Tag
 import javax.lang.model.element.TypeElement
 import javax.lang.model.type.TypeMirror
 import javax.lang.model.util.Elements
+import javax.lang.model.util.Types
 
 /**
  * {@link MapperStep} seam, unit-tested directly: the single round-aware step runs the {@link Pipeline} per mapper and
@@ -31,8 +38,15 @@ class MapperStepSpec extends Specification {
     Pipeline pipeline = Mock()
     DiagnosticEmitter diagnosticEmitter = Mock()
     Elements elements = Mock()
+    StatisticsWriter statisticsWriter = Mock()
+    TypeQueryCache typeQueries = new TypeQueryCache(Stub(Types), Stub(Elements))
+    JspecifyNullabilityResolver nullability =
+            new JspecifyNullabilityResolver(NullabilityAnnotations.jspecifyDefaults(), Stub(Elements))
+    DeferralSnapshots snapshots = Stub()
+    PlanCache planCache = Stub()
     @Subject
-    MapperStep step = new MapperStep(pipeline, diagnosticEmitter, elements)
+    MapperStep step = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+            new ProcessorOptionsReader().from([:]), typeQueries, nullability, snapshots, planCache)
 
     def 'annotations exposes only the @Mapper annotation type'() {
         expect:
@@ -210,6 +224,295 @@ class MapperStepSpec extends Specification {
         0 * _
     }
 
+    def 'a deferred mapper is snapshotted, and forgotten once a later round consumes it'() {
+        def tracked = Mock(DeferralSnapshots)
+        def trackingStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from([:]), typeQueries, nullability, tracked, planCache)
+        def mapper = mapperType()
+        def unsatisfied = new MapperContext(mapper)
+        unsatisfied.report(Diagnostic.error(Subjects.none(), 'no plan'))
+        def realised = new MapperContext(mapper)
+
+        when:
+        trackingStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        1 * tracked.unchanged(PERSON_MAPPER_FQN) >> false
+        1 * pipeline.process(mapper) >> unsatisfied
+        1 * tracked.record(PERSON_MAPPER_FQN, unsatisfied)
+        0 * _
+
+        when:
+        trackingStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        1 * tracked.unchanged(PERSON_MAPPER_FQN) >> false
+        1 * pipeline.process(mapper) >> realised
+        1 * tracked.forget(PERSON_MAPPER_FQN)
+        1 * diagnosticEmitter.flush(mapper, [])
+        0 * _
+    }
+
+    def 'a deferred mapper nothing it read has changed for is deferred again without running the pipeline'() {
+        def tracked = Mock(DeferralSnapshots)
+        def trackingStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from([:]), typeQueries, nullability, tracked, planCache)
+        def mapper = mapperType()
+        def unsatisfied = new MapperContext(mapper)
+        unsatisfied.report(Diagnostic.error(Subjects.none(), 'no plan'))
+
+        when:
+        trackingStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+        def deferred = trackingStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        2 * tracked.unchanged(PERSON_MAPPER_FQN) >>> [false, true]
+        1 * pipeline.process(mapper) >> unsatisfied
+        1 * tracked.record(PERSON_MAPPER_FQN, unsatisfied)
+        0 * _
+        deferred == [mapper] as Set
+
+        when:
+        trackingStep.flushDeferredDiagnostics()
+
+        then:
+        1 * elements.getTypeElement(PERSON_MAPPER_FQN) >> mapper
+        1 * diagnosticEmitter.flush(mapper, { it*.message == ['no plan'] })
+        0 * _
+    }
+
+    def 'a mapper with a current plan-cache entry is replayed from it instead of running the pipeline'() {
+        def cache = Mock(PlanCache)
+        def cachingStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from([:]), typeQueries, nullability, snapshots, cache)
+        def mapper = mapperType()
+        def replayed = new MapperContext(mapper)
+
+        when:
+        def deferred = cachingStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        1 * cache.replay(mapper) >> Optional.of(replayed)
+        1 * cache.store(replayed)
+        1 * diagnosticEmitter.flush(mapper, [])
+        0 * _
+        deferred == [] as Set
+    }
+
+    def 'a consumed mapper is stored in the plan cache before its diagnostics are flushed'() {
+        def cache = Mock(PlanCache)
+        def cachingStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from([:]), typeQueries, nullability, snapshots, cache)
+        def mapper = mapperType()
+        def ctx = new MapperContext(mapper)
+
+        when:
+        cachingStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        1 * cache.replay(mapper) >> Optional.empty()
+        1 * pipeline.process(mapper) >> ctx
+
+        then:
+        1 * cache.store(ctx)
+
+        then:
+        1 * diagnosticEmitter.flush(mapper, [])
+        0 * _
+    }
+
+    def 'with parallel extraction on, every mapper is planned before any is realised, then each is classified in turn'() {
+        def parallelStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from(['percolate.parallel.extraction': 'true']), typeQueries, nullability, snapshots,
+                planCache)
+        def person = mapperType()
+        def pet = FakeElements.simpleElement('test.PetMapper')
+        def realised = new MapperContext(person)
+        def unsatisfied = new MapperContext(pet)
+        unsatisfied.report(Diagnostic.error(Subjects.none(), 'no plan'))
+
+        when:
+        def deferred = parallelStep.process(ImmutableSetMultimap.of(MAPPER_FQN, person, MAPPER_FQN, pet))
+
+        then:
+        1 * pipeline.plan(person) >> realised
+        1 * pipeline.plan(pet) >> unsatisfied
+
+        then:
+        1 * pipeline.realise(realised) >> realised
+        1 * diagnosticEmitter.flush(person, [])
+
+        then:
+        1 * pipeline.realise(unsatisfied) >> unsatisfied
+        0 * _
+        deferred == [pet] as Set
+    }
+
+    def 'with parallel extraction on, a replayed mapper is not realised and an unchanged deferred one is not run'() {
+        def cache = Mock(PlanCache)
+        def tracked = Mock(DeferralSnapshots)
+        def parallelStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from(['percolate.parallel.extraction': 'true']), typeQueries, nullability, tracked,
+                cache)
+        def person = mapperType()
+        def pet = FakeElements.simpleElement('test.PetMapper')
+        def replayed = new MapperContext(person)
+
+        when:
+        def deferred = parallelStep.process(ImmutableSetMultimap.of(MAPPER_FQN, person, MAPPER_FQN, pet))
+
+        then:
+        1 * tracked.unchanged(PERSON_MAPPER_FQN) >> false
+        1 * tracked.unchanged('test.PetMapper') >> true
+        1 * cache.replay(person) >> Optional.of(replayed)
+        1 * tracked.forget(PERSON_MAPPER_FQN)
+        1 * cache.store(replayed)
+        1 * diagnosticEmitter.flush(person, [])
+        0 * _
+        deferred == [pet] as Set
+    }
+
+    def 'extractPlan extracts and lowers the context\'s plan ahead of realisation'() {
+        given:
+        def ctx = new MapperContext(mapperType())
+        ctx.graph = new MapperGraph()
+
+        when:
+        step.extractPlan(ctx)
+
+        then:
+        ctx.plan != null
+        ctx.loweredPlan != null
+    }
+
+    def 'extractPlan leaves an extraction that throws to the realisation stage that next reads the plan'() {
+        given:
+        def ctx = new MapperContext(mapperType())
+        ctx.graph = Stub(MapperGraph) {
+            verticesInLandingOrder() >> { throw new IllegalStateException('boom') }
+        }
+
+        when:
+        step.extractPlan(ctx)
+
+        then:
+        noExceptionThrown()
+
+        when:
+        ctx.plan
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def 'with stats on, a consumed mapper\'s figures are written before its diagnostics are flushed, then the round'() {
+        def statsStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from(['percolate.stats': 'true']), typeQueries, nullability, snapshots, planCache)
+        def mapper = mapperType()
+        def ctx = new MapperContext(mapper)
+
+        when:
+        statsStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        1 * pipeline.process(mapper) >> ctx
+        1 * statisticsWriter.writeMapper(mapper, ctx.statistics) >> Optional.empty()
+
+        then:
+        1 * diagnosticEmitter.flush(mapper, [])
+
+        then:
+        1 * statisticsWriter.writeRound({ RoundStatistics round ->
+            round.round == 1 && round.entries*.mapper == [PERSON_MAPPER_FQN] && round.deferredCount() == 0
+        }, [mapper]) >> Optional.empty()
+        0 * _
+    }
+
+    def 'with stats on, a deferred mapper appears in the round summary only'() {
+        def statsStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from(['percolate.stats': 'true']), typeQueries, nullability, snapshots, planCache)
+        def mapper = mapperType()
+        def ctx = new MapperContext(mapper)
+        ctx.report(Diagnostic.error(Subjects.none(), 'no plan'))
+
+        when:
+        statsStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        1 * pipeline.process(mapper) >> ctx
+        1 * statisticsWriter.writeRound({ RoundStatistics round -> round.deferredCount() == 1 }, [mapper]) >>
+                Optional.empty()
+        0 * _
+    }
+
+    def 'with stats on, a failed mapper write is flushed with the mapper\'s diagnostics and a failed round on its first mapper'() {
+        def statsStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from(['percolate.stats': 'true']), typeQueries, nullability, snapshots, planCache)
+        def mapper = mapperType()
+        def ctx = new MapperContext(mapper)
+        def mapperFailure = Diagnostic.warning(Subjects.none(), 'mapper write failed')
+        def roundFailure = Diagnostic.warning(Subjects.none(), 'round write failed')
+
+        when:
+        statsStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        1 * pipeline.process(mapper) >> ctx
+        1 * statisticsWriter.writeMapper(mapper, ctx.statistics) >> Optional.of(mapperFailure)
+        1 * diagnosticEmitter.flush(mapper, [mapperFailure])
+        1 * statisticsWriter.writeRound(_, [mapper]) >> Optional.of(roundFailure)
+        1 * diagnosticEmitter.flush(mapper, [roundFailure])
+        0 * _
+    }
+
+    def 'with stats on, a round that ran no mapper writes no summary'() {
+        def statsStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from(['percolate.stats': 'true']), typeQueries, nullability, snapshots, planCache)
+
+        when:
+        statsStep.process(ImmutableSetMultimap.of())
+
+        then:
+        0 * _
+    }
+
+    def 'every round starts from an emptied type-query cache and reports its fresh counters'() {
+        def statsStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from(['percolate.stats': 'true']), typeQueries, nullability, snapshots, planCache)
+        def mapper = mapperType()
+        def ctx = new MapperContext(mapper)
+        def previous = typeQueries.counters
+
+        when:
+        statsStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        1 * pipeline.process(mapper) >> ctx
+        1 * statisticsWriter.writeMapper(mapper, ctx.statistics) >> Optional.empty()
+        1 * diagnosticEmitter.flush(mapper, [])
+        1 * statisticsWriter.writeRound({ RoundStatistics round ->
+            round.typeQueries.is(typeQueries.counters) && !round.typeQueries.is(previous)
+        }, [mapper]) >> Optional.empty()
+        0 * _
+    }
+
+    def 'every round starts by forgetting the nullability resolver\'s memos'() {
+        JspecifyNullabilityResolver resolver = Mock()
+        def roundStep = new MapperStep(pipeline, diagnosticEmitter, elements, statisticsWriter,
+                new ProcessorOptionsReader().from([:]), typeQueries, resolver, snapshots, planCache)
+        def mapper = mapperType()
+        def ctx = new MapperContext(mapper)
+
+        when:
+        roundStep.process(ImmutableSetMultimap.of(MAPPER_FQN, mapper))
+
+        then:
+        1 * resolver.startRound()
+        1 * pipeline.process(mapper) >> ctx
+        1 * diagnosticEmitter.flush(mapper, [])
+        0 * _
+    }
+
     private static TypeElement mapperType() {
         FakeElements.simpleElement(PERSON_MAPPER_FQN)
     }
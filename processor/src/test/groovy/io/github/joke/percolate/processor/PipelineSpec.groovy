@@ -9,7 +9,8 @@ import javax.lang.model.element.TypeElement
 
 /**
  * {@link Pipeline} seam, unit-tested directly: a fresh {@link MapperContext} wrapping the mapper element is threaded
- * through every {@link Stage} in declaration order and handed back. A stage throwing mid-pipeline flushes whatever
+ * through every {@link Stage} in declaration order — the planning stages, then the realisation stages — and handed
+ * back; {@code plan} and {@code realise} run either half on its own. A stage throwing mid-pipeline flushes whatever
  * was collected on the context so far (design D14) before the exception propagates — the only case the {@code
  * finally} acts on; the normal, non-throwing path leaves the emit-or-defer decision to {@code MapperStep}.
  */
@@ -20,7 +21,7 @@ class PipelineSpec extends Specification {
     Stage second = Mock()
     DiagnosticEmitter diagnosticEmitter = Mock()
     @Subject
-    Pipeline pipeline = new Pipeline([first, second], diagnosticEmitter)
+    Pipeline pipeline = new Pipeline([first], [second], diagnosticEmitter)
 
     TypeElement element = Mock()
 
@@ -39,6 +40,63 @@ class PipelineSpec extends Specification {
         ctx.mapperType.is(element)
     }
 
+    def 'plan runs only the planning stages, on a fresh context for the element'() {
+        when:
+        def ctx = pipeline.plan(element)
+
+        then:
+        1 * first.run(_ as MapperContext)
+        0 * _
+
+        expect:
+        ctx.mapperType.is(element)
+    }
+
+    def 'realise runs only the realisation stages, on the given context'() {
+        given:
+        def ctx = new MapperContext(element)
+
+        when:
+        def realised = pipeline.realise(ctx)
+
+        then:
+        1 * second.run(ctx)
+        0 * _
+
+        expect:
+        realised.is(ctx)
+    }
+
+    def 'a realisation stage throwing flushes what the planning stages collected, then rethrows'() {
+        given:
+        def ctx = new MapperContext(element)
+        ctx.report(io.github.joke.percolate.processor.Diagnostic.error(
+                io.github.joke.percolate.spi.Subjects.none(), 'planned'))
+
+        when:
+        pipeline.realise(ctx)
+
+        then:
+        1 * second.run(ctx) >> { throw new IllegalStateException('boom') }
+        1 * diagnosticEmitter.flush(element) { it*.message == ['planned'] }
+        0 * _
+        thrown(IllegalStateException)
+    }
+
+    def 'process records each stage\'s wall time under its class name on the context\'s statistics'() {
+        when:
+        def ctx = pipeline.process(element)
+
+        then:
+        1 * first.run(_ as MapperContext)
+        1 * second.run(_ as MapperContext)
+        0 * _
+
+        expect:
+        ctx.statistics.stageNanos.keySet() == [first.getClass().simpleName, second.getClass().simpleName] as Set
+        ctx.statistics.stageNanos.values().every { it >= 0 }
+    }
+
     def 'a stage throwing mid-pipeline flushes whatever was collected so far, then rethrows'() {
         given:
         def failure = new IllegalStateException('boom')
@@ -0,0 +1,291 @@
+package io.github.joke.percolate.processor
+
+import io.github.joke.percolate.lib.javapoet.JavaFile
+import io.github.joke.percolate.lib.javapoet.TypeSpec
+import io.github.joke.percolate.processor.internal.stages.expand.TypeQueryCache
+import io.github.joke.percolate.processor.test.FakeElements
+import io.github.joke.percolate.processor.test.FakeType
+import io.github.joke.percolate.spi.ExpansionStrategy
+import io.github.joke.percolate.spi.Subjects
+import spock.lang.Specification
+import spock.lang.Tag
+import spock.lang.TempDir
+
+import javax.annotation.processing.Filer
+import javax.lang.model.SourceVersion
+import javax.lang.model.element.AnnotationMirror
+import javax.lang.model.element.Element
+import javax.lang.model.element.ElementKind
+import javax.lang.model.element.ExecutableElement
+import javax.lang.model.element.Modifier
+import javax.lang.model.element.ModuleElement
+import javax.lang.model.element.PackageElement
+import javax.lang.model.element.TypeElement
+import javax.lang.model.element.VariableElement
+import javax.lang.model.type.TypeKind
+import javax.tools.JavaFileObject
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * {@link PlanCache} over a temporary cache directory and a real {@link TypeDigests} on a stubbed
+ * {@link TypeQueryCache}. The fingerprint-soundness suite stores a cleanly generated mapper, mutates one input its
+ * plan was a function of — the mapper's own signature, a type the plan touched, a member's nullness annotation, the
+ * annotations of any element enclosing a touched type (an outer class two levels out, its package-info, its module),
+ * a type that was absent, a percolate option, the source version, the discovered strategies — and asserts that the
+ * entry is no longer replayed; inputs the plan is not a function of leave it replayable. An entry that cannot be read
+ * is a miss, a mapper that recorded any diagnostic is never stored, and nothing is replayed while graphs are dumped.
+ * {@code Person} is nested two classes deep, in a package and module of its own.
+ */
+@Tag('unit')
+class PlanCacheSpec extends Specification {
+
+    static final String MAPPER = 'test.PersonMapper'
+    static final String PERSON = 'test.Person'
+    static final String BUILDER = 'test.PersonBuilder'
+
+    @TempDir
+    Path cacheDir
+
+    TypeQueryCache typeQueries = Stub()
+    List<Element> mapperMembers
+    List<Element> personMembers
+    List<AnnotationMirror> packageAnnotations = []
+    List<AnnotationMirror> outerAnnotations = []
+    List<AnnotationMirror> personPackageAnnotations = []
+    List<AnnotationMirror> moduleAnnotations = []
+    TypeElement mapper
+    TypeElement person
+    TypeElement builder = null
+    Map<String, String> settings = [:]
+    List<ExpansionStrategy> strategies = []
+    SourceVersion sourceVersion = SourceVersion.RELEASE_11
+
+    StringWriter written = new StringWriter()
+    Filer filer = Stub {
+        createSourceFile(_, _) >> Stub(JavaFileObject) {
+            openWriter() >> written
+        }
+    }
+
+    def setup() {
+        mapperMembers = [method('toView', 'test.PersonView', [param('person')])]
+        personMembers = [method('getName', 'java.lang.String')]
+        mapper = type(MAPPER)
+        person = nested(PERSON)
+        typeQueries.typeElementNamed(MAPPER) >> { mapper }
+        typeQueries.typeElementNamed(PERSON) >> { person }
+        typeQueries.typeElementNamed(BUILDER) >> { builder }
+        typeQueries.membersOf(_) >> { TypeElement type -> type.is(mapper) ? mapperMembers : personMembers }
+        typeQueries.namesAsked() >> ([BUILDER] as Set)
+    }
+
+    def 'a stored mapper is replayed while nothing it was planned from has changed'() {
+        planCache().store(generated())
+
+        when:
+        def replayed = planCache().replay(mapper)
+
+        then:
+        replayed.present
+        replayed.get().diagnostics.empty
+        replayed.get().statistics.stageNanos.keySet() == [PlanCache.STAGE] as Set
+        written.toString().contains('class PersonMapperImpl')
+    }
+
+    def 'a stored mapper is not replayed once #change'() {
+        planCache().store(generated())
+
+        when:
+        mutate(this)
+
+        then:
+        !planCache().replay(mapper).present
+
+        where:
+        change                                                      | mutate
+        'the mapper gains a method'                                 | { PlanCacheSpec s ->
+            s.mapperMembers << s.method('toViews', 'java.util.List') }
+        'a mapper method\'s parameter is renamed'                   | { PlanCacheSpec s ->
+            s.mapperMembers[0] = s.method('toView', 'test.PersonView', [s.param('source')]) }
+        'a type the plan touched gains a member'                    | { PlanCacheSpec s ->
+            s.personMembers << s.method('getAge', 'int') }
+        'a touched member becomes @Nullable'                        | { PlanCacheSpec s ->
+            s.personMembers[0] = s.method('getName', 'java.lang.String', [], [FakeElements.annotation('Nullable')]) }
+        'the mapper\'s package becomes @NullMarked'                 | { PlanCacheSpec s ->
+            s.packageAnnotations << FakeElements.annotation('NullMarked') }
+        'a touched type\'s outer-outer class becomes @NullMarked'   | { PlanCacheSpec s ->
+            s.outerAnnotations << FakeElements.annotation('NullMarked') }
+        'a touched nested type\'s package-info becomes @NullMarked' | { PlanCacheSpec s ->
+            s.personPackageAnnotations << FakeElements.annotation('NullMarked') }
+        'a touched type\'s module becomes @NullUnmarked'            | { PlanCacheSpec s ->
+            s.moduleAnnotations << FakeElements.annotation('NullUnmarked') }
+        'a type that was absent now resolves'                       | { PlanCacheSpec s ->
+            s.builder = s.type(BUILDER) }
+        'a percolate option changes'                                | { PlanCacheSpec s ->
+            s.settings['percolate.locals.final'] = 'true' }
+        'a strategy is discovered'                                  | { PlanCacheSpec s ->
+            s.strategies = [new ExtraStrategy()] }
+        'the source version changes'                                | { PlanCacheSpec s ->
+            s.sourceVersion = SourceVersion.RELEASE_17 }
+    }
+
+    def 'a stored mapper is still replayed when only #change'() {
+        planCache().store(generated())
+
+        when:
+        mutate(this)
+
+        then:
+        planCache().replay(mapper).present
+
+        where:
+        change                                   | mutate
+        'another processor\'s option changes'    | { PlanCacheSpec s -> s.settings['lombok.addNullAnnotations'] = 'x' }
+        'the cache directory option is respelt'  | { PlanCacheSpec s ->
+            s.settings['percolate.cache.dir'] = s.cacheDir.toString() + '/.' }
+    }
+
+    def 'a mapper that recorded any diagnostic is not stored'() {
+        def ctx = generated()
+        ctx.report(Diagnostic.warning(Subjects.none(), 'unused option'))
+
+        when:
+        planCache().store(ctx)
+
+        then:
+        !Files.exists(cacheDir.resolve(MAPPER + PlanCache.EXTENSION))
+    }
+
+    def 'an entry that cannot be read is a miss'() {
+        Files.write(cacheDir.resolve(MAPPER + PlanCache.EXTENSION), bytes)
+
+        expect:
+        !planCache().replay(mapper).present
+
+        where:
+        bytes << [new byte[0], 'not gzip'.bytes]
+    }
+
+    def 'an entry round-trips through its file'() {
+        def cache = planCache()
+        def plan = new CachedPlan(new PlanFingerprint('env', [(MAPPER): 'm', (PERSON): 'p']), 'test.PersonMapperImpl',
+                'class PersonMapperImpl {}\n')
+        def path = cacheDir.resolve('nested').resolve(MAPPER + PlanCache.EXTENSION)
+
+        when:
+        cache.write(path, plan)
+
+        then:
+        cache.read(path) == Optional.of(plan)
+    }
+
+    def 'a mapper stored under -Apercolate.debug.graphs is planned again, so its graphs are dumped'() {
+        settings['percolate.debug.graphs'] = 'true'
+        planCache().store(generated())
+
+        expect:
+        Files.exists(cacheDir.resolve(MAPPER + PlanCache.EXTENSION))
+        !planCache().replay(mapper).present
+    }
+
+    def 'with no cache directory nothing is stored or replayed'() {
+        def off = new PlanCache(new TypeDigests(typeQueries), new ProcessorOptionsReader().from([:]), filer,
+                sourceVersion, [], [], [])
+
+        when:
+        off.store(generated())
+
+        then:
+        cacheDir.toFile().list().length == 0
+        !off.replay(mapper).present
+    }
+
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    PlanCache planCache() {
+        def options = new ProcessorOptionsReader().from(['percolate.cache.dir': cacheDir.toString()] + settings)
+        new PlanCache(new TypeDigests(typeQueries), options, filer, sourceVersion, strategies, [], [])
+    }
+
+    // A mapper that generated cleanly, having read Person through its graph.
+    MapperContext generated() {
+        def ctx = new MapperContext(mapper)
+        ctx.graphTypeNames = [PERSON] as Set
+        ctx.generatedFile = JavaFile.builder('test', TypeSpec.classBuilder('PersonMapperImpl').build()).build()
+        ctx.generatedName = 'test.PersonMapperImpl'
+        ctx
+    }
+
+    TypeElement type(final String fqn) {
+        def pkg = Stub(PackageElement) {
+            getKind() >> ElementKind.PACKAGE
+            getAnnotationMirrors() >> { packageAnnotations }
+            getEnclosingElement() >> null
+        }
+        Stub(TypeElement) {
+            getQualifiedName() >> FakeElements.name(fqn)
+            asType() >> FakeType.declared(fqn)
+            getSuperclass() >> FakeType.marker(TypeKind.NONE)
+            getInterfaces() >> []
+            getAnnotationMirrors() >> []
+            getEnclosingElement() >> pkg
+        }
+    }
+
+    // A type nested in Middle, itself nested in Outer, in a package of a module — each with annotations of its own.
+    TypeElement nested(final String fqn) {
+        def module = Stub(ModuleElement) {
+            getKind() >> ElementKind.MODULE
+            getAnnotationMirrors() >> { moduleAnnotations }
+            getEnclosingElement() >> null
+        }
+        def pkg = Stub(PackageElement) {
+            getKind() >> ElementKind.PACKAGE
+            getAnnotationMirrors() >> { personPackageAnnotations }
+            getEnclosingElement() >> module
+        }
+        def outer = Stub(TypeElement) {
+            getKind() >> ElementKind.CLASS
+            getAnnotationMirrors() >> { outerAnnotations }
+            getEnclosingElement() >> pkg
+        }
+        def middle = Stub(TypeElement) {
+            getKind() >> ElementKind.CLASS
+            getAnnotationMirrors() >> []
+            getEnclosingElement() >> outer
+        }
+        Stub(TypeElement) {
+            getQualifiedName() >> FakeElements.name(fqn)
+            asType() >> FakeType.declared(fqn)
+            getSuperclass() >> FakeType.marker(TypeKind.NONE)
+            getInterfaces() >> []
+            getAnnotationMirrors() >> []
+            getEnclosingElement() >> middle
+        }
+    }
+
+    ExecutableElement method(
+            final String name, final String returnType, final List<VariableElement> params = [],
+            final List<AnnotationMirror> annotations = []) {
+        Stub(ExecutableElement) {
+            getKind() >> ElementKind.METHOD
+            getModifiers() >> ([Modifier.PUBLIC] as Set)
+            getAnnotationMirrors() >> annotations
+            getSimpleName() >> FakeElements.name(name)
+            asType() >> FakeType.declared(returnType)
+            getParameters() >> params
+        }
+    }
+
+    VariableElement param(final String name) {
+        Stub(VariableElement) {
+            getAnnotationMirrors() >> []
+            getSimpleName() >> FakeElements.name(name)
+        }
+    }
+
+    // A strategy of a class of its own, standing in for one a newly added jar contributes.
+    static final class ExtraStrategy implements ExpansionStrategy {
+    }
+}
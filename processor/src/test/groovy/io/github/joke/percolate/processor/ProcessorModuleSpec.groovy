@@ -8,6 +8,8 @@ import io.github.joke.percolate.processor.internal.stages.dump.DumpFullGraphStag
 import io.github.joke.percolate.processor.internal.stages.dump.DumpPlanStage
 import io.github.joke.percolate.processor.internal.stages.dump.DumpTransformsStage
 import io.github.joke.percolate.processor.internal.stages.expand.ExpandStage
+import io.github.joke.percolate.processor.internal.stages.expand.StrategyIndex
+import io.github.joke.percolate.processor.internal.stages.expand.TypeQueryCache
 import io.github.joke.percolate.processor.internal.stages.generate.GenerateStage
 import io.github.joke.percolate.processor.internal.stages.validate.RealisationDiagnosticsStage
 import io.github.joke.percolate.processor.internal.stages.validate.ValidateNoDuplicateTargetsStage
@@ -135,8 +137,8 @@ class ProcessorModuleSpec extends Specification {
 
     def 'expandStage assembles an ExpandStage from the injected collaborators'() {
         expect:
-        module.expandStage([], [], Mock(Types), Mock(Elements), Mock(NullabilityResolver),
-                defaultOptions()) instanceof ExpandStage
+        module.expandStage(new StrategyIndex([]), [], Mock(Types), Mock(Elements), Mock(NullabilityResolver),
+                defaultOptions(), new TypeQueryCache(Mock(Types), Mock(Elements))) instanceof ExpandStage
     }
 
     def 'discoverStages lists abstract-methods, mappings, then callable-methods in order'() {
@@ -149,37 +151,50 @@ class ProcessorModuleSpec extends Specification {
         ProcessorModule.discoverStages(abstractMethods, mappings, callableMethods) == [abstractMethods, mappings, callableMethods]
     }
 
-    def 'stages threads the discover stages, then validation, expansion, realisation, dumps and generation in order'() {
+    def 'planningStages threads the discover stages, then validation and expansion in order'() {
         given:
         Stage discoverA = Mock()
         Stage discoverB = Mock()
         ValidateNoDuplicateTargetsStage noDuplicateTargets = Mock()
         ValidateSourceParametersStage sourceParameters = Mock()
         ExpandStage expand = Mock()
+
+        expect:
+        ProcessorModule.planningStages([discoverA, discoverB], noDuplicateTargets, sourceParameters, expand) == [
+                discoverA, discoverB, noDuplicateTargets, sourceParameters, expand
+        ]
+    }
+
+    def 'realisationStages threads realisation, then dumps and generation in order'() {
+        given:
+        ValidateOptionConsumptionStage optionConsumption = Mock()
+        RealisationDiagnosticsStage realisation = Mock()
         DumpFullGraphStage dumpFullGraph = Mock()
         DumpTransformsStage dumpTransforms = Mock()
         DumpPlanStage dumpPlan = Mock()
-        ValidateOptionConsumptionStage optionConsumption = Mock()
-        RealisationDiagnosticsStage realisation = Mock()
         GenerateStage generate = Mock()
 
-        when:
-        def stages = ProcessorModule.stages(
-                [discoverA, discoverB], noDuplicateTargets, sourceParameters, expand,
-                dumpFullGraph, dumpTransforms, dumpPlan, optionConsumption,
-                realisation, generate)
-
-        then:
-        stages == [
-                discoverA, discoverB,
-                noDuplicateTargets, sourceParameters,
-                expand,
-                optionConsumption, realisation,
-                dumpFullGraph, dumpTransforms, dumpPlan,
-                generate
+        expect:
+        ProcessorModule.realisationStages(
+                optionConsumption, realisation, dumpFullGraph, dumpTransforms, dumpPlan, generate) == [
+                optionConsumption, realisation, dumpFullGraph, dumpTransforms, dumpPlan, generate
         ]
     }
 
+    def 'stages is the planning stages followed by the realisation stages'() {
+        given:
+        Stage planned = Mock()
+        Stage realised = Mock()
+
+        expect:
+        ProcessorModule.stages([planned], [realised]) == [planned, realised]
+    }
+
+    def 'strategyIndex indexes the given strategy list'() {
+        expect:
+        ProcessorModule.strategyIndex([]) instanceof StrategyIndex
+    }
+
     def 'directiveReaders loads readers via ServiceLoader, sorted by FQN'() {
         expect:
         ProcessorModule.directiveReaders() instanceof List
@@ -135,7 +135,7 @@ class ProcessorOptionsReaderSpec extends Specification {
         options.localsVar
     }
 
-    def 'PercolateProcessor advertises exactly the eleven recognised options'() {
+    def 'PercolateProcessor advertises exactly the twenty-two recognised options'() {
         expect:
         new PercolateProcessor().supportedOptions == [
                 'percolate.debug.graphs',
@@ -148,10 +148,84 @@ class ProcessorOptionsReaderSpec extends Specification {
                 'percolate.docTags',
                 'percolate.time.zone',
                 'percolate.switch.style',
-                'percolate.construction.preference'
+                'percolate.collections.style',
+                'percolate.construction.preference',
+                'percolate.stats',
+                'percolate.expansion.bounded',
+                'percolate.budget.vertices',
+                'percolate.budget.demands',
+                'percolate.budget.bindings',
+                'percolate.childPlans.shared',
+                'percolate.childPlans.helpers',
+                'percolate.deferral.snapshots',
+                'percolate.cache.dir',
+                'percolate.parallel.extraction'
         ] as Set
     }
 
+    def 'percolate.stats defaults to false and parses the true flag'() {
+        expect:
+        !reader.from([:]).stats
+        reader.from(['percolate.stats': 'true']).stats
+    }
+
+    def 'percolate.expansion.bounded defaults to false and parses the true flag'() {
+        expect:
+        !reader.from([:]).expansionBounded
+        reader.from(['percolate.expansion.bounded': 'true']).expansionBounded
+    }
+
+    def 'the expansion budgets parse a positive count, and anything else means unlimited'() {
+        expect:
+        reader.from(['percolate.budget.vertices': value]).vertexBudget == budget
+        reader.from(['percolate.budget.demands': value]).demandBudget == budget
+        reader.from(['percolate.budget.bindings': value]).bindingBudget == budget
+
+        where:
+        value   || budget
+        '5000'  || 5000
+        ' 20 '  || 20
+        '0'     || 0
+        '-3'    || 0
+        'lots'  || 0
+    }
+
+    def 'the expansion budgets are unlimited when absent'() {
+        when:
+        def options = reader.from([:])
+
+        then:
+        options.vertexBudget == 0
+        options.demandBudget == 0
+        options.bindingBudget == 0
+    }
+
+    def 'percolate.childPlans.shared is on unless set to false, and percolate.childPlans.helpers is off unless set'() {
+        expect:
+        reader.from([:]).childPlansShared
+        !reader.from(['percolate.childPlans.shared': 'FALSE']).childPlansShared
+        !reader.from([:]).childPlanHelpers
+        reader.from(['percolate.childPlans.helpers': 'true']).childPlanHelpers
+    }
+
+    def 'percolate.deferral.snapshots is on unless set to false'() {
+        expect:
+        reader.from([:]).deferralSnapshots
+        !reader.from(['percolate.deferral.snapshots': 'false']).deferralSnapshots
+    }
+
+    def 'percolate.cache.dir is carried trimmed, and absent means no cache'() {
+        expect:
+        reader.from([:]).cacheDir == ''
+        reader.from(['percolate.cache.dir': ' build/percolate-cache ']).cacheDir == 'build/percolate-cache'
+    }
+
+    def 'percolate.parallel.extraction defaults to false and parses the true flag'() {
+        expect:
+        !reader.from([:]).parallelExtraction
+        reader.from(['percolate.parallel.extraction': 'true']).parallelExtraction
+    }
+
     def 'a strategy-consumed option is carried raw rather than parsed into a field'() {
         def options = reader.from(['percolate.switch.style': 'classic', 'percolate.time.zone': 'Europe/Berlin'])
 
@@ -224,4 +298,22 @@ class ProcessorOptionsReaderSpec extends Specification {
         expect:
         !reader.flag([:], 'k')
     }
+
+    def 'unlessOff is false only for the literal false, case-insensitively'() {
+        expect:
+        reader.unlessOff(['k': raw], 'k') == parsed
+
+        where:
+        raw     | parsed
+        'false' | false
+        'False' | false
+        'true'  | true
+        'no'    | true
+        ''      | true
+    }
+
+    def 'unlessOff defaults to true for an absent key'() {
+        expect:
+        reader.unlessOff([:], 'k')
+    }
 }
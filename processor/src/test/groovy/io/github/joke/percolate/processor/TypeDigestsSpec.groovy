@@ -0,0 +1,160 @@
+package io.github.joke.percolate.processor
+
+import io.github.joke.percolate.processor.internal.stages.expand.TypeQueryCache
+import io.github.joke.percolate.processor.model.MapperShape
+import io.github.joke.percolate.processor.test.FakeElements
+import io.github.joke.percolate.processor.test.FakeType
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.element.AnnotationMirror
+import javax.lang.model.element.Element
+import javax.lang.model.element.ElementKind
+import javax.lang.model.element.ExecutableElement
+import javax.lang.model.element.Modifier
+import javax.lang.model.element.ModuleElement
+import javax.lang.model.element.PackageElement
+import javax.lang.model.element.TypeElement
+import javax.lang.model.element.VariableElement
+import javax.lang.model.type.TypeKind
+
+/**
+ * {@link TypeDigests} over a stubbed {@link TypeQueryCache}: the names a run read span the mapper, every name asked,
+ * the graph's types and the abstract methods' signature types; a type's digest moves with anything expansion could
+ * have read of it — a member, a member's annotation, a parameter's name, the annotations of every element enclosing
+ * the type, its package's among them — and an unresolved name digests to {@code ABSENT}.
+ */
+@Tag('unit')
+class TypeDigestsSpec extends Specification {
+
+    static final String PERSON = 'test.Person'
+
+    TypeQueryCache typeQueries = Stub()
+    List<AnnotationMirror> packageAnnotations = []
+    List<Element> members = [method('getName', 'java.lang.String'), method('setName', 'void', [param('name')])]
+    TypeElement person = type(PERSON)
+
+    final TypeDigests digests = new TypeDigests(typeQueries)
+
+    def setup() {
+        typeQueries.typeElementNamed(PERSON) >> person
+        typeQueries.membersOf(person) >> { members }
+        typeQueries.namesAsked() >> (['test.PersonBuilder'] as Set)
+    }
+
+    def 'the names read span the mapper, every name asked, the graph\'s types and the abstract methods\' types'() {
+        def mapper = FakeElements.simpleElement('test.PersonMapper')
+        def ctx = new MapperContext(mapper)
+        ctx.graphTypeNames = ['test.Address'] as Set
+        ctx.shape = new MapperShape(mapper, [FakeElements.method('map',
+                FakeType.declared('java.util.List', FakeType.declared('test.View')),
+                FakeElements.param('people', FakeType.array(FakeType.declared(PERSON))))])
+
+        expect:
+        digests.namesRead(ctx) == ['test.PersonMapper', 'test.PersonBuilder', 'test.Address', 'java.util.List',
+                                   'test.View', PERSON] as Set
+    }
+
+    def 'the digests are keyed by name, in name order'() {
+        expect:
+        digests.digests(['test.Missing', PERSON] as Set).keySet().toList() == [PERSON, 'test.Missing']
+    }
+
+    def 'an unresolved name digests to absent'() {
+        expect:
+        digests.digest('test.Missing') == TypeDigests.ABSENT
+    }
+
+    def 'a type digests the same while nothing about it changes'() {
+        expect:
+        digests.digest(PERSON) == digests.digest(PERSON)
+    }
+
+    def 'a type\'s digest changes with #change'() {
+        def before = digests.digest(PERSON)
+
+        when:
+        mutate(this)
+
+        then:
+        digests.digest(PERSON) != before
+
+        where:
+        change                             | mutate
+        'an added member'                  | { TypeDigestsSpec s -> s.members << s.method('getAge', 'int') }
+        'a member\'s return type'          | { TypeDigestsSpec s -> s.members[0] = s.method('getName', 'test.Name') }
+        'a member\'s nullness annotation'  | { TypeDigestsSpec s ->
+            s.members[0] = s.method('getName', 'java.lang.String', [], [FakeElements.annotation('Nullable')]) }
+        'a parameter\'s name'              | { TypeDigestsSpec s ->
+            s.members[1] = s.method('setName', 'void', [s.param('fullName')]) }
+        'its package\'s annotations'       | { TypeDigestsSpec s ->
+            s.packageAnnotations << FakeElements.annotation('NullMarked') }
+    }
+
+    def 'the enclosing annotations span every element enclosing a type, innermost first, up to its module'() {
+        def module = Stub(ModuleElement) {
+            getKind() >> ElementKind.MODULE
+            getAnnotationMirrors() >> [FakeElements.annotation('NullUnmarked')]
+            getEnclosingElement() >> null
+        }
+        def pkg = Stub(PackageElement) {
+            getKind() >> ElementKind.PACKAGE
+            getAnnotationMirrors() >> []
+            getEnclosingElement() >> module
+        }
+        def outer = Stub(TypeElement) {
+            getKind() >> ElementKind.CLASS
+            getAnnotationMirrors() >> [FakeElements.annotation('NullMarked')]
+            getEnclosingElement() >> pkg
+        }
+        def middle = Stub(TypeElement) {
+            getKind() >> ElementKind.CLASS
+            getAnnotationMirrors() >> []
+            getEnclosingElement() >> outer
+        }
+        def nested = Stub(TypeElement) {
+            getEnclosingElement() >> middle
+        }
+
+        expect:
+        digests.enclosingAnnotations(nested) == 'CLASS [] CLASS [@NullMarked] PACKAGE [] MODULE [@NullUnmarked]'
+    }
+
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    TypeElement type(final String fqn) {
+        def pkg = Stub(PackageElement) {
+            getKind() >> ElementKind.PACKAGE
+            getAnnotationMirrors() >> { packageAnnotations }
+            getEnclosingElement() >> null
+        }
+        Stub(TypeElement) {
+            getQualifiedName() >> FakeElements.name(fqn)
+            asType() >> FakeType.declared(fqn)
+            getSuperclass() >> FakeType.marker(TypeKind.NONE)
+            getInterfaces() >> []
+            getAnnotationMirrors() >> []
+            getEnclosingElement() >> pkg
+        }
+    }
+
+    ExecutableElement method(
+            final String name, final String returnType, final List<VariableElement> params = [],
+            final List<AnnotationMirror> annotations = []) {
+        Stub(ExecutableElement) {
+            getKind() >> ElementKind.METHOD
+            getModifiers() >> ([Modifier.PUBLIC] as Set)
+            getAnnotationMirrors() >> annotations
+            getSimpleName() >> FakeElements.name(name)
+            asType() >> FakeType.declared(returnType)
+            getParameters() >> params
+        }
+    }
+
+    VariableElement param(final String name) {
+        Stub(VariableElement) {
+            getAnnotationMirrors() >> []
+            getSimpleName() >> FakeElements.name(name)
+        }
+    }
+}
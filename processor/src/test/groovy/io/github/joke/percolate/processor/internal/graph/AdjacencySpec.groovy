@@ -0,0 +1,145 @@
+package io.github.joke.percolate.processor.internal.graph
+
+import io.github.joke.percolate.processor.test.HarnessScope
+import spock.lang.Specification
+import spock.lang.Tag
+
+import static io.github.joke.percolate.processor.internal.graph.Adjacency.NONE
+
+/**
+ * The append-only adjacency arrays behind {@link MapperGraph}: slots are handed out in landing order, each vertex's
+ * outbound Deps are listed in landing order and its inbound Deps in source-slot order, the arrays grow past their
+ * initial capacity, and a vertex or Dep records the slot it landed in, so none can land in a second adjacency. Every
+ * vertex is an untyped {@link Value}.
+ */
+@Tag('unit')
+class AdjacencySpec extends Specification {
+
+    final Adjacency adjacency = new Adjacency()
+
+    def 'vertices and Deps take slots in landing order, and landing one twice keeps its slot'() {
+        final var a = vertex()
+        final var b = vertex()
+        final var dep = Dep.output()
+
+        when:
+        adjacency.addVertex(a)
+        adjacency.addVertex(b)
+        adjacency.addVertex(a)
+        adjacency.addEdge(a, b, dep)
+        adjacency.addEdge(a, b, dep)
+
+        then:
+        adjacency.slotOf(a) == 0
+        adjacency.slotOf(b) == 1
+        adjacency.vertexCount() == 2
+        adjacency.edgeCount() == 1
+        adjacency.source(adjacency.edgeOf(dep)) == 0
+        adjacency.target(adjacency.edgeOf(dep)) == 1
+    }
+
+    def 'outbound Deps are listed in landing order'() {
+        final var from = vertex()
+        final var to = vertex()
+        final var deps = [Dep.port('a'), Dep.port('b'), Dep.port('c')]
+        adjacency.addVertex(from)
+        adjacency.addVertex(to)
+
+        when:
+        deps.each { adjacency.addEdge(from, to, it) }
+
+        then:
+        outbound(0) == deps
+        inbound(1) == deps
+    }
+
+    def 'inbound Deps are listed in source-slot order, however they were wired'() {
+        final var first = vertex()
+        final var second = vertex()
+        final var third = vertex()
+        final var target = vertex()
+        [first, second, third, target].each { adjacency.addVertex(it) }
+        final var fromThird = Dep.output()
+        final var fromFirst = Dep.output()
+        final var fromSecond = Dep.output()
+
+        when:
+        adjacency.addEdge(third, target, fromThird)
+        adjacency.addEdge(first, target, fromFirst)
+        adjacency.addEdge(second, target, fromSecond)
+
+        then:
+        inbound(3) == [fromFirst, fromSecond, fromThird]
+    }
+
+    def 'the arrays grow past their initial capacity'() {
+        final var hub = vertex()
+        adjacency.addVertex(hub)
+        final var spokes = (1..40).collect { vertex() }
+        spokes.each { adjacency.addVertex(it) }
+
+        when:
+        final var deps = spokes.collect { spoke -> Dep.output().tap { adjacency.addEdge(hub, spoke, it) } }
+
+        then:
+        adjacency.vertexCount() == 41
+        outbound(0) == deps
+        adjacency.firstIn(40) == adjacency.edgeOf(deps.last())
+    }
+
+    def 'a vertex or Dep never landed is rejected'() {
+        when:
+        adjacency.slotOf(vertex())
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        adjacency.edgeOf(Dep.output())
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def 'a vertex or Dep records its slot, and one landed in another adjacency is rejected'() {
+        final var a = vertex()
+        final var b = vertex()
+        final var dep = Dep.output()
+        adjacency.addVertex(a)
+        adjacency.addVertex(b)
+        adjacency.addEdge(a, b, dep)
+
+        expect:
+        a.slot() == 0
+        b.slot() == 1
+        dep.slot() == 0
+
+        when:
+        new Adjacency().addVertex(b)
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    private GraphVertex vertex() {
+        new Value(new SourceLocation(AccessPath.of('v')), new HarnessScope('m()'), Optional.empty(), Optional.empty())
+    }
+
+    private List<Dep> outbound(final int slot) {
+        final var deps = []
+        for (var edge = adjacency.firstOut(slot); edge != NONE; edge = adjacency.nextOut(edge)) {
+            deps << adjacency.dep(edge)
+        }
+        deps
+    }
+
+    private List<Dep> inbound(final int slot) {
+        final var deps = []
+        for (var edge = adjacency.firstIn(slot); edge != NONE; edge = adjacency.nextIn(edge)) {
+            deps << adjacency.dep(edge)
+        }
+        deps
+    }
+}
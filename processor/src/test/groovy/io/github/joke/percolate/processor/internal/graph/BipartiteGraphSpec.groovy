@@ -4,7 +4,6 @@ import io.github.joke.percolate.processor.test.HarnessScope
 import io.github.joke.percolate.spi.Codegen
 import io.github.joke.percolate.spi.Nullability
 import io.github.joke.percolate.spi.Port
-import org.jgrapht.Graph
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Tag
@@ -13,8 +12,9 @@ import javax.lang.model.type.TypeMirror
 
 /**
  * Unit-tested mock-only: every {@link TypeMirror} is a plain opaque {@code Mock} — {@link MapperGraph} never queries
- * a type (it dedups {@link Value}s by identity/equality of the opaque token, part of the {@code (scope, location,
- * type, nullness)} key), so no {@code FakeType} structural stand-in is needed.
+ * a type (a standalone graph dedups {@link Value}s by identity of the opaque token, keyed through
+ * {@link TypeKeys#identity()} as part of the {@code (scope, location, type, nullness)} key), so no {@code FakeType}
+ * structural stand-in is needed.
  */
 @Tag('unit')
 class BipartiteGraphSpec extends Specification {
@@ -61,6 +61,18 @@ class BipartiteGraphSpec extends Specification {
                 .is(graph.valueFor(scope, loc, STRING, Nullability.NULLABLE))
     }
 
+    def 'demands whose distinct mirrors share an interned type key dedup to a single shared Value'() {
+        given:
+        final TypeKeys typeKeys = Stub()
+        typeKeys.keyOf(_) >> 3
+        final var structural = new MapperGraph(typeKeys)
+        final var loc = new SourceLocation(AccessPath.of('street'))
+
+        expect:
+        structural.valueFor(scope, loc, STRING, Nullability.NON_NULL)
+                .is(structural.valueFor(scope, loc, LIST_OF_STRING, Nullability.NON_NULL))
+    }
+
     // ---- Write-once typing ----------------------------------------------------------------------
 
     def 'an untyped Value accepts typing exactly once'() {
@@ -120,12 +132,11 @@ class BipartiteGraphSpec extends Specification {
     def 'AddOperation lands the Operation with one output edge and one inbound edge per port'() {
         given:
         final var op = graph.apply(constructor('addr', [port('number', INT), port('street', STRING)]))
-        final var view = graph.bipartiteView()
 
         expect:
-        view.outgoingEdgesOf(op).size() == 1
-        view.incomingEdgesOf(op).size() == 2
-        view.incomingEdgesOf(op).collect { it.portId.get() }.toSet() == ['number', 'street'].toSet()
+        outboundOf(op).size() == 1
+        inboundOf(op).size() == 2
+        inboundOf(op).collect { it.portId.get() }.toSet() == ['number', 'street'].toSet()
     }
 
     def 'a landed Operation carries the spec label and exposes no strategy FQN'() {
@@ -140,11 +151,10 @@ class BipartiteGraphSpec extends Specification {
     def 'a zero-port Operation lands with an output edge and no inbound edges'() {
         given:
         final var op = graph.apply(constructor('FLAG', []))
-        final var view = graph.bipartiteView()
 
         expect:
-        view.outgoingEdgesOf(op).size() == 1
-        view.incomingEdgesOf(op).empty
+        outboundOf(op).size() == 1
+        inboundOf(op).empty
     }
 
     def 'one Value feeding two ports yields two distinct port-labelled edges'() {
@@ -154,10 +164,9 @@ class BipartiteGraphSpec extends Specification {
                 [new PortBinding(new Port('low', INT, Nullability.NON_NULL), x),
                  new PortBinding(new Port('high', INT, Nullability.NON_NULL), x)],
                 target('range', STRING), Optional.empty(), [] as Set, []))
-        final var view = graph.bipartiteView()
 
         when:
-        final var inbound = view.incomingEdgesOf(op)
+        final var inbound = inboundOf(op)
 
         then:
         inbound.size() == 2
@@ -175,14 +184,106 @@ class BipartiteGraphSpec extends Specification {
         final var c2 = graph.apply(new AddOperation('C2', Stub(Codegen), 2, false,
                 [port('number', LONG), port('street', STRING)],
                 target('addr', STRING), Optional.empty(), [] as Set, []))
-        final var view = graph.bipartiteView()
 
         expect: 'the equal-typed street port is one shared Value, the divergent number ports are distinct'
-        sourceOfPort(view, c1, 'street').is(sourceOfPort(view, c2, 'street'))
-        !sourceOfPort(view, c1, 'number').is(sourceOfPort(view, c2, 'number'))
+        sourceOfPort(c1, 'street').is(sourceOfPort(c2, 'street'))
+        !sourceOfPort(c1, 'number').is(sourceOfPort(c2, 'number'))
 
         and: 'both Operations produce the one shared output Value (an OR over its producers)'
-        outputOf(view, c1).is(outputOf(view, c2))
+        outputOf(c1).is(outputOf(c2))
+    }
+
+    // ---- Adjacency queries ---------------------------------------------------------------------------
+
+    def 'the adjacency queries agree with a scan of the same edges'() {
+        given:
+        final var c1 = graph.apply(new AddOperation('C1', Stub(Codegen), 1, false,
+                [port('number', INT), port('street', STRING)],
+                target('addr', STRING), Optional.empty(), [] as Set, []))
+        final var c2 = graph.apply(new AddOperation('C2', Stub(Codegen), 2, false,
+                [port('number', LONG), port('street', STRING)],
+                target('addr', STRING), Optional.empty(), [] as Set, []))
+        final var output = graph.outputOf(c1).get()
+
+        expect:
+        output.is(outputOf(c1))
+        graph.outputOf(c2).get().is(output)
+        graph.producersOf(output).toList() == [c1, c2]
+        graph.portSource(c1, 'street').get().is(sourceOfPort(c1, 'street'))
+        graph.portSource(c2, 'number').get().is(sourceOfPort(c2, 'number'))
+        graph.portSource(c1, 'absent').empty
+        graph.portSourcesOf(c1).toList() == [sourceOfPort(c1, 'number'), sourceOfPort(c1, 'street')]
+    }
+
+    def 'consumersOf streams the Operations a Value feeds, once per port edge, in landing order'() {
+        given:
+        final var x = leaf('x', INT)
+        final var range = graph.apply(new AddOperation('new Range', Stub(Codegen), 1, false,
+                [new PortBinding(new Port('low', INT, Nullability.NON_NULL), x),
+                 new PortBinding(new Port('high', INT, Nullability.NON_NULL), x)],
+                target('range', STRING), Optional.empty(), [] as Set, []))
+        final var single = graph.apply(new AddOperation('new Single', Stub(Codegen), 1, false,
+                [new PortBinding(new Port('only', INT, Nullability.NON_NULL), x)],
+                target('single', STRING), Optional.empty(), [] as Set, []))
+        final var value = graph.portSource(range, 'low').get()
+
+        expect:
+        graph.consumersOf(value).toList() == [range, range, single]
+        graph.consumersOf(graph.outputOf(single).get()).toList().empty
+    }
+
+    def 'verticesInLandingOrder streams every vertex in the order it landed'() {
+        given:
+        final var op = graph.apply(constructor('addr', [port('street', STRING)]))
+        final var output = graph.outputOf(op).get()
+        final var street = graph.portSource(op, 'street').get()
+
+        expect:
+        graph.verticesInLandingOrder().toList() == [output, op, street]
+    }
+
+    def 'valuesIn streams a scope\'s own Values in minting order'() {
+        given:
+        final var other = new HarnessScope('other()')
+        final var b = graph.valueFor(scope, new SourceLocation(AccessPath.of('b')), STRING, Nullability.NON_NULL)
+        final var a = graph.valueFor(scope, new SourceLocation(AccessPath.of('a')), STRING, Nullability.NON_NULL)
+        graph.valueFor(other, new SourceLocation(AccessPath.of('c')), STRING, Nullability.NON_NULL)
+        graph.valueFor(scope, new SourceLocation(AccessPath.of('b')), STRING, Nullability.NON_NULL)
+
+        expect:
+        graph.valuesIn(scope).toList() == [b, a]
+        graph.valuesIn(new HarnessScope('empty()')).toList().empty
+    }
+
+    def 'valuesIn from a count streams only the scope\'s Values minted after that many'() {
+        given:
+        final var a = graph.valueFor(scope, new SourceLocation(AccessPath.of('a')), STRING, Nullability.NON_NULL)
+        final var b = graph.valueFor(scope, new SourceLocation(AccessPath.of('b')), STRING, Nullability.NON_NULL)
+
+        expect:
+        graph.valuesIn(scope, 0).toList() == [a, b]
+        graph.valuesIn(scope, 1).toList() == [b]
+        graph.valuesIn(scope, 2).toList().empty
+        graph.valuesIn(scope, 5).toList().empty
+        graph.valuesIn(new HarnessScope('empty()'), 0).toList().empty
+    }
+
+    def 'producers wired out of order are still answered in landing order'() {
+        given:
+        final var first = new Operation(0, 'x', Stub(Codegen), 1, false, [], scope, false, [] as Set, [])
+        final var second = new Operation(1, 'y', Stub(Codegen), 1, false, [], scope, false, [] as Set, [])
+        final var handBuilt = new MapperGraph()
+        final var value = handBuilt.valueFor(scope, new TargetLocation(TargetPath.of('z')), STRING,
+                Nullability.NON_NULL)
+        handBuilt.addVertex(first)
+        handBuilt.addVertex(second)
+
+        when:
+        handBuilt.addDep(second, value, Dep.output())
+        handBuilt.addDep(first, value, Dep.output())
+
+        then:
+        handBuilt.producersOf(value).toList() == [first, second]
     }
 
     // ---- Scope invariant (design D7) -----------------------------------------------------------
@@ -225,19 +326,23 @@ class BipartiteGraphSpec extends Specification {
         graph.valuesIn(child).noneMatch { it.loc instanceof ElementLocation }
     }
 
-    def 'scopeView masks out every vertex that lives in another scope'() {
-        final var other = new HarnessScope('other()')
-        final var inScope = graph.valueFor(scope, new SourceLocation(AccessPath.of('a')), STRING,
-                Nullability.NON_NULL)
-        final var elsewhere = graph.valueFor(other, new SourceLocation(AccessPath.of('b')), STRING,
-                Nullability.NON_NULL)
+    def 'a vertex already landed in one graph is rejected by another'() {
+        given:
+        final var op = graph.apply(constructor('x', []))
+
+        when:
+        new MapperGraph().addVertex(op)
 
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def 'an unknown Dep has no endpoints'() {
         when:
-        final var view = graph.scopeView(scope)
+        graph.getDepSource(Dep.output())
 
         then:
-        view.vertexSet().contains(inScope)
-        !view.vertexSet().contains(elsewhere)
+        thrown(IllegalArgumentException)
     }
 
     // ---- Return-root lookup (relocated from BuildMethodBodies.returnRoot, decompose-engine-stages) --------------
@@ -313,12 +418,20 @@ class BipartiteGraphSpec extends Specification {
 
     // ---- helpers --------------------------------------------------------------------------------
 
-    private static GraphVertex sourceOfPort(final Graph<GraphVertex, Dep> view, final Operation op, final String portName) {
-        view.incomingEdgesOf(op).find { it.portId.get() == portName }.with { dep -> view.getEdgeSource(dep) }
+    private List<Dep> inboundOf(final GraphVertex vertex) {
+        graph.deps().filter { graph.getDepTarget(it).is(vertex) }.toList()
+    }
+
+    private List<Dep> outboundOf(final GraphVertex vertex) {
+        graph.deps().filter { graph.getDepSource(it).is(vertex) }.toList()
+    }
+
+    private GraphVertex sourceOfPort(final Operation op, final String portName) {
+        graph.getDepSource(inboundOf(op).find { it.portId.get() == portName })
     }
 
-    private static GraphVertex outputOf(final Graph<GraphVertex, Dep> view, final Operation op) {
-        view.getEdgeTarget(view.outgoingEdgesOf(op).first())
+    private GraphVertex outputOf(final Operation op) {
+        graph.getDepTarget(outboundOf(op).first())
     }
 
     private AddValue leaf(final String slot, final TypeMirror type) {
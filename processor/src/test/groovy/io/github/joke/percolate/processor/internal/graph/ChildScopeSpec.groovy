@@ -7,7 +7,8 @@ import spock.lang.Tag
  * {@link ChildScope#inputDecls} unit-tested mock-only: yields exactly its own element input declaration, set once
  * when the owning Operation lands (design D5 of change {@code decouple-engine-from-strategy-semantics}) — a
  * {@code ChildScope} no longer re-exports its parent's declarations; ancestor visibility is the selector's own
- * concern (see {@code SourceCandidates}), not a second stream on the scope.
+ * concern (see {@code SourceCandidates}), not a second stream on the scope. A scope sharing another's element plan
+ * reads that plan through {@code planScope}/{@code planRoot}.
  */
 @Tag('unit')
 class ChildScopeSpec extends Specification {
@@ -24,4 +25,52 @@ class ChildScopeSpec extends Specification {
         expect:
         scope.inputDecls().toList() == [elementInput]
     }
+
+    def 'an unshared scope plans its own elements'() {
+        Value returnRoot = Mock()
+        scope.initialise(returnRoot, Mock(InputDecl))
+
+        expect:
+        scope.planScope.is(scope)
+        scope.planRoot.is(returnRoot)
+        scope.sharers().toList() == []
+    }
+
+    def 'a sharing scope reads the donor\'s plan, and the donor lists it as a sharer'() {
+        def donor = new ChildScope(Mock(Operation), parentScope)
+        Value donorRoot = Mock()
+        donor.initialise(donorRoot, Mock(InputDecl))
+
+        when:
+        scope.share(donor)
+
+        then:
+        scope.planScope.is(donor)
+        scope.planRoot.is(donorRoot)
+        donor.sharers().toList() == [scope]
+    }
+
+    def 'a scope shares at most once, only an unshared donor, and never itself'() {
+        def donor = new ChildScope(Mock(Operation), parentScope)
+        def other = new ChildScope(Mock(Operation), parentScope)
+        scope.share(donor)
+
+        when: 'a sharing scope shares again'
+        scope.share(other)
+
+        then:
+        thrown(IllegalStateException)
+
+        when: 'a scope shares a sharing one'
+        other.share(scope)
+
+        then:
+        thrown(IllegalStateException)
+
+        when: 'a scope shares itself'
+        other.share(other)
+
+        then:
+        thrown(IllegalStateException)
+    }
 }
@@ -198,6 +198,102 @@ class ExtractedPlanSpec extends Specification {
         !plan.reachable(root)
     }
 
+    def 'a scope-owning operation sharing another\'s element plan is costed, and walked, through the donor\'s plan'() {
+        given: 'two element mappings of the same param assembled into root; only the donor\'s child plan is produced'
+        final var param = source('p', STRING)
+        final var a = graph.valueFor(scope, new TargetLocation(TargetPath.of('a')), STRING, Nullability.NON_NULL)
+        final var b = graph.valueFor(scope, new TargetLocation(TargetPath.of('b')), STRING, Nullability.NON_NULL)
+        final var donor = containerMapping(a, param).childScope.get()
+        final var sharer = containerMapping(b, param).childScope.get()
+        graph.sharePlan(sharer, donor)
+        final var elementOp = produce(donor.returnRoot, 2, [])
+        produce(root, 0, [a, b])
+
+        when:
+        final var plan = extract()
+
+        then: 'both mappings cost the element plan\'s 2, and the sharer\'s own return root is never demanded'
+        plan.cost(b) == Cost.finite(0, 2)
+        plan.cost(root) == Cost.finite(0, 4)
+        plan.chosenProducer(donor.returnRoot).get().is(elementOp)
+        !plan.reachable(sharer.returnRoot)
+    }
+
+    def 'a cycle fed by a supply root settles at its cheapest cost, whichever member is reached first'() {
+        given: 'x and y each produced from the other at weight 1; y is also produced from the param at 1, x at 5'
+        final var param = source('p', STRING)
+        final var x = graph.valueFor(scope, new TargetLocation(TargetPath.of('x')), STRING, Nullability.NON_NULL)
+        final var y = graph.valueFor(scope, new TargetLocation(TargetPath.of('y')), STRING, Nullability.NON_NULL)
+        final var viaY = produce(x, 1, [y])
+        produce(x, 5, [param])
+        produce(y, 1, [x])
+        produce(y, 1, [param])
+        produce(root, 0, [y])
+        produce(root, 0, [x])
+
+        when:
+        final var plan = extract()
+
+        then: 'x costs y + 1 = 2 through the cycle, not the 5 a cycle guard tripped while resolving y would memoise'
+        plan.cost(y) == Cost.finite(0, 1)
+        plan.cost(x) == Cost.finite(0, 2)
+        plan.chosenProducer(x).get().is(viaY)
+    }
+
+    def 'a fallback LEAF never selects a producer reachable only through itself'() {
+        given: 'the param p is produced from q, and q only from p: the cycle is fed by nothing but p\'s base case'
+        final var param = source('p', STRING)
+        final var q = graph.valueFor(scope, new TargetLocation(TargetPath.of('q')), STRING, Nullability.NON_NULL)
+        produce(param, 1, [q])
+        produce(q, 0, [param])
+        produce(param, 0, [param])
+        produce(root, 0, [param])
+
+        when:
+        final var plan = extract()
+
+        then: 'p is a supply root at ZERO, though both of its producers are now reachable through it'
+        plan.cost(param) == Cost.ZERO
+        graph.producersOf(param).allMatch { plan.reachable(it) }
+        plan.chosenProducer(param).empty
+        plan.chosenProducer(root).present
+    }
+
+    def 'a zero-weight cycle tying on cost never selects the producer that consumes its own output'() {
+        given: 'x is produced from y at weight 0 (the lower seq) and from the param at 1; y only from x, at weight 0'
+        final var param = source('p', STRING)
+        final var x = graph.valueFor(scope, new TargetLocation(TargetPath.of('x')), STRING, Nullability.NON_NULL)
+        final var y = graph.valueFor(scope, new TargetLocation(TargetPath.of('y')), STRING, Nullability.NON_NULL)
+        final var viaY = produce(x, 0, [y])
+        final var viaParam = produce(x, 1, [param])
+        produce(y, 0, [x])
+        produce(root, 0, [x])
+
+        when:
+        final var plan = extract()
+
+        then: 'viaY ties viaParam at 1 and wins on seq, yet it consumes x through y, so viaParam is chosen'
+        plan.cost(viaY) == plan.cost(viaParam)
+        plan.chosenProducer(x).get().is(viaParam)
+    }
+
+    def 'a conversion chain far deeper than the call stack extracts without recursing'() {
+        given:
+        final var param = source('p', STRING)
+        var previous = param
+        for (var hop = 0; hop < 20_000; hop++) {
+            previous = intermediate('hop' + hop, STRING, 1, [previous])
+        }
+        produce(root, 0, [previous])
+
+        when:
+        final var plan = extract()
+
+        then:
+        plan.cost(root) == Cost.finite(0, 20_000)
+        plan.chosenProducer(previous).present
+    }
+
     // ---- helpers --------------------------------------------------------------------------------
 
     private ExtractedPlan extract() {
@@ -229,6 +325,14 @@ class ExtractedPlanSpec extends Specification {
         graph.apply(new AddOperation('op', Stub(Codegen), weight, partial, ports, av(out), Optional.empty(), [] as Set, []))
     }
 
+    /** A zero-weight container mapping of {@code out} from {@code source}, owning a STRING → STRING child scope. */
+    private Operation containerMapping(final Value out, final Value source) {
+        graph.apply(new AddOperation('map', Stub(Codegen), 0, false,
+                [new PortBinding(new Port('p0', source.type.get(), source.nullness.get()), av(source))],
+                av(out),
+                Optional.of(new ChildScopeDecl(STRING, Nullability.NON_NULL, STRING, Nullability.NON_NULL)), [] as Set, []))
+    }
+
     /** Mints an intermediate target Value of {@code type} produced with {@code weight} from {@code portSources}. */
     private Value intermediate(final String slot, final TypeMirror type, final int weight, final List<Value> portSources) {
         final var value = graph.valueFor(scope, new TargetLocation(TargetPath.of(slot)), type, Nullability.NON_NULL)
@@ -0,0 +1,243 @@
+package io.github.joke.percolate.processor.internal.graph
+
+import io.github.joke.percolate.lib.javapoet.ClassName
+import io.github.joke.percolate.lib.javapoet.CodeBlock
+import io.github.joke.percolate.processor.test.HarnessScope
+import io.github.joke.percolate.spi.Codegen
+import io.github.joke.percolate.spi.LoopCodegen
+import io.github.joke.percolate.spi.MemberRequest
+import io.github.joke.percolate.spi.Nullability
+import io.github.joke.percolate.spi.Port
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.type.TypeMirror
+
+/**
+ * {@link LoweredPlan} over a real {@link MapperGraph} and its {@link ExtractedPlan}: each reached scope's schedule in
+ * dependency order with the return root last, child plans scheduled as scopes of their own (a shared one once), the
+ * port operands of every in-plan Operation, the hoist flags, and the in-plan member requests by dedup key. Mock-only
+ * types, as in {@code ExtractedPlanSpec}.
+ */
+@Tag('unit')
+class LoweredPlanSpec extends Specification {
+
+    @Shared TypeMirror STRING = Mock()
+
+    final MapperGraph graph = new MapperGraph()
+    final Scope scope = new HarnessScope('m()')
+    final Value root = graph.valueFor(scope, new TargetLocation(TargetPath.of('')), STRING, Nullability.NON_NULL)
+            .tap { graph.markReturnRoot(it) }
+
+    def 'a scope schedules each produced Value after what its producer consumes, the root last and leaves never'() {
+        given: 'root <- assemble(p0<-a, p1<-mid); a <- op(<-mid); mid <- op(<-param)'
+        final var param = source('p')
+        final var mid = target('mid')
+        final var a = target('a')
+        produce(mid, [param])
+        produce(a, [mid])
+        produce(root, [a, mid])
+
+        when:
+        final var lowered = lower()
+
+        then:
+        lowered.schedule(root) == [mid, a, root]
+    }
+
+    def 'a Value feeding an n-ary port or more than one port is hoisted; a single-use or producerless one is not'() {
+        given: 'root <- assemble(p0<-a, p1<-b); a <- op(<-s); b <- op(<-s); s <- op(<-single); single <- op(<-param)'
+        final var param = source('p')
+        final var single = target('single')
+        final var s = target('s')
+        final var a = target('a')
+        final var b = target('b')
+        produce(single, [param])
+        produce(s, [single])
+        produce(a, [s])
+        produce(b, [s])
+        produce(root, [a, b])
+
+        when:
+        final var lowered = lower()
+
+        then: 'a and b feed the n-ary assemble, s two single-port ops; single is used once, param has no producer'
+        lowered.isHoisted(a)
+        lowered.isHoisted(b)
+        lowered.isHoisted(s)
+        !lowered.isHoisted(single)
+        !lowered.isHoisted(param)
+        !lowered.isHoisted(root)
+    }
+
+    def 'a loop-produced Value is hoisted even as the return root, and so is a produced source it reads'() {
+        given: 'root <- loop(<-items); items <- op(<-param)'
+        final var param = source('p')
+        final var items = target('items')
+        produce(items, [param])
+        containerMapping(root, items, Stub(LoopCodegen))
+
+        when:
+        final var lowered = lower()
+
+        then: 'the loop fills root as a declared local, and reads items twice, to presize and to iterate'
+        lowered.isHoisted(root)
+        lowered.isHoisted(items)
+        lowered.schedule(root) == [items, root]
+    }
+
+    def 'a loop reading a parameter directly hoists only the Value it fills'() {
+        given:
+        final var param = source('p')
+        containerMapping(root, param, Stub(LoopCodegen))
+
+        when:
+        final var lowered = lower()
+
+        then:
+        lowered.isHoisted(root)
+        !lowered.isHoisted(param)
+    }
+
+    def 'an in-plan Operation answers its port sources by name; a losing producer answers none'() {
+        given:
+        final var param = source('p')
+        final var mid = target('mid')
+        produce(mid, [param])
+        final var winner = produce(root, [param, mid])
+        final var loser = produce(root, [param], 9)
+
+        when:
+        final var lowered = lower()
+
+        then:
+        lowered.portSource(winner, 'p1').get().is(mid)
+        !lowered.portSource(winner, 'missing').present
+        lowered.portSourcesOf(winner).toList() == [param, mid]
+        !lowered.portSource(loser, 'p0').present
+        lowered.portSourcesOf(loser).toList().empty
+    }
+
+    def 'a child plan is scheduled as a scope of its own, not in its owner\'s schedule'() {
+        given:
+        final var param = source('p')
+        final var mapping = containerMapping(root, param)
+        final var child = mapping.childScope.get()
+        final var elementOp = produce(child.returnRoot, [])
+
+        when:
+        final var lowered = lower()
+
+        then:
+        lowered.schedule(root) == [root]
+        lowered.schedule(child.returnRoot) == [child.returnRoot]
+        lowered.operations().toList() == [mapping, elementOp]
+    }
+
+    def 'a shared element plan is lowered once, through the donor, and reached from every sharer'() {
+        given: 'two element mappings of the same param assembled into root; only the donor\'s child plan is produced'
+        final var param = source('p')
+        final var a = target('a')
+        final var b = target('b')
+        final var mapA = containerMapping(a, param)
+        final var mapB = containerMapping(b, param)
+        graph.sharePlan(mapB.childScope.get(), mapA.childScope.get())
+        final var elementOp = produce(mapA.childScope.get().returnRoot, [])
+        final var assemble = produce(root, [a, b])
+
+        when:
+        final var lowered = lower()
+
+        then:
+        lowered.operations().toList() == [assemble, mapA, elementOp, mapB]
+        lowered.operationsFrom(b).toList() == [mapB, elementOp]
+        lowered.schedule(mapB.childScope.get().planRoot) == [mapA.childScope.get().returnRoot]
+    }
+
+    def 'operationsFrom reaches a Value\'s chosen producer and everything it consumes, each once, in reach order'() {
+        given:
+        final var param = source('p')
+        final var mid = target('mid')
+        final var a = target('a')
+        final var midOp = produce(mid, [param])
+        final var aOp = produce(a, [mid, mid])
+        produce(root, [a])
+
+        when:
+        final var lowered = lower()
+
+        then:
+        lowered.operationsFrom(a).toList() == [aOp, midOp]
+        lowered.operationsFrom(param).empty
+    }
+
+    def 'in-plan member requests are filed by dedup key in Operation order; a losing producer\'s are not'() {
+        given: 'root <- assemble(p0<-a, p1<-b); a <- op[fmt]; b <- op[fmt, zone] or, dearer, op[lost]'
+        final var fmt = member('fmt')
+        final var zone = member('zone')
+        final var a = target('a')
+        final var b = target('b')
+        final var aOp = produce(a, [], 1, [fmt])
+        final var bOp = produce(b, [], 1, [fmt, zone])
+        produce(b, [], 100, [member('lost')])
+        produce(root, [a, b])
+
+        when:
+        final var requests = lower().memberRequests()
+
+        then:
+        requests.keySet().toList() == ['fmt', 'zone']
+        requests['fmt'] == [new RequestedMember(aOp, fmt), new RequestedMember(bOp, fmt)]
+        requests['zone'] == [new RequestedMember(bOp, zone)]
+    }
+
+    def 'a scope the plan never reaches has an empty schedule'() {
+        given:
+        final var other = graph.valueFor(new HarnessScope('n()'), new TargetLocation(TargetPath.of('')), STRING,
+                Nullability.NON_NULL)
+
+        expect:
+        lower().schedule(other).empty
+    }
+
+    // ---- helpers --------------------------------------------------------------------------------
+
+    private LoweredPlan lower() {
+        LoweredPlan.lower(graph, ExtractedPlan.extract(graph))
+    }
+
+    private Value source(final String slot) {
+        graph.valueFor(scope, new SourceLocation(AccessPath.of(slot)), STRING, Nullability.NON_NULL)
+    }
+
+    private Value target(final String slot) {
+        graph.valueFor(scope, new TargetLocation(TargetPath.of(slot)), STRING, Nullability.NON_NULL)
+    }
+
+    private AddValue av(final Value value) {
+        new AddValue(value.scope, value.loc, value.type.get(), value.nullness.get())
+    }
+
+    /** A total producer of {@code out} with {@code weight}, fed by the given existing port-source Values. */
+    private Operation produce(final Value out, final List<Value> portSources, final int weight = 1,
+            final List<MemberRequest> memberRequests = []) {
+        final var ports = (0..<portSources.size()).collect { i ->
+            new PortBinding(new Port('p' + i, portSources[i].type.get(), portSources[i].nullness.get()), av(portSources[i]))
+        }
+        graph.apply(new AddOperation('op', Stub(Codegen), weight, false, ports, av(out), Optional.empty(), [] as Set,
+                memberRequests))
+    }
+
+    private static MemberRequest member(final String dedupKey) {
+        new MemberRequest(ClassName.get('java.lang', 'Object'), CodeBlock.of('new $T()', Object), dedupKey)
+    }
+
+    /** A zero-weight container mapping of {@code out} from {@code source}, owning a STRING → STRING child scope. */
+    private Operation containerMapping(final Value out, final Value source, final Codegen codegen = Stub(Codegen)) {
+        graph.apply(new AddOperation('map', codegen, 0, false,
+                [new PortBinding(new Port('p0', source.type.get(), source.nullness.get()), av(source))],
+                av(out),
+                Optional.of(new ChildScopeDecl(STRING, Nullability.NON_NULL, STRING, Nullability.NON_NULL)), [] as Set, []))
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.joke.percolate.processor.internal.graph
+
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.element.AnnotationMirror
+import javax.lang.model.element.Element
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.ArrayType
+import javax.lang.model.type.DeclaredType
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.type.TypeVariable
+import javax.lang.model.type.WildcardType
+
+import static javax.lang.model.type.TypeKind.ARRAY
+import static javax.lang.model.type.TypeKind.DECLARED
+import static javax.lang.model.type.TypeKind.INT
+import static javax.lang.model.type.TypeKind.LONG
+import static javax.lang.model.type.TypeKind.NONE
+import static javax.lang.model.type.TypeKind.TYPEVAR
+import static javax.lang.model.type.TypeKind.WILDCARD
+
+/**
+ * The type-key interner: structural keys agree exactly when two mirrors have the same kind, element, type arguments,
+ * component, bounds and annotations, and identity keys never look inside a mirror. Mirrors are structural
+ * {@code Stub}s answering only the accessors their kind has; every {@link Element} is an opaque identity token.
+ */
+@Tag('unit')
+class TypeKeysSpec extends Specification {
+
+    TypeKeys keys = TypeKeys.structural()
+
+    TypeElement list = Stub()
+    TypeElement string = Stub()
+    TypeElement integer = Stub()
+
+    def 'distinct mirrors of the same declared type share a key'() {
+        expect:
+        keys.keyOf(declared(list, declared(string))) == keys.keyOf(declared(list, declared(string)))
+    }
+
+    def 'a different type argument or element tells two declared types apart'() {
+        def listOfString = keys.keyOf(declared(list, declared(string)))
+
+        expect:
+        keys.keyOf(declared(list, declared(integer))) != listOfString
+        keys.keyOf(declared(string)) != keys.keyOf(declared(integer))
+    }
+
+    def 'a type-use annotation tells two otherwise equal declared types apart'() {
+        AnnotationMirror nullable = Stub()
+        nullable.toString() >> '@Nullable'
+
+        expect:
+        keys.keyOf(declared(string)) != keys.keyOf(annotated(declared(string), nullable))
+    }
+
+    def 'primitives share a key per kind'() {
+        expect:
+        keys.keyOf(mirror(INT)) == keys.keyOf(mirror(INT))
+        keys.keyOf(mirror(INT)) != keys.keyOf(mirror(LONG))
+    }
+
+    def 'arrays are keyed by their component'() {
+        expect:
+        keys.keyOf(array(mirror(INT))) == keys.keyOf(array(mirror(INT)))
+        keys.keyOf(array(mirror(INT))) != keys.keyOf(array(mirror(LONG)))
+        keys.keyOf(array(mirror(INT))) != keys.keyOf(mirror(INT))
+    }
+
+    def 'type variables are keyed by their declaring element'() {
+        Element t = Stub()
+        Element u = Stub()
+
+        expect:
+        keys.keyOf(typeVariable(t)) == keys.keyOf(typeVariable(t))
+        keys.keyOf(typeVariable(t)) != keys.keyOf(typeVariable(u))
+    }
+
+    def 'wildcards are keyed by their bounds, an absent bound included'() {
+        def upper = declared(string)
+
+        expect:
+        keys.keyOf(wildcard(upper, null)) == keys.keyOf(wildcard(declared(string), null))
+        keys.keyOf(wildcard(upper, null)) != keys.keyOf(wildcard(null, upper))
+        keys.keyOf(wildcard(null, null)) != keys.keyOf(wildcard(upper, null))
+    }
+
+    def 'a mirror keyed before is answered without asking it again'() {
+        TypeMirror type = Mock()
+
+        when:
+        def first = keys.keyOf(type)
+        def second = keys.keyOf(type)
+
+        then:
+        1 * type.getKind() >> INT
+        1 * type.getAnnotationMirrors() >> []
+        0 * _
+
+        expect:
+        first == second
+    }
+
+    def 'identity keys never ask a mirror anything and tell every instance apart'() {
+        def identity = TypeKeys.identity()
+        TypeMirror a = Mock()
+        TypeMirror b = Mock()
+
+        when:
+        def first = identity.keyOf(a)
+        def again = identity.keyOf(a)
+        def other = identity.keyOf(b)
+
+        then:
+        0 * _
+
+        expect:
+        first == again
+        first != other
+    }
+
+    def 'clear forgets every key'() {
+        def type = mirror(INT)
+        keys.keyOf(mirror(LONG))
+        def before = keys.keyOf(type)
+
+        when:
+        keys.clear()
+
+        then:
+        before == 1
+        keys.keyOf(type) == 0
+    }
+
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    private TypeMirror mirror(final TypeKind kind) {
+        TypeMirror mirror = Stub()
+        mirror.getKind() >> kind
+        mirror.getAnnotationMirrors() >> []
+        mirror
+    }
+
+    private DeclaredType declared(final TypeElement element, final TypeMirror... args) {
+        DeclaredType declared = Stub()
+        declared.getKind() >> DECLARED
+        declared.getAnnotationMirrors() >> []
+        declared.asElement() >> element
+        declared.getEnclosingType() >> mirror(NONE)
+        declared.getTypeArguments() >> args.toList()
+        declared
+    }
+
+    private DeclaredType annotated(final DeclaredType type, final AnnotationMirror annotation) {
+        DeclaredType declared = Stub()
+        declared.getKind() >> DECLARED
+        declared.getAnnotationMirrors() >> [annotation]
+        declared.asElement() >> type.asElement()
+        declared.getEnclosingType() >> type.getEnclosingType()
+        declared.getTypeArguments() >> type.getTypeArguments()
+        declared
+    }
+
+    private ArrayType array(final TypeMirror component) {
+        ArrayType array = Stub()
+        array.getKind() >> ARRAY
+        array.getAnnotationMirrors() >> []
+        array.getComponentType() >> component
+        array
+    }
+
+    private TypeVariable typeVariable(final Element element) {
+        TypeVariable variable = Stub()
+        variable.getKind() >> TYPEVAR
+        variable.getAnnotationMirrors() >> []
+        variable.asElement() >> element
+        variable
+    }
+
+    private WildcardType wildcard(final TypeMirror extendsBound, final TypeMirror superBound) {
+        WildcardType wildcard = Stub()
+        wildcard.getKind() >> WILDCARD
+        wildcard.getAnnotationMirrors() >> []
+        wildcard.getExtendsBound() >> extendsBound
+        wildcard.getSuperBound() >> superBound
+        wildcard
+    }
+}
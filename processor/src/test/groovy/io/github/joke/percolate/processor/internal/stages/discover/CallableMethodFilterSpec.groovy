@@ -12,6 +12,7 @@ import javax.lang.model.util.Types
 import static javax.lang.model.element.ElementKind.CONSTRUCTOR
 import static javax.lang.model.element.ElementKind.FIELD
 import static javax.lang.model.element.ElementKind.METHOD
+import static javax.lang.model.type.TypeKind.TYPEVAR
 
 /**
  * {@link CallableMethodFilter} (and the {@link IndexCallableMethods} view it builds) unit-tested on plain
@@ -20,8 +21,9 @@ import static javax.lang.model.element.ElementKind.METHOD
  * any {@code @Ambient} adjustment — is left entirely to {@code MethodCallBridge} (design D7 of change
  * {@code decouple-engine-from-strategy-semantics}: the processor reads no user-facing annotation), so this filter no
  * longer discriminates on parameter count. Assignability is the one seam question — a single stub on a mocked
- * {@link Types} — while every return-type/output {@link TypeMirror} and {@link ExecutableElement} stays an opaque,
- * never-stubbed token.
+ * {@link Types} — while every {@link ExecutableElement} stays an opaque token and every return-type/output
+ * {@link TypeMirror} a type variable, which {@link IndexCallableMethods} confirms without consulting its index (the
+ * index itself is {@code IndexCallableMethodsSpec}'s concern).
  */
 @Tag('unit')
 class CallableMethodFilterSpec extends Specification {
@@ -35,9 +37,9 @@ class CallableMethodFilterSpec extends Specification {
         ExecutableElement pair = Mock()
         ExecutableElement equalsObject = Mock()
         ExecutableElement field = Mock()
-        TypeMirror humanReturn = Mock()
-        TypeMirror irrelevant = Mock()
-        TypeMirror output = Mock()
+        TypeMirror humanReturn = typeVariable()
+        TypeMirror irrelevant = typeVariable()
+        TypeMirror output = typeVariable()
         def descriptors = [
                 candidate(METHOD, 1, false, humanReturn, makeHuman),
                 candidate(METHOD, 0, false, irrelevant, noArg),
@@ -63,9 +65,9 @@ class CallableMethodFilterSpec extends Specification {
     def 'producing drops a surviving candidate whose return type is not assignable to the demand'() {
         ExecutableElement makeHuman = Mock()
         ExecutableElement describe = Mock()
-        TypeMirror humanReturn = Mock()
-        TypeMirror stringReturn = Mock()
-        TypeMirror output = Mock()
+        TypeMirror humanReturn = typeVariable()
+        TypeMirror stringReturn = typeVariable()
+        TypeMirror output = typeVariable()
         def descriptors = [
                 candidate(METHOD, 1, false, humanReturn, makeHuman),
                 candidate(METHOD, 1, false, stringReturn, describe),
@@ -85,8 +87,8 @@ class CallableMethodFilterSpec extends Specification {
 
     def 'a duplicate candidate is indexed once'() {
         ExecutableElement method = Mock()
-        TypeMirror returnType = Mock()
-        TypeMirror output = Mock()
+        TypeMirror returnType = typeVariable()
+        TypeMirror output = typeVariable()
         def descriptors = [
                 candidate(METHOD, 1, false, returnType, method),
                 candidate(METHOD, 1, false, returnType, method),
@@ -105,7 +107,7 @@ class CallableMethodFilterSpec extends Specification {
 
     def 'isCallable requires a non-Object METHOD, regardless of parameter count'() {
         ExecutableElement method = Mock()
-        TypeMirror returnType = Mock()
+        TypeMirror returnType = typeVariable()
 
         expect:
         filter.isCallable(candidate(kind, params, onObject, returnType, method)) == expected
@@ -120,6 +122,12 @@ class CallableMethodFilterSpec extends Specification {
         CONSTRUCTOR | 1      | false    | false
     }
 
+    private TypeMirror typeVariable() {
+        Stub(TypeMirror) {
+            getKind() >> TYPEVAR
+        }
+    }
+
     private CandidateDescriptor candidate(
             final ElementKind kind, final int parameterCount, final boolean enclosingIsObject,
             final TypeMirror returnType, final ExecutableElement method) {
@@ -0,0 +1,193 @@
+package io.github.joke.percolate.processor.internal.stages.discover
+
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.element.Element
+import javax.lang.model.element.ExecutableElement
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.PrimitiveType
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.util.Types
+
+import static javax.lang.model.element.ElementKind.METHOD
+import static javax.lang.model.type.TypeKind.ARRAY
+import static javax.lang.model.type.TypeKind.DECLARED
+import static javax.lang.model.type.TypeKind.INT
+import static javax.lang.model.type.TypeKind.TYPEVAR
+
+/**
+ * The callable-method index: each candidate is filed under its return type's class and every supertype class (a
+ * primitive return under its wrapper's), so a declared output confirms only the candidates filed under its own class
+ * plus the unkeyable returns, while any other output confirms every candidate — always in candidate order, and once
+ * per output. {@link Types} is a mock whose {@code isAssignable} calls are the assertion; its class and supertype
+ * answers are stubbed, and every {@link Element} and {@link ExecutableElement} is an opaque token.
+ */
+@Tag('unit')
+class IndexCallableMethodsSpec extends Specification {
+
+    Types types = Mock()
+
+    Element object = Mock()
+    Element number = Mock()
+    Element integer = Mock()
+    Element string = Mock()
+
+    TypeMirror objectType = mirror(DECLARED)
+    TypeMirror numberType = mirror(DECLARED)
+    TypeMirror integerType = mirror(DECLARED)
+    TypeMirror stringType = mirror(DECLARED)
+
+    def setup() {
+        types.asElement(objectType) >> object
+        types.asElement(numberType) >> number
+        types.asElement(integerType) >> integer
+        types.asElement(stringType) >> string
+        types.directSupertypes(objectType) >> []
+        types.directSupertypes(numberType) >> [objectType]
+        types.directSupertypes(integerType) >> [numberType]
+        types.directSupertypes(stringType) >> [objectType]
+    }
+
+    def 'a declared output confirms only the candidates filed under its class'() {
+        def toInteger = candidate(integerType)
+        def toString = candidate(stringType)
+        def index = new IndexCallableMethods([toInteger, toString], types)
+
+        when:
+        def result = index.producing(numberType).toList()
+
+        then:
+        1 * types.isAssignable(integerType, numberType) >> true
+        0 * types.isAssignable(*_)
+
+        expect:
+        result*.method == [toInteger.method]
+    }
+
+    def 'a supertype shared by several candidates admits them all, in candidate order'() {
+        def toString = candidate(stringType)
+        def toInteger = candidate(integerType)
+        def index = new IndexCallableMethods([toString, toInteger], types)
+
+        when:
+        def result = index.producing(objectType).toList()
+
+        then:
+        1 * types.isAssignable(stringType, objectType) >> true
+        1 * types.isAssignable(integerType, objectType) >> true
+
+        expect:
+        result*.method == [toString.method, toInteger.method]
+    }
+
+    def 'a bucketed candidate is still confirmed by assignability'() {
+        def toInteger = candidate(integerType)
+        def index = new IndexCallableMethods([toInteger], types)
+
+        when:
+        def result = index.producing(integerType).toList()
+
+        then:
+        1 * types.isAssignable(integerType, integerType) >> false
+
+        expect:
+        result.empty
+    }
+
+    def 'a primitive return is filed under its wrapper class'() {
+        PrimitiveType intType = Stub()
+        intType.getKind() >> INT
+        TypeElement wrapper = Stub()
+        wrapper.asType() >> integerType
+        types.boxedClass(intType) >> wrapper
+        def toInt = candidate(intType)
+        def toString = candidate(stringType)
+        def index = new IndexCallableMethods([toInt, toString], types)
+
+        when:
+        def result = index.producing(numberType).toList()
+
+        then:
+        1 * types.isAssignable(intType, numberType) >> true
+        0 * types.isAssignable(*_)
+
+        expect:
+        result*.method == [toInt.method]
+    }
+
+    def 'an unkeyable return is confirmed for every declared output'() {
+        def generic = candidate(mirror(kind))
+        def toInteger = candidate(integerType)
+        def index = new IndexCallableMethods([generic, toInteger], types)
+
+        when:
+        def result = index.producing(stringType).toList()
+
+        then:
+        1 * types.isAssignable(generic.returnType, stringType) >> true
+        0 * types.isAssignable(*_)
+
+        expect:
+        result*.method == [generic.method]
+
+        where:
+        kind << [TYPEVAR, ARRAY]
+    }
+
+    def 'a non-declared output confirms every candidate'() {
+        def toInteger = candidate(integerType)
+        def toString = candidate(stringType)
+        def output = mirror(INT)
+        def index = new IndexCallableMethods([toInteger, toString], types)
+
+        when:
+        def result = index.producing(output).toList()
+
+        then:
+        1 * types.isAssignable(integerType, output) >> true
+        1 * types.isAssignable(stringType, output) >> false
+
+        expect:
+        result*.method == [toInteger.method]
+    }
+
+    def 'an output is answered once per mapper'() {
+        def toInteger = candidate(integerType)
+        def index = new IndexCallableMethods([toInteger], types)
+
+        when:
+        index.producing(numberType).toList()
+        def result = index.producing(numberType).toList()
+
+        then:
+        1 * types.isAssignable(integerType, numberType) >> true
+
+        expect:
+        result*.method == [toInteger.method]
+    }
+
+    def 'an output class no candidate is filed under shortlists only the unkeyable returns'() {
+        Element list = Mock()
+        def listType = mirror(DECLARED)
+        types.asElement(listType) >> list
+        def index = new IndexCallableMethods([candidate(integerType), candidate(mirror(TYPEVAR))], types)
+
+        expect:
+        index.shortlist(listType).stream().toArray() == [1] as int[]
+    }
+
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    private TypeMirror mirror(final TypeKind kind) {
+        TypeMirror mirror = Stub()
+        mirror.getKind() >> kind
+        mirror
+    }
+
+    private CandidateDescriptor candidate(final TypeMirror returnType) {
+        ExecutableElement method = Mock()
+        new CandidateDescriptor(METHOD, 1, false, returnType, method)
+    }
+}
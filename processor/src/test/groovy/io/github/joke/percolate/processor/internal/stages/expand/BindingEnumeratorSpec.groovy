@@ -3,6 +3,7 @@ package io.github.joke.percolate.processor.internal.stages.expand
 import io.github.joke.percolate.spi.Nullability
 import io.github.joke.percolate.spi.Port
 import io.github.joke.percolate.spi.PortType
+import io.github.joke.percolate.spi.ResolveCtx
 import spock.lang.Specification
 import spock.lang.Tag
 
@@ -12,7 +13,8 @@ import javax.lang.model.type.TypeMirror
 /**
  * {@link BindingEnumerator} unit-tested by mocking the injected {@link Unifier} — zero {@code ResolveCtx} — since its
  * own {@code assign} recursion is over the port index and match set, not self-recursion into its own type structure
- * (design D4/D5 of change {@code decompose-engine-stages}), so no {@code Spy} is needed.
+ * (design D4/D5 of change {@code decompose-engine-stages}), so no {@code Spy} is needed. The match set is a real
+ * {@link MatchIndex}, built before each interaction block over a stubbed {@code ResolveCtx}.
  */
 @Tag('unit')
 @SuppressWarnings('UnnecessaryGetter') // { it.empty } mismatches these Map-typed interaction args; keep isEmpty()
@@ -21,12 +23,14 @@ class BindingEnumeratorSpec extends Specification {
     Unifier unifier = Mock()
     TypeMirror sourceA = Mock()
     TypeMirror sourceB = Mock()
+    TypeElement listElement = Stub()
+    MatchIndex matches = indexOf([sourceA, sourceB])
 
     def 'enumerate with no template ports yields exactly one empty binding, for any source set'() {
         BindingEnumerator enumerator = new BindingEnumerator(unifier)
 
         when:
-        def bindings = enumerator.enumerate([], [sourceA, sourceB], [])
+        def bindings = enumerator.enumerate([], matches, [])
 
         then:
         0 * unifier._
@@ -41,7 +45,7 @@ class BindingEnumeratorSpec extends Specification {
         def refusals = []
 
         when:
-        def bindings = enumerator.enumerate([port], [sourceA, sourceB], refusals)
+        def bindings = enumerator.enumerate([port], matches, refusals)
 
         then:
         1 * unifier.unify(port.template, sourceA, { it.isEmpty() }, 0, refusals) >> true
@@ -59,7 +63,7 @@ class BindingEnumeratorSpec extends Specification {
         def refusals = []
 
         when:
-        def bindings = enumerator.enumerate([port0, port1], [sourceA, sourceB], refusals)
+        def bindings = enumerator.enumerate([port0, port1], matches, refusals)
 
         then:
         1 * unifier.unify(port0.template, sourceA, { it.isEmpty() }, 0, refusals) >> true
@@ -71,4 +75,53 @@ class BindingEnumeratorSpec extends Specification {
         expect:
         bindings.size() == 2
     }
+
+    def 'a parameterised template is tried only against the sources of its own erasure'() {
+        BindingEnumerator enumerator = new BindingEnumerator(unifier)
+        def template = PortType.app(listElement, [PortType.variable(0)])
+        def port = new Port('p', Mock(TypeElement).asType(), Nullability.NON_NULL, template)
+        def refusals = []
+
+        when:
+        def bindings = enumerator.enumerate([port], matches, refusals)
+
+        then:
+        1 * unifier.unify(template, sourceA, { it.isEmpty() }, 0, refusals) >> true
+        0 * _
+
+        expect:
+        bindings.size() == 1
+    }
+
+    def 'enumeration stops once the bound is reached, and the bindings are then full'() {
+        BindingEnumerator enumerator = new BindingEnumerator(unifier, 1)
+        def port = new Port('p', Mock(TypeElement).asType(), Nullability.NON_NULL, PortType.variable(0))
+        def refusals = []
+
+        when:
+        def bindings = enumerator.enumerate([port], matches, refusals)
+
+        then:
+        1 * unifier.unify(port.template, sourceA, { it.isEmpty() }, 0, refusals) >> true
+        0 * _
+
+        expect:
+        bindings.size() == 1
+        enumerator.full(bindings)
+    }
+
+    def 'an unbounded enumerator is never full'() {
+        expect:
+        !new BindingEnumerator(unifier).full([[:], [:], [:]])
+    }
+
+    // sourceA is a List, sourceB something else; both are groundable.
+    private MatchIndex indexOf(final List<TypeMirror> sources) {
+        def otherElement = Stub(TypeElement)
+        MatchIndex.of(sources, Stub(ResolveCtx) {
+            isDeclared(_) >> true
+            asTypeElement(sourceA) >> Optional.of(listElement)
+            asTypeElement(sourceB) >> Optional.of(otherElement)
+        })
+    }
 }
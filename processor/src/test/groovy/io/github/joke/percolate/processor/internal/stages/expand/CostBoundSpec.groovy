@@ -0,0 +1,142 @@
+package io.github.joke.percolate.processor.internal.stages.expand
+
+import io.github.joke.percolate.processor.internal.graph.AccessPath
+import io.github.joke.percolate.processor.internal.graph.AddOperation
+import io.github.joke.percolate.processor.internal.graph.AddValue
+import io.github.joke.percolate.processor.internal.graph.Cost
+import io.github.joke.percolate.processor.internal.graph.MapperGraph
+import io.github.joke.percolate.processor.internal.graph.Operation
+import io.github.joke.percolate.processor.internal.graph.PortBinding
+import io.github.joke.percolate.processor.internal.graph.Scope
+import io.github.joke.percolate.processor.internal.graph.SourceLocation
+import io.github.joke.percolate.processor.internal.graph.TargetLocation
+import io.github.joke.percolate.processor.internal.graph.TargetPath
+import io.github.joke.percolate.processor.internal.graph.Value
+import io.github.joke.percolate.processor.test.HarnessScope
+import io.github.joke.percolate.spi.Codegen
+import io.github.joke.percolate.spi.Nullability
+import io.github.joke.percolate.spi.OperationSpec
+import io.github.joke.percolate.spi.Port
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.type.TypeMirror
+
+import static io.github.joke.percolate.processor.internal.graph.Cost.INFINITE
+import static io.github.joke.percolate.processor.internal.graph.Cost.ZERO
+
+/**
+ * {@link CostBound} over a real {@link MapperGraph}: an operation whose own Cost exceeds the floor is deferred, and
+ * released only while it could still match the plan Cost of its output. Types are opaque {@code Mock}s — nothing
+ * here inspects type structure.
+ */
+@Tag('unit')
+class CostBoundSpec extends Specification {
+
+    TypeMirror string = Mock()
+
+    final MapperGraph graph = new MapperGraph()
+    final Scope scope = new HarnessScope('m()')
+    final Value root = graph.valueFor(scope, new TargetLocation(TargetPath.of('')), string, Nullability.NON_NULL)
+            .tap { graph.markReturnRoot(it) }
+    final CostBound bound = new CostBound(graph, true)
+
+    def 'disabled, it defers nothing and never asks a spec or operation anything'() {
+        def disabled = new CostBound(graph, false)
+        OperationSpec spec = Mock()
+        Operation operation = Mock()
+
+        when:
+        def floor = disabled.floor([spec])
+        def defers = disabled.defers(operation, ZERO)
+        def released = disabled.release()
+
+        then:
+        0 * _
+
+        expect:
+        floor == INFINITE
+        !defers
+        released == []
+    }
+
+    def 'the floor is the least own Cost among the specs, totality dominating weight'() {
+        expect:
+        bound.floor([spec(1, true), spec(7, false), spec(3, false)]) == Cost.finite(0, 3)
+        bound.floor([]) == INFINITE
+    }
+
+    def 'an operation costlier than the floor is deferred, one at the floor is not'() {
+        def param = source('p')
+        def atFloor = produce(root, 1, [param])
+        def costlier = produce(root, 5, [param])
+
+        expect:
+        !bound.defers(atFloor, Cost.finite(0, 1))
+        bound.defers(costlier, Cost.finite(0, 1))
+        bound.deferred() == [costlier]
+    }
+
+    def 'a deferred operation dominated by a complete plan for its output stays deferred'() {
+        def param = source('p')
+        produce(root, 1, [param])
+        def mid = intermediate('mid')
+        def dominated = produce(root, 5, [mid])
+        bound.defers(dominated, Cost.finite(0, 1))
+
+        expect:
+        bound.release() == []
+        bound.deferred() == [dominated]
+    }
+
+    def 'a deferred operation whose output is still unreachable is released with its follow-up demands'() {
+        def mid = intermediate('mid')
+        def only = produce(root, 5, [mid])
+        bound.defers(only, Cost.finite(0, 1))
+
+        expect:
+        bound.release() == [mid]
+        bound.deferred() == []
+    }
+
+    def 'a deferred operation whose own Cost ties the plan is released, since it could still be chosen'() {
+        def param = source('p')
+        produce(root, 1, [param])
+        def mid = intermediate('mid')
+        def tied = produce(root, 1, [mid])
+        bound.defers(tied, ZERO)
+
+        expect:
+        bound.release() == [mid]
+        bound.deferred() == []
+    }
+
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    private OperationSpec spec(final int weight, final boolean partial) {
+        def port = Port.byTypeOrDecline('in', string, Nullability.NON_NULL)
+        partial
+                ? OperationSpec.ofPartial('partial', Stub(Codegen), weight, [port], string, Nullability.NON_NULL)
+                : OperationSpec.of('total', Stub(Codegen), weight, [port], string, Nullability.NON_NULL)
+    }
+
+    private Value source(final String slot) {
+        graph.valueFor(scope, new SourceLocation(AccessPath.of(slot)), string, Nullability.NON_NULL)
+    }
+
+    private Value intermediate(final String slot) {
+        graph.valueFor(scope, new TargetLocation(TargetPath.of(slot)), string, Nullability.NON_NULL)
+    }
+
+    private AddValue av(final Value value) {
+        new AddValue(value.scope, value.loc, value.type.get(), value.nullness.get())
+    }
+
+    private Operation produce(final Value out, final int weight, final List<Value> portSources) {
+        final var ports = (0..<portSources.size()).collect { i ->
+            new PortBinding(new Port('p' + i, string, Nullability.NON_NULL), av(portSources[i]))
+        }
+        graph.apply(new AddOperation(
+                'op', Stub(Codegen), weight, false, ports, av(out), Optional.empty(), [] as Set, []))
+    }
+}
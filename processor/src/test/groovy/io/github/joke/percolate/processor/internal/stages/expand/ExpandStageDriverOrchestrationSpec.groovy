@@ -203,6 +203,7 @@ class ExpandStageDriverOrchestrationSpec extends Specification {
         1 * targetProducer.constraintsFor(value) >> []
         1 * operationLander.outputOf(value) >> outputAddValue
         1 * operationLander.landOperation(spec, [], outputAddValue) >> operation
+        1 * targetProducer.originOf(spec) >> Optional.empty()
         1 * graph.portSourcesOf(operation) >> Stream.of(source0, source1)
         1 * operation.childScope >> Optional.empty()
         0 * _
@@ -239,6 +240,7 @@ class ExpandStageDriverOrchestrationSpec extends Specification {
         1 * targetProducer.constraintsFor(value) >> []
         1 * operationLander.outputOf(value) >> outputAddValue
         1 * operationLander.landOperation(spec, [], outputAddValue) >> operation
+        1 * targetProducer.originOf(spec) >> Optional.empty()
         1 * graph.portSourcesOf(operation) >> Stream.empty()
         1 * operation.childScope >> Optional.of(childScope)
         1 * childScope.returnRoot >> childRoot
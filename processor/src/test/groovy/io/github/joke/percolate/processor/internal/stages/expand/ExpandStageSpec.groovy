@@ -5,6 +5,7 @@ import io.github.joke.percolate.processor.ProcessorOptions
 import io.github.joke.percolate.processor.model.MapperShape
 import io.github.joke.percolate.processor.nullability.NullabilityResolver
 import io.github.joke.percolate.processor.test.FakeElements
+import io.github.joke.percolate.processor.test.FakeType
 import io.github.joke.percolate.spi.Nullability
 import spock.lang.Specification
 import spock.lang.Tag
@@ -19,7 +20,8 @@ import javax.lang.model.util.Types
  * {@link ExpandStage#run} wiring, unit-tested directly: with an empty strategy set nothing lands, so this is a smoke
  * test of the seam — a fresh {@link io.github.joke.percolate.processor.internal.graph.MapperGraph} is installed on
  * the context and self-seeded — not a whole-pipeline behavioural pass (that coverage lives in the per-collaborator
- * specs and {@link ExpandStageDriverOrchestrationSpec}).
+ * specs and {@link ExpandStageDriverOrchestrationSpec}). The method's types are {@link FakeType} stand-ins: the
+ * installed graph keys them structurally through the round's type interner.
  */
 @Tag('unit')
 class ExpandStageSpec extends Specification {
@@ -50,11 +52,12 @@ class ExpandStageSpec extends Specification {
     }
 
     private ExecutableElement mapMethod() {
-        FakeElements.method('map', Mock(TypeMirror), FakeElements.param('person', Mock(TypeMirror)))
+        FakeElements.method(
+                'map', FakeType.declared('Human'), FakeElements.param('person', FakeType.declared('Person')))
     }
 
     private ExpandStage stage() {
-        new ExpandStage([], [], Stub(Types), Stub(Elements), resolver,
+        new ExpandStage(new StrategyIndex([]), [], Stub(Types), Stub(Elements), resolver,
                 ProcessorOptions.builder()
                         .debugGraphs(false)
                         .customNullableAnnotations([] as Set)
@@ -65,6 +68,7 @@ class ExpandStageSpec extends Specification {
                         .classesFinal(false)
                         .docTags(false)
                                 .raw([:])
-                        .build())
+                        .build(),
+                new TypeQueryCache(Stub(Types), Stub(Elements)))
     }
 }
@@ -0,0 +1,135 @@
+package io.github.joke.percolate.processor.internal.stages.expand
+
+import io.github.joke.percolate.processor.internal.graph.AccessPath
+import io.github.joke.percolate.processor.internal.graph.AddOperation
+import io.github.joke.percolate.processor.internal.graph.AddValue
+import io.github.joke.percolate.processor.internal.graph.MapperGraph
+import io.github.joke.percolate.processor.internal.graph.Operation
+import io.github.joke.percolate.processor.internal.graph.PortBinding
+import io.github.joke.percolate.processor.internal.graph.Scope
+import io.github.joke.percolate.processor.internal.graph.SourceLocation
+import io.github.joke.percolate.processor.internal.graph.TargetLocation
+import io.github.joke.percolate.processor.internal.graph.TargetPath
+import io.github.joke.percolate.processor.internal.graph.Value
+import io.github.joke.percolate.processor.test.HarnessScope
+import io.github.joke.percolate.spi.Codegen
+import io.github.joke.percolate.spi.ExpansionStrategy
+import io.github.joke.percolate.spi.Nullability
+import io.github.joke.percolate.spi.Port
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.type.TypeMirror
+
+import static io.github.joke.percolate.processor.internal.stages.expand.ExpansionBudget.UNLIMITED
+
+/**
+ * {@link ExpansionBudget} over a real {@link MapperGraph}: it refuses for good once either limit is reached, and only
+ * then blames the strategies that landed the most operations, the targets with the most demands and the longest
+ * conversion chain. Types are opaque {@code Mock}s.
+ */
+@Tag('unit')
+class ExpansionBudgetSpec extends Specification {
+
+    TypeMirror string = Mock()
+
+    final MapperGraph graph = new MapperGraph()
+    final Scope scope = new HarnessScope('m()')
+    final Value root = graph.valueFor(scope, new TargetLocation(TargetPath.of('')), string, Nullability.NON_NULL)
+            .tap { graph.markReturnRoot(it) }
+
+    def 'an unlimited budget never refuses and blames nothing'() {
+        def budget = new ExpansionBudget(graph)
+
+        expect:
+        budget.allows(1_000_000)
+        !budget.blame(1_000_000).present
+    }
+
+    def 'the demand budget refuses once as many demands as it allows were handed out, and for good'() {
+        def budget = new ExpansionBudget(graph, UNLIMITED, 3)
+
+        expect:
+        budget.allows(2)
+        !budget.allows(3)
+        !budget.allows(0)
+    }
+
+    def 'the vertex budget refuses once the graph holds more vertices than it allows'() {
+        def budget = new ExpansionBudget(graph, 2, UNLIMITED)
+        target('a')
+
+        expect:
+        budget.allows(0)
+
+        when:
+        target('b')
+
+        then:
+        !budget.allows(0)
+    }
+
+    def 'the blame names the busiest strategies, the most demanded targets and the longest chain'() {
+        def budget = new ExpansionBudget(graph, UNLIMITED, 1)
+        def mid = target('address')
+        produce(root, [mid])
+        produce(mid, [source('p')])
+        3.times { budget.landed(Optional.of(new TemporalHub())) }
+        budget.landed(Optional.of(new NullnessCrossing()))
+        budget.landed(Optional.empty())
+        budget.allows(1)
+
+        when:
+        def blame = budget.blame(7).get()
+
+        then:
+        blame.startsWith('expansion stopped at 5 vertices and 7 demands, over its budget '
+                + '(-Apercolate.budget.vertices=unlimited, -Apercolate.budget.demands=1).')
+        blame.contains('Most operations landed by: TemporalHub (3), NullnessCrossing (1).')
+        blame.contains('Most demands at: m() → address (1), m() → return (1).')
+        blame.endsWith('Longest conversion chain: 2 operations.')
+    }
+
+    def 'top lists at most three entries, the largest first and ties by name'() {
+        expect:
+        ExpansionBudget.top(['b': 2L, 'a': 2L, 'c': 5L, 'd': 1L]) == 'c (5), a (2), b (2)'
+        ExpansionBudget.top([:]) == 'none'
+    }
+
+    def 'the longest chain counts each value at its shortest distance from a return root'() {
+        def budget = new ExpansionBudget(graph)
+        def near = target('near')
+        def far = target('far')
+        produce(root, [near])
+        produce(near, [far])
+        produce(root, [far])
+
+        expect:
+        budget.longestChain() == 1
+    }
+
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    static final class TemporalHub implements ExpansionStrategy {}
+
+    static final class NullnessCrossing implements ExpansionStrategy {}
+
+    private Value source(final String slot) {
+        graph.valueFor(scope, new SourceLocation(AccessPath.of(slot)), string, Nullability.NON_NULL)
+    }
+
+    private Value target(final String slot) {
+        graph.valueFor(scope, new TargetLocation(TargetPath.of(slot)), string, Nullability.NON_NULL)
+    }
+
+    private AddValue av(final Value value) {
+        new AddValue(value.scope, value.loc, value.type.get(), value.nullness.get())
+    }
+
+    private Operation produce(final Value out, final List<Value> portSources) {
+        final var ports = (0..<portSources.size()).collect { i ->
+            new PortBinding(new Port('p' + i, string, Nullability.NON_NULL), av(portSources[i]))
+        }
+        graph.apply(new AddOperation('op', Stub(Codegen), 1, false, ports, av(out), Optional.empty(), [] as Set, []))
+    }
+}
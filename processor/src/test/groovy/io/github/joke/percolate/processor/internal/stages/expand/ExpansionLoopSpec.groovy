@@ -87,4 +87,70 @@ class ExpansionLoopSpec extends Specification {
         1 * expander.expand(root) { it != null }
         0 * _
     }
+
+    def 'demands the resumer releases once the work-list drains are drained in turn, until it releases none'() {
+        ExpansionLoop.Resumer resumer = Mock()
+        def resuming = new ExpansionLoop(seeder, expander, resumer, { true })
+        ExecutableElement method = Mock()
+        MapperShape shape = Mock()
+        Value root = Mock()
+        Value held = Mock()
+
+        when:
+        resuming.seedAndExpand(shape)
+
+        then:
+        1 * shape.abstractMethods >> [method]
+        1 * seeder.seed(method) >> root
+        1 * expander.expand(root) { it != null }
+
+        then:
+        1 * resumer.resume() >> [held]
+
+        then:
+        1 * expander.expand(held) { it != null }
+
+        then:
+        1 * resumer.resume() >> []
+        0 * _
+    }
+
+    def 'once the budget refuses a demand, nothing more is expanded or resumed'() {
+        ExpansionLoop.Resumer resumer = Mock()
+        ExpansionLoop.Budget budget = Mock()
+        def budgeted = new ExpansionLoop(seeder, expander, resumer, budget)
+        ExecutableElement method = Mock()
+        MapperShape shape = Mock()
+        Value root = Mock()
+        Value follow = Mock()
+        Value held = Mock()
+
+        when:
+        budgeted.seedAndExpand(shape)
+
+        then:
+        1 * shape.abstractMethods >> [method]
+        1 * seeder.seed(method) >> root
+        1 * budget.allows(0) >> true
+        1 * expander.expand(root) { it != null } >> { Value v, enqueue -> enqueue.accept(follow) }
+        2 * budget.allows(1) >> false
+        1 * resumer.resume() >> [held]
+        0 * _
+    }
+
+    def 'drainedDemands counts every demand the work-list hands out, revisits included'() {
+        ExecutableElement method = Mock()
+        MapperShape shape = Mock()
+        Value root = Mock()
+        Value follow = Mock()
+        shape.abstractMethods >> [method]
+        seeder.seed(method) >> root
+        expander.expand(root, _) >> { Value v, enqueue -> enqueue.accept(follow); enqueue.accept(root) }
+
+        when:
+        loop.seedAndExpand(shape)
+
+        then:
+        loop.drainedDemands() == 3
+    }
 }
@@ -12,31 +12,32 @@ import javax.lang.model.type.TypeMirror
 
 /**
  * {@link Grounding} unit-tested as a pure orchestrator (design D1/D4 of change {@code decompose-engine-stages}):
- * widen &rarr; enumerate &rarr; instantiate, each collaborator mocked. The unification/substitution mechanics
- * themselves are covered by {@link SourceWidenerSpec}, {@link UnifierSpec}, {@link BindingEnumeratorSpec}, and
- * {@link SpecInstantiatorSpec}.
+ * read the scope's index &rarr; enumerate &rarr; instantiate, each collaborator mocked. The widening/unification/
+ * substitution mechanics themselves are covered by {@link ScopeSourcesSpec}, {@link UnifierSpec},
+ * {@link BindingEnumeratorSpec}, and {@link SpecInstantiatorSpec}.
  */
 @Tag('unit')
 class GroundingSpec extends Specification {
 
-    SourceWidener widener = Mock()
     BindingEnumerator enumerator = Mock()
     SpecInstantiator instantiator = Mock()
-    Grounding grounding = new Grounding(widener, enumerator, instantiator)
+    Grounding grounding = new Grounding(enumerator, instantiator)
+    ScopeSources sources = Mock()
 
     Codegen codegen = Mock()
     TypeMirror sourceA = Mock()
     TypeMirror concreteType = Mock()
+    MatchIndex matches = Mock()
 
     def 'a spec with no type-variable port passes through unchanged, touching no collaborator'() {
         def spec = OperationSpec.of('copy', codegen, 1,
                 [new Port('src', concreteType, Nullability.NON_NULL)], concreteType, Nullability.NON_NULL)
 
         when:
-        def result = grounding.ground(spec, [sourceA], []).toList()
+        def result = grounding.ground(spec, sources, [], [] as Set).toList()
 
         then:
-        0 * widener._
+        0 * sources._
         0 * enumerator._
         0 * instantiator._
 
@@ -44,10 +45,9 @@ class GroundingSpec extends Specification {
         result == [spec]
     }
 
-    def 'grounds a template spec by widening, enumerating, then instantiating one spec per binding'() {
+    def 'grounds a template spec by reading the scope\'s index, enumerating, then instantiating one spec per binding'() {
         def port = new Port('src', concreteType, Nullability.NON_NULL, PortType.variable(0))
         def spec = OperationSpec.of('lift', codegen, 1, [port], concreteType, Nullability.NON_NULL)
-        def widened = [sourceA]
         def binding0 = [0: concreteType]
         def binding1 = [0: sourceA]
         def grounded0 = OperationSpec.of('lift0', codegen, 1, [], concreteType, Nullability.NON_NULL)
@@ -55,11 +55,12 @@ class GroundingSpec extends Specification {
         def refusals = []
 
         when:
-        def result = grounding.ground(spec, [sourceA], refusals).toList()
+        def result = grounding.ground(spec, sources, refusals, [] as Set).toList()
 
         then:
-        1 * widener.widen([sourceA]) >> widened
-        1 * enumerator.enumerate([port], widened, refusals) >> [binding0, binding1]
+        1 * sources.matches() >> matches
+        1 * enumerator.enumerate([port], matches, refusals) >> [binding0, binding1]
+        1 * enumerator.full([binding0, binding1]) >> false
         1 * instantiator.instantiate(spec, binding0) >> grounded0
         1 * instantiator.instantiate(spec, binding1) >> grounded1
         0 * _
@@ -68,7 +69,7 @@ class GroundingSpec extends Specification {
         result == [grounded0, grounded1]
     }
 
-    def 'only the template ports are handed to the enumerator, alongside the widened sources'() {
+    def 'only the template ports are handed to the enumerator, alongside the scope\'s index'() {
         def templatePort = new Port('a', concreteType, Nullability.NON_NULL, PortType.variable(0))
         def concretePort = new Port('b', concreteType, Nullability.NON_NULL)
         def spec = OperationSpec.of('merge', codegen, 1, [templatePort, concretePort], concreteType,
@@ -76,11 +77,12 @@ class GroundingSpec extends Specification {
         def refusals = []
 
         when:
-        grounding.ground(spec, [sourceA], refusals).toList()
+        grounding.ground(spec, sources, refusals, [] as Set).toList()
 
         then:
-        1 * widener.widen([sourceA]) >> [sourceA]
-        1 * enumerator.enumerate([templatePort], [sourceA], refusals) >> []
+        1 * sources.matches() >> matches
+        1 * enumerator.enumerate([templatePort], matches, refusals) >> []
+        1 * enumerator.full([]) >> false
         0 * _
     }
 
@@ -90,14 +92,46 @@ class GroundingSpec extends Specification {
         def refusals = []
 
         when:
-        def result = grounding.ground(spec, [sourceA], refusals).toList()
+        def result = grounding.ground(spec, sources, refusals, [] as Set).toList()
 
         then:
-        1 * widener.widen([sourceA]) >> [sourceA]
-        1 * enumerator.enumerate([port], [sourceA], refusals) >> []
+        1 * sources.matches() >> matches
+        1 * enumerator.enumerate([port], matches, refusals) >> []
+        1 * enumerator.full([]) >> false
         0 * _
 
         expect:
         result.empty
     }
+
+    def 'a spec whose bindings reached the bound is reported capped, by label'() {
+        def port = new Port('src', concreteType, Nullability.NON_NULL, PortType.variable(0))
+        def spec = OperationSpec.of('lift', codegen, 1, [port], concreteType, Nullability.NON_NULL)
+        def capped = [] as Set
+        sources.matches() >> matches
+        enumerator.enumerate(*_) >> [[0: sourceA]]
+        enumerator.full(_) >> true
+        instantiator.instantiate(*_) >> spec
+
+        when:
+        grounding.ground(spec, sources, [], capped).toList()
+
+        then:
+        capped == ['lift'] as Set
+    }
+
+    def 'boundWarning names each spec recorded capped, once'() {
+        when:
+        grounding.recordCapped(['lift'])
+        grounding.recordCapped(['lift', 'map'])
+
+        then:
+        grounding.boundWarning(1).get() == 'grounding stopped at 1 bindings (-Apercolate.budget.bindings) for: lift, '
+                + 'map. The plan was chosen among the bindings enumerated up to the bound.'
+    }
+
+    def 'boundWarning is empty while no grounding reached the bound'() {
+        expect:
+        grounding.boundWarning(1).empty
+    }
 }
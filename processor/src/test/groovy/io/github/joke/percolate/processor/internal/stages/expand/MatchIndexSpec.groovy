@@ -0,0 +1,60 @@
+package io.github.joke.percolate.processor.internal.stages.expand
+
+import io.github.joke.percolate.spi.PortType
+import io.github.joke.percolate.spi.ResolveCtx
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.TypeMirror
+
+/**
+ * {@link MatchIndex} unit-tested over a stubbed {@link ResolveCtx}: each template shape is handed the bucket of sources
+ * the {@link Unifier} could accept — a parameterised template the declared sources of its own erasure, a variable
+ * the groundable ones, a concrete template every source — each in match-set order.
+ */
+@Tag('unit')
+class MatchIndexSpec extends Specification {
+
+    TypeElement listElement = Stub()
+    TypeElement setElement = Stub()
+    TypeMirror firstList = Stub()
+    TypeMirror set = Stub()
+    TypeMirror array = Stub()
+    TypeMirror primitive = Stub()
+    TypeMirror secondList = Stub()
+
+    ResolveCtx ctx = Stub() {
+        asTypeElement(firstList) >> Optional.of(listElement)
+        asTypeElement(secondList) >> Optional.of(listElement)
+        asTypeElement(set) >> Optional.of(setElement)
+        asTypeElement(_) >> Optional.empty()
+        isDeclared(firstList) >> true
+        isDeclared(secondList) >> true
+        isDeclared(set) >> true
+        isArray(array) >> true
+    }
+
+    MatchIndex index = MatchIndex.of([firstList, set, array, primitive, secondList], ctx)
+
+    def 'a parameterised template is handed the sources of its own erasure, in match-set order'() {
+        expect:
+        index.candidates(PortType.app(listElement, [PortType.variable(0)])) == [firstList, secondList]
+        index.candidates(PortType.app(setElement, [PortType.variable(0)])) == [set]
+    }
+
+    def 'a parameterised template of an erasure no source has is handed nothing'() {
+        expect:
+        index.candidates(PortType.app(Stub(TypeElement), [PortType.variable(0)])).empty
+    }
+
+    def 'a variable is handed every declared or array source, in match-set order'() {
+        expect:
+        index.candidates(PortType.variable(0)) == [firstList, set, array, secondList]
+    }
+
+    def 'a concrete template is handed every source'() {
+        expect:
+        index.candidates(PortType.concrete(Stub(TypeMirror))) == [firstList, set, array, primitive, secondList]
+    }
+}
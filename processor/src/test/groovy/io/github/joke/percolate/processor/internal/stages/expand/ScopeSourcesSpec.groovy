@@ -0,0 +1,111 @@
+package io.github.joke.percolate.processor.internal.stages.expand
+
+import io.github.joke.percolate.spi.PortType
+import io.github.joke.percolate.spi.ResolveCtx
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.type.TypeMirror
+
+/**
+ * {@link ScopeSources} unit-tested over a mocked {@link SourceWidener}: each added source is projected once, on its
+ * own, and the widened set keeps the order a widening of the whole set would have. The type keys and the
+ * {@link MatchIndex} are derived once per change.
+ */
+@Tag('unit')
+class ScopeSourcesSpec extends Specification {
+
+    SourceWidener widener = Mock()
+    ResolveCtx ctx = Mock()
+    ScopeSources sources = new ScopeSources(widener, ctx)
+
+    TypeMirror sourceA = Mock()
+    TypeMirror sourceB = Mock()
+    TypeMirror viewA = Mock()
+    TypeMirror viewB = Mock()
+    TypeMirror otherViewB = Mock()
+
+    def 'each added source is projected once, as it is added'() {
+        when:
+        sources.add(sourceA)
+        sources.add(sourceB)
+
+        then:
+        1 * widener.views(sourceA) >> [[viewA]]
+        1 * widener.views(sourceB) >> [[viewB]]
+        0 * _
+
+        expect:
+        sources.types() == [sourceA, sourceB]
+    }
+
+    def 'the widened set lists every source, then each projector\'s views of them in projector order'() {
+        widener.views(sourceA) >> [[viewA], []]
+        widener.views(sourceB) >> [[viewB], [otherViewB]]
+
+        when:
+        sources.add(sourceA)
+        sources.add(sourceB)
+
+        then:
+        sources.widened() == [sourceA, sourceB, viewA, viewB, otherViewB]
+    }
+
+    def 'with no projectors the widened set is the sources, copied'() {
+        widener.views(_) >> []
+        sources.add(sourceA)
+
+        when:
+        def widened = sources.widened()
+        sources.add(sourceB)
+
+        then:
+        widened == [sourceA]
+    }
+
+    def 'typeKeys keys each source in order, once until a source is added'() {
+        widener.views(_) >> []
+        sources.add(sourceA)
+
+        when:
+        def first = sources.typeKeys()
+        def again = sources.typeKeys()
+        sources.add(sourceB)
+        def grown = sources.typeKeys()
+
+        then:
+        2 * ctx.typeKey(sourceA) >> 1
+        1 * ctx.typeKey(sourceB) >> 2
+
+        expect:
+        first == [1]
+        again.is(first)
+        grown == [1, 2]
+    }
+
+    def 'matches indexes the widened set once until a source is added'() {
+        widener.views(sourceA) >> [[viewA]]
+        widener.views(sourceB) >> [[]]
+        sources.add(sourceA)
+
+        when:
+        def first = sources.matches()
+        def again = sources.matches()
+        sources.add(sourceB)
+        def grown = sources.matches()
+
+        then:
+        _ * ctx.asTypeElement(_) >> Optional.empty()
+        _ * ctx.isDeclared(_) >> true
+
+        expect:
+        again.is(first)
+        first.candidates(PortType.variable(0)) == [sourceA, viewA]
+        grown.candidates(PortType.variable(0)) == [sourceA, sourceB, viewA]
+    }
+
+    def 'a fresh entry has seen none of its scope\'s graph Values'() {
+        expect:
+        sources.seen == 0
+    }
+}
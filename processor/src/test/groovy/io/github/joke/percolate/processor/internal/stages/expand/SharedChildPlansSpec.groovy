@@ -0,0 +1,119 @@
+package io.github.joke.percolate.processor.internal.stages.expand
+
+import io.github.joke.percolate.processor.internal.graph.AccessPath
+import io.github.joke.percolate.processor.internal.graph.AddOperation
+import io.github.joke.percolate.processor.internal.graph.AddValue
+import io.github.joke.percolate.processor.internal.graph.ChildScope
+import io.github.joke.percolate.processor.internal.graph.ChildScopeDecl
+import io.github.joke.percolate.processor.internal.graph.InputDecl
+import io.github.joke.percolate.processor.internal.graph.MapperGraph
+import io.github.joke.percolate.processor.internal.graph.PortBinding
+import io.github.joke.percolate.processor.internal.graph.Scope
+import io.github.joke.percolate.processor.internal.graph.SourceLocation
+import io.github.joke.percolate.processor.internal.graph.TargetLocation
+import io.github.joke.percolate.processor.internal.graph.TargetPath
+import io.github.joke.percolate.processor.internal.graph.Value
+import io.github.joke.percolate.processor.internal.graph.Visibility
+import io.github.joke.percolate.processor.test.HarnessScope
+import io.github.joke.percolate.spi.Codegen
+import io.github.joke.percolate.spi.Nullability
+import io.github.joke.percolate.spi.Port
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.type.TypeMirror
+import java.util.stream.Stream
+
+/**
+ * {@link SharedChildPlans} over a real {@link MapperGraph}: the first child scope of a plan key keeps its own
+ * demand, a later identical one shares its plan and demands the donor's return root, and a scope that differs in
+ * element type or nullness, inherits an ancestor's binding, or runs disabled plans its own. Types are opaque
+ * {@code Mock}s, keyed by identity.
+ */
+@Tag('unit')
+class SharedChildPlansSpec extends Specification {
+
+    TypeMirror person = Mock()
+    TypeMirror view = Mock()
+
+    final MapperGraph graph = new MapperGraph()
+    final Scope scope = new HarnessScope('m()')
+    final SharedChildPlans shared = new SharedChildPlans(graph, [:], true)
+
+    def 'the first child scope of its kind keeps its own demand and shares nothing'() {
+        def child = mapping('a', person, view, Nullability.NON_NULL)
+
+        expect:
+        shared.demandFor(child).is(child.returnRoot)
+        child.planScope.is(child)
+    }
+
+    def 'a later identical child scope shares the donor\'s plan and demands its return root'() {
+        def donor = mapping('a', person, view, Nullability.NON_NULL)
+        def sharer = mapping('b', person, view, Nullability.NON_NULL)
+        shared.demandFor(donor)
+
+        expect:
+        shared.demandFor(sharer).is(donor.returnRoot)
+        sharer.planScope.is(donor)
+        donor.sharers().toList() == [sharer]
+    }
+
+    def 'a child scope differing in element type or nullness plans its own elements'() {
+        def donor = mapping('a', person, view, Nullability.NON_NULL)
+        def otherType = mapping('b', person, person, Nullability.NON_NULL)
+        def otherNullness = mapping('c', person, view, Nullability.NULLABLE)
+        shared.demandFor(donor)
+
+        expect:
+        shared.demandFor(otherType).is(otherType.returnRoot)
+        shared.demandFor(otherNullness).is(otherNullness.returnRoot)
+        donor.sharers().toList() == []
+    }
+
+    def 'disabled, even an identical child scope plans its own elements'() {
+        def disabled = new SharedChildPlans(graph, [:], false)
+        def donor = mapping('a', person, view, Nullability.NON_NULL)
+        def sharer = mapping('b', person, view, Nullability.NON_NULL)
+        disabled.demandFor(donor)
+
+        expect:
+        disabled.demandFor(sharer).is(sharer.returnRoot)
+        sharer.planScope.is(sharer)
+    }
+
+    def 'a child scope beneath an inherited binding neither donates nor shares'() {
+        Scope method = Stub {
+            inputDecls() >> { Stream.of(new InputDecl(
+                    new SourceLocation(AccessPath.of('locale')), person, Nullability.NON_NULL, 'locale',
+                    Visibility.INHERITED)) }
+            parent() >> Optional.empty()
+            encode() >> 'n()'
+        }
+        def inheriting = mapping('a', person, view, Nullability.NON_NULL, method)
+        def plain = mapping('b', person, view, Nullability.NON_NULL)
+
+        expect:
+        shared.inheritsBindings(inheriting)
+        !shared.inheritsBindings(plain)
+        shared.demandFor(inheriting).is(inheriting.returnRoot)
+        shared.demandFor(plain).is(plain.returnRoot)
+    }
+
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    private ChildScope mapping(
+            final String slot, final TypeMirror elementIn, final TypeMirror elementOut, final Nullability nullness,
+            final Scope parent = scope) {
+        def source = graph.valueFor(parent, new SourceLocation(AccessPath.of('p')), elementIn, Nullability.NON_NULL)
+        def out = graph.valueFor(parent, new TargetLocation(TargetPath.of(slot)), elementOut, Nullability.NON_NULL)
+        def port = new PortBinding(new Port('p0', elementIn, Nullability.NON_NULL), av(source))
+        def decl = new ChildScopeDecl(elementIn, Nullability.NON_NULL, elementOut, nullness)
+        graph.apply(new AddOperation('map', Stub(Codegen), 1, false, [port], av(out), Optional.of(decl), [] as Set, []))
+                .childScope.get()
+    }
+
+    private AddValue av(final Value value) {
+        new AddValue(value.scope, value.loc, value.type.get(), value.nullness.get())
+    }
+}
@@ -7,6 +7,8 @@ import io.github.joke.percolate.processor.internal.graph.Location
 import io.github.joke.percolate.processor.internal.graph.MapperGraph
 import io.github.joke.percolate.processor.internal.graph.Scope
 import io.github.joke.percolate.processor.internal.graph.SourceLocation
+import io.github.joke.percolate.processor.internal.graph.TargetLocation
+import io.github.joke.percolate.processor.internal.graph.TargetPath
 import io.github.joke.percolate.processor.internal.graph.Value
 import io.github.joke.percolate.processor.internal.graph.Visibility
 import io.github.joke.percolate.spi.Nullability
@@ -24,7 +26,7 @@ import java.util.stream.Stream
  * same-type — is stubbed on a mocked {@code ResolveCtx}, every {@link TypeMirror} is an opaque never-interrogated
  * token, and the graph is a real in-memory structure. No javac. The cases isolate the {@code matchesPort}
  * type/nullness rule, the {@code matchingSource} ranking (pinned source first, then least-id graph source, then a
- * materialised input, else {@code null}), {@code sourceTypes}, and {@code byNameSource}'s own-scope-then-nearest-
+ * materialised input, else {@code null}), {@code sourcesOf}, and {@code byNameSource}'s own-scope-then-nearest-
  * inherited-ancestor walk (design D5).
  */
 @Tag('unit')
@@ -33,7 +35,7 @@ class SourceCandidatesSpec extends Specification {
     ResolveCtx resolveCtx = Mock()
     Scope scope = Mock()
     MapperGraph graph = new MapperGraph()
-    SourceCandidates candidates = new SourceCandidates(graph, new Applier(), resolveCtx)
+    SourceCandidates candidates = new SourceCandidates(graph, new Applier(), resolveCtx, new SourceWidener(resolveCtx, []))
 
     TypeMirror personType = Mock()
     TypeMirror intType = Mock()
@@ -140,19 +142,19 @@ class SourceCandidatesSpec extends Specification {
         candidates.matchingSource(childScope, port(personType, Nullability.NON_NULL), null) == null
     }
 
-    // ---- sourceTypes -----------------------------------------------------------------------------------------
+    // ---- sourcesOf -------------------------------------------------------------------------------------------
 
-    def 'sourceTypes lists the declared parameter input types plus discovered graph sources'() {
+    def 'sourcesOf lists the declared parameter input types plus discovered graph sources'() {
         scope.inputDecls() >> Stream.of(inputDecl(personType, Nullability.NON_NULL, leaf('p')))
         source(access('x', 'y'), intType, Nullability.NON_NULL)
-        def types = candidates.sourceTypes(scope)
+        def types = candidates.sourcesOf(scope).types()
 
         expect:
         types.any { it.is(personType) }
         types.any { it.is(intType) }
     }
 
-    def 'sourceTypes orders declared inputs before discovered graph sources, each in a stable order'() {
+    def 'sourcesOf orders declared inputs before discovered graph sources, each in a stable order'() {
         def firstDecl = inputDecl(personType, Nullability.NON_NULL, leaf('first'))
         def secondDecl = inputDecl(intType, Nullability.NON_NULL, leaf('second'))
         scope.inputDecls() >> Stream.of(firstDecl, secondDecl)
@@ -160,7 +162,28 @@ class SourceCandidatesSpec extends Specification {
         def secondGraphSource = source(access('g', 'b'), intType, Nullability.NON_NULL)
 
         expect:
-        candidates.sourceTypes(scope) == [personType, intType, firstGraphSource.type(), secondGraphSource.type()]
+        candidates.sourcesOf(scope).types() ==
+                [personType, intType, firstGraphSource.type(), secondGraphSource.type()]
+    }
+
+    def 'sourcesOf keeps one entry per scope, adding only the source Values minted since it was last read'() {
+        scope.inputDecls() >> Stream.of(inputDecl(personType, Nullability.NON_NULL, leaf('p')))
+        def first = candidates.sourcesOf(scope)
+        graph.apply(new AddValue(scope, new TargetLocation(TargetPath.of('t')), personType, Nullability.NON_NULL))
+        source(access('x', 'y'), intType, Nullability.NON_NULL)
+
+        when:
+        def second = candidates.sourcesOf(scope)
+        def third = candidates.sourcesOf(scope)
+
+        then:
+        0 * scope.inputDecls()
+
+        expect:
+        second.is(first)
+        third.is(first)
+        first.types() == [personType, intType]
+        first.seen == 2
     }
 
     // ---- byNameSource: own scope first, then the nearest INHERITED ancestor ------------------------------------
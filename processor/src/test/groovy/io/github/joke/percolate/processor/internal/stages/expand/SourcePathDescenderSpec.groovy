@@ -35,14 +35,14 @@ import java.util.stream.Stream
 @Tag('unit')
 class SourcePathDescenderSpec extends Specification {
 
-    List<ExpansionStrategy> strategies = []
+    StrategyIndex strategies = Mock()
     ResolveCtx resolveCtx = Mock()
     NullabilityResolver resolver = Mock()
     MapperGraph graph = Mock()
     Applier applier = Mock()
     OperationLander operationLander = Mock()
 
-    // ---- pinnedSource: forward descent from the scope-input root, isolated via Spy from its siblings ------------
+    // ---- pinnedSource: forward descent from the scope-input root, isolated via Spy from its siblings ----------------
 
     def 'pinnedSource with no segments pins nothing, touching no collaborator'() {
         def descender = spyDescender()
@@ -134,7 +134,7 @@ class SourcePathDescenderSpec extends Specification {
         result == null
     }
 
-    // ---- materialiseRoot: the scope-input LEAF for the path's first segment ---------------------------------------
+    // ---- materialiseRoot: the scope-input LEAF for the path's first segment -----------------------------------------
 
     def 'materialiseRoot applies the matching input declaration as a Value'() {
         def descender = descender()
@@ -179,7 +179,7 @@ class SourcePathDescenderSpec extends Specification {
         result == null
     }
 
-    // ---- descendSegment: lands every accessor for the segment, isolated via Spy from its sibling `descend` -------
+    // ---- descendSegment: lands every accessor for the segment, isolated via Spy from its sibling `descend` ----------
 
     def 'descendSegment lands the accessor and returns its produced source Value'() {
         def descender = spyDescender()
@@ -305,12 +305,12 @@ class SourcePathDescenderSpec extends Specification {
         result == null
     }
 
-    // ---- descend: queries every strategy for one accessor demand, no sibling call ----------------------------------
+    // ---- descend: queries every indexed accessor for one accessor demand, no sibling call ---------------------------
 
-    def 'descend queries every strategy for one accessor demand and unwraps every production'() {
+    def 'descend queries every indexed accessor for one accessor demand and unwraps every production'() {
         ExpansionStrategy strategy0 = Mock()
         ExpansionStrategy strategy1 = Mock()
-        def descender = new SourcePathDescender([strategy0, strategy1], resolveCtx, resolver, graph, applier, operationLander, new SpecDeduplicator())
+        def descender = descender()
         DescendView demand = Mock()
         Codegen codegen = Mock()
         TypeMirror type = Mock()
@@ -321,6 +321,7 @@ class SourcePathDescenderSpec extends Specification {
         def result = descender.descend(demand, resolveCtx)
 
         then:
+        1 * strategies.accessors() >> [strategy0, strategy1]
         1 * strategy0.descend(demand, resolveCtx) >> Stream.of(Offer.of(spec0))
         1 * strategy1.descend(demand, resolveCtx) >> Stream.of(Offer.of(spec1))
         0 * _
@@ -332,7 +333,7 @@ class SourcePathDescenderSpec extends Specification {
     def 'descend drops a refusal (no accessor refuses today, but a decline stays silence, not a diagnostic)'() {
         ExpansionStrategy strategy0 = Mock()
         ExpansionStrategy strategy1 = Mock()
-        def descender = new SourcePathDescender([strategy0, strategy1], resolveCtx, resolver, graph, applier, operationLander, new SpecDeduplicator())
+        def descender = descender()
         DescendView demand = Mock()
         Codegen codegen = Mock()
         TypeMirror type = Mock()
@@ -343,6 +344,7 @@ class SourcePathDescenderSpec extends Specification {
         def result = descender.descend(demand, resolveCtx)
 
         then:
+        1 * strategies.accessors() >> [strategy0, strategy1]
         1 * strategy0.descend(demand, resolveCtx) >> Stream.of(Offer.of(spec0))
         1 * strategy1.descend(demand, resolveCtx) >> Stream.of(Offer.refusal(subject, 'nope'))
         0 * _
@@ -351,7 +353,7 @@ class SourcePathDescenderSpec extends Specification {
         result == [spec0]
     }
 
-    // ---- helpers ----------------------------------------------------------------------------------------------
+    // ---- helpers ----------------------------------------------------------------------------------------------------
 
     private SourcePathDescender descender() {
         new SourcePathDescender(strategies, resolveCtx, resolver, graph, applier, operationLander, new SpecDeduplicator())
@@ -9,48 +9,36 @@ import javax.lang.model.type.TypeMirror
 import java.util.stream.Stream
 
 /**
- * {@link SourceWidener} unit-tested mock-only: the {@link ResolveCtx} is never queried directly by this collaborator
- * (it is only threaded through to each {@link SourceProjection}), so the spec mocks the projection instead.
+ * {@link SourceWidener} unit-tested mock-only: widening never queries the {@link ResolveCtx} directly (it is only
+ * threaded through to each {@link SourceProjection}), so the spec mocks the projection instead.
  */
 @Tag('unit')
 class SourceWidenerSpec extends Specification {
 
     ResolveCtx ctx = Mock()
     TypeMirror sourceA = Mock()
-    TypeMirror sourceB = Mock()
     TypeMirror derived = Mock()
 
-    def 'with no projections registered, widen returns the very same sources list, uncopied'() {
+    def 'with no projections registered, views is empty without asking anything'() {
         SourceWidener widener = new SourceWidener(ctx, [])
-        def sources = [sourceA, sourceB]
-
-        expect:
-        widener.widen(sources).is(sources)
-    }
-
-    def 'widen appends each projection\'s one-step view of every source'() {
-        SourceProjection projection = Mock()
-        SourceWidener widener = new SourceWidener(ctx, [projection])
 
         when:
-        def widened = widener.widen([sourceA, sourceB])
+        def views = widener.views(sourceA)
 
         then:
-        1 * projection.project(sourceA, ctx) >> Stream.of(derived)
-        1 * projection.project(sourceB, ctx) >> Stream.empty()
         0 * _
 
         expect:
-        widened == [sourceA, sourceB, derived]
+        views.empty
     }
 
-    def 'widen accumulates the views of every registered projection'() {
+    def 'views holds each projection\'s one-step view of the source, in projection order'() {
         SourceProjection first = Mock()
         SourceProjection second = Mock()
         SourceWidener widener = new SourceWidener(ctx, [first, second])
 
         when:
-        def widened = widener.widen([sourceA])
+        def views = widener.views(sourceA)
 
         then:
         1 * first.project(sourceA, ctx) >> Stream.empty()
@@ -58,6 +46,22 @@ class SourceWidenerSpec extends Specification {
         0 * _
 
         expect:
-        widened == [sourceA, derived]
+        views == [[], [derived]]
+    }
+
+    def 'scopeSources starts an empty match set widened by this widener'() {
+        SourceProjection projection = Mock()
+        SourceWidener widener = new SourceWidener(ctx, [projection])
+
+        when:
+        def sources = widener.scopeSources()
+        sources.add(sourceA)
+
+        then:
+        1 * projection.project(sourceA, ctx) >> Stream.of(derived)
+        0 * _
+
+        expect:
+        sources.widened() == [sourceA, derived]
     }
 }
@@ -1,5 +1,6 @@
 package io.github.joke.percolate.processor.internal.stages.expand
 
+import io.github.joke.percolate.processor.internal.graph.TypeKeys
 import io.github.joke.percolate.spi.Codegen
 import io.github.joke.percolate.spi.Nullability
 import io.github.joke.percolate.spi.OperationSpec
@@ -12,12 +13,14 @@ import javax.lang.model.type.TypeMirror
 /**
  * The structural dedup both {@link TargetProducer} and {@link SourcePathDescender} apply to an over-emitted offer
  * set. Lifted out of {@code TargetProducerSpec} by change {@code tighten-testability-conventions}, when the two
- * statics became instance methods on a collaborator both callers hold.
+ * statics became instance methods on a collaborator both callers hold. Types enter a signature as their
+ * {@link TypeKeys} key, here identity keys over opaque mock mirrors.
  */
 @Tag('unit')
 class SpecDeduplicatorSpec extends Specification {
 
-    SpecDeduplicator deduplicator = new SpecDeduplicator()
+    TypeKeys typeKeys = TypeKeys.identity()
+    SpecDeduplicator deduplicator = new SpecDeduplicator(typeKeys)
 
     Codegen codegen = Mock()
     TypeMirror valueType = Mock()
@@ -32,6 +35,19 @@ class SpecDeduplicatorSpec extends Specification {
         deduplicator.dedup([specA, specDup, specB]) == [specA, specB]
     }
 
+    def 'dedup treats distinct mirrors sharing a type key as the same type'() {
+        TypeMirror sameType = Mock()
+        TypeKeys structural = Stub()
+        structural.keyOf(_) >> 7
+        def first = OperationSpec.of('op', codegen, 1, [new Port('x', valueType, Nullability.NON_NULL)], valueType,
+                Nullability.NON_NULL)
+        def second = OperationSpec.of('op', codegen, 1, [new Port('x', sameType, Nullability.NON_NULL)], sameType,
+                Nullability.NON_NULL)
+
+        expect:
+        new SpecDeduplicator(structural).dedup([first, second]) == [first]
+    }
+
     def 'dedup of an empty offer set is empty'() {
         expect:
         deduplicator.dedup([]).empty
@@ -42,13 +58,14 @@ class SpecDeduplicatorSpec extends Specification {
         def spec = OperationSpec.of('op', codegen, 1, [port], valueType, Nullability.NON_NULL)
 
         expect:
-        deduplicator.signature(spec) == "op|${valueType}|x:${valueType}:${Nullability.NON_NULL}".toString()
+        deduplicator.signature(spec) == new SpecDeduplicator.Signature('op', typeKeys.keyOf(valueType),
+                [new SpecDeduplicator.PortShape('x', typeKeys.keyOf(valueType), Nullability.NON_NULL)])
     }
 
     def 'signature of a zero-port spec carries an empty port section'() {
         def spec = OperationSpec.of('op', codegen, 1, [], valueType, Nullability.NON_NULL)
 
         expect:
-        deduplicator.signature(spec) == "op|${valueType}|".toString()
+        deduplicator.signature(spec) == new SpecDeduplicator.Signature('op', typeKeys.keyOf(valueType), [])
     }
 }
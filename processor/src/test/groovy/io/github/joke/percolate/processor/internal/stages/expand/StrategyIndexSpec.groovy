@@ -0,0 +1,163 @@
+package io.github.joke.percolate.processor.internal.stages.expand
+
+import io.github.joke.percolate.spi.Applicability
+import io.github.joke.percolate.spi.Directive
+import io.github.joke.percolate.spi.DirectiveInput
+import io.github.joke.percolate.spi.ExpansionStrategy
+import io.github.joke.percolate.spi.ProduceDemand
+import io.github.joke.percolate.spi.ResolveCtx
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.type.TypeMirror
+
+import static io.github.joke.percolate.spi.Applicability.descending
+import static io.github.joke.percolate.spi.Applicability.producing
+import static io.github.joke.percolate.spi.Applicability.universal
+import static javax.lang.model.type.TypeKind.ARRAY
+import static javax.lang.model.type.TypeKind.DECLARED
+import static javax.lang.model.type.TypeKind.INT
+
+/**
+ * The strategy dispatch index: which producers a produce demand consults (the undeclared ones always, the declared
+ * ones by target erasure or kind, then filtered by required directive inputs) and which accessors a descend demand
+ * consults — every answer in the strategy list's own order. Strategies are stubs declaring only their
+ * {@link Applicability}; the {@link ResolveCtx} answers only {@code kind}/{@code qualifiedName} for the target.
+ */
+@Tag('unit')
+class StrategyIndexSpec extends Specification {
+
+    ResolveCtx ctx = Stub()
+    TypeMirror target = Stub()
+
+    def 'an undeclared strategy is consulted for every produce and every descend demand'() {
+        def strategy = strategy(universal())
+        def index = new StrategyIndex([strategy])
+        ctx.kind(target) >> INT
+
+        expect:
+        index.producersFor(demand(), ctx) == [strategy]
+        index.accessors() == [strategy]
+    }
+
+    def 'a declared target erasure admits only a declared target of that erasure'() {
+        def list = strategy(producing().targets('java.util.List'))
+        def index = new StrategyIndex([list])
+        ctx.kind(target) >> DECLARED
+        ctx.qualifiedName(target) >> fqn
+
+        expect:
+        index.producersFor(demand(), ctx) == (admitted ? [list] : [])
+
+        where:
+        fqn              || admitted
+        'java.util.List' || true
+        'java.util.Set'  || false
+    }
+
+    def 'a declared kind admits any target of that kind'() {
+        def array = strategy(producing().kinds(ARRAY))
+        def index = new StrategyIndex([array])
+        ctx.kind(target) >> kind
+
+        expect:
+        index.producersFor(demand(), ctx) == (admitted ? [array] : [])
+
+        where:
+        kind     || admitted
+        ARRAY    || true
+        INT      || false
+        DECLARED || false
+    }
+
+    def 'a strategy admitted by both its erasure and its kind is consulted once'() {
+        def stream = strategy(producing().kinds(DECLARED).targets('java.util.stream.Stream'))
+        def index = new StrategyIndex([stream])
+        ctx.kind(target) >> DECLARED
+        ctx.qualifiedName(target) >> 'java.util.stream.Stream'
+
+        expect:
+        index.producersFor(demand(), ctx) == [stream]
+    }
+
+    def 'the admitted producers keep the strategy-list order across buckets'() {
+        def first = strategy(producing().targets('java.util.List'))
+        def second = strategy(producing())
+        def third = strategy(producing().kinds(DECLARED))
+        def skipped = strategy(producing().kinds(INT))
+        def fourth = strategy(universal())
+        def index = new StrategyIndex([first, second, third, skipped, fourth])
+        ctx.kind(target) >> DECLARED
+        ctx.qualifiedName(target) >> 'java.util.List'
+
+        expect:
+        index.producersFor(demand(), ctx) == [first, second, third, fourth]
+    }
+
+    def 'a required input admits only a demand whose directive declares it'() {
+        def format = strategy(producing().requiring('format'))
+        def index = new StrategyIndex([format])
+        ctx.kind(target) >> DECLARED
+        def directive = declared == null ? null : directiveWith(declared)
+
+        expect:
+        index.producersFor(demand(directive), ctx) == (admitted ? [format] : [])
+
+        where:
+        declared   || admitted
+        null       || false
+        []         || false
+        ['zone']   || false
+        ['format'] || true
+    }
+
+    def 'an accessor is never consulted for a produce demand, a producer never for a descend one'() {
+        def accessor = strategy(descending())
+        def producer = strategy(producing())
+        def index = new StrategyIndex([accessor, producer])
+        ctx.kind(target) >> DECLARED
+
+        expect:
+        index.producersFor(demand(), ctx) == [producer]
+        index.accessors() == [accessor]
+    }
+
+    def 'hasRequiredInputs holds vacuously for a declaration requiring nothing'() {
+        expect:
+        StrategyIndex.hasRequiredInputs(producing(), demand())
+    }
+
+    def 'or ignores a missing bucket'() {
+        def into = new BitSet()
+        into.set(1)
+
+        when:
+        StrategyIndex.or(into, null)
+
+        then:
+        into.cardinality() == 1
+        into.get(1)
+    }
+
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    private ExpansionStrategy strategy(final Applicability applicability) {
+        ExpansionStrategy strategy = Stub()
+        strategy.applicability() >> applicability
+        strategy
+    }
+
+    private ProduceDemand demand(final Directive directive = null) {
+        ProduceDemand demand = Stub()
+        demand.targetType() >> target
+        demand.directive() >> Optional.ofNullable(directive)
+        demand
+    }
+
+    private Directive directiveWith(final List<String> keys) {
+        Directive directive = Stub()
+        DirectiveInput input = Stub()
+        directive.input(_ as String) >> { String key -> keys.contains(key) ? Optional.of(input) : Optional.empty() }
+        directive
+    }
+}
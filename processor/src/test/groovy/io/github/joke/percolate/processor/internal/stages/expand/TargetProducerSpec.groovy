@@ -1,5 +1,6 @@
 package io.github.joke.percolate.processor.internal.stages.expand
 
+import io.github.joke.percolate.processor.internal.graph.MethodScope
 import io.github.joke.percolate.processor.internal.graph.Refusal
 import io.github.joke.percolate.processor.internal.graph.Scope
 import io.github.joke.percolate.processor.internal.graph.TargetLocation
@@ -10,18 +11,25 @@ import io.github.joke.percolate.processor.model.GoalSpec
 import io.github.joke.percolate.processor.model.GoalSpecFactory
 import io.github.joke.percolate.processor.nullability.NullabilityResolver
 import io.github.joke.percolate.spi.Codegen
+import io.github.joke.percolate.spi.Directive
+import io.github.joke.percolate.spi.DirectiveInput
 import io.github.joke.percolate.spi.ExpansionStrategy
 import io.github.joke.percolate.spi.Nullability
 import io.github.joke.percolate.spi.Offer
 import io.github.joke.percolate.spi.OperationSpec
 import io.github.joke.percolate.spi.Port
+import io.github.joke.percolate.spi.PortType
+import io.github.joke.percolate.spi.PureStrategy
 import io.github.joke.percolate.spi.ResolveCtx
 import io.github.joke.percolate.spi.Subject
 import io.github.joke.percolate.spi.Subjects
 import spock.lang.Specification
 import spock.lang.Tag
 
+import javax.lang.model.element.ExecutableElement
 import javax.lang.model.type.TypeMirror
+import javax.lang.model.util.Elements
+import javax.lang.model.util.Types
 import java.util.stream.Stream
 
 /**
@@ -33,24 +41,26 @@ import java.util.stream.Stream
 class TargetProducerSpec extends Specification {
 
     ExpansionStrategy strategy = Mock()
+    StrategyIndex strategies = Mock()
     SourceCandidates sourceCandidates = Mock()
     Grounding grounding = Mock()
     ResolveCtx resolveCtx = Mock()
     NullabilityResolver resolver = Mock()
     Codegen codegen = Mock()
     TypeMirror valueType = Mock()
+    TypeQueryCache typeQueries = new TypeQueryCache(Stub(Types), Stub(Elements))
+    ScopeSources sources = Mock()
 
-    // ---- produce: demand construction, strategy query, grounding, dedup ------------------------------------------
+    // ---- produce: demand construction, strategy query, grounding, dedup ---------------------------------------------
 
     def 'produce queries the strategies, grounds each spec, and deduplicates'() {
         Scope scope = Mock()
         def loc = new TargetLocation(TargetPath.of('address'))
         Value value = Mock()
-        def producer = new TargetProducer([strategy], [(scope): GoalSpec.empty()], sourceCandidates, grounding,
-                resolveCtx, resolver, new SpecDeduplicator())
+        def producer = new TargetProducer(strategies, [(scope): GoalSpec.empty()], sourceCandidates, grounding,
+                resolveCtx, resolver, new SpecDeduplicator(), typeQueries)
         def spec0 = OperationSpec.of('a', codegen, 1, [], valueType, Nullability.NON_NULL)
         def spec1 = OperationSpec.of('b', codegen, 1, [], valueType, Nullability.NON_NULL)
-        def sourceTypes = [Mock(TypeMirror)]
 
         when:
         def result = producer.produce(value)
@@ -60,11 +70,13 @@ class TargetProducerSpec extends Specification {
         value.loc >> loc
         value.type() >> valueType
         value.nullness() >> Nullability.NON_NULL
+        1 * strategies.producersFor(_, resolveCtx) >> [strategy]
         1 * strategy.expand({ it.targetType() == valueType && it.targetNullness() == Nullability.NON_NULL &&
                 !it.directive().present && it.declaredChildren().empty && it.bindingName() == 'address' },
                 resolveCtx) >> Stream.of(Offer.of(spec0))
-        1 * sourceCandidates.sourceTypes(scope) >> sourceTypes
-        1 * grounding.ground(spec0, sourceTypes) { it.empty } >> Stream.of(spec0, spec1)
+        1 * sourceCandidates.sourcesOf(scope) >> sources
+        1 * grounding.ground(spec0, sources, { it.empty }, _) >> Stream.of(spec0, spec1)
+        1 * grounding.recordCapped([])
         0 * _
 
         expect:
@@ -76,8 +88,8 @@ class TargetProducerSpec extends Specification {
         def loc = new TargetLocation(TargetPath.of('address'))
         Value value = Mock()
         Subject subject = Mock()
-        def producer = new TargetProducer([strategy], [(scope): GoalSpec.empty()], sourceCandidates, grounding,
-                resolveCtx, resolver, new SpecDeduplicator())
+        def producer = new TargetProducer(strategies, [(scope): GoalSpec.empty()], sourceCandidates, grounding,
+                resolveCtx, resolver, new SpecDeduplicator(), typeQueries)
         def spec0 = OperationSpec.of('a', codegen, 1, [], valueType, Nullability.NON_NULL)
 
         when:
@@ -88,12 +100,14 @@ class TargetProducerSpec extends Specification {
         value.loc >> loc
         value.type() >> valueType
         value.nullness() >> Nullability.NON_NULL
+        1 * strategies.producersFor(_, resolveCtx) >> [strategy]
         1 * strategy.expand(_, resolveCtx) >> Stream.of(Offer.of(spec0))
-        1 * sourceCandidates.sourceTypes(scope) >> []
-        1 * grounding.ground(spec0, []) { it.empty } >> { args ->
+        1 * sourceCandidates.sourcesOf(scope) >> sources
+        1 * grounding.ground(spec0, sources, { it.empty }, _) >> { args ->
             args[2].add(Offer.refusal(subject, 'nope'))
             Stream.empty()
         }
+        1 * grounding.recordCapped([])
         1 * value.addInadmissible(new Refusal(subject, 'nope'))
         0 * _
     }
@@ -104,7 +118,7 @@ class TargetProducerSpec extends Specification {
         Value value = Mock()
         def goalSpecs = [(scope): new GoalSpecFactory().from(
                 [bind('address', 'home.street'), bind('address.city', null)], [:], [:], [])]
-        def producer = new TargetProducer([strategy], goalSpecs, sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator())
+        def producer = new TargetProducer(strategies, goalSpecs, sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator(), typeQueries)
 
         when:
         producer.produce(value)
@@ -114,18 +128,47 @@ class TargetProducerSpec extends Specification {
         value.loc >> loc
         value.type() >> valueType
         value.nullness() >> Nullability.NON_NULL
+        1 * strategies.producersFor(_, resolveCtx) >> [strategy]
         1 * strategy.expand({ it.directive().present && it.directive().get().sourcePath() == ['home', 'street'] &&
                 it.declaredChildren() == ['city'].toSet() }, resolveCtx) >> Stream.empty()
-        1 * sourceCandidates.sourceTypes(scope) >> []
+        1 * sourceCandidates.sourcesOf(scope) >> sources
+        1 * grounding.recordCapped([])
         0 * _
     }
 
+    def 'the demand resolves declaredNullness in the method enclosing its value\'s scope'() {
+        ExecutableElement method = Stub()
+        TypeMirror element = Stub()
+        Scope elementScope = Stub() { parent() >> Optional.of(new MethodScope(method)) }
+        def demand = new DemandView(valueType, Nullability.NON_NULL, Optional.empty(), [] as Set, '', elementScope,
+                resolver)
+
+        when:
+        def nullness = demand.declaredNullness(element)
+
+        then:
+        1 * resolver.resolve(element, method) >> Nullability.NON_NULL
+        nullness == Nullability.NON_NULL
+    }
+
+    def 'the demand\'s declaredNullness is UNKNOWN outside any method scope'() {
+        Scope root = Stub() { parent() >> Optional.empty() }
+        def demand = new DemandView(valueType, Nullability.NON_NULL, Optional.empty(), [] as Set, '', root, resolver)
+
+        when:
+        def nullness = demand.declaredNullness(Stub(TypeMirror))
+
+        then:
+        0 * resolver._
+        nullness == Nullability.UNKNOWN
+    }
+
     def 'produce deduplicates grounded specs sharing a structural signature'() {
         Scope scope = Mock()
         def loc = new TargetLocation(TargetPath.of(''))
         Value value = Mock()
-        def producer = new TargetProducer([strategy], [(scope): GoalSpec.empty()], sourceCandidates, grounding,
-                resolveCtx, resolver, new SpecDeduplicator())
+        def producer = new TargetProducer(strategies, [(scope): GoalSpec.empty()], sourceCandidates, grounding,
+                resolveCtx, resolver, new SpecDeduplicator(), typeQueries)
         def port = new Port('x', valueType, Nullability.NON_NULL)
         def spec = OperationSpec.of('dup', codegen, 1, [port], valueType, Nullability.NON_NULL)
         def sameSignature = OperationSpec.of('dup', codegen, 9, [port], valueType, Nullability.NON_NULL)
@@ -138,16 +181,18 @@ class TargetProducerSpec extends Specification {
         value.loc >> loc
         value.type() >> valueType
         value.nullness() >> Nullability.NON_NULL
+        1 * strategies.producersFor(_, resolveCtx) >> [strategy]
         1 * strategy.expand(_, resolveCtx) >> Stream.of(Offer.of(spec))
-        1 * sourceCandidates.sourceTypes(scope) >> []
-        1 * grounding.ground(spec, []) { it.empty } >> Stream.of(spec, sameSignature)
+        1 * sourceCandidates.sourcesOf(scope) >> sources
+        1 * grounding.ground(spec, sources, { it.empty }, _) >> Stream.of(spec, sameSignature)
+        1 * grounding.recordCapped([])
         0 * _
 
         expect:
         result == [spec]
     }
 
-    // ---- pinnedSourcePath: the directive-pinned source segments at the value's target path ------------------------
+    // ---- pinnedSourcePath: the directive-pinned source segments at the value's target path --------------------------
 
     def 'pinnedSourcePath returns the split source segments of the binding at the target path'() {
         Scope scope = Mock()
@@ -155,9 +200,9 @@ class TargetProducerSpec extends Specification {
         Value value = Mock()
         value.scope >> scope
         value.loc >> loc
-        def producer = new TargetProducer([strategy],
+        def producer = new TargetProducer(strategies,
                 [(scope): new GoalSpecFactory().from([bind('address', 'home.street')], [:], [:], [])],
-                sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator())
+                sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator(), typeQueries)
 
         expect:
         producer.pinnedSourcePath(value) == ['home', 'street']
@@ -169,9 +214,9 @@ class TargetProducerSpec extends Specification {
         Value value = Mock()
         value.scope >> scope
         value.loc >> loc
-        def producer = new TargetProducer([strategy],
+        def producer = new TargetProducer(strategies,
                 [(scope): new GoalSpecFactory().from([new Bind(['address'], [], Subjects.none())], [:], [:], [])],
-                sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator())
+                sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator(), typeQueries)
 
         expect:
         producer.pinnedSourcePath(value).empty
@@ -183,74 +228,252 @@ class TargetProducerSpec extends Specification {
         Value value = Mock()
         value.scope >> scope
         value.loc >> loc
-        def producer = new TargetProducer([strategy], [(scope): GoalSpec.empty()], sourceCandidates, grounding,
-                resolveCtx, resolver, new SpecDeduplicator())
+        def producer = new TargetProducer(strategies, [(scope): GoalSpec.empty()], sourceCandidates, grounding,
+                resolveCtx, resolver, new SpecDeduplicator(), typeQueries)
 
         expect:
         producer.pinnedSourcePath(value).empty
     }
 
-    // ---- run: queries every strategy for one demand, returning every offer verbatim -------------------------------
+    // ---- answer / answerOf: one strategy's grounded answer, memoized for the round when the strategy is pure --------
+
+    def 'answer asks the strategy and grounds each production, keeping its own refusals apart from grounding\'s'() {
+        Subject subject = Mock()
+        def spec0 = OperationSpec.of('a', codegen, 1, [], valueType, Nullability.NON_NULL)
+        def demand = demand('address')
+
+        when:
+        def answer = producer().answer(strategy, demand, sources)
+
+        then:
+        1 * strategy.expand(demand, resolveCtx) >> Stream.of(Offer.of(spec0), Offer.refusal(subject, 'mine'))
+        1 * grounding.ground(spec0, sources, _, _) >> { args ->
+            args[2].add(Offer.refusal(subject, 'grounding'))
+            args[3].add('a')
+            Stream.of(spec0)
+        }
+        0 * _
+
+        expect:
+        answer.strategy.is(strategy)
+        answer.offers == [Offer.of(spec0), Offer.refusal(subject, 'mine')]
+        answer.grounded == [spec0]
+        answer.groundingRefusals == [Offer.refusal(subject, 'grounding')]
+        answer.capped == ['a']
+    }
+
+    def 'answerOf asks an unmarked strategy about every demand'() {
+        def producer = producer()
+
+        when:
+        producer.answerOf(strategy, demand('address'), sources)
+        producer.answerOf(strategy, demand('address'), sources)
+
+        then:
+        2 * strategy.expand(_, resolveCtx) >> { Stream.empty() }
+        0 * _
+    }
 
-    def 'run queries every strategy for one demand and collects every offer'() {
-        ExpansionStrategy strategy0 = Mock()
-        ExpansionStrategy strategy1 = Mock()
-        def producer = new TargetProducer([strategy0, strategy1], [:], sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator())
-        DemandView demand = Mock()
+    def 'answerOf asks a pure strategy once per round for demands agreeing on all it may read, across mappers'() {
+        ExpansionStrategy pure = Mock(additionalInterfaces: [PureStrategy])
         def spec0 = OperationSpec.of('a', codegen, 1, [], valueType, Nullability.NON_NULL)
+        ScopeSources otherMappers = Mock()
+
+        when:
+        def first = producer().answerOf(pure, demand('address'), sources)
+        def second = producer().answerOf(pure, demand('home'), otherMappers)
+
+        then:
+        _ * resolveCtx.typeKey(valueType) >> 1
+        _ * sources.typeKeys() >> [2]
+        _ * otherMappers.typeKeys() >> [2]
+        1 * pure.expand(_, resolveCtx) >> Stream.of(Offer.of(spec0))
+        1 * grounding.ground(spec0, sources, _, _) >> Stream.of(spec0)
+        0 * _
+
+        expect:
+        second.is(first)
+        first.grounded == [spec0]
+        typeQueries.counters.counts[TypeQueryCache.OFFERS].hits == 1
+    }
+
+    def 'answerOf asks a pure strategy again for other directive inputs, other source types, or in a later round'() {
+        ExpansionStrategy pure = Mock(additionalInterfaces: [PureStrategy])
+        def input = DirectiveInput.scalar('format', 'yyyy-MM-dd', Subjects.none())
+        def directive = [sourcePath: { [] }, inputs: { [input] }] as Directive
+        ScopeSources withSource = Mock()
+        def producer = producer()
+
+        when:
+        producer.answerOf(pure, demand('address'), sources)
+        producer.answerOf(pure, demand('address', directive), sources)
+        producer.answerOf(pure, demand('address'), withSource)
+        typeQueries.startRound()
+        producer.answerOf(pure, demand('address'), sources)
+
+        then:
+        _ * resolveCtx.typeKey(valueType) >> 1
+        _ * sources.typeKeys() >> []
+        _ * withSource.typeKeys() >> [2]
+        4 * pure.expand(_, resolveCtx) >> { Stream.empty() }
+        0 * _
+    }
+
+    def 'produce replays a memoized answer\'s refusals onto every demand it answers'() {
+        ExpansionStrategy pure = Mock(additionalInterfaces: [PureStrategy])
         Subject subject = Mock()
+        Scope scope = Mock()
+        Value first = Mock()
+        Value second = Mock()
+        def loc = new TargetLocation(TargetPath.of('address'))
+
+        when:
+        def producer = producer()
+        producer.produce(first)
+        producer.produce(second)
+
+        then:
+        first.scope >> scope
+        first.loc >> loc
+        first.type() >> valueType
+        first.nullness() >> Nullability.NON_NULL
+        second.scope >> scope
+        second.loc >> loc
+        second.type() >> valueType
+        second.nullness() >> Nullability.NON_NULL
+        2 * strategies.producersFor(_, resolveCtx) >> [pure]
+        2 * sourceCandidates.sourcesOf(scope) >> sources
+        _ * sources.typeKeys() >> []
+        _ * resolveCtx.typeKey(valueType) >> 1
+        1 * pure.expand(_, resolveCtx) >> Stream.of(Offer.refusal(subject, 'nope'))
+        1 * first.addInadmissible(new Refusal(subject, 'nope'))
+        1 * second.addInadmissible(new Refusal(subject, 'nope'))
+        2 * grounding.recordCapped([])
+        0 * _
+
+        expect:
+        producer.offerCount() == 2
+        producer.refusalCount() == 2
+    }
+
+    def 'a second mapper replaying a capped answer is warned about the bound like the mapper that grounded it'() {
+        ExpansionStrategy pure = Mock(additionalInterfaces: [PureStrategy])
+        BindingEnumerator enumerator = Stub()
+        SpecInstantiator instantiator = Stub()
+        def port = new Port('src', valueType, Nullability.NON_NULL, PortType.variable(0))
+        def lift = OperationSpec.of('lift', codegen, 1, [port], valueType, Nullability.NON_NULL)
+        enumerator.enumerate(*_) >> [[0: valueType]]
+        enumerator.full(_) >> true
+        instantiator.instantiate(*_) >> lift
+        strategies.producersFor(_, resolveCtx) >> [pure]
+        sourceCandidates.sourcesOf(_) >> sources
+        sources.matches() >> Stub(MatchIndex)
+        sources.typeKeys() >> []
+        resolveCtx.typeKey(valueType) >> 1
+        def grounded = new Grounding(enumerator, instantiator)
+        def replayed = new Grounding(enumerator, instantiator)
+
+        when: 'two mappers of the round demand the same type, each through its own Grounding'
+        mapper(grounded).produce(demanded())
+        mapper(replayed).produce(demanded())
+
+        then: 'the strategy is asked, and its production grounded, once'
+        1 * pure.expand(_, resolveCtx) >> Stream.of(Offer.of(lift))
+        typeQueries.counters.counts[TypeQueryCache.OFFERS].hits == 1
+
+        expect:
+        grounded.boundWarning(1).present
+        replayed.boundWarning(1) == grounded.boundWarning(1)
+    }
+
+    def 'attribute remembers the strategy behind a grounded spec'() {
+        def producer = producer()
+        def grounded = OperationSpec.of('a', codegen, 1, [], valueType, Nullability.NON_NULL)
+        def unrelated = OperationSpec.of('a', codegen, 1, [], valueType, Nullability.NON_NULL)
 
         when:
-        def result = producer.run(demand, resolveCtx)
+        def result = producer.attribute(grounded, strategy)
 
         then:
-        1 * strategy0.expand(demand, resolveCtx) >> Stream.of(Offer.of(spec0))
-        1 * strategy1.expand(demand, resolveCtx) >> Stream.of(Offer.refusal(subject, 'nope'))
         0 * _
 
         expect:
-        result == [Offer.of(spec0), Offer.refusal(subject, 'nope')]
+        result.is(grounded)
+        producer.originOf(grounded).get().is(strategy)
+        !producer.originOf(unrelated).present
     }
 
-    // ---- productionsOf: splits offers into productions, recording every refusal on value's inadmissible list ------
+    // ---- recordOffers: counts offers, recording every refusal on value's inadmissible list --------------------------
 
-    def 'productionsOf collects productions and records each refusal as inadmissible on value'() {
+    def 'recordOffers records each refusal as inadmissible on value'() {
         Value value = Mock()
         Subject subject = Mock()
         def spec0 = OperationSpec.of('a', codegen, 1, [], valueType, Nullability.NON_NULL)
         def spec1 = OperationSpec.of('b', codegen, 1, [], valueType, Nullability.NON_NULL)
-        def offers = [Offer.of(spec0), Offer.refusal(subject, 'nope'), Offer.of(spec1)]
 
         when:
-        def result = producer().productionsOf(offers, value)
+        producer().recordOffers([Offer.of(spec0), Offer.refusal(subject, 'nope'), Offer.of(spec1)], value)
 
         then:
         1 * value.addInadmissible(new Refusal(subject, 'nope'))
         0 * _
+    }
 
-        expect:
-        result == [spec0, spec1]
+    def 'recordOffers records nothing inadmissible when every offer is a production'() {
+        Value value = Mock()
+        def spec0 = OperationSpec.of('a', codegen, 1, [], valueType, Nullability.NON_NULL)
+
+        when:
+        producer().recordOffers([Offer.of(spec0)], value)
+
+        then:
+        0 * _
     }
 
-    def 'productionsOf records nothing inadmissible when every offer is a production'() {
+    def 'recordOffers and recordRefusals keep running offer and refusal totals'() {
         Value value = Mock()
+        Subject subject = Mock()
         def spec0 = OperationSpec.of('a', codegen, 1, [], valueType, Nullability.NON_NULL)
+        def producer = producer()
 
         when:
-        def result = producer().productionsOf([Offer.of(spec0)], value)
+        producer.recordOffers([Offer.of(spec0), Offer.refusal(subject, 'nope')], value)
+        producer.recordOffers([Offer.of(spec0)], value)
+        producer.recordRefusals([Offer.refusal(subject, 'grounding')], value)
 
         then:
+        2 * value.addInadmissible(_)
         0 * _
 
         expect:
-        result == [spec0]
+        producer.offerCount() == 3
+        producer.refusalCount() == 2
+    }
+
+    private TargetProducer mapper(final Grounding grounding) {
+        new TargetProducer(strategies, [:], sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator(),
+                typeQueries)
+    }
+
+    private Value demanded() {
+        Stub(Value) {
+            getScope() >> Stub(Scope)
+            getLoc() >> new TargetLocation(TargetPath.of('address'))
+            type() >> valueType
+            nullness() >> Nullability.NON_NULL
+        }
     }
 
     private TargetProducer producer() {
-        new TargetProducer([strategy], [:], sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator())
+        new TargetProducer(strategies, [:], sourceCandidates, grounding, resolveCtx, resolver, new SpecDeduplicator(), typeQueries)
     }
 
-    // ---- helpers ----------------------------------------------------------------------------------------------
+    // ---- helpers ----------------------------------------------------------------------------------------------------
+
+    private DemandView demand(final String bindingName, final Directive directive = null) {
+        new DemandView(valueType, Nullability.NON_NULL, Optional.ofNullable(directive), [] as Set, bindingName,
+                Stub(Scope), resolver)
+    }
 
     private Bind bind(final String target, final String source) {
         new Bind(target.split('\\.').toList(), source == null ? [] : source.split('\\.').toList(), Subjects.none())
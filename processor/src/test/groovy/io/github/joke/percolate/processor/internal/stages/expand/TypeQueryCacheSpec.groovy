@@ -0,0 +1,201 @@
+package io.github.joke.percolate.processor.internal.stages.expand
+
+import io.github.joke.percolate.spi.ExpansionStrategy
+import io.github.joke.percolate.spi.Nullability
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Tag
+
+import javax.lang.model.element.Element
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.util.Elements
+import javax.lang.model.util.Types
+
+/**
+ * The round-scoped type-query memo: each question reaches javac once per round however often it is asked, every ask
+ * counts a hit or a miss on the round's counters, and {@code startRound} forgets every answer. Unit-tested mock-only:
+ * {@link Types}/{@link Elements} are mocks whose call counts are the assertion, and every {@link TypeMirror} and
+ * {@link TypeElement} is an opaque identity token.
+ */
+@Tag('unit')
+class TypeQueryCacheSpec extends Specification {
+
+    Types types = Mock()
+    Elements elements = Mock()
+
+    @Subject
+    TypeQueryCache cache = new TypeQueryCache(types, elements)
+
+    TypeMirror listOfString = Mock()
+    TypeMirror listOfInteger = Mock()
+    TypeMirror rawList = Mock()
+    TypeMirror listDeclaration = Mock()
+    TypeElement listElement = Mock()
+
+    def 'typeElementNamed looks a name up once per round, an unresolvable one included'() {
+        when:
+        def first = cache.typeElementNamed('java.util.List')
+        def second = cache.typeElementNamed('java.util.List')
+        def missingFirst = cache.typeElementNamed('absent.Type')
+        def missingSecond = cache.typeElementNamed('absent.Type')
+
+        then:
+        1 * elements.getTypeElement('java.util.List') >> listElement
+        1 * elements.getTypeElement('absent.Type') >> null
+        0 * _
+
+        expect:
+        first.is(listElement)
+        second.is(listElement)
+        missingFirst == null
+        missingSecond == null
+        cache.counters.counts[TypeQueryCache.NAMED].hits == 2
+        cache.counters.counts[TypeQueryCache.NAMED].misses == 2
+    }
+
+    def 'erasure asks javac once per mirror'() {
+        when:
+        cache.erasure(listOfString)
+        def erasure = cache.erasure(listOfString)
+
+        then:
+        1 * types.erasure(listOfString) >> rawList
+        0 * _
+
+        expect:
+        erasure.is(rawList)
+    }
+
+    def 'isType is answered once per erasure and name, shared across parameterisations'() {
+        when:
+        def first = cache.isType(listOfString, 'java.util.List')
+        def second = cache.isType(listOfInteger, 'java.util.List')
+
+        then:
+        1 * types.erasure(listOfString) >> rawList
+        1 * types.erasure(listOfInteger) >> rawList
+        1 * elements.getTypeElement('java.util.List') >> listElement
+        1 * listElement.asType() >> listDeclaration
+        1 * types.erasure(listDeclaration) >> rawList
+        1 * types.isSameType(rawList, rawList) >> true
+        0 * _
+
+        expect:
+        first
+        second
+        cache.counters.counts[TypeQueryCache.IS_TYPE].hits == 1
+        cache.counters.counts[TypeQueryCache.IS_TYPE].misses == 1
+    }
+
+    def 'isType answers false for a name that does not resolve, without comparing types'() {
+        when:
+        def result = cache.isType(listOfString, 'absent.Type')
+
+        then:
+        1 * types.erasure(listOfString) >> rawList
+        1 * elements.getTypeElement('absent.Type') >> null
+        0 * _
+
+        expect:
+        !result
+    }
+
+    def 'isAssignableToNamed is answered once per erasure and name'() {
+        TypeMirror collection = Mock()
+        TypeMirror rawCollection = Mock()
+        TypeElement collectionElement = Mock()
+
+        when:
+        def first = cache.isAssignableToNamed(listOfString, 'java.util.Collection')
+        def second = cache.isAssignableToNamed(listOfString, 'java.util.Collection')
+
+        then:
+        1 * types.erasure(listOfString) >> rawList
+        1 * elements.getTypeElement('java.util.Collection') >> collectionElement
+        1 * collectionElement.asType() >> collection
+        1 * types.erasure(collection) >> rawCollection
+        1 * types.isAssignable(rawList, rawCollection) >> true
+        0 * _
+
+        expect:
+        first
+        second
+    }
+
+    def 'membersOf lists a type element\'s members once per round'() {
+        Element member = Mock()
+
+        when:
+        cache.membersOf(listElement)
+        def members = cache.membersOf(listElement)
+
+        then:
+        1 * elements.getAllMembers(listElement) >> [member]
+        0 * _
+
+        expect:
+        members == [member]
+        cache.counters.counts[TypeQueryCache.MEMBERS].hits == 1
+    }
+
+    def 'typeKey answers from the round\'s structural interner, forgotten when a round starts'() {
+        TypeMirror intType = Stub()
+        intType.getKind() >> TypeKind.INT
+        intType.getAnnotationMirrors() >> []
+        TypeMirror longType = Stub()
+        longType.getKind() >> TypeKind.LONG
+        longType.getAnnotationMirrors() >> []
+        cache.typeKey(intType)
+        def before = cache.typeKey(longType)
+
+        when:
+        cache.startRound()
+
+        then:
+        before == 1
+        cache.typeKey(longType) == 0
+        cache.typeKeys.keyOf(longType) == 0
+    }
+
+    def 'offersFor computes a strategy\'s answer once per key and round'() {
+        ExpansionStrategy strategy = Stub()
+        def key = new TargetProducer.OfferKey(strategy, 1, Nullability.NON_NULL, Optional.empty(), Optional.empty(),
+                [] as Set, [])
+        def sameKey = new TargetProducer.OfferKey(strategy, 1, Nullability.NON_NULL, Optional.empty(), Optional.empty(),
+                [] as Set, [])
+        def answer = new StrategyAnswer(strategy, [], [], [], [])
+        def computed = 0
+        def compute = { computed++; answer }
+
+        when:
+        def first = cache.offersFor(key, compute)
+        def second = cache.offersFor(sameKey, compute)
+        cache.startRound()
+        cache.offersFor(key, compute)
+
+        then:
+        first.is(answer)
+        second.is(answer)
+        computed == 2
+        cache.counters.counts[TypeQueryCache.OFFERS].misses == 1
+    }
+
+    def 'startRound forgets every answer and starts fresh counters'() {
+        given:
+        elements.getTypeElement('java.util.List') >> listElement
+        cache.typeElementNamed('java.util.List')
+        def previous = cache.counters
+
+        when:
+        def counters = cache.startRound()
+        cache.typeElementNamed('java.util.List')
+
+        then:
+        counters.is(cache.counters)
+        !counters.is(previous)
+        counters.counts[TypeQueryCache.NAMED].misses == 1
+        counters.counts[TypeQueryCache.NAMED].hits == 0
+    }
+}
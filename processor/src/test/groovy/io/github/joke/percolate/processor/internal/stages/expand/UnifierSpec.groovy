@@ -233,8 +233,8 @@ class UnifierSpec extends Specification {
         def result = unifier.unifyApp(PortType.app(Mock(TypeElement), [PortType.variable(0)]), source, [:], 0, [])
 
         then:
-        1 * ctx.isDeclared(source) >> false
-        0 * ctx.erasure(_)
+        1 * ctx.asTypeElement(source) >> Optional.empty()
+        0 * ctx.typeArgumentCount(_)
 
         expect:
         !result
@@ -243,19 +243,14 @@ class UnifierSpec extends Specification {
     def 'unifyApp never unifies a source whose erasure differs from the template\'s, checking no argument arity'() {
         Unifier unifier = new Unifier(ctx)
         TypeElement erasureElement = Mock()
-        TypeMirror erasureType = Mock()
-        TypeMirror sourceErasure = Mock()
-        erasureElement.asType() >> erasureType
+        TypeElement sourceElement = Mock()
         def template = PortType.app(erasureElement, [PortType.variable(0)])
 
         when:
         def result = unifier.unifyApp(template, source, [:], 0, [])
 
         then:
-        1 * ctx.isDeclared(source) >> true
-        1 * ctx.erasure(source) >> sourceErasure
-        1 * ctx.erasure(erasureType) >> erasureType
-        1 * ctx.isSameType(sourceErasure, erasureType) >> false
+        1 * ctx.asTypeElement(source) >> Optional.of(sourceElement)
         0 * ctx.typeArgumentCount(_)
 
         expect:
@@ -265,12 +260,7 @@ class UnifierSpec extends Specification {
     def 'unifyApp never unifies a source with a different type-argument arity, checking no argument'() {
         Unifier unifier = new Unifier(ctx)
         TypeElement erasureElement = Mock()
-        TypeMirror erasureType = Mock()
-        erasureElement.asType() >> erasureType
-        ctx.isDeclared(source) >> true
-        ctx.erasure(source) >> erasureType
-        ctx.erasure(erasureType) >> erasureType
-        ctx.isSameType(erasureType, erasureType) >> true
+        ctx.asTypeElement(source) >> Optional.of(erasureElement)
         ctx.typeArgumentCount(source) >> 2
         def template = PortType.app(erasureElement, [PortType.variable(0)])
 
@@ -288,7 +278,6 @@ class UnifierSpec extends Specification {
 
     def 'unifyApp unifies a single-argument template by recursing into unify at depth + 1'() {
         TypeElement erasureElement = Mock()
-        TypeMirror erasureType = Mock()
         TypeMirror argType = Mock()
         TypeMirror argSource = Mock()
         Unifier unifier = Spy(constructorArgs: [ctx])
@@ -301,11 +290,7 @@ class UnifierSpec extends Specification {
         def result = unifier.unifyApp(template, source, bindings, 0, refusals)
 
         then:
-        1 * erasureElement.asType() >> erasureType
-        1 * ctx.isDeclared(source) >> true
-        1 * ctx.erasure(source) >> erasureType
-        1 * ctx.erasure(erasureType) >> erasureType
-        1 * ctx.isSameType(erasureType, erasureType) >> true
+        1 * ctx.asTypeElement(source) >> Optional.of(erasureElement)
         1 * ctx.typeArgumentCount(source) >> 1
         1 * ctx.typeArgument(source, 0) >> argSource
         1 * unifier.unify(argTemplate, argSource, bindings, 1, refusals) >> true
@@ -319,7 +304,6 @@ class UnifierSpec extends Specification {
 
     def 'unifyApp short-circuits on the first argument that fails to unify, never checking the rest'() {
         TypeElement erasureElement = Mock()
-        TypeMirror erasureType = Mock()
         TypeMirror firstArgSource = Mock()
         Unifier unifier = Spy(constructorArgs: [ctx])
         def firstTemplate = PortType.variable(0)
@@ -332,11 +316,7 @@ class UnifierSpec extends Specification {
         def result = unifier.unifyApp(template, source, bindings, 0, refusals)
 
         then:
-        1 * erasureElement.asType() >> erasureType
-        1 * ctx.isDeclared(source) >> true
-        1 * ctx.erasure(source) >> erasureType
-        1 * ctx.erasure(erasureType) >> erasureType
-        1 * ctx.isSameType(erasureType, erasureType) >> true
+        1 * ctx.asTypeElement(source) >> Optional.of(erasureElement)
         1 * ctx.typeArgumentCount(source) >> 2
         1 * ctx.typeArgument(source, 0) >> firstArgSource
         1 * unifier.unify(firstTemplate, firstArgSource, bindings, 1, refusals) >> false
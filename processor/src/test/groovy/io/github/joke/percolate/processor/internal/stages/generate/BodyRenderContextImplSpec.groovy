@@ -1,7 +1,7 @@
 package io.github.joke.percolate.processor.internal.stages.generate
 
 import io.github.joke.percolate.lib.javapoet.CodeBlock
-import io.github.joke.percolate.processor.internal.graph.MapperGraph
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan
 import io.github.joke.percolate.processor.internal.graph.Operation
 import io.github.joke.percolate.processor.internal.graph.Value
 import io.github.joke.percolate.spi.MemberRequest
@@ -24,7 +24,7 @@ class BodyRenderContextImplSpec extends Specification {
 
     BodyRenderContextFactory bodyRenderContextFactory = new BodyRenderContextFactory()
 
-    MapperGraph graph = Mock()
+    LoweredPlan plan = Mock()
     MemberPlan memberPlan = Mock()
     ResolveCtx resolveCtx = Mock()
     SourceVersion sourceVersion = SourceVersion.RELEASE_17
@@ -39,14 +39,14 @@ class BodyRenderContextImplSpec extends Specification {
         TypeMirror type1 = Mock()
 
         when:
-        def context = bodyRenderContextFactory.buildFor(graph, operation,
+        def context = bodyRenderContextFactory.buildFor(plan, operation,
                 { Value v -> v.is(source0) ? CodeBlock.of('x') : CodeBlock.of('y') }, memberPlan, resolveCtx,
                 sourceVersion)
 
         then:
         1 * operation.ports >> [port0, port1]
-        1 * graph.portSource(operation, 'a') >> Optional.of(source0)
-        1 * graph.portSource(operation, 'b') >> Optional.of(source1)
+        1 * plan.portSource(operation, 'a') >> Optional.of(source0)
+        1 * plan.portSource(operation, 'b') >> Optional.of(source1)
         1 * source0.type >> Optional.of(type0)
         1 * source1.type >> Optional.of(type1)
         1 * operation.memberRequests >> []
@@ -66,7 +66,7 @@ class BodyRenderContextImplSpec extends Specification {
         def memberRequest = new MemberRequest(null, CodeBlock.of('null'), 'fmt-yyyy-MM-dd')
 
         when:
-        def context = bodyRenderContextFactory.buildFor(graph, operation, { Value v -> CodeBlock.of('x') }, memberPlan,
+        def context = bodyRenderContextFactory.buildFor(plan, operation, { Value v -> CodeBlock.of('x') }, memberPlan,
                 resolveCtx, sourceVersion)
 
         then:
@@ -84,12 +84,12 @@ class BodyRenderContextImplSpec extends Specification {
         def port = new Port('a', Mock(TypeMirror), Nullability.NON_NULL)
 
         when:
-        bodyRenderContextFactory.buildFor(graph, operation, { Value v -> CodeBlock.of('x') }, memberPlan, resolveCtx,
+        bodyRenderContextFactory.buildFor(plan, operation, { Value v -> CodeBlock.of('x') }, memberPlan, resolveCtx,
                 sourceVersion)
 
         then:
         1 * operation.ports >> [port]
-        1 * graph.portSource(operation, 'a') >> Optional.empty()
+        1 * plan.portSource(operation, 'a') >> Optional.empty()
         0 * _
         def error = thrown(IllegalStateException)
 
@@ -103,12 +103,12 @@ class BodyRenderContextImplSpec extends Specification {
         Value source = Mock()
 
         when:
-        bodyRenderContextFactory.buildFor(graph, operation, { Value v -> CodeBlock.of('x') }, memberPlan, resolveCtx,
+        bodyRenderContextFactory.buildFor(plan, operation, { Value v -> CodeBlock.of('x') }, memberPlan, resolveCtx,
                 sourceVersion)
 
         then:
         1 * operation.ports >> [port]
-        1 * graph.portSource(operation, 'a') >> Optional.of(source)
+        1 * plan.portSource(operation, 'a') >> Optional.of(source)
         1 * source.type >> Optional.empty()
         0 * _
         def error = thrown(IllegalStateException)
@@ -121,7 +121,7 @@ class BodyRenderContextImplSpec extends Specification {
         Operation operation = Mock()
 
         when:
-        def context = bodyRenderContextFactory.buildFor(graph, operation, { Value v -> CodeBlock.of('x') }, memberPlan,
+        def context = bodyRenderContextFactory.buildFor(plan, operation, { Value v -> CodeBlock.of('x') }, memberPlan,
                 resolveCtx, sourceVersion)
 
         then:
@@ -141,7 +141,7 @@ class BodyRenderContextImplSpec extends Specification {
         Operation operation = Mock()
 
         when:
-        def context = bodyRenderContextFactory.buildFor(graph, operation, { Value v -> CodeBlock.of('x') }, memberPlan,
+        def context = bodyRenderContextFactory.buildFor(plan, operation, { Value v -> CodeBlock.of('x') }, memberPlan,
                 resolveCtx, sourceVersion)
 
         then:
@@ -161,12 +161,12 @@ class BodyRenderContextImplSpec extends Specification {
         def port = new Port('value', Mock(TypeMirror), Nullability.NON_NULL)
 
         when:
-        def context = bodyRenderContextFactory.buildFor(graph, operation, { Value v -> CodeBlock.of('x') }, memberPlan,
+        def context = bodyRenderContextFactory.buildFor(plan, operation, { Value v -> CodeBlock.of('x') }, memberPlan,
                 resolveCtx, sourceVersion)
 
         then:
         1 * operation.ports >> [port]
-        1 * graph.portSource(operation, 'value') >> Optional.of(source)
+        1 * plan.portSource(operation, 'value') >> Optional.of(source)
         1 * source.type >> Optional.of(type)
         1 * operation.memberRequests >> []
         0 * _
@@ -8,13 +8,15 @@ import io.github.joke.percolate.processor.internal.graph.AccessPath
 import io.github.joke.percolate.processor.internal.graph.AddOperation
 import io.github.joke.percolate.processor.internal.graph.AddValue
 import io.github.joke.percolate.processor.internal.graph.ChildScope
+import io.github.joke.percolate.processor.internal.graph.ChildScopeDecl
 import io.github.joke.percolate.processor.internal.graph.ElementLocation
-import io.github.joke.percolate.processor.internal.graph.ExtractedPlan
 import io.github.joke.percolate.processor.internal.graph.InputDecl
 import io.github.joke.percolate.processor.internal.graph.Location
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan
 import io.github.joke.percolate.processor.internal.graph.MapperGraph
 import io.github.joke.percolate.processor.internal.graph.MethodScope
 import io.github.joke.percolate.processor.internal.graph.Operation
+import io.github.joke.percolate.processor.internal.graph.PortBinding
 import io.github.joke.percolate.processor.internal.graph.SourceLocation
 import io.github.joke.percolate.processor.internal.graph.TargetLocation
 import io.github.joke.percolate.processor.internal.graph.TargetPath
@@ -22,6 +24,7 @@ import io.github.joke.percolate.processor.internal.graph.Value
 import io.github.joke.percolate.processor.model.MapperShape
 import io.github.joke.percolate.spi.BodyCodegen
 import io.github.joke.percolate.spi.BodyRenderContext
+import io.github.joke.percolate.spi.LoopCodegen
 import io.github.joke.percolate.spi.Nullability
 import io.github.joke.percolate.spi.OperationCodegen
 import io.github.joke.percolate.spi.Port
@@ -100,26 +103,82 @@ class BuildMethodBodiesSpec extends Specification {
         result.members.empty
     }
 
+    def 'build renders an element plan two mappings share once as a helper method, which both lambdas call'() {
+        method.simpleName >> Stub(Name) { toString() >> 'map' }
+        method.parameters >> []
+        TypeMirror type = Mock()
+        def graph = new MapperGraph()
+        def scope = new MethodScope(method)
+        def root = graph.valueFor(scope, new TargetLocation(TargetPath.of('')), type, Nullability.NON_NULL)
+        graph.markReturnRoot(root)
+        def param = graph.valueFor(scope, new SourceLocation(AccessPath.of('p')), type, Nullability.NON_NULL)
+        def a = graph.valueFor(scope, new TargetLocation(TargetPath.of('a')), type, Nullability.NON_NULL)
+        def b = graph.valueFor(scope, new TargetLocation(TargetPath.of('b')), type, Nullability.NON_NULL)
+        def donor = containerMapping(graph, a, param, type)
+        def sharer = containerMapping(graph, b, param, type)
+        graph.sharePlan(sharer, donor)
+        graph.apply(new AddOperation('convert', { inputs -> CodeBlock.of('e') } as OperationCodegen, 1, false, [],
+                av(donor.returnRoot), Optional.empty(), [] as Set, []))
+        graph.apply(new AddOperation('assemble', { inputs -> CodeBlock.of('new X($L, $L)', inputs.get(0), inputs.get(1)) } as OperationCodegen,
+                1, false, [binding('a', a), binding('b', b)], av(root), Optional.empty(), [] as Set, []))
+        def ctx = new MapperContext(Mock(TypeElement))
+        ctx.shape = new MapperShape(Mock(TypeElement), [method])
+        ctx.graph = graph
+        ctx.resolveCtx = resolveCtx
+
+        when:
+        def result = engine(true).build(ctx)
+
+        then:
+        result.helpers.size() == 1
+        with(result.helpers[0]) {
+            name == 'mapElementToElement'
+            parameter == 'element'
+            elementIn.is(type)
+            elementOut.is(type)
+            body.toString() == 'return e;\n'
+        }
+        result.bodies[0].body.toString().count('p.map(element -> mapElementToElement(element))') == 1
+        result.bodies[0].body.toString().count('p.map(element_ -> mapElementToElement(element_))') == 1
+    }
+
     // ---- helpers ----------------------------------------------------------------------------------------------
 
-    private BuildMethodBodies engine() {
+    private BuildMethodBodies engine(final boolean childPlanHelpers = false) {
         new BuildMethodBodies(ProcessorOptions.builder()
                 .debugGraphs(false)
                 .customNullableAnnotations([] as Set)
                 .localsFinal(false)
-                .localsVar(false)
+                .localsVar(true)
                 .parametersFinal(false)
                 .methodsFinal(false)
                 .classesFinal(false)
                 .docTags(false)
+                .childPlanHelpers(childPlanHelpers)
                 .raw([:])
                 .build(), SourceVersion.RELEASE_11, new HoistPlanFactory(),
-                new MemberPlanFactory(new HoistPlanFactory()), new BodyRenderContextFactory())
+                new MemberPlanFactory(), new BodyRenderContextFactory())
+    }
+
+    private static ChildScope containerMapping(
+            final MapperGraph graph, final Value out, final Value source, final TypeMirror type) {
+        def weave = { operand, var, body -> CodeBlock.of('$L.map($N -> $L)', operand, var, body) } as ScopeCodegen
+        graph.apply(new AddOperation('map', weave, 1, false, [binding('src', source)], av(out),
+                Optional.of(new ChildScopeDecl(type, Nullability.NON_NULL, type, Nullability.NON_NULL)), [] as Set, []))
+                .childScope.get()
+    }
+
+    private static PortBinding binding(final String name, final Value source) {
+        new PortBinding(new Port(name, source.type.get(), source.nullness.get()), av(source))
+    }
+
+    private static AddValue av(final Value value) {
+        new AddValue(value.scope, value.loc, value.type.get(), value.nullness.get())
     }
 }
 
 /**
- * {@link BuildMethodBodies.Walk} unit-tested by mocking {@link MapperGraph}/{@link ExtractedPlan}/{@link HoistPlan}/
+ * {@link BuildMethodBodies.Walk} unit-tested by mocking {@link MapperGraph}/{@link LoweredPlan}/{@link HoistPlan}/
  * {@link TypeNameRenderer} — the pure assembly logic behind one method body, isolated from the irreducible
  * compiler-backed {@code TypeName.get(mirror)} leaf (design D7 of change {@code decompose-engine-stages}). Methods
  * that recurse into siblings ({@code renderInline}) are isolated with a {@code Spy}, per the {@code Grounding}
@@ -130,7 +189,7 @@ class BuildMethodBodiesSpec extends Specification {
 class WalkSpec extends Specification {
 
     MapperGraph graph = Mock()
-    ExtractedPlan plan = Mock()
+    LoweredPlan plan = Mock()
     HoistPlan hoist = Mock()
     MemberPlan memberPlan = Mock()
     LocalStyle style = new LocalStyle(false, false)
@@ -266,6 +325,7 @@ class WalkSpec extends Specification {
         walk.emitLocal(builder, value)
 
         then:
+        1 * plan.chosenProducer(value) >> Optional.empty()
         1 * hoist.declare(value) >> 'm'
         1 * walk.renderInline(value) >> CodeBlock.of('in')
         1 * walk.typeToken(value) >> CodeBlock.of('String')
@@ -286,6 +346,7 @@ class WalkSpec extends Specification {
         walk.emitLocal(builder, value)
 
         then:
+        1 * plan.chosenProducer(value) >> Optional.empty()
         1 * hoist.declare(value) >> 'm'
         1 * walk.renderInline(value) >> CodeBlock.of('in')
         1 * walk.typeToken(value) >> CodeBlock.of('String')
@@ -296,6 +357,116 @@ class WalkSpec extends Specification {
         builder.build().toString() == 'String m = in;\n'
     }
 
+    def 'emitLocal hands a loop-produced Value to emitLoop'() {
+        def walk = spyWalk()
+        Value value = Mock()
+        Operation operation = Mock()
+        def builder = CodeBlock.builder()
+
+        when:
+        walk.emitLocal(builder, value)
+
+        then:
+        1 * plan.chosenProducer(value) >> Optional.of(operation)
+        1 * operation.codegen >> Stub(LoopCodegen)
+        1 * walk.emitLoop(builder, value, operation) >> null
+        1 * walk._
+        0 * _
+    }
+
+    // ---- emitLoop: a presized declaration, then the fill with the child's locals as its statements, via Spy -------
+
+    def 'emitLoop declares the presized target, then fills it with the child\'s locals and return-root per element'() {
+        def walk = Spy(BuildMethodBodies.Walk, constructorArgs: [graph, plan, hoist, memberPlan, new LocalStyle(true, true),
+                typeNameRenderer, resolveCtx, sourceVersion, new BodyRenderContextFactory()])
+        Value value = Mock()
+        Operation operation = Mock()
+        def sourcePort = new Port('source', Mock(TypeMirror), Nullability.NON_NULL)
+        Value sourceValue = Mock()
+        ChildScope child = Mock()
+        InputDecl elementInput = Mock()
+        TypeMirror elementType = Mock()
+        Value childRoot = Mock()
+        Value childLocal = Mock()
+        LoopCodegen codegen = Mock()
+        def builder = CodeBlock.builder()
+
+        when:
+        walk.emitLoop(builder, value, operation)
+
+        then:
+        1 * operation.codegen >> codegen
+        1 * operation.ports >> [sourcePort]
+        1 * plan.portSource(operation, 'source') >> Optional.of(sourceValue)
+        1 * walk.renderOperand(sourceValue) >> CodeBlock.of('items')
+        1 * hoist.declare(value) >> 'views'
+        1 * walk.localType(value) >> ClassName.get('java.util', 'List')
+        1 * codegen.init(CodeBlock.of('items')) >> CodeBlock.of('new ArrayList<>(items.size())')
+        1 * operation.childScope >> Optional.of(child)
+        1 * child.planScope >> child
+        1 * child.elementInput >> elementInput
+        1 * elementInput.type >> elementType
+        1 * hoist.lambdaName(elementType) >> 'item'
+        1 * memberPlan.helperFor(child) >> Optional.empty()
+        1 * walk.bindElement(child, 'item') >> null
+        2 * child.returnRoot >> childRoot
+        1 * walk.hoistedInScope(childRoot) >> [childLocal]
+        1 * walk.emitLocal({ it != null }, childLocal) >> { CodeBlock.Builder statements, Value v ->
+            statements.addStatement('String name = item.getName()') }
+        1 * walk.renderInline(childRoot) >> CodeBlock.of('new View(name)')
+        1 * typeNameRenderer.render(elementType) >> ClassName.get('', 'Item')
+        1 * hoist.indexName() >> 'index'
+        1 * codegen.fill(CodeBlock.of('items'), CodeBlock.of('views'), ClassName.get('', 'Item'), 'item', 'index',
+                { it.toString() == 'String name = item.getName();\n' }, CodeBlock.of('new View(name)')) >>
+                CodeBlock.of('fill;\n')
+        1 * walk._
+        0 * _
+
+        expect: 'the declared type is spelled out even under the var style, and the local is final per the style'
+        builder.build().toString() == 'final java.util.List views = new ArrayList<>(items.size());\nfill;\n'
+    }
+
+    def 'emitLoop adds the helper method\'s result per element for a shared element plan, rendering no child body'() {
+        def walk = spyWalk()
+        Value value = Mock()
+        Operation operation = Mock()
+        def sourcePort = new Port('source', Mock(TypeMirror), Nullability.NON_NULL)
+        Value sourceValue = Mock()
+        ChildScope sharer = Mock()
+        ChildScope donor = Mock()
+        InputDecl elementInput = Mock()
+        TypeMirror elementType = Mock()
+        LoopCodegen codegen = Mock()
+        def builder = CodeBlock.builder()
+
+        when:
+        walk.emitLoop(builder, value, operation)
+
+        then:
+        1 * operation.codegen >> codegen
+        1 * operation.ports >> [sourcePort]
+        1 * plan.portSource(operation, 'source') >> Optional.of(sourceValue)
+        1 * walk.renderOperand(sourceValue) >> CodeBlock.of('people')
+        1 * hoist.declare(value) >> 'views'
+        1 * walk.localType(value) >> ClassName.get('java.util', 'List')
+        1 * codegen.init(CodeBlock.of('people')) >> CodeBlock.of('init')
+        1 * operation.childScope >> Optional.of(sharer)
+        1 * sharer.planScope >> donor
+        1 * donor.elementInput >> elementInput
+        1 * elementInput.type >> elementType
+        1 * hoist.lambdaName(elementType) >> 'person'
+        1 * memberPlan.helperFor(donor) >> Optional.of('mapPersonToView')
+        1 * typeNameRenderer.render(elementType) >> ClassName.get('', 'Person')
+        1 * hoist.indexName() >> 'index'
+        1 * codegen.fill(CodeBlock.of('people'), CodeBlock.of('views'), ClassName.get('', 'Person'), 'person', 'index',
+                { it.empty }, CodeBlock.of('$N($N)', 'mapPersonToView', 'person')) >> CodeBlock.of('fill;\n')
+        1 * walk._
+        0 * _
+
+        expect:
+        builder.build().toString() == 'java.util.List views = init;\nfill;\n'
+    }
+
     // ---- renderPlain: an operand per port, positional and by name, isolated via Spy --------------------------------
 
     def 'renderPlain renders an operand for each port, positional and by name, in port order'() {
@@ -313,8 +484,8 @@ class WalkSpec extends Specification {
 
         then:
         1 * operation.ports >> [port0, port1]
-        1 * graph.portSource(operation, 'a') >> Optional.of(source0)
-        1 * graph.portSource(operation, 'b') >> Optional.of(source1)
+        1 * plan.portSource(operation, 'a') >> Optional.of(source0)
+        1 * plan.portSource(operation, 'b') >> Optional.of(source1)
         1 * walk.renderOperand(source0) >> CodeBlock.of('x')
         1 * walk.renderOperand(source1) >> CodeBlock.of('y')
         1 * operation.memberRequests >> []
@@ -361,7 +532,7 @@ class WalkSpec extends Specification {
 
         then:
         1 * operation.ports >> [port]
-        1 * graph.portSource(operation, 'a') >> Optional.empty()
+        1 * plan.portSource(operation, 'a') >> Optional.empty()
         1 * walk._
         0 * _
         def error = thrown(IllegalStateException)
@@ -389,17 +560,20 @@ class WalkSpec extends Specification {
 
         then:
         1 * operation.ports >> [sourcePort]
-        1 * graph.portSource(operation, 'src') >> Optional.of(sourceValue)
+        1 * plan.portSource(operation, 'src') >> Optional.of(sourceValue)
         1 * hoist.isHoisted(sourceValue) >> true
         1 * hoist.reference(sourceValue) >> CodeBlock.of('in')
         1 * operation.childScope >> Optional.of(child)
+        1 * child.planScope >> child
         1 * child.elementInput >> elementInput
         1 * elementInput.type >> elementType
         1 * hoist.lambdaName(elementType) >> 'element'
+        1 * memberPlan.helperFor(child) >> Optional.empty()
         1 * graph.valuesIn(child) >> Stream.of(elementRoot)
         1 * elementRoot.loc >> new ElementLocation()
         1 * child.returnRoot >> elementRoot
-        2 * plan.chosenProducer(elementRoot) >> Optional.empty()
+        1 * plan.schedule(elementRoot) >> []
+        1 * plan.chosenProducer(elementRoot) >> Optional.empty()
         1 * operation.codegen >> codegen
         1 * codegen.weave(CodeBlock.of('in'), 'element', CodeBlock.of('$N', 'element')) >> rendered
         0 * _
@@ -408,6 +582,40 @@ class WalkSpec extends Specification {
         result.is(rendered)
     }
 
+    def 'renderContainerMapping calls the helper method a shared element plan renders as, rendering no child body'() {
+        def walk = walk()
+        Operation operation = Mock()
+        def sourcePort = new Port('src', Mock(TypeMirror), Nullability.NON_NULL)
+        Value sourceValue = Mock()
+        ChildScope sharer = Mock()
+        ChildScope donor = Mock()
+        InputDecl elementInput = Mock()
+        TypeMirror elementType = Mock()
+        ScopeCodegen codegen = Mock()
+        def rendered = CodeBlock.of('in.map(person -> mapPersonToView(person))')
+
+        when:
+        def result = walk.renderContainerMapping(operation)
+
+        then:
+        1 * operation.ports >> [sourcePort]
+        1 * plan.portSource(operation, 'src') >> Optional.of(sourceValue)
+        1 * hoist.isHoisted(sourceValue) >> true
+        1 * hoist.reference(sourceValue) >> CodeBlock.of('in')
+        1 * operation.childScope >> Optional.of(sharer)
+        1 * sharer.planScope >> donor
+        1 * donor.elementInput >> elementInput
+        1 * elementInput.type >> elementType
+        1 * hoist.lambdaName(elementType) >> 'person'
+        1 * memberPlan.helperFor(donor) >> Optional.of('mapPersonToView')
+        1 * operation.codegen >> codegen
+        1 * codegen.weave(CodeBlock.of('in'), 'person', CodeBlock.of('$N($N)', 'mapPersonToView', 'person')) >> rendered
+        0 * _
+
+        expect:
+        result.is(rendered)
+    }
+
     // ---- renderOperand: a variable reference when hoisted, otherwise the inline expression, isolated via Spy ------
 
     def 'renderOperand references a hoisted Value by name, without rendering it inline'() {
@@ -477,6 +685,7 @@ class WalkSpec extends Specification {
 
         then:
         1 * plan.chosenProducer(value) >> Optional.of(operation)
+        1 * operation.codegen >> Stub(OperationCodegen)
         1 * operation.childScope >> Optional.empty()
         1 * walk.renderPlain(operation) >> rendered
         1 * walk._
@@ -498,6 +707,7 @@ class WalkSpec extends Specification {
 
         then:
         1 * plan.chosenProducer(value) >> Optional.of(operation)
+        1 * operation.codegen >> Stub(ScopeCodegen)
         1 * operation.childScope >> Optional.of(childScope)
         1 * walk.renderContainerMapping(operation) >> rendered
         1 * walk._
@@ -507,6 +717,26 @@ class WalkSpec extends Specification {
         result.is(rendered)
     }
 
+    def 'renderInline references a loop-produced Value by the local emitLoop declared'() {
+        def walk = spyWalk()
+        Value value = Mock()
+        Operation operation = Mock()
+        def ref = CodeBlock.of('views')
+
+        when:
+        def result = walk.renderInline(value)
+
+        then:
+        1 * plan.chosenProducer(value) >> Optional.of(operation)
+        1 * operation.codegen >> Stub(LoopCodegen)
+        1 * hoist.reference(value) >> ref
+        1 * walk._
+        0 * _
+
+        expect:
+        result.is(ref)
+    }
+
     // ---- renderMethodBody / renderScopeBody: hoist the locals, then return the inline root, via Spy -----------------
 
     def 'renderMethodBody emits no locals and returns the inline root expression when nothing hoists'() {
@@ -564,7 +794,7 @@ class WalkSpec extends Specification {
         1 * plan.chosenProducer(root) >> Optional.of(operation)
         1 * operation.codegen >> codegen
         1 * operation.ports >> [port]
-        1 * graph.portSource(operation, 'value') >> Optional.of(source)
+        1 * plan.portSource(operation, 'value') >> Optional.of(source)
         1 * walk.renderOperand(source) >> CodeBlock.of('x')
         1 * source.type >> Optional.of(sourceType)
         1 * operation.memberRequests >> []
@@ -617,48 +847,60 @@ class WalkSpec extends Specification {
         result.toString() == '{\n  var m = in;\n  return m;\n}'
     }
 
-    // ---- collectHoisted / hoistedInScope: post-order traversal over the plan's port sources -----------------------
+    // ---- hoistedInScope: the hoisted part of the scope's lowered schedule -------------------------------------------
+
+    def 'hoistedInScope keeps the schedule\'s hoisted Values in schedule order, leaving an inline root out'() {
+        def walk = walk()
+        Value root = Mock()
+        Value first = Mock()
+        Value inline = Mock()
+        Value second = Mock()
+
+        when:
+        def result = walk.hoistedInScope(root)
+
+        then:
+        1 * plan.schedule(root) >> [first, inline, second, root]
+        1 * hoist.isHoisted(first) >> true
+        1 * hoist.isHoisted(inline) >> false
+        1 * hoist.isHoisted(second) >> true
+        1 * hoist.isHoisted(root) >> false
+        0 * _
+
+        expect:
+        result == [first, second]
+    }
 
-    def 'hoistedInScope collects a hoisted producer\'s ports before itself, excluding the root'() {
+    def 'hoistedInScope keeps a loop-filled root, last, so it is declared before the return references it'() {
         def walk = walk()
         Value root = Mock()
-        Value child = Mock()
-        Value leaf = Mock()
-        Operation rootProducer = Mock()
-        Operation childProducer = Mock()
+        Value source = Mock()
 
         when:
         def result = walk.hoistedInScope(root)
 
         then:
-        1 * plan.chosenProducer(root) >> Optional.of(rootProducer)
-        1 * graph.portSourcesOf(rootProducer) >> Stream.of(child)
-        1 * plan.chosenProducer(child) >> Optional.of(childProducer)
-        1 * graph.portSourcesOf(childProducer) >> Stream.of(leaf)
-        1 * plan.chosenProducer(leaf) >> Optional.empty()
-        1 * hoist.isHoisted(child) >> true
+        1 * plan.schedule(root) >> [source, root]
+        1 * hoist.isHoisted(source) >> true
+        1 * hoist.isHoisted(root) >> true
         0 * _
 
-        expect: 'the root is excluded even when hoisted (isHoisted is never even asked for it); the leaf has no producer'
-        result == [child]
+        expect:
+        result == [source, root]
     }
 
-    def 'hoistedInScope visits a Value shared by two consumers only once'() {
+    def 'hoistedInScope is empty for a scope the plan does not schedule'() {
         def walk = walk()
         Value root = Mock()
-        Value shared = Mock()
-        Operation rootProducer = Mock()
 
         when:
         def result = walk.hoistedInScope(root)
 
         then:
-        1 * plan.chosenProducer(root) >> Optional.of(rootProducer)
-        1 * graph.portSourcesOf(rootProducer) >> Stream.of(shared, shared)
-        1 * plan.chosenProducer(shared) >> Optional.empty()
+        1 * plan.schedule(root) >> []
         0 * _
 
-        expect: 'shared has no chosen producer, so it is a base case and is never added, regardless of hoist status'
+        expect:
         result == []
     }
 
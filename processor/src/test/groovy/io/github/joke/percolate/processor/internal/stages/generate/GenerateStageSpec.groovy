@@ -2,6 +2,13 @@ package io.github.joke.percolate.processor.internal.stages.generate
 
 import io.github.joke.percolate.processor.Diagnostic
 import io.github.joke.percolate.processor.MapperContext
+import io.github.joke.percolate.processor.internal.graph.AccessPath
+import io.github.joke.percolate.processor.internal.graph.MapperGraph
+import io.github.joke.percolate.processor.internal.graph.SourceLocation
+import io.github.joke.percolate.processor.test.FakeType
+import io.github.joke.percolate.processor.test.HarnessScope
+import io.github.joke.percolate.spi.Nullability
+import io.github.joke.percolate.spi.ResolveCtx
 import io.github.joke.percolate.spi.Subjects
 import spock.lang.Specification
 import spock.lang.Subject
@@ -12,7 +19,8 @@ import javax.lang.model.element.TypeElement
 /**
  * {@link GenerateStage} seam, unit-tested directly with mocked collaborators: a clean, fully-realised mapper is built
  * and assembled; a mapper already carrying an error (scarred or unrealised) is skipped (incomplete graph, nothing to
- * emit); and a codegen failure is recorded as a permanent error rather than propagated.
+ * emit); a codegen failure is recorded as a permanent error rather than propagated; and whichever way it went, the
+ * mapper's graph and ResolveCtx are released once the stage has run, the names of the graph's types kept.
  */
 @Tag('unit')
 class GenerateStageSpec extends Specification {
@@ -27,7 +35,7 @@ class GenerateStageSpec extends Specification {
 
     def 'a clean, fully-realised mapper is built and then assembled'() {
         given:
-        def methodBodies = new MethodBodies([], [])
+        def methodBodies = new MethodBodies([], [], [])
 
         when:
         stage.run(ctx)
@@ -81,4 +89,39 @@ class GenerateStageSpec extends Specification {
             message.contains('boom')
         }
     }
+
+    def 'the graph and ResolveCtx are released once the stage has run, whichever way it went'() {
+        given:
+        ctx.graph = new MapperGraph()
+        ctx.resolveCtx = Stub(ResolveCtx)
+        if (scarred) {
+            ctx.report(Diagnostic.error(Subjects.none(), 'duplicate target').asPermanent())
+        }
+        buildMethodBodies.build(ctx) >> new MethodBodies([], [], [])
+
+        when:
+        stage.run(ctx)
+
+        then:
+        ctx.graph == null
+        ctx.resolveCtx == null
+
+        where:
+        scarred << [false, true]
+    }
+
+    def 'the names of the graph\'s types outlive the graph'() {
+        given:
+        def graph = new MapperGraph()
+        def list = FakeType.declared('java.util.List', FakeType.declared('test.Person'))
+        graph.valueFor(new HarnessScope('m()'), new SourceLocation(AccessPath.of('p')), list, Nullability.NON_NULL)
+        ctx.graph = graph
+        ctx.report(Diagnostic.error(Subjects.none(), 'no plan for tgt[]'))
+
+        when:
+        stage.run(ctx)
+
+        then:
+        ctx.graphTypeNames == ['java.util.List', 'test.Person'] as Set
+    }
 }
@@ -5,6 +5,7 @@ import io.github.joke.percolate.processor.internal.graph.AccessPath
 import io.github.joke.percolate.processor.internal.graph.AddOperation
 import io.github.joke.percolate.processor.internal.graph.AddValue
 import io.github.joke.percolate.processor.internal.graph.ExtractedPlan
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan
 import io.github.joke.percolate.processor.internal.graph.MapperGraph
 import io.github.joke.percolate.processor.internal.graph.MethodScope
 import io.github.joke.percolate.processor.internal.graph.PortBinding
@@ -27,9 +28,9 @@ import javax.lang.model.type.TypeKind
 import javax.lang.model.type.TypeMirror
 
 /**
- * {@link HoistPlan} seam, unit-tested directly: the pure hoist decision over an {@link ExtractedPlan} — a Value is
- * hoisted only when it has a chosen producer AND either feeds an n-ary assembly port or is consumed by more than one
- * in-plan port. Name allocation (slot name, empty-slot fallback, lambda type name) is exercised on the resulting plan.
+ * {@link HoistPlan} seam, unit-tested directly: the hoist decision over an {@link ExtractedPlan} as lowered by
+ * {@link LoweredPlan} — a Value is hoisted only when it has a chosen producer AND either feeds an n-ary assembly port
+ * or is consumed by more than one in-plan port. Name allocation (slot name, empty-slot fallback, lambda type name) is exercised on the resulting plan.
  *
  * <p>Unit-tested mock-only: graph Values carry a plain opaque {@code Mock(TypeMirror)} — the hoist decision never
  * inspects type structure — except {@code lambdaName}'s {@code typeBase} dispatch, which is boundary-exempt
@@ -63,7 +64,7 @@ class HoistPlanSpec extends Specification {
         graph.markReturnRoot(root)
         operation(root, [shared, shared])
         def plan = ExtractedPlan.extract(graph)
-        def hoist = hoistPlanFactory.forMethod(graph, plan, root, [])
+        def hoist = hoistPlanFactory.forMethod(LoweredPlan.lower(graph, plan), [])
 
         expect: 'shared feeds an n-ary assemble twice -> hoisted; mid is single-use -> not; the leaf has no producer -> not'
         hoist.isHoisted(shared)
@@ -82,7 +83,7 @@ class HoistPlanSpec extends Specification {
         def root = target('')
         graph.markReturnRoot(root)
         operation(root, [x, y])
-        def hoist = hoistPlanFactory.forMethod(graph, ExtractedPlan.extract(graph), root, [])
+        def hoist = hoistPlanFactory.forMethod(lowered(), [])
 
         expect: 's feeds two separate single-port operations (count > 1) though no n-ary port -> hoisted'
         hoist.isHoisted(s)
@@ -90,7 +91,7 @@ class HoistPlanSpec extends Specification {
 
     def 'declare allocates a slot-named local and reference returns its recorded expression'() {
         def value = target('name')
-        def hoist = hoistPlanFactory.forMethod(graph, ExtractedPlan.extract(graph), target(''), [])
+        def hoist = hoistPlanFactory.forMethod(lowered(), [])
         def name = hoist.declare(value)
 
         expect:
@@ -99,7 +100,7 @@ class HoistPlanSpec extends Specification {
     }
 
     def 'referencing a hoisted Value before it is declared fails fast'() {
-        def hoist = hoistPlanFactory.forMethod(graph, ExtractedPlan.extract(graph), target(''), [])
+        def hoist = hoistPlanFactory.forMethod(lowered(), [])
 
         when:
         hoist.reference(target('undeclared'))
@@ -113,27 +114,39 @@ class HoistPlanSpec extends Specification {
 
     def 'a Value whose slot name is empty declares under the fallback name'() {
         // the return root at the empty target path has no slot name
-        def hoist = hoistPlanFactory.forMethod(graph, ExtractedPlan.extract(graph), target(''), [])
+        def hoist = hoistPlanFactory.forMethod(lowered(), [])
 
         expect:
         hoist.declare(target('')) == 'value'
     }
 
     def 'a lambda parameter is named after a declared element type'() {
-        def hoist = hoistPlanFactory.forMethod(graph, ExtractedPlan.extract(graph), target(''), [])
+        def hoist = hoistPlanFactory.forMethod(lowered(), [])
 
         expect:
         hoist.lambdaName(declaredType('String')) == 'string'
     }
 
     def 'a lambda parameter over a non-declared element type falls back to element'() {
-        def hoist = hoistPlanFactory.forMethod(graph, ExtractedPlan.extract(graph), target(''), [])
+        def hoist = hoistPlanFactory.forMethod(lowered(), [])
         TypeMirror primitive = Stub(TypeMirror) { getKind() >> TypeKind.INT }
 
         expect:
         hoist.lambdaName(primitive) == 'element'
     }
 
+    def 'each loop counter gets its own name, never a reserved parameter\'s'() {
+        def hoist = hoistPlanFactory.forMethod(lowered(), ['index'])
+
+        expect:
+        hoist.indexName() == 'index_'
+        hoist.indexName() == 'index__'
+    }
+
+    private LoweredPlan lowered() {
+        LoweredPlan.lower(graph, ExtractedPlan.extract(graph))
+    }
+
     private Value target(final String slot) {
         graph.valueFor(scope, new TargetLocation(TargetPath.of(slot)), STRING, Nullability.NON_NULL)
     }
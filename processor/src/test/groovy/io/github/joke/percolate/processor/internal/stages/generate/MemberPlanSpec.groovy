@@ -5,12 +5,16 @@ import io.github.joke.percolate.lib.javapoet.CodeBlock
 import io.github.joke.percolate.processor.MapperContext
 import io.github.joke.percolate.processor.internal.graph.AddOperation
 import io.github.joke.percolate.processor.internal.graph.AddValue
+import io.github.joke.percolate.processor.internal.graph.ChildScopeDecl
 import io.github.joke.percolate.processor.internal.graph.ExtractedPlan
+import io.github.joke.percolate.processor.internal.graph.LoweredPlan
 import io.github.joke.percolate.processor.internal.graph.MapperGraph
 import io.github.joke.percolate.processor.internal.graph.MethodScope
+import io.github.joke.percolate.processor.internal.graph.Operation
 import io.github.joke.percolate.processor.internal.graph.TargetLocation
 import io.github.joke.percolate.processor.internal.graph.TargetPath
 import io.github.joke.percolate.processor.internal.graph.Value
+import io.github.joke.percolate.processor.model.MapperShape
 import io.github.joke.percolate.spi.MemberRequest
 import io.github.joke.percolate.spi.Nullability
 import io.github.joke.percolate.spi.OperationCodegen
@@ -35,7 +39,7 @@ class MemberPlanSpec extends Specification {
     static final OperationCodegen OP = { inputs -> CodeBlock.of('x') } as OperationCodegen
     static final ClassName FORMATTER = ClassName.get('java.time.format', 'DateTimeFormatter')
 
-    MemberPlanFactory memberPlanFactory = new MemberPlanFactory(new HoistPlanFactory())
+    MemberPlanFactory memberPlanFactory = new MemberPlanFactory()
 
     @Shared TypeMirror STRING = Mock()
 
@@ -59,7 +63,7 @@ class MemberPlanSpec extends Specification {
         def plan = ExtractedPlan.extract(graph)
 
         expect:
-        memberPlanFactory.forMapper(graph, plan, ctx).fields().size() == 1
+        memberPlanFactory.forMapper(LoweredPlan.lower(graph, plan), ctx, false).fields().size() == 1
     }
 
     def 'distinct dedup keys resolve to distinct field names'() {
@@ -73,7 +77,7 @@ class MemberPlanSpec extends Specification {
         graph.markReturnRoot(root)
         assemble(root, [a, b])
         def plan = ExtractedPlan.extract(graph)
-        def memberPlan = memberPlanFactory.forMapper(graph, plan, ctx)
+        def memberPlan = memberPlanFactory.forMapper(LoweredPlan.lower(graph, plan), ctx, false)
 
         expect:
         memberPlan.reference('fmt-yyyy-MM-dd').toString() != memberPlan.reference('fmt-dd.MM.yyyy').toString()
@@ -86,7 +90,7 @@ class MemberPlanSpec extends Specification {
         def plan = ExtractedPlan.extract(graph)
 
         expect:
-        memberPlanFactory.forMapper(graph, plan, ctx).fields().empty
+        memberPlanFactory.forMapper(LoweredPlan.lower(graph, plan), ctx, false).fields().empty
     }
 
     def 'each distinct member is emitted once as a field, initialized with the requested initializer'() {
@@ -99,7 +103,7 @@ class MemberPlanSpec extends Specification {
         def plan = ExtractedPlan.extract(graph)
 
         when:
-        def fields = memberPlanFactory.forMapper(graph, plan, ctx).fields()
+        def fields = memberPlanFactory.forMapper(LoweredPlan.lower(graph, plan), ctx, false).fields()
 
         then:
         fields.size() == 1
@@ -114,7 +118,7 @@ class MemberPlanSpec extends Specification {
         def plan = ExtractedPlan.extract(graph)
 
         when:
-        memberPlanFactory.forMapper(graph, plan, ctx).reference('unknown')
+        memberPlanFactory.forMapper(LoweredPlan.lower(graph, plan), ctx, false).reference('unknown')
 
         then:
         def error = thrown(IllegalStateException)
@@ -146,7 +150,7 @@ class MemberPlanSpec extends Specification {
         def plan = ExtractedPlan.extract(graph)
 
         when:
-        def memberPlan = memberPlanFactory.forMapper(graph, plan, ctx)
+        def memberPlan = memberPlanFactory.forMapper(LoweredPlan.lower(graph, plan), ctx, false)
 
         then:
         ctx.diagnostics.empty
@@ -168,7 +172,7 @@ class MemberPlanSpec extends Specification {
         def plan = ExtractedPlan.extract(graph)
 
         when:
-        memberPlanFactory.forMapper(graph, plan, ctx)
+        memberPlanFactory.forMapper(LoweredPlan.lower(graph, plan), ctx, false)
 
         then:
         ctx.diagnostics.size() == 1
@@ -195,7 +199,7 @@ class MemberPlanSpec extends Specification {
         def plan = ExtractedPlan.extract(graph)
 
         when:
-        memberPlanFactory.forMapper(graph, plan, ctx)
+        memberPlanFactory.forMapper(LoweredPlan.lower(graph, plan), ctx, false)
 
         then:
         ctx.diagnostics.size() == 1
@@ -217,7 +221,7 @@ class MemberPlanSpec extends Specification {
         def plan = ExtractedPlan.extract(graph)
 
         when:
-        def memberPlan = memberPlanFactory.forMapper(graph, plan, ctx)
+        def memberPlan = memberPlanFactory.forMapper(LoweredPlan.lower(graph, plan), ctx, false)
 
         then:
         ctx.diagnostics.empty
@@ -226,6 +230,26 @@ class MemberPlanSpec extends Specification {
         memberPlan.fields().size() == 1
     }
 
+    def 'helperNames names each element plan owned more than once, never after one of the mapper\'s abstract methods'() {
+        ctx.shape = new MapperShape(Mock(TypeElement), [Mock(ExecutableElement) {
+            getSimpleName() >> Stub(Name) { toString() >> 'mapElementToElement' }
+        }])
+        def donor = containerMapping(target('a'))
+        def sharer = containerMapping(target('b'))
+        def single = containerMapping(target('c'))
+        graph.sharePlan(sharer.childScope.get(), donor.childScope.get())
+
+        expect:
+        memberPlanFactory.helperNames([single, sharer, donor] as Set, ctx) == [(donor.childScope.get()): 'mapElementToElement_']
+    }
+
+    def 'helperNames names no element plan owned only once'() {
+        def only = containerMapping(target('a'))
+
+        expect:
+        memberPlanFactory.helperNames([only] as Set, ctx).isEmpty()
+    }
+
     private Value target(final String slot) {
         graph.valueFor(scope, new TargetLocation(TargetPath.of(slot)), STRING, Nullability.NON_NULL)
     }
@@ -243,6 +267,11 @@ class MemberPlanSpec extends Specification {
         graph.apply(new AddOperation('assemble', OP, 1, false, ports, av(out), Optional.empty(), [] as Set, []))
     }
 
+    private Operation containerMapping(final Value out) {
+        def decl = new ChildScopeDecl(STRING, Nullability.NON_NULL, STRING, Nullability.NON_NULL)
+        graph.apply(new AddOperation('map', OP, 1, false, [], av(out), Optional.of(decl), [] as Set, []))
+    }
+
     private AddValue av(final Value value) {
         new AddValue(value.scope, value.loc, value.type.get(), value.nullness.get())
     }
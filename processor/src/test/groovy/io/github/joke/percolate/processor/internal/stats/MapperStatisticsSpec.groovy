@@ -0,0 +1,67 @@
+package io.github.joke.percolate.processor.internal.stats
+
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Tag
+
+@Tag('unit')
+class MapperStatisticsSpec extends Specification {
+
+    @Subject
+    MapperStatistics statistics = new MapperStatistics()
+
+    def 'recordStage keeps stages in first-run order and sums a stage run twice'() {
+        when:
+        statistics.recordStage('ExpandStage', 10)
+        statistics.recordStage('GenerateStage', 5)
+        statistics.recordStage('ExpandStage', 7)
+
+        then:
+        statistics.stageNanos == [ExpandStage: 17L, GenerateStage: 5L]
+        statistics.stageNanos.keySet() as List == ['ExpandStage', 'GenerateStage']
+        statistics.totalNanos() == 22
+    }
+
+    def 'recordGraph and recordExpansion set the size figures'() {
+        when:
+        statistics.recordGraph(12, 14)
+        statistics.recordExpansion(6, 9, 2)
+
+        then:
+        statistics.vertices == 12
+        statistics.edges == 14
+        statistics.demands == 6
+        statistics.offers == 9
+        statistics.refusals == 2
+    }
+
+    def 'absorb sums every figure of another run into this one'() {
+        def other = new MapperStatistics()
+        other.recordStage('ExpandStage', 3)
+        other.recordStage('DumpPlanStage', 1)
+        other.recordGraph(2, 1)
+        other.recordExpansion(1, 4, 1)
+        statistics.recordStage('ExpandStage', 5)
+        statistics.recordGraph(10, 9)
+        statistics.recordExpansion(3, 3, 0)
+
+        when:
+        statistics.absorb(other)
+
+        then:
+        statistics.stageNanos == [ExpandStage: 8L, DumpPlanStage: 1L]
+        statistics.vertices == 12
+        statistics.edges == 10
+        statistics.demands == 4
+        statistics.offers == 7
+        statistics.refusals == 1
+    }
+
+    def 'the stage view is read-only'() {
+        when:
+        statistics.stageNanos.put('x', 1L)
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.joke.percolate.processor.internal.stats
+
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Tag
+
+@Tag('unit')
+class QueryCountersSpec extends Specification {
+
+    @Subject
+    QueryCounters counters = new QueryCounters()
+
+    def 'hit and miss count per query family, in first-asked order'() {
+        when:
+        counters.miss('isType')
+        counters.hit('membersOf')
+        counters.hit('isType')
+        counters.hit('isType')
+
+        then:
+        counters.counts.keySet() as List == ['isType', 'membersOf']
+        counters.counts.isType.hits == 2
+        counters.counts.isType.misses == 1
+        counters.counts.membersOf.hits == 1
+        counters.counts.membersOf.misses == 0
+    }
+
+    def 'hits and misses total every family'() {
+        when:
+        counters.miss('erasure')
+        counters.miss('isType')
+        counters.hit('isType')
+
+        then:
+        counters.hits() == 1
+        counters.misses() == 2
+    }
+
+    def 'a fresh set of counters is empty'() {
+        expect:
+        counters.counts.isEmpty()
+        counters.hits() == 0
+        counters.misses() == 0
+    }
+}
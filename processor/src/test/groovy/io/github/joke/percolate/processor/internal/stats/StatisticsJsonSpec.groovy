@@ -0,0 +1,88 @@
+package io.github.joke.percolate.processor.internal.stats
+
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Tag
+
+@Tag('unit')
+class StatisticsJsonSpec extends Specification {
+
+    @Subject
+    StatisticsJson json = new StatisticsJson()
+
+    def 'mapper renders the stages in run order with the graph and expansion figures'() {
+        def statistics = figures(['ExpandStage': 30L, 'GenerateStage': 12L], 5, 4, 3, 6, 1)
+
+        expect:
+        json.mapper('test.PersonMapper', statistics) == '''\
+{
+  "mapper": "test.PersonMapper",
+  "totalNanos": 42,
+  "stages": {
+    "ExpandStage": 30,
+    "GenerateStage": 12
+  },
+  "graph": {"vertices": 5, "edges": 4},
+  "expansion": {"demands": 3, "offers": 6, "refusals": 1}
+}
+'''
+    }
+
+    def 'an empty stage map renders as an empty object'() {
+        expect:
+        json.stages([:], 1) == '{}'
+    }
+
+    def 'round sums its mappers and lists each one, deferred attempts included'() {
+        def typeQueries = new QueryCounters()
+        typeQueries.miss('isType')
+        typeQueries.hit('isType')
+        typeQueries.hit('isType')
+        typeQueries.miss('membersOf')
+        def round = new RoundStatistics(2, typeQueries)
+        round.add('test.A', figures(['ExpandStage': 10L], 4, 3, 2, 2, 0), false)
+        round.add('test.B', figures(['ExpandStage': 5L], 1, 0, 1, 0, 1), true)
+
+        expect:
+        json.round(round) == '''\
+{
+  "round": 2,
+  "mappers": 2,
+  "deferred": 1,
+  "totalNanos": 15,
+  "stages": {
+    "ExpandStage": 15
+  },
+  "graph": {"vertices": 5, "edges": 3},
+  "expansion": {"demands": 3, "offers": 2, "refusals": 1},
+  "typeQueries": {
+    "isType": {"hits": 2, "misses": 1},
+    "membersOf": {"hits": 0, "misses": 1}
+  },
+  "perMapper": [
+    {"mapper": "test.A", "deferred": false, "totalNanos": 10, "vertices": 4, "demands": 2},
+    {"mapper": "test.B", "deferred": true, "totalNanos": 5, "vertices": 1, "demands": 1}
+  ]
+}
+'''
+    }
+
+    def 'a round that asked no type query renders them as an empty object'() {
+        expect:
+        json.queries(new QueryCounters(), 1) == '{}'
+    }
+
+    def 'quote escapes quotes and backslashes'() {
+        expect:
+        json.quote('a"b\\c') == '"a\\"b\\\\c"'
+    }
+
+    private static MapperStatistics figures(
+            final Map<String, Long> stages, int vertices, int edges, int demands, int offers, int refusals) {
+        def statistics = new MapperStatistics()
+        stages.each { stage, nanos -> statistics.recordStage(stage, nanos) }
+        statistics.recordGraph(vertices, edges)
+        statistics.recordExpansion(demands, offers, refusals)
+        statistics
+    }
+}
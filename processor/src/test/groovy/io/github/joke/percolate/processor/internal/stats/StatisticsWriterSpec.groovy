@@ -0,0 +1,90 @@
+package io.github.joke.percolate.processor.internal.stats
+
+import io.github.joke.percolate.processor.Diagnostic
+import io.github.joke.percolate.processor.test.FakeElements
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Tag
+
+import javax.annotation.processing.Filer
+import javax.tools.FileObject
+import javax.tools.StandardLocation
+
+@Tag('unit')
+class StatisticsWriterSpec extends Specification {
+
+    Filer filer = Mock()
+    StatisticsJson json = Mock()
+    @Subject
+    StatisticsWriter writer = new StatisticsWriter(filer, json)
+
+    def 'writeMapper writes the mapper document under percolate-stats, originating from the mapper'() {
+        def mapperType = FakeElements.simpleElement('test.PersonMapper')
+        def statistics = new MapperStatistics()
+        FileObject resource = Mock()
+        def bytes = new ByteArrayOutputStream()
+
+        when:
+        def failure = writer.writeMapper(mapperType, statistics)
+
+        then:
+        1 * json.mapper('test.PersonMapper', statistics) >> '{}'
+        1 * filer.createResource(StandardLocation.SOURCE_OUTPUT, '', 'percolate-stats/test.PersonMapper.json',
+                mapperType) >> resource
+        1 * resource.openOutputStream() >> bytes
+        0 * _
+
+        expect:
+        failure.empty
+        bytes.toString('UTF-8') == '{}'
+    }
+
+    def 'writeRound writes the numbered summary, originating from every mapper the round ran'() {
+        def first = FakeElements.simpleElement('test.A')
+        def second = FakeElements.simpleElement('test.B')
+        def round = new RoundStatistics(3, new QueryCounters())
+        FileObject resource = Stub {
+            openOutputStream() >> new ByteArrayOutputStream()
+        }
+
+        when:
+        def failure = writer.writeRound(round, [first, second])
+
+        then:
+        1 * json.round(round) >> '{}'
+        1 * filer.createResource(StandardLocation.SOURCE_OUTPUT, '', 'percolate-stats/round-3.json', first,
+                second) >> resource
+        0 * _
+
+        expect:
+        failure.empty
+    }
+
+    def 'a round summary is held back only under a Gradle Filer, which tracks origins: #filerType'() {
+        expect:
+        StatisticsWriter.incremental(filerType) == incremental
+
+        where:
+        filerType                                                           | incremental
+        'org.gradle.api.internal.tasks.compile.processing.IncrementalFiler' | true
+        'com.sun.tools.javac.processing.JavacFiler'                         | false
+        'org.gradlex.SomeFiler'                                             | false
+    }
+
+    def 'a Filer failure becomes a transient warning rather than propagating'() {
+        when:
+        def failure = writer.write('percolate-stats/x.json', '{}')
+
+        then:
+        1 * filer.createResource(*_) >> { throw new IOException('disk full') }
+
+        expect:
+        failure.present
+        with(failure.get()) {
+            severity == Diagnostic.Severity.WARNING
+            !permanent
+            message.contains('percolate-stats/x.json')
+            message.contains('disk full')
+        }
+    }
+}
@@ -146,6 +146,57 @@ class JspecifyNullabilityResolverSpec extends Specification {
         resolver.resolve(stubType([]), scope) == Nullability.UNKNOWN
     }
 
+    def 'an enclosing element\'s marked status is read once, then reused for every scope beneath it'() {
+        given:
+        Element type = Mock()
+        def method = stubEnclosed([], type)
+        def first = stubEnclosed([], method)
+        def second = stubEnclosed([], method)
+        def resolver = new JspecifyNullabilityResolver(NullabilityAnnotations.jspecifyDefaults(), Stub(Elements))
+
+        when:
+        def answers = [resolver.resolve(stubType([]), first), resolver.resolve(stubType([]), second)]
+
+        then:
+        1 * type.getAnnotationMirrors() >> [annotationMirror('org.jspecify.annotations.NullMarked')]
+
+        expect:
+        answers == [Nullability.NON_NULL, Nullability.NON_NULL]
+    }
+
+    def 'an annotation type is classified once, however many types carry it'() {
+        given:
+        Name name = Mock()
+        def annotation = Stub(TypeElement) { getQualifiedName() >> name }
+        def mirror = Stub(AnnotationMirror) { getAnnotationType() >> Stub(DeclaredType) { asElement() >> annotation } }
+        def resolver = new JspecifyNullabilityResolver(NullabilityAnnotations.jspecifyDefaults(), Stub(Elements))
+
+        when:
+        def answers = [resolver.resolve(stubType([mirror]), stubScope([])),
+                       resolver.resolve(stubType([mirror]), stubScope([]))]
+
+        then:
+        1 * name.toString() >> 'org.jspecify.annotations.Nullable'
+
+        expect:
+        answers == [Nullability.NULLABLE, Nullability.NULLABLE]
+    }
+
+    def 'starting a round forgets every memo'() {
+        given:
+        Element type = Mock()
+        def scope = stubEnclosed([], type)
+        def resolver = new JspecifyNullabilityResolver(NullabilityAnnotations.jspecifyDefaults(), Stub(Elements))
+
+        when:
+        resolver.resolve(stubType([]), scope)
+        resolver.startRound()
+        resolver.resolve(stubType([]), scope)
+
+        then: 'the enclosing type is read again in the new round'
+        2 * type.getAnnotationMirrors() >> [annotationMirror('org.jspecify.annotations.NullMarked')]
+    }
+
     private Element stubScope(final List<AnnotationMirror> mirrors) {
         Stub(Element) {
             getAnnotationMirrors() >> mirrors
@@ -153,6 +204,13 @@ class JspecifyNullabilityResolverSpec extends Specification {
         }
     }
 
+    private Element stubEnclosed(final List<AnnotationMirror> mirrors, final Element enclosing) {
+        Stub(Element) {
+            getAnnotationMirrors() >> mirrors
+            getEnclosingElement() >> enclosing
+        }
+    }
+
     private TypeMirror stubType(final List<AnnotationMirror> mirrors) {
         Stub(TypeMirror) { getAnnotationMirrors() >> mirrors }
     }
@@ -12,6 +12,7 @@ import javax.lang.model.element.NestingKind
 import javax.lang.model.element.TypeElement
 import javax.lang.model.element.TypeParameterElement
 import javax.lang.model.element.VariableElement
+import javax.lang.model.type.DeclaredType
 import javax.lang.model.type.TypeMirror
 
 /**
@@ -50,6 +51,34 @@ class FakeElements {
         new SimpleElement(name(elementName))
     }
 
+    /** An annotation rendering as {@code @name}, the way javac's own render by their type's name. */
+    static AnnotationMirror annotation(final String annotationName) {
+        new NamedAnnotation(annotationName)
+    }
+
+    private static final class NamedAnnotation implements AnnotationMirror {
+        private final String annotationName
+
+        NamedAnnotation(final String annotationName) {
+            this.annotationName = annotationName
+        }
+
+        @Override
+        DeclaredType getAnnotationType() {
+            FakeType.declared(annotationName)
+        }
+
+        @Override
+        Map<? extends ExecutableElement, ? extends AnnotationValue> getElementValues() {
+            [:]
+        }
+
+        @Override
+        String toString() {
+            "@${annotationName}"
+        }
+    }
+
     private static final class SimpleElement extends UnsupportedElement implements TypeElement {
         private final Name elementName
 
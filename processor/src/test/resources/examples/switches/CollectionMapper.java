@@ -0,0 +1,41 @@
+package examples.switches;
+
+import io.github.joke.percolate.Map;
+import io.github.joke.percolate.Mapper;
+import java.util.List;
+
+// tag::mapper[]
+@Mapper
+public interface CollectionMapper {
+
+    // Element-converting, reusing `toView` per element: a stream pipeline or a loop, per -Apercolate.collections.style.
+    List<LineView> toViews(List<Line> lines);
+
+    @Map(target = "sku", source = "line.sku")
+    LineView toView(Line line);
+}
+// end::mapper[]
+
+final class Line {
+    private final String sku;
+
+    Line(String sku) {
+        this.sku = sku;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+}
+
+final class LineView {
+    private final String sku;
+
+    LineView(String sku) {
+        this.sku = sku;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+}
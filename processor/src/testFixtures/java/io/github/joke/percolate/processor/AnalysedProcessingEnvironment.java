@@ -0,0 +1,124 @@
+package io.github.joke.percolate.processor;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+
+// The ProcessingEnvironment StageHarness builds the Dagger graph over: the Elements and Types of an analysed javac
+// task, the -A options its caller passes, a Messager that drops everything (stages collect diagnostics on the
+// MapperContext, never print them) and a Filer that refuses every write — no stage the harness drives writes a file.
+final class AnalysedProcessingEnvironment implements ProcessingEnvironment, Messager, Filer {
+
+    private final Elements elements;
+    private final Types types;
+    private final Map<String, String> options;
+
+    AnalysedProcessingEnvironment(final Elements elements, final Types types, final Map<String, String> options) {
+        this.elements = elements;
+        this.types = types;
+        this.options = Map.copyOf(options);
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public Messager getMessager() {
+        return this;
+    }
+
+    @Override
+    public Filer getFiler() {
+        return this;
+    }
+
+    @Override
+    public Elements getElementUtils() {
+        return elements;
+    }
+
+    @Override
+    public Types getTypeUtils() {
+        return types;
+    }
+
+    @Override
+    public SourceVersion getSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public Locale getLocale() {
+        return Locale.ROOT;
+    }
+
+    @Override
+    public void printMessage(final Kind kind, final CharSequence msg) {
+        // dropped
+    }
+
+    @Override
+    public void printMessage(final Kind kind, final CharSequence msg, final Element e) {
+        // dropped
+    }
+
+    @Override
+    public void printMessage(final Kind kind, final CharSequence msg, final Element e, final AnnotationMirror a) {
+        // dropped
+    }
+
+    @Override
+    public void printMessage(
+            final Kind kind,
+            final CharSequence msg,
+            final Element e,
+            final AnnotationMirror a,
+            final AnnotationValue v) {
+        // dropped
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(final CharSequence name, final Element... originatingElements)
+            throws IOException {
+        throw new FilerException("the stage harness writes no source: " + name);
+    }
+
+    @Override
+    public JavaFileObject createClassFile(final CharSequence name, final Element... originatingElements)
+            throws IOException {
+        throw new FilerException("the stage harness writes no class: " + name);
+    }
+
+    @Override
+    public FileObject createResource(
+            final Location location,
+            final CharSequence moduleAndPkg,
+            final CharSequence relativeName,
+            final Element... originatingElements)
+            throws IOException {
+        throw new FilerException("the stage harness writes no resource: " + relativeName);
+    }
+
+    @Override
+    public FileObject getResource(
+            final Location location, final CharSequence moduleAndPkg, final CharSequence relativeName)
+            throws IOException {
+        throw new FilerException("the stage harness reads no resource: " + relativeName);
+    }
+}
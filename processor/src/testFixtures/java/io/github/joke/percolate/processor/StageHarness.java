@@ -0,0 +1,99 @@
+package io.github.joke.percolate.processor;
+
+import com.sun.source.util.JavacTask;
+import io.github.joke.percolate.processor.internal.stages.Stage;
+import io.github.joke.percolate.processor.internal.stages.expand.ExpandStage;
+import io.github.joke.percolate.processor.internal.stages.generate.BuildMethodBodies;
+import io.github.joke.percolate.processor.internal.stages.generate.MethodBodiesFixture;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+
+import static io.github.joke.percolate.processor.DaggerProcessorComponent.factory;
+import static java.util.Objects.requireNonNull;
+import static javax.tools.ToolProvider.getSystemJavaCompiler;
+
+// Drives the processor's stages one at a time over a mapper's sources, outside any processing round: javac only
+// parses and attributes the sources (no processors run), and the real Dagger graph is built over an environment
+// backed by that analysed task. A test fixture of the processor, so it reaches the package-private component from
+// the processor's own package while its callers (the stage-level benchmarks) stay in theirs.
+public final class StageHarness {
+
+    private final TypeElement mapperType;
+    private final List<Stage> front;
+    private final ExpandStage expandStage;
+    private final BuildMethodBodies buildMethodBodies;
+
+    StageHarness(final TypeElement mapperType, final ProcessorComponent component) {
+        this.mapperType = mapperType;
+        final var stages = component.stages();
+        final var expandAt = indexOfExpand(stages);
+        this.front = stages.subList(0, expandAt);
+        this.expandStage = (ExpandStage) stages.get(expandAt);
+        this.buildMethodBodies = component.buildMethodBodies();
+    }
+
+    // Analyses sources, whose mapper interface is mapperName, with the processor built over the given -A options.
+    public static StageHarness analyze(
+            final List<? extends JavaFileObject> sources, final String mapperName, final Map<String, String> options) {
+        final var task = (JavacTask) getSystemJavaCompiler()
+                .getTask(
+                        null,
+                        null,
+                        null,
+                        List.of("-proc:none", "-classpath", System.getProperty("java.class.path")),
+                        null,
+                        sources);
+        try {
+            task.analyze();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final var elements = task.getElements();
+        final var environment = new AnalysedProcessingEnvironment(elements, task.getTypes(), options);
+        return new StageHarness(
+                requireNonNull(elements.getTypeElement(mapperName), mapperName),
+                factory().create(new ProcessorModule(environment)));
+    }
+
+    // A fresh context with every stage ahead of expansion (discovery, validation) already run.
+    public MapperContext discovered() {
+        final var ctx = new MapperContext(mapperType);
+        front.forEach(stage -> stage.run(ctx));
+        return ctx;
+    }
+
+    // A fresh context expanded as far as MapperStep would take it before the realisation checks.
+    public MapperContext expanded() {
+        final var ctx = discovered();
+        expand(ctx);
+        if (ctx.hasErrors() || ctx.getGraph() == null) {
+            throw new IllegalStateException(mapperType + " did not expand: " + ctx.getDiagnostics());
+        }
+        return ctx;
+    }
+
+    // Runs ExpandStage over ctx, which should be fresh from .discovered: the stage appends to the context's
+    // diagnostics and goals, so a reused context grows with every run.
+    public void expand(final MapperContext ctx) {
+        expandStage.run(ctx);
+    }
+
+    // Every method body of an .expanded context — plan extraction, member planning, hoisting and the codegen walk —
+    // without assembling or writing the type.
+    public Object buildMethodBodies(final MapperContext expanded) {
+        return MethodBodiesFixture.build(buildMethodBodies, expanded);
+    }
+
+    static int indexOfExpand(final List<Stage> stages) {
+        for (var i = 0; i < stages.size(); i++) {
+            if (stages.get(i) instanceof ExpandStage) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("no ExpandStage in " + stages);
+    }
+}
@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactorblocking;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -16,6 +17,7 @@ import lombok.NoArgsConstructor;
 
 import static io.github.joke.percolate.reactorblocking.Blockings.FLUX;
 import static io.github.joke.percolate.reactorblocking.Blockings.declared;
+import static io.github.joke.percolate.spi.Applicability.producing;
 
 // Upward async-to-sync crossing Flux<T> → List<T> via flux.collectList().block(): the buffering blocking
 // reduction, keyed on a target List<T> and sourcing a Flux<T> through a reuse-only port. Weighted strictly
@@ -24,6 +26,12 @@ import static io.github.joke.percolate.reactorblocking.Blockings.declared;
 @NoArgsConstructor
 public final class FluxCollectListBlock implements ExpansionStrategy {
 
+    // Consulted only for the List it blocks a Flux into.
+    @Override
+    public Applicability applicability() {
+        return producing().targets("java.util.List");
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
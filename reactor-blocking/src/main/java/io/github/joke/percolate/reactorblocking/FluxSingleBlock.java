@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactorblocking;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -17,6 +18,8 @@ import lombok.NoArgsConstructor;
 import static io.github.joke.percolate.reactorblocking.Blockings.FLUX;
 import static io.github.joke.percolate.reactorblocking.Blockings.declared;
 import static io.github.joke.percolate.reactorblocking.Blockings.isBlockableScalar;
+import static io.github.joke.percolate.spi.Applicability.producing;
+import static javax.lang.model.type.TypeKind.DECLARED;
 
 // Upward async-to-sync crossing Flux<T> → T via flux.single().block(): the canonical single-element blocking
 // reduction, keyed on a plain scalar T and sourcing a Flux<T> through a reuse-only port. It is partial
@@ -28,6 +31,12 @@ import static io.github.joke.percolate.reactorblocking.Blockings.isBlockableScal
 @NoArgsConstructor
 public final class FluxSingleBlock implements ExpansionStrategy {
 
+    // A blockable scalar is always declared; the reactive exclusions stay in expand.
+    @Override
+    public Applicability applicability() {
+        return producing().kinds(DECLARED);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
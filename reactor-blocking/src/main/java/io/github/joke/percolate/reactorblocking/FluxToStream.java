@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactorblocking;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -20,6 +21,7 @@ import static io.github.joke.percolate.reactorblocking.Blockings.FLUX;
 import static io.github.joke.percolate.reactorblocking.Blockings.STREAM;
 import static io.github.joke.percolate.reactorblocking.Blockings.declared;
 import static io.github.joke.percolate.reactorblocking.Blockings.view;
+import static io.github.joke.percolate.spi.Applicability.producing;
 
 // Upward async-to-sync crossing Flux<T> → Stream<T> via flux.toStream(): a distinct (lazily streaming, not
 // buffering) blocking bridge into the JDK Stream world — not redundant with collectList().block() + iterate
@@ -35,6 +37,12 @@ import static io.github.joke.percolate.reactorblocking.Blockings.view;
 @NoArgsConstructor
 public final class FluxToStream implements ExpansionStrategy, SourceProjection {
 
+    // Consulted only for a Stream target.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(STREAM);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactorblocking;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -17,6 +18,8 @@ import lombok.NoArgsConstructor;
 import static io.github.joke.percolate.reactorblocking.Blockings.MONO;
 import static io.github.joke.percolate.reactorblocking.Blockings.declared;
 import static io.github.joke.percolate.reactorblocking.Blockings.isBlockableScalar;
+import static io.github.joke.percolate.spi.Applicability.producing;
+import static javax.lang.model.type.TypeKind.DECLARED;
 
 // Upward async-to-sync crossing Mono<T> → T via mono.block(): a target-driven conversion keyed on a plain
 // scalar T, sourcing a Mono<T> through a reuse-only port (the unwrap pattern) so it never mints a fresh Mono
@@ -29,6 +32,12 @@ import static io.github.joke.percolate.reactorblocking.Blockings.isBlockableScal
 @NoArgsConstructor
 public final class MonoBlock implements ExpansionStrategy {
 
+    // Consulted only for a declared target, the one shape block() can yield.
+    @Override
+    public Applicability applicability() {
+        return producing().kinds(DECLARED);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
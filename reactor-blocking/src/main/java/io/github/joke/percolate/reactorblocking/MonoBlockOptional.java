@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactorblocking;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -20,6 +21,7 @@ import static io.github.joke.percolate.reactorblocking.Blockings.MONO;
 import static io.github.joke.percolate.reactorblocking.Blockings.OPTIONAL;
 import static io.github.joke.percolate.reactorblocking.Blockings.declared;
 import static io.github.joke.percolate.reactorblocking.Blockings.view;
+import static io.github.joke.percolate.spi.Applicability.producing;
 
 // Upward async-to-sync crossing Mono<T> → Optional<T> via mono.blockOptional(): the presence-preserving
 // blocking bridge, keyed on a target Optional<T> and sourcing a Mono<T> through a reuse-only port. Weighted
@@ -33,6 +35,12 @@ import static io.github.joke.percolate.reactorblocking.Blockings.view;
 @NoArgsConstructor
 public final class MonoBlockOptional implements ExpansionStrategy, SourceProjection {
 
+    // Consulted only for an Optional target.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(OPTIONAL);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactor;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -18,6 +19,7 @@ import lombok.NoArgsConstructor;
 import static io.github.joke.percolate.reactor.Reactors.FLUX;
 import static io.github.joke.percolate.reactor.Reactors.MONO;
 import static io.github.joke.percolate.reactor.Reactors.declared;
+import static io.github.joke.percolate.spi.Applicability.producing;
 
 // Same-paradigm reduction Flux<T> → Mono<List<T>> via flux.collectList() (design D4): a target-driven
 // conversion keyed on a concrete Mono<List<T>>, sourcing a concrete Flux<T> port. The result stays in the
@@ -27,6 +29,12 @@ import static io.github.joke.percolate.reactor.Reactors.declared;
 @NoArgsConstructor
 public final class CollectList implements ExpansionStrategy {
 
+    // Only ever lands on a Mono target.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(MONO);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactor;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.Container;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
@@ -13,6 +14,7 @@ import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 import reactor.core.publisher.Flux;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static java.util.Objects.requireNonNull;
 
 // The reactor.core.publisher.Flux sequence container over the single shared reactive intermediate — which is
@@ -26,6 +28,12 @@ public final class FluxContainer extends Container {
 
     static final String FLUX = "reactor.core.publisher.Flux";
 
+    // Flux is both this kind and its own intermediate, and it supplies no unwrap.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(FLUX);
+    }
+
     @Override
     @VisibleForTesting
     protected boolean matches(final TypeMirror type, final ResolveCtx ctx) {
@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactor;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -18,6 +19,7 @@ import reactor.core.publisher.Flux;
 
 import static io.github.joke.percolate.reactor.Reactors.FLUX;
 import static io.github.joke.percolate.reactor.Reactors.declared;
+import static io.github.joke.percolate.spi.Applicability.producing;
 
 // Downward interop bridge Stream<T> → Flux<T> via Flux.fromStream (design D5): a target-driven conversion keyed
 // on the concrete demanded Flux<T>, sourcing a concrete Stream<T> port. The JDK collection containers feed that
@@ -27,6 +29,12 @@ import static io.github.joke.percolate.reactor.Reactors.declared;
 @NoArgsConstructor
 public final class FluxFromStream implements ExpansionStrategy {
 
+    // Consulted only for the Flux it opens a Stream into.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(FLUX);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
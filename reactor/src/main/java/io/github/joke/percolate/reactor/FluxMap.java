@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactor;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Offer;
 import io.github.joke.percolate.spi.Port;
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.stream.Stream;
 import lombok.NoArgsConstructor;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.ChildScopeSpec.lifted;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.OperationSpec.mapping;
@@ -41,6 +43,12 @@ public final class FluxMap implements ExpansionStrategy {
     private static final ScopeCodegen FLAT_MAP =
             (operand, var, body) -> CodeBlock.of("$L$Z.flatMap($N -> $L)", operand, var, body);
 
+    // The element map only ever lands on a Flux target.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(FLUX);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactor;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -18,6 +19,7 @@ import lombok.NoArgsConstructor;
 import static io.github.joke.percolate.reactor.Reactors.FLUX;
 import static io.github.joke.percolate.reactor.Reactors.MONO;
 import static io.github.joke.percolate.reactor.Reactors.declared;
+import static io.github.joke.percolate.spi.Applicability.producing;
 
 // Same-paradigm reduction Flux<T> → Mono<T> via flux.single() (design D4): the canonical single-element
 // reduction. A developer reducing a stream to one value means exactly one element; next/ last/positional
@@ -27,6 +29,12 @@ import static io.github.joke.percolate.reactor.Reactors.declared;
 @NoArgsConstructor
 public final class FluxSingle implements ExpansionStrategy {
 
+    // Consulted only for a Mono target, the shape single() yields.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(MONO);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
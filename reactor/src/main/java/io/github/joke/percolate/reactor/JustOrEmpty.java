@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactor;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -18,6 +19,7 @@ import reactor.core.publisher.Mono;
 
 import static io.github.joke.percolate.reactor.Reactors.MONO;
 import static io.github.joke.percolate.reactor.Reactors.declared;
+import static io.github.joke.percolate.spi.Applicability.producing;
 
 // Downward interop bridge Optional<T> → Mono<T> via Mono.justOrEmpty (design D5): a target-driven conversion
 // keyed on the concrete demanded Mono<T>, sourcing a concrete Optional<T> port. Entering the reactive world
@@ -26,6 +28,12 @@ import static io.github.joke.percolate.reactor.Reactors.declared;
 @NoArgsConstructor
 public final class JustOrEmpty implements ExpansionStrategy {
 
+    // Consulted only for the Mono it lifts an Optional into.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(MONO);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactor;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.Container;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
@@ -14,6 +15,7 @@ import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 import reactor.core.publisher.Mono;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static java.util.Objects.requireNonNull;
 
 // The reactor.core.publisher.Mono presence container over the shared reactive intermediate Flux (design D1).
@@ -32,6 +34,12 @@ public final class MonoContainer extends Container {
     static final String MONO = "reactor.core.publisher.Mono";
     static final String FLUX = "reactor.core.publisher.Flux";
 
+    // Answers its own kind and its Flux intermediate; with no unwrap it never answers a scalar.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(MONO, FLUX);
+    }
+
     @Override
     @VisibleForTesting
     protected boolean matches(final TypeMirror type, final ResolveCtx ctx) {
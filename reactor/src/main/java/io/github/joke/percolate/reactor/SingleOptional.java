@@ -2,6 +2,7 @@ package io.github.joke.percolate.reactor;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
 import io.github.joke.percolate.spi.Offer;
@@ -17,6 +18,7 @@ import lombok.NoArgsConstructor;
 
 import static io.github.joke.percolate.reactor.Reactors.MONO;
 import static io.github.joke.percolate.reactor.Reactors.declared;
+import static io.github.joke.percolate.spi.Applicability.producing;
 
 // Same-paradigm reduction Mono<T> → Mono<Optional<T>> via mono.singleOptional() (design D4): a target-driven
 // conversion keyed on a concrete Mono<Optional<T>>, sourcing a concrete Mono<T> port. It surfaces emptiness as
@@ -25,6 +27,12 @@ import static io.github.joke.percolate.reactor.Reactors.declared;
 @NoArgsConstructor
 public final class SingleOptional implements ExpansionStrategy {
 
+    // Consulted only for a Mono (of an Optional) target.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(MONO);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
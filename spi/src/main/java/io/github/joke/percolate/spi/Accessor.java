@@ -30,6 +30,12 @@ public abstract class Accessor implements ExpansionStrategy {
     @OverrideOnly
     protected abstract Optional<Step> accessor(TypeElement parent, String segment, ResolveCtx ctx);
 
+    /** An accessor is consulted for descend demands only. */
+    @Override
+    public Applicability applicability() {
+        return Applicability.descending();
+    }
+
     @Override
     public final Stream<Offer> descend(final DescendDemand demand, final ResolveCtx ctx) {
         return ctx
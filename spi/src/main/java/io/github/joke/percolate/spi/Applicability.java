@@ -0,0 +1,83 @@
+package io.github.joke.percolate.spi;
+
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.lang.model.type.TypeKind;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static java.util.stream.Collectors.toUnmodifiableSet;
+import static java.util.stream.Stream.concat;
+
+/**
+ * What an {@link ExpansionStrategy} can ever answer, declared up front through {@link ExpansionStrategy#applicability()}
+ * so the engine consults the strategy only for the demands it could serve instead of asking every strategy about
+ * every demand. The declaration is a pure dispatch hint: it never decides a strategy's answer, only whether the
+ * strategy is asked at all, so it must be <b>conservative</b> — every demand the strategy would answer with a
+ * non-empty stream must pass it.
+ *
+ * <p>A strategy is asked to {@link ExpansionStrategy#expand expand} a {@link ProduceDemand} when it {@link #isProduces()
+ * produces}, the demanded target passes the target clause — its erasure is one of {@link #getTargetErasures()}, or its
+ * {@link TypeKind} is one of {@link #getTargetKinds()}; with neither declared every target passes — and the in-effect
+ * {@link Directive} declares an input under every key in {@link #getRequiredInputs()}. It is asked to
+ * {@link ExpansionStrategy#descend descend} a {@link DescendDemand} whenever it {@link #isDescends() descends}.
+ *
+ * <p>Build one from {@link #producing()} or {@link #descending()} and narrow it, e.g.
+ * {@code producing().targets("java.util.List", "java.util.stream.Stream")} or {@code producing().requiring("format")};
+ * {@link #universal()} — the default — keeps the strategy consulted for every demand of either shape.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Applicability {
+
+    private static final Applicability UNIVERSAL = new Applicability(true, true, Set.of(), Set.of(), Set.of());
+
+    boolean produces;
+    boolean descends;
+    Set<String> targetErasures;
+    Set<TypeKind> targetKinds;
+    Set<String> requiredInputs;
+
+    /** Consulted for every produce and every descend demand — what an undeclared strategy gets. */
+    public static Applicability universal() {
+        return UNIVERSAL;
+    }
+
+    /** A producer: consulted for every produce demand until narrowed, never for a descend demand. */
+    public static Applicability producing() {
+        return new Applicability(true, false, Set.of(), Set.of(), Set.of());
+    }
+
+    /** An accessor: consulted for every descend demand, never for a produce demand. */
+    public static Applicability descending() {
+        return new Applicability(false, true, Set.of(), Set.of(), Set.of());
+    }
+
+    /** Also passes a demanded target whose erasure is named by one of {@code fqns} (e.g. {@code java.util.List}). */
+    public Applicability targets(final String... fqns) {
+        return new Applicability(produces, descends, union(targetErasures, fqns), targetKinds, requiredInputs);
+    }
+
+    /** Also passes a demanded target of one of {@code kinds} (e.g. {@link TypeKind#ARRAY}, {@link TypeKind#INT}). */
+    public Applicability kinds(final TypeKind... kinds) {
+        return new Applicability(produces, descends, targetErasures, union(targetKinds, kinds), requiredInputs);
+    }
+
+    /** Passes only a demand whose directive declares an input under every one of {@code keys} (e.g. {@code format}). */
+    public Applicability requiring(final String... keys) {
+        return new Applicability(produces, descends, targetErasures, targetKinds, union(requiredInputs, keys));
+    }
+
+    /** Whether the target clause is undeclared, so every demanded target passes it. */
+    public boolean isAnyTarget() {
+        return targetErasures.isEmpty() && targetKinds.isEmpty();
+    }
+
+    @SafeVarargs
+    @VisibleForTesting
+    static <T> Set<T> union(final Set<T> declared, final T... added) {
+        return concat(declared.stream(), Stream.of(added)).collect(toUnmodifiableSet());
+    }
+}
@@ -110,6 +110,18 @@ public abstract class Container implements ExpansionStrategy, SourceProjection {
         return Optional.empty();
     }
 
+    /**
+     * The {@link #collect} snippet closing the intermediate into the concrete target {@code to} — {@link #collect}
+     * itself by default. Override when the closing call must name the target type, e.g. an array's typed generator
+     * {@code toArray(E[]::new)}, or depends on what {@code demand} proves about its elements, e.g. their
+     * {@link ProduceDemand#declaredNullness}.
+     */
+    @OverrideOnly
+    protected Optional<UnarySnippet> collectInto(
+            final TypeMirror to, final ProduceDemand demand, final ResolveCtx ctx) {
+        return collect();
+    }
+
     /** Lift a single scalar into this container ({@code E → Cont<E>}); empty when there is no synchronous form. */
     public Optional<UnarySnippet> wrap() {
         return Optional.empty();
@@ -136,6 +148,15 @@ public abstract class Container implements ExpansionStrategy, SourceProjection {
         return Optional.empty();
     }
 
+    /**
+     * A container is consulted for produce demands only. A sequence kind may narrow it to its own erasure plus its
+     * intermediate's; a kind that supplies {@link #unwrap} answers for any scalar target and keeps the default.
+     */
+    @Override
+    public Applicability applicability() {
+        return Applicability.producing();
+    }
+
     /**
      * Target-driven emission (design D1): keyed only on the demanded target. When the target is this kind it offers
      * {@code collect}/{@code wrap}/{@code map}; when the target is this container's intermediate it offers
@@ -147,7 +168,7 @@ public abstract class Container implements ExpansionStrategy, SourceProjection {
         final var to = demand.targetType();
         final var specs = Stream.<OperationSpec>builder();
         if (matches(to, ctx)) {
-            produceMyKind(to, ctx, specs);
+            produceMyKind(to, demand, ctx, specs);
         }
         if (isIntermediate(to, ctx)) {
             iterateInto(to, ctx, specs);
@@ -171,9 +192,13 @@ public abstract class Container implements ExpansionStrategy, SourceProjection {
     }
 
     @VisibleForTesting
-    protected void produceMyKind(final TypeMirror to, final ResolveCtx ctx, final Stream.Builder<OperationSpec> specs) {
+    protected void produceMyKind(
+            final TypeMirror to,
+            final ProduceDemand demand,
+            final ResolveCtx ctx,
+            final Stream.Builder<OperationSpec> specs) {
         final var elementOut = element(to, ctx);
-        collect().ifPresent(close -> intermediateOf(elementOut, ctx)
+        collectInto(to, demand, ctx).ifPresent(close -> intermediateOf(elementOut, ctx)
                 .ifPresent(intermediate -> specs.add(OperationSpec.of(
                         "collect",
                         unary(close),
@@ -25,6 +25,15 @@ public abstract class Conversion implements ExpansionStrategy {
     @OverrideOnly
     protected abstract Stream<Step> conversions(TypeMirror target, ResolveCtx ctx);
 
+    /**
+     * A conversion is consulted for produce demands only; override to narrow it to the targets {@link #conversions}
+     * can produce.
+     */
+    @Override
+    public Applicability applicability() {
+        return Applicability.producing();
+    }
+
     @Override
     public final Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var target = demand.targetType();
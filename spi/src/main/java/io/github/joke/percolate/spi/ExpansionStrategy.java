@@ -28,4 +28,12 @@ public interface ExpansionStrategy {
     default int priority() {
         return 0;
     }
+
+    /**
+     * Which demands this strategy is consulted for; {@link Applicability#universal()} by default, so a strategy that
+     * declares nothing keeps being asked about every demand. Read once, when the engine builds its dispatch index.
+     */
+    default Applicability applicability() {
+        return Applicability.universal();
+    }
 }
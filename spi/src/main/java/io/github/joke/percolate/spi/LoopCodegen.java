@@ -0,0 +1,34 @@
+package io.github.joke.percolate.spi;
+
+import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.lib.javapoet.TypeName;
+
+/**
+ * The code-generation handle of a scope-owning {@link OperationSpec} that renders as <b>statements</b> filling a
+ * target collection rather than as an expression woven around a lambda — the loop sibling of {@link ScopeCodegen}.
+ * The composer declares the produced Value as a local initialised by {@link #init}, then emits {@link #fill}, which
+ * runs the child plan once per source element: {@code statements} are the child scope's own local declarations and
+ * {@code element} its rendered return-root expression. The composer holds no container syntax itself.
+ *
+ * <p>The source is rendered once and referenced by both calls, so {@code source} is always a variable or parameter
+ * reference, never an expression with side effects.
+ */
+public interface LoopCodegen extends Codegen {
+
+    /** The empty target collection, presized from {@code source} (e.g. {@code new ArrayList<>(source.size())}). */
+    CodeBlock init(CodeBlock source);
+
+    /**
+     * The statements adding one {@code element} per element of {@code source} to {@code target}: each element bound
+     * to {@code var} of {@code elementType}, preceded by the child scope's {@code statements}. {@code index} is a
+     * fresh name the loop may declare as its position counter (an array target is filled by index).
+     */
+    CodeBlock fill(
+            CodeBlock source,
+            CodeBlock target,
+            TypeName elementType,
+            String var,
+            String index,
+            CodeBlock statements,
+            CodeBlock element);
+}
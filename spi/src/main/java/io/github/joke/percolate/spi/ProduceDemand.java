@@ -36,4 +36,14 @@ public interface ProduceDemand extends Demand {
      * demand serves no named slot.
      */
     String bindingName();
+
+    /**
+     * The nullness of {@code type} as written in the mapper method this demand is planned for: {@code NON_NULL} for a
+     * type bearing no nullable annotation inside a {@code @NullMarked} scope, {@code UNKNOWN} outside one. A container
+     * reads it for its target's element type argument, which no {@link #targetNullness} covers. It differs from mapper
+     * to mapper, so a {@link PureStrategy} does not read it; {@code UNKNOWN} unless the engine knows the method.
+     */
+    default Nullability declaredNullness(final TypeMirror type) {
+        return Nullability.UNKNOWN;
+    }
 }
@@ -0,0 +1,15 @@
+package io.github.joke.percolate.spi;
+
+/**
+ * Marks an {@link ExpansionStrategy} whose {@link ExpansionStrategy#expand expand} answer is a function of the
+ * {@link ProduceDemand}'s target type, target nullness, {@link Directive} and declared children alone, so the engine
+ * may answer a later demand agreeing on all four — in any mapper of the same processing round — with the offers the
+ * strategy made the first time, instead of asking it again.
+ *
+ * <p>A pure strategy therefore reads none of {@link ProduceDemand#bindingName()},
+ * {@link ProduceDemand#declaredNullness} and {@link ResolveCtx#callableMethods()} (all differ from mapper to mapper),
+ * keeps no state between calls, and builds no codegen that captures any of them. Everything else a {@link ResolveCtx}
+ * answers — types, elements, processor options — is the same for every mapper of a round. An unmarked strategy is
+ * asked about every demand, exactly as before.
+ */
+public interface PureStrategy {}
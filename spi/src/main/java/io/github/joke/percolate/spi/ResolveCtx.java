@@ -65,6 +65,14 @@ public interface ResolveCtx {
         return types().erasure(type);
     }
 
+    /**
+     * A key equal for two types exactly when they denote the same type structure, for keying visited sets and indexes
+     * without rendering each type to text. Keys are only comparable with keys from the same context.
+     */
+    default Object typeKey(final TypeMirror type) {
+        return type.toString();
+    }
+
     /** The raw {@link TypeKind} of {@code type} — an escape hatch for lattice/table-keyed code (e.g. widening). */
     default TypeKind kind(final TypeMirror type) {
         return type.getKind();
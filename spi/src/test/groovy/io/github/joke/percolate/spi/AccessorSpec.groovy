@@ -92,6 +92,15 @@ class AccessorSpec extends Specification {
         spec.outputNullness == Nullability.NULLABLE
     }
 
+    def 'an accessor is consulted for descend demands only'() {
+        when:
+        def applicability = new TestAccessor(integerType).applicability()
+
+        then:
+        applicability.descends
+        !applicability.produces
+    }
+
     private static DescendDemand descend(final TypeMirror parent, final String segment) {
         [
                 parentType    : { parent },
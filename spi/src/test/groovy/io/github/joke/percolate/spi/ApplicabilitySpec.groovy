@@ -0,0 +1,87 @@
+package io.github.joke.percolate.spi
+
+import spock.lang.Specification
+import spock.lang.Tag
+
+import static javax.lang.model.type.TypeKind.ARRAY
+import static javax.lang.model.type.TypeKind.DECLARED
+import static javax.lang.model.type.TypeKind.INT
+
+/**
+ * {@link Applicability}, the up-front dispatch declaration: the three starting points differ only in which demand
+ * shapes they admit, and every narrowing call returns a new declaration, accumulating targets, kinds and required
+ * inputs while leaving the receiver untouched.
+ */
+@Tag('unit')
+class ApplicabilitySpec extends Specification {
+
+    def 'universal admits both shapes and every target, requiring no input'() {
+        when:
+        def applicability = Applicability.universal()
+
+        then:
+        applicability.produces
+        applicability.descends
+        applicability.anyTarget
+        applicability.requiredInputs.empty
+    }
+
+    def 'universal is one shared instance'() {
+        expect:
+        Applicability.universal().is(Applicability.universal())
+    }
+
+    def 'producing admits produce demands only, descending descend demands only'() {
+        expect:
+        Applicability.producing().produces
+        !Applicability.producing().descends
+        !Applicability.descending().produces
+        Applicability.descending().descends
+    }
+
+    def 'targets and kinds accumulate across calls and narrow the target clause'() {
+        when:
+        def applicability = Applicability.producing()
+                .targets('java.util.List')
+                .targets('java.util.stream.Stream', 'java.util.List')
+                .kinds(ARRAY)
+                .kinds(INT, DECLARED)
+
+        then:
+        !applicability.anyTarget
+        applicability.targetErasures == ['java.util.List', 'java.util.stream.Stream'] as Set
+        applicability.targetKinds == [ARRAY, INT, DECLARED] as Set
+    }
+
+    def 'a kind alone narrows the target clause'() {
+        expect:
+        !Applicability.producing().kinds(DECLARED).anyTarget
+    }
+
+    def 'requiring accumulates input keys without narrowing the target clause'() {
+        when:
+        def applicability = Applicability.producing().requiring('format').requiring('zone')
+
+        then:
+        applicability.anyTarget
+        applicability.requiredInputs == ['format', 'zone'] as Set
+    }
+
+    def 'narrowing never mutates the receiver'() {
+        given:
+        def base = Applicability.producing()
+
+        when:
+        base.targets('java.util.List').kinds(INT).requiring('format')
+
+        then:
+        base == Applicability.producing()
+        base.anyTarget
+        base.requiredInputs.empty
+    }
+
+    def 'union merges the declared set with the added values'() {
+        expect:
+        Applicability.union(['a'] as Set, 'b', 'a') == ['a', 'b'] as Set
+    }
+}
@@ -68,6 +68,16 @@ class ContainerSpec extends Specification {
         !new TestSeq().mapPresence().present
     }
 
+    def 'a container is consulted for every produce demand, never a descend one'() {
+        when:
+        def applicability = new TestWrapper().applicability()
+
+        then:
+        applicability.produces
+        !applicability.descends
+        applicability.anyTarget
+    }
+
     // ---- sequence (collect present) ------------------------------------------------------------------------
 
     def 'a sequence iterates into its Stream<E> intermediate, plain, no child scope'() {
@@ -222,7 +232,7 @@ class ContainerSpec extends Specification {
         def specs = Stream.<OperationSpec> builder()
 
         when:
-        new TestSeq().produceMyKind(listOfString, ctx, specs)
+        new TestSeq().produceMyKind(listOfString, demand(listOfString), ctx, specs)
         def result = specs.build().toList()
 
         then:
@@ -242,11 +252,28 @@ class ContainerSpec extends Specification {
         ctx.isSameType(wrap.outputType, listOfString)
     }
 
+    def 'produceMyKind closes with the snippet collectInto answers for the concrete target and its demand'() {
+        def specs = Stream.<OperationSpec> builder()
+        def target = demand(listOfString)
+        IncomingValues inputs = Stub() { single() >> CodeBlock.of('$N', 's') }
+
+        def subject = new TestTypedSeq()
+
+        when:
+        subject.produceMyKind(listOfString, target, ctx, specs)
+        def collect = specs.build().toList().find { it.label == 'collect' }
+
+        then:
+        subject.closedInto.is(listOfString)
+        subject.closedFor.is(target)
+        ((OperationCodegen) collect.codegen).render(inputs).toString() == 's.toTyped()'
+    }
+
     def 'produceMyKind emits wrap and map for a wrapper (no collect supplied)'() {
         def specs = Stream.<OperationSpec> builder()
 
         when:
-        new TestWrapper().produceMyKind(optionalOfString, ctx, specs)
+        new TestWrapper().produceMyKind(optionalOfString, demand(optionalOfString), ctx, specs)
         def result = specs.build().toList()
 
         then:
@@ -268,7 +295,7 @@ class ContainerSpec extends Specification {
         def specs = Stream.<OperationSpec> builder()
 
         when:
-        new TestWrapper(hasKindErasure: false).produceMyKind(optionalOfString, ctx, specs)
+        new TestWrapper(hasKindErasure: false).produceMyKind(optionalOfString, demand(optionalOfString), ctx, specs)
         def result = specs.build().toList()
 
         then:
@@ -281,7 +308,7 @@ class ContainerSpec extends Specification {
         def listOfInt = FakeType.declared(listElement, FakeType.marker(TypeKind.INT))
 
         when:
-        new TestSeq().produceMyKind(listOfInt, ctx, specs)
+        new TestSeq().produceMyKind(listOfInt, demand(listOfInt), ctx, specs)
         def result = specs.build().toList()
 
         then:
@@ -293,7 +320,7 @@ class ContainerSpec extends Specification {
         def specs = Stream.<OperationSpec> builder()
 
         when:
-        new TestBare().produceMyKind(listOfString, ctx, specs)
+        new TestBare().produceMyKind(listOfString, demand(listOfString), ctx, specs)
 
         then:
         specs.build().toList().empty
@@ -565,6 +592,20 @@ class ContainerSpec extends Specification {
         }
     }
 
+    /** A List-shaped sequence whose collect names the concrete target, as an array's typed generator does. */
+    static class TestTypedSeq extends TestSeq {
+
+        TypeMirror closedInto
+        ProduceDemand closedFor
+
+        @Override
+        protected Optional<UnarySnippet> collectInto(final TypeMirror to, final ProduceDemand d, final ResolveCtx c) {
+            closedInto = to
+            closedFor = d
+            Optional.of({ stream -> CodeBlock.of('$L.toTyped()', stream) } as UnarySnippet)
+        }
+    }
+
     /** An Optional-shaped presence wrapper: matches Optional, element is its first type argument, no collect. */
     static class TestWrapper extends Container {
 
@@ -74,6 +74,16 @@ class ConversionSpec extends Specification {
     }
 
     /** Offers a single String→target conversion, but only when the target is the authored Integer token. */
+    def 'a conversion is consulted for every produce demand until the author narrows it'() {
+        when:
+        def applicability = new TestConversion(stringType, integerType).applicability()
+
+        then:
+        applicability.produces
+        !applicability.descends
+        applicability.anyTarget
+    }
+
     static class TestConversion extends Conversion {
         private final TypeMirror stringType
         private final TypeMirror integerType
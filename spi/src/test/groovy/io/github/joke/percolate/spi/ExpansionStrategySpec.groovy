@@ -5,7 +5,8 @@ import spock.lang.Tag
 
 /**
  * {@link ExpansionStrategy}'s default methods: {@code expand}/{@code descend} default to {@link Stream#empty()} so a
- * producer needs not implement {@code descend} and vice versa, and {@code priority} defaults to {@code 0}.
+ * producer needs not implement {@code descend} and vice versa, {@code priority} defaults to {@code 0}, and
+ * {@code applicability} defaults to {@link Applicability#universal()} so an undeclared strategy is asked every demand.
  */
 @Tag('unit')
 class ExpansionStrategySpec extends Specification {
@@ -44,4 +45,9 @@ class ExpansionStrategySpec extends Specification {
         expect:
         strategy.priority() == 0
     }
+
+    def 'applicability defaults to universal, consulted for every demand of either shape'() {
+        expect:
+        strategy.applicability().is(Applicability.universal())
+    }
 }
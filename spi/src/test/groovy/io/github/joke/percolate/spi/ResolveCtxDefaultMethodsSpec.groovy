@@ -96,6 +96,23 @@ class ResolveCtxDefaultMethodsSpec extends Specification {
         result.is(erased)
     }
 
+    def 'typeKey falls back to the type\'s text form, without consulting Types/Elements'() {
+        TypeMirror same = Stub()
+        same.toString() >> 'java.util.List<java.lang.String>'
+        TypeMirror other = Stub()
+        other.toString() >> 'java.util.List<java.lang.String>'
+
+        when:
+        def first = ctx.typeKey(same)
+        def second = ctx.typeKey(other)
+
+        then:
+        0 * _
+
+        expect:
+        first == second
+    }
+
     def 'kind reads the raw TypeKind, without consulting Types/Elements'() {
         a.kind >> TypeKind.INT
 
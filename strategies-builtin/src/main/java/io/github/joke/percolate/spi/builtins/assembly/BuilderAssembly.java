@@ -1,6 +1,7 @@
 package io.github.joke.percolate.spi.builtins.assembly;
 
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.IncomingValues;
 import io.github.joke.percolate.spi.Offer;
@@ -8,6 +9,7 @@ import io.github.joke.percolate.spi.OperationCodegen;
 import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.Port;
 import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.builtins.Labels;
 import java.util.List;
@@ -20,6 +22,7 @@ import javax.lang.model.type.TypeMirror;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Port.subTarget;
 import static io.github.joke.percolate.spi.Weights.EXPENSIVE;
@@ -29,6 +32,7 @@ import static java.lang.Character.toUpperCase;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static java.util.stream.IntStream.range;
+import static javax.lang.model.type.TypeKind.DECLARED;
 
 /**
  * The shape every builder convention shares, extracted from the four shipped ones once their duplication was real
@@ -52,10 +56,16 @@ import static java.util.stream.IntStream.range;
  * ({@link #entryCall}), how that reads in a debug label ({@link #labelHead}), and how a declared child's name maps to
  * a builder method ({@link #setterName}).
  */
-public abstract class BuilderAssembly implements ExpansionStrategy {
+public abstract class BuilderAssembly implements ExpansionStrategy, PureStrategy {
 
     private static final String BUILD = "build";
 
+    // Only a declared class has a builder; every convention shares the one declaration.
+    @Override
+    public final Applicability applicability() {
+        return producing().kinds(DECLARED);
+    }
+
     @Override
     public final Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var targetType = demand.targetType();
@@ -3,6 +3,7 @@ package io.github.joke.percolate.spi.builtins.assembly;
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.ClassName;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.IncomingValues;
 import io.github.joke.percolate.spi.Offer;
@@ -10,6 +11,7 @@ import io.github.joke.percolate.spi.OperationCodegen;
 import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.Port;
 import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.builtins.Labels;
 import java.util.List;
@@ -22,6 +24,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Weights.EXPENSIVE;
 import static io.github.joke.percolate.spi.Weights.STEP;
@@ -29,6 +32,7 @@ import static io.github.joke.percolate.spi.builtins.assembly.ConstructionPrefere
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static java.util.stream.Collectors.toUnmodifiableSet;
+import static javax.lang.model.type.TypeKind.DECLARED;
 
 // Assembles the demanded type by calling one of its constructors: a multi-port OperationSpec whose ports are
 // the constructor parameters, named after them. It is gated by the demand's declared-children goal spec — a
@@ -39,7 +43,13 @@ import static java.util.stream.Collectors.toUnmodifiableSet;
 // separate result type or a driver routing branch.
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class ConstructorCall implements ExpansionStrategy {
+public final class ConstructorCall implements ExpansionStrategy, PureStrategy {
+
+    // Only a declared class has constructors to call.
+    @Override
+    public Applicability applicability() {
+        return producing().kinds(DECLARED);
+    }
 
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
@@ -2,16 +2,19 @@ package io.github.joke.percolate.spi.builtins.assembly;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Offer;
 import io.github.joke.percolate.spi.OperationCodegen;
 import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.List;
 import java.util.stream.Stream;
 import lombok.NoArgsConstructor;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Port.byTypeOrDecline;
 import static io.github.joke.percolate.spi.Weights.NOOP;
 
@@ -23,7 +26,13 @@ import static io.github.joke.percolate.spi.Weights.NOOP;
 // candidate.
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class DirectAssign implements ExpansionStrategy {
+public final class DirectAssign implements ExpansionStrategy, PureStrategy {
+
+    // A copy can land on any target, but it never descends a source path.
+    @Override
+    public Applicability applicability() {
+        return producing();
+    }
 
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
@@ -2,7 +2,10 @@ package io.github.joke.percolate.spi.builtins.container;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.SourceProjection;
 import java.util.Arrays;
@@ -12,13 +15,24 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
-// The array sequence container. Opens via Arrays.stream; closes via toArray(). Arrays have no synchronous
-// single-element wrap, so .wrap() stays empty (inherited default) — kind stays a sequence because .collect() is
-// supplied. An array has no declared erasure (.kindErasure is empty); its kind is formed by .containerOf as a
-// reflective array type.
+import static io.github.joke.percolate.spi.Applicability.producing;
+import static javax.lang.model.type.TypeKind.ARRAY;
+
+// The array sequence container. Opens via Arrays.stream; closes via toArray with the target's own generator
+// (.collectInto), since the untyped toArray() answers an Object[] no other array target accepts. Arrays have no
+// synchronous single-element wrap, so .wrap() stays empty (inherited default) — kind stays a sequence because
+// .collect() is supplied. An array has no declared erasure (.kindErasure is empty); its kind is formed by
+// .containerOf as a reflective array type. A primitive-element array has no Stream<E> intermediate; it maps through
+// PrimitiveArrayLoop instead.
 @AutoService({ExpansionStrategy.class, SourceProjection.class})
 @NoArgsConstructor
-public final class ArrayContainer extends StreamContainer {
+public final class ArrayContainer extends StreamContainer implements PureStrategy {
+
+    // Answers an array target (collect) and the Stream intermediate (iterate); an array has no erasure to key on.
+    @Override
+    public Applicability applicability() {
+        return producing().kinds(ARRAY).targets("java.util.stream.Stream");
+    }
 
     @Override
     @VisibleForTesting
@@ -53,4 +67,14 @@ public final class ArrayContainer extends StreamContainer {
     public Optional<UnarySnippet> collect() {
         return Optional.of(stream -> CodeBlock.of("$L$Z.toArray()", stream));
     }
+
+    // toArray(E[]::new) over the erased target, so a generic component (List<String>[]) still names a creatable
+    // array type.
+    @Override
+    @VisibleForTesting
+    protected Optional<UnarySnippet> collectInto(
+            final TypeMirror to, final ProduceDemand demand, final ResolveCtx ctx) {
+        final var generator = ctx.erasure(to);
+        return Optional.of(stream -> CodeBlock.of("$L$Z.toArray($T::new)", stream, generator));
+    }
 }
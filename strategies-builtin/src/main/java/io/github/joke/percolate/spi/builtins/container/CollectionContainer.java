@@ -1,12 +1,15 @@
 package io.github.joke.percolate.spi.builtins.container;
 
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.Optional;
 import javax.lang.model.element.TypeElement;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
+
 // Shared stream snippets for the JDK collection sequence containers. List and Set differ only by their terminal
 // Collectors collector and their single-element of(...) factory; everything else (open the stream, close it,
 // wrap a scalar, the kind erasure for containerOf) is identical. Supplying collect makes the kind a sequence.
@@ -20,6 +23,12 @@ abstract class CollectionContainer extends StreamContainer {
     @OverrideOnly
     protected abstract Class<?> factoryType();
 
+    // Answers its own kind (collect/wrap) and the Stream intermediate (iterate); no unwrap, so nothing else.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(factoryType().getCanonicalName(), "java.util.stream.Stream");
+    }
+
     @Override
     @VisibleForTesting
     protected Optional<TypeElement> kindErasure(final ResolveCtx ctx) {
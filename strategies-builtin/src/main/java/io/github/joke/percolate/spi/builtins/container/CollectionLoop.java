@@ -0,0 +1,149 @@
+package io.github.joke.percolate.spi.builtins.container;
+
+import com.google.auto.service.AutoService;
+import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.lib.javapoet.TypeName;
+import io.github.joke.percolate.spi.Applicability;
+import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.LoopCodegen;
+import io.github.joke.percolate.spi.Offer;
+import io.github.joke.percolate.spi.Port;
+import io.github.joke.percolate.spi.PortType;
+import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.ResolveCtx;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import javax.lang.model.type.TypeMirror;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static io.github.joke.percolate.spi.Applicability.producing;
+import static io.github.joke.percolate.spi.ChildScopeSpec.lifted;
+import static io.github.joke.percolate.spi.Nullability.NON_NULL;
+import static io.github.joke.percolate.spi.OperationSpec.mapping;
+import static io.github.joke.percolate.spi.PortType.variable;
+import static io.github.joke.percolate.spi.Weights.CONTAINER;
+
+// The loop collection style (-Apercolate.collections.style=loop): a List<B>, Set<B> or EnumSet<B> demand is offered
+// one scope-owning operation per JDK collection source kind — List<A> and Set<A>, each a type-variable port grounded
+// by the engine like StreamMap's — whose child scope is the per-element plan A → B. It renders as a presized
+// ArrayList/HashSet (an EnumSet for enum elements proven non-null) filled by an enhanced for, the child's locals
+// inlined as the loop body's statements, instead of the iterate → map → collect stream pipeline and its lambda. One
+// operation at CONTAINER weight undercuts the pipeline's three, so where a loop grounds it is chosen; an array or
+// Stream source still maps through the stream pipeline, and a List copied into a Set with no element converted through
+// SetCopy's cheaper constructor. The enhanced for walks any collection in linear time, where an indexed get(i) would
+// be quadratic on a LinkedList.
+//
+// Unset or any other value keeps the stream style: the strategy offers nothing. Not a PureStrategy: whether a Set
+// fill may be an EnumSet reads the demand's declaredNullness, which differs from mapper to mapper.
+@AutoService(ExpansionStrategy.class)
+@NoArgsConstructor
+public final class CollectionLoop implements ExpansionStrategy {
+
+    private static final String SOURCE_ROLE = "source";
+    private static final List<String> SOURCE_KINDS = List.of("java.util.List", "java.util.Set");
+
+    // The processor-option key this strategy reads through the generic ResolveCtx.option(…) seam. Declared here,
+    // in the feature that owns the option's meaning, rather than in a core class.
+    private static final String COLLECTIONS_STYLE_OPTION = "percolate.collections.style";
+    private static final String LOOP_STYLE = "loop";
+
+    private static final String ENUM_SET = "java.util.EnumSet";
+
+    private static final LoopCodegen LIST =
+            new Fill(source -> CodeBlock.of("new $T<>($L.size())", ArrayList.class, source));
+    private static final LoopCodegen SET =
+            new Fill(source -> CodeBlock.of("new $T<>((int) ($L.size() / 0.75f) + 1)", HashSet.class, source));
+
+    // A loop only ever lands on a List, Set or EnumSet target.
+    @Override
+    public Applicability applicability() {
+        return producing().targets("java.util.List", "java.util.Set", ENUM_SET);
+    }
+
+    @Override
+    public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
+        final var to = demand.targetType();
+        final var codegen = codegenFor(to, demand, ctx);
+        if (!isLoopStyle(ctx) || codegen.isEmpty()) {
+            return Stream.empty();
+        }
+        final var child = lifted(variable(0), NON_NULL, ctx.typeArgument(to, 0), NON_NULL);
+        return SOURCE_KINDS.stream()
+                .map(ctx::typeElementNamed)
+                .filter(Objects::nonNull)
+                .map(erasure -> new Port(
+                        SOURCE_ROLE, erasure.asType(), NON_NULL, PortType.app(erasure, List.of(variable(0)))))
+                .map(port -> mapping("loop", codegen.get(), CONTAINER, List.of(port), to, NON_NULL, child))
+                .map(Offer::of);
+    }
+
+    // The fill for a List, Set or EnumSet target; empty for any other. An EnumSet, and a Set of enum elements proven
+    // non-null, starts as an empty EnumSet, a bit vector that needs no presizing; any other Set as a HashSet.
+    @VisibleForTesting
+    Optional<LoopCodegen> codegenFor(final TypeMirror to, final ProduceDemand demand, final ResolveCtx ctx) {
+        if (ctx.isList(to)) {
+            return Optional.of(LIST);
+        }
+        if (ctx.isType(to, ENUM_SET)) {
+            return Optional.of(enumSet(ctx.typeArgument(to, 0)));
+        }
+        if (!ctx.isSet(to)) {
+            return Optional.empty();
+        }
+        final var element = ctx.typeArgument(to, 0);
+        return Optional.of(EnumSetContainer.holdsNonNullEnums(element, demand, ctx) ? enumSet(element) : SET);
+    }
+
+    @VisibleForTesting
+    LoopCodegen enumSet(final TypeMirror element) {
+        return new Fill(source -> CodeBlock.of("$T.noneOf($T.class)", EnumSet.class, element));
+    }
+
+    // Whether -Apercolate.collections.style selects the loop style; unset or unrecognised keeps the stream style.
+    @VisibleForTesting
+    boolean isLoopStyle(final ResolveCtx ctx) {
+        return ctx.option(COLLECTIONS_STYLE_OPTION)
+                .map(style -> LOOP_STYLE.equals(style.trim().toLowerCase(Locale.ROOT)))
+                .orElse(false);
+    }
+
+    // A target collection created by init (given the source, to presize from), then filled by an enhanced for adding
+    // each element.
+    @VisibleForTesting
+    @RequiredArgsConstructor
+    static final class Fill implements LoopCodegen {
+
+        private final UnaryOperator<CodeBlock> init;
+
+        @Override
+        public CodeBlock init(final CodeBlock source) {
+            return init.apply(source);
+        }
+
+        @Override
+        public CodeBlock fill(
+                final CodeBlock source,
+                final CodeBlock target,
+                final TypeName elementType,
+                final String var,
+                final String index,
+                final CodeBlock statements,
+                final CodeBlock element) {
+            return CodeBlock.builder()
+                    .beginControlFlow("for ($T $N : $L)", elementType, var, source)
+                    .add(statements)
+                    .addStatement("$L.add($L)", target, element)
+                    .endControlFlow()
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.joke.percolate.spi.builtins.container;
+
+import com.google.auto.service.AutoService;
+import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
+import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
+import io.github.joke.percolate.spi.ResolveCtx;
+import io.github.joke.percolate.spi.SourceProjection;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static io.github.joke.percolate.spi.Applicability.producing;
+import static io.github.joke.percolate.spi.Nullability.NON_NULL;
+
+// The java.util.EnumSet sequence container, a bit vector over an enum's constants. Opens via .stream() like any
+// collection and wraps via EnumSet.of(x). Closes by collecting into EnumSet.noneOf(E.class): an empty EnumSet can
+// only be created by naming its element class, so it closes through .collectInto alone and .collect() stays empty.
+// Its kind exists only over an enum element (.containerOf). SetContainer closes a Set of enum elements the same way
+// where they are proven non-null (.holdsNonNullEnums).
+@AutoService({ExpansionStrategy.class, SourceProjection.class})
+@NoArgsConstructor
+public final class EnumSetContainer extends StreamContainer implements PureStrategy {
+
+    private static final String ENUM_SET = "java.util.EnumSet";
+
+    // Answers its own kind (collect/wrap) and the Stream intermediate (iterate); no unwrap, so nothing else.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(ENUM_SET, "java.util.stream.Stream");
+    }
+
+    @Override
+    @VisibleForTesting
+    protected boolean matches(final TypeMirror type, final ResolveCtx ctx) {
+        return ctx.isType(type, ENUM_SET);
+    }
+
+    @Override
+    @VisibleForTesting
+    protected TypeMirror element(final TypeMirror type, final ResolveCtx ctx) {
+        return ctx.typeArgument(type, 0);
+    }
+
+    @Override
+    @VisibleForTesting
+    protected Optional<TypeElement> kindErasure(final ResolveCtx ctx) {
+        return Optional.ofNullable(ctx.typeElementNamed(ENUM_SET));
+    }
+
+    @Override
+    @VisibleForTesting
+    protected Optional<TypeMirror> containerOf(final TypeMirror element, final ResolveCtx ctx) {
+        return ctx.isEnum(element) ? super.containerOf(element, ctx) : Optional.empty();
+    }
+
+    @Override
+    public Optional<UnarySnippet> iterate() {
+        return Optional.of(container -> CodeBlock.of("$L$Z.stream()", container));
+    }
+
+    @Override
+    @VisibleForTesting
+    protected Optional<UnarySnippet> collectInto(
+            final TypeMirror to, final ProduceDemand demand, final ResolveCtx ctx) {
+        return Optional.of(noneOf(element(to, ctx)));
+    }
+
+    @Override
+    public Optional<UnarySnippet> wrap() {
+        return Optional.of(scalar -> CodeBlock.of("$T.of($L)", EnumSet.class, scalar));
+    }
+
+    // Whether a set demanded by demand may hold its `element`s in an EnumSet, whose add(null) throws where a HashSet
+    // takes the null: only an enum proven non-null, as its type argument is written in the mapper method (no nullable
+    // annotation, inside @NullMarked) of a set that is non-null itself — so declared in a null-marked scope too.
+    @VisibleForTesting
+    static boolean holdsNonNullEnums(final TypeMirror element, final ProduceDemand demand, final ResolveCtx ctx) {
+        return ctx.isEnum(element)
+                && demand.targetNullness() == NON_NULL
+                && demand.declaredNullness(element) == NON_NULL;
+    }
+
+    // Collects a stream of the enum `element` into a fresh EnumSet.
+    @VisibleForTesting
+    static UnarySnippet noneOf(final TypeMirror element) {
+        return stream -> CodeBlock.of(
+                "$L$Z.collect($T.toCollection(() -> $T.noneOf($T.class)))",
+                stream,
+                Collectors.class,
+                EnumSet.class,
+                element);
+    }
+}
@@ -3,6 +3,7 @@ package io.github.joke.percolate.spi.builtins.container;
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
 import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.SourceProjection;
 import java.util.List;
@@ -14,7 +15,7 @@ import org.jetbrains.annotations.VisibleForTesting;
 // The java.util.List sequence container: candidacy + stream codegen in one class.
 @AutoService({ExpansionStrategy.class, SourceProjection.class})
 @NoArgsConstructor
-public final class ListContainer extends CollectionContainer {
+public final class ListContainer extends CollectionContainer implements PureStrategy {
 
     @Override
     @VisibleForTesting
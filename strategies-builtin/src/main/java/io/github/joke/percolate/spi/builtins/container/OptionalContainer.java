@@ -4,6 +4,7 @@ import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.ScopeCodegen;
 import io.github.joke.percolate.spi.SourceProjection;
@@ -21,7 +22,7 @@ import static io.github.joke.percolate.spi.Nullability.NULLABLE;
 // ofNullable; .unwrap() collapses under the target's nullability.
 @AutoService({ExpansionStrategy.class, SourceProjection.class})
 @NoArgsConstructor
-public final class OptionalContainer extends StreamContainer {
+public final class OptionalContainer extends StreamContainer implements PureStrategy {
 
     @Override
     @VisibleForTesting
@@ -0,0 +1,109 @@
+package io.github.joke.percolate.spi.builtins.container;
+
+import com.google.auto.service.AutoService;
+import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.lib.javapoet.TypeName;
+import io.github.joke.percolate.spi.Applicability;
+import io.github.joke.percolate.spi.ChildScopeSpec;
+import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.LoopCodegen;
+import io.github.joke.percolate.spi.Offer;
+import io.github.joke.percolate.spi.Port;
+import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
+import io.github.joke.percolate.spi.ResolveCtx;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import static io.github.joke.percolate.spi.Applicability.producing;
+import static io.github.joke.percolate.spi.Nullability.NON_NULL;
+import static io.github.joke.percolate.spi.OperationSpec.mapping;
+import static io.github.joke.percolate.spi.Weights.CONTAINER;
+import static javax.lang.model.type.TypeKind.ARRAY;
+import static javax.lang.model.type.TypeKind.BOOLEAN;
+import static javax.lang.model.type.TypeKind.BYTE;
+import static javax.lang.model.type.TypeKind.CHAR;
+import static javax.lang.model.type.TypeKind.DOUBLE;
+import static javax.lang.model.type.TypeKind.FLOAT;
+import static javax.lang.model.type.TypeKind.INT;
+import static javax.lang.model.type.TypeKind.LONG;
+import static javax.lang.model.type.TypeKind.SHORT;
+
+// Maps a primitive-element array, which has no Stream<E> intermediate, element by element without boxing. An array
+// target T[] is offered one scope-owning operation per primitive array source kind P[] (boolean[] … double[]): a
+// reuse-only port — bound to an in-scope P[] or not applied, never minted — and a concrete child scope P → T. It
+// renders as new T[source.length] filled by an indexed for, the child's locals inlined as the loop body, so
+// int[] → long[] widens each element in place and int[] → Integer[] or → PersonView[] converts each element read
+// as the primitive it is. A nested-array target (T itself an array) is declined: its creation expression puts the
+// length before the component's own brackets.
+@AutoService(ExpansionStrategy.class)
+@NoArgsConstructor
+public final class PrimitiveArrayLoop implements ExpansionStrategy, PureStrategy {
+
+    private static final String SOURCE_ROLE = "source";
+    private static final List<TypeKind> PRIMITIVES = List.of(BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE);
+
+    // Only ever lands on an array target.
+    @Override
+    public Applicability applicability() {
+        return producing().kinds(ARRAY);
+    }
+
+    @Override
+    public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
+        final var to = demand.targetType();
+        if (!ctx.isArray(to) || ctx.isArray(ctx.arrayComponent(to))) {
+            return Stream.empty();
+        }
+        final var component = ctx.arrayComponent(to);
+        final var codegen = new IndexedFill(ctx.erasure(component));
+        return PRIMITIVES.stream()
+                .map(ctx::primitiveType)
+                .map(element -> mapping(
+                        "loop",
+                        codegen,
+                        CONTAINER,
+                        List.of(Port.byTypeOrDecline(SOURCE_ROLE, ctx.arrayType(element), NON_NULL)),
+                        to,
+                        NON_NULL,
+                        new ChildScopeSpec(element, NON_NULL, component, NON_NULL)))
+                .map(Offer::of);
+    }
+
+    // A target array of the source's length over the erased component (so a generic component still names a
+    // creatable array type), filled position by position.
+    @VisibleForTesting
+    @RequiredArgsConstructor
+    static final class IndexedFill implements LoopCodegen {
+
+        private final TypeMirror component;
+
+        @Override
+        public CodeBlock init(final CodeBlock source) {
+            return CodeBlock.of("new $T[$L.length]", component, source);
+        }
+
+        @Override
+        public CodeBlock fill(
+                final CodeBlock source,
+                final CodeBlock target,
+                final TypeName elementType,
+                final String var,
+                final String index,
+                final CodeBlock statements,
+                final CodeBlock element) {
+            return CodeBlock.builder()
+                    .beginControlFlow("for (int $N = 0; $N < $L.length; $N++)", index, index, source, index)
+                    .addStatement("$T $N = $L[$N]", elementType, var, source, index)
+                    .add(statements)
+                    .addStatement("$L[$N] = $L", target, index, element)
+                    .endControlFlow()
+                    .build();
+        }
+    }
+}
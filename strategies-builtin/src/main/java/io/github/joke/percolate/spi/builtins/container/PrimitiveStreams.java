@@ -0,0 +1,175 @@
+package io.github.joke.percolate.spi.builtins.container;
+
+import com.google.auto.service.AutoService;
+import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
+import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.Offer;
+import io.github.joke.percolate.spi.OperationCodegen;
+import io.github.joke.percolate.spi.OperationSpec;
+import io.github.joke.percolate.spi.Port;
+import io.github.joke.percolate.spi.PortType;
+import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
+import io.github.joke.percolate.spi.ResolveCtx;
+import io.github.joke.percolate.spi.ScopeCodegen;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.jspecify.annotations.Nullable;
+
+import static io.github.joke.percolate.spi.Applicability.producing;
+import static io.github.joke.percolate.spi.ChildScopeSpec.lifted;
+import static io.github.joke.percolate.spi.Nullability.NON_NULL;
+import static io.github.joke.percolate.spi.OperationSpec.mapping;
+import static io.github.joke.percolate.spi.PortType.variable;
+import static io.github.joke.percolate.spi.Weights.CONTAINER;
+import static io.github.joke.percolate.spi.Weights.STEP;
+import static javax.lang.model.type.TypeKind.ARRAY;
+
+// The primitive-specialised stream lanes — IntStream, LongStream and DoubleStream — as element-sequence
+// intermediates beside Stream<E>, so an element conversion that is an unboxing or a primitive widening runs without
+// boxing each element. Target-driven like a Container, per lane:
+//
+//   mapToInt/-Long/-Double  Stream<A> → IntStream…, child A → int…: into the lane, over a type-variable
+//                           Stream<A> port grounded like StreamMap's
+//   asLongStream/-Double    IntStream → LongStream, Int/LongStream → DoubleStream: widening inside the lanes
+//   iterate                 int[]/long[]/double[] → IntStream…: Arrays.stream, over a reuse-only port, since a
+//                           primitive array is never collected only to be streamed again
+//   toArray                 IntStream… → int[]/long[]/double[]: out of the lane into a primitive array
+//   boxed                   IntStream… → Stream<Integer>/<Long>/<Double>: out of the lane into a reference sequence
+//
+// so List<Integer> → int[] renders list.stream().mapToInt(e -> e.intValue()).toArray() and long[] → List<Long>
+// Arrays.stream(longs).boxed().collect(…). The in-lane shapes mapTo… and boxed weigh a STEP rather than a
+// CONTAINER: each stands in for a per-element box or unbox, so an unboxed pipeline undercuts the boxed Stream.map it
+// competes with (List<Integer> → List<Long> maps each element into a LongStream instead of boxing each widened
+// element), while a same-element copy such as List<Integer> → Set<Integer> still costs less through plain Stream.
+// An as…Stream widening weighs two STEPs — the stage, and the per-element widening a mapTo… child would pay a STEP
+// for — so entering the wider lane directly (mapToLong) strictly undercuts entering a narrower one and widening
+// after (mapToInt(…).asLongStream()): the choice never falls to a tie-break. Widening stays the way out of a lane
+// the source already is in, such as an int[] streamed into a List<Long>.
+// The JDK has only these three lanes; a byte, short, char or float element widens into one of them first.
+@AutoService(ExpansionStrategy.class)
+@NoArgsConstructor
+public final class PrimitiveStreams implements ExpansionStrategy, PureStrategy {
+
+    private static final String SOURCE_ROLE = "source";
+    private static final String STREAM_ROLE = "stream";
+    private static final String STREAM = "java.util.stream.Stream";
+    private static final int WIDENING = STEP + STEP;
+
+    private static final OperationCodegen OPEN =
+            inputs -> CodeBlock.of("$T.stream($L)", Arrays.class, inputs.single());
+    private static final OperationCodegen TO_ARRAY = inputs -> CodeBlock.of("$L$Z.toArray()", inputs.single());
+    private static final OperationCodegen BOXED = inputs -> CodeBlock.of("$L$Z.boxed()", inputs.single());
+
+    // Consulted for a lane's own stream, a primitive array, or a Stream a lane boxes into.
+    @Override
+    public Applicability applicability() {
+        return producing().kinds(ARRAY).targets(Lane.INT.stream, Lane.LONG.stream, Lane.DOUBLE.stream, STREAM);
+    }
+
+    @Override
+    public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
+        final var to = demand.targetType();
+        return Arrays.stream(Lane.values()).flatMap(lane -> offers(lane, to, ctx)).map(Offer::of);
+    }
+
+    // The operations one lane offers for `to`: into the lane when `to` is its stream, out of it when `to` is its
+    // primitive array or its boxed Stream, nothing otherwise.
+    @VisibleForTesting
+    Stream<OperationSpec> offers(final Lane lane, final TypeMirror to, final ResolveCtx ctx) {
+        if (ctx.isType(to, lane.stream)) {
+            return into(lane, to, ctx);
+        }
+        final var stream = laneStream(lane, ctx);
+        if (stream == null) {
+            return Stream.empty();
+        }
+        final var ports = List.of(new Port(STREAM_ROLE, stream, NON_NULL));
+        if (ctx.isArray(to) && ctx.kind(ctx.arrayComponent(to)) == lane.kind) {
+            return Stream.of(OperationSpec.of("toArray", TO_ARRAY, CONTAINER, ports, to, NON_NULL));
+        }
+        if (ctx.isStream(to) && ctx.isType(ctx.typeArgument(to, 0), lane.wrapper)) {
+            return Stream.of(OperationSpec.of("boxed", BOXED, STEP, ports, to, NON_NULL));
+        }
+        return Stream.empty();
+    }
+
+    // Every way into the lane stream `to`: from any Stream<A> by a per-element conversion to the lane's primitive,
+    // from a narrower lane by widening, and from an in-scope primitive array of the lane.
+    @VisibleForTesting
+    Stream<OperationSpec> into(final Lane lane, final TypeMirror to, final ResolveCtx ctx) {
+        final var element = ctx.primitiveType(lane.kind);
+        final var iterate = OperationSpec.of(
+                "iterate",
+                OPEN,
+                CONTAINER,
+                List.of(Port.byTypeOrDecline(SOURCE_ROLE, ctx.arrayType(element), NON_NULL)),
+                to,
+                NON_NULL);
+        return Stream.concat(
+                Stream.concat(mapTo(lane, element, to, ctx), widenings(lane, to, ctx)), Stream.of(iterate));
+    }
+
+    // Stream<A> → lane stream, the child converting each element to the lane's primitive (an unboxing, a widening,
+    // or any other conversion the engine finds).
+    @VisibleForTesting
+    Stream<OperationSpec> mapTo(final Lane lane, final TypeMirror element, final TypeMirror to, final ResolveCtx ctx) {
+        final var streamErasure = ctx.typeElementNamed(STREAM);
+        if (streamErasure == null) {
+            return Stream.empty();
+        }
+        final var method = "mapTo" + lane.suffix;
+        final ScopeCodegen codegen =
+                (operand, var, body) -> CodeBlock.of("$L$Z.$N($N -> $L)", operand, method, var, body);
+        final var template = PortType.app(streamErasure, List.of(variable(0)));
+        final var port = new Port(SOURCE_ROLE, streamErasure.asType(), NON_NULL, template);
+        final var child = lifted(variable(0), NON_NULL, element, NON_NULL);
+        return Stream.of(mapping(method, codegen, STEP, List.of(port), to, NON_NULL, child));
+    }
+
+    // Narrower lane stream → lane stream, widening each element without leaving the primitive lanes. Weighs
+    // WIDENING, the stage plus the widening itself.
+    @VisibleForTesting
+    Stream<OperationSpec> widenings(final Lane lane, final TypeMirror to, final ResolveCtx ctx) {
+        final var method = "as" + lane.suffix + "Stream";
+        final OperationCodegen codegen = inputs -> CodeBlock.of("$L$Z.$N()", inputs.single(), method);
+        return Arrays.stream(Lane.values())
+                .filter(narrower -> narrower.compareTo(lane) < 0)
+                .map(narrower -> laneStream(narrower, ctx))
+                .filter(Objects::nonNull)
+                .map(narrower -> OperationSpec.of(
+                        method, codegen, WIDENING, List.of(new Port(STREAM_ROLE, narrower, NON_NULL)), to, NON_NULL));
+    }
+
+    // The lane's stream type, or null when the JDK does not resolve it.
+    @VisibleForTesting
+    @Nullable
+    TypeMirror laneStream(final Lane lane, final ResolveCtx ctx) {
+        final var element = ctx.typeElementNamed(lane.stream);
+        return element == null ? null : element.asType();
+    }
+
+    // The JDK's primitive stream lanes, declared narrowest first: each widens from every lane before it.
+    @VisibleForTesting
+    @RequiredArgsConstructor
+    enum Lane {
+        INT(TypeKind.INT, "java.util.stream.IntStream", "java.lang.Integer", "Int"),
+        LONG(TypeKind.LONG, "java.util.stream.LongStream", "java.lang.Long", "Long"),
+        DOUBLE(TypeKind.DOUBLE, "java.util.stream.DoubleStream", "java.lang.Double", "Double");
+
+        final TypeKind kind;
+        final String stream;
+        final String wrapper;
+
+        // The name the lane's mapTo…/as…Stream methods carry.
+        final String suffix;
+    }
+}
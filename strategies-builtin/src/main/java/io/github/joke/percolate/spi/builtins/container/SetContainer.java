@@ -3,15 +3,22 @@ package io.github.joke.percolate.spi.builtins.container;
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
 import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.ProduceDemand;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.SourceProjection;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
-// The java.util.Set sequence container: candidacy + stream codegen in one class.
+// The java.util.Set sequence container: candidacy + stream codegen in one class. A Set of enum elements proven
+// non-null is closed into an EnumSet (.collectInto), a bit vector, rather than the default-sized HashSet
+// Collectors.toSet() builds; any other, a null among them included, keeps toSet(). Neither collector can presize
+// from the source — SetCopy does, where no element needs converting. Not a PureStrategy: that proof reads the
+// demand's declaredNullness, which the round's offer memo does not key on, so a memoized answer would hand one
+// mapper's EnumSet to another whose elements may be null.
 @AutoService({ExpansionStrategy.class, SourceProjection.class})
 @NoArgsConstructor
 public final class SetContainer extends CollectionContainer {
@@ -39,4 +46,14 @@ public final class SetContainer extends CollectionContainer {
     protected Class<?> factoryType() {
         return Set.class;
     }
+
+    @Override
+    @VisibleForTesting
+    protected Optional<UnarySnippet> collectInto(
+            final TypeMirror to, final ProduceDemand demand, final ResolveCtx ctx) {
+        final var element = element(to, ctx);
+        return EnumSetContainer.holdsNonNullEnums(element, demand, ctx)
+                ? Optional.of(EnumSetContainer.noneOf(element))
+                : collect();
+    }
 }
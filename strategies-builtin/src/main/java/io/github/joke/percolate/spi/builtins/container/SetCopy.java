@@ -0,0 +1,58 @@
+package io.github.joke.percolate.spi.builtins.container;
+
+import com.google.auto.service.AutoService;
+import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
+import io.github.joke.percolate.spi.ExpansionStrategy;
+import io.github.joke.percolate.spi.Offer;
+import io.github.joke.percolate.spi.OperationCodegen;
+import io.github.joke.percolate.spi.OperationSpec;
+import io.github.joke.percolate.spi.Port;
+import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.ResolveCtx;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.NoArgsConstructor;
+
+import static io.github.joke.percolate.spi.Applicability.producing;
+import static io.github.joke.percolate.spi.Nullability.NON_NULL;
+import static io.github.joke.percolate.spi.Weights.STEP;
+
+// Copies a List<E> into a Set<E> whose elements need no conversion as new HashSet<>(source), which sizes its table
+// from the source up front — where the stream pipeline's Collectors.toSet() grows a default-sized HashSet as it adds,
+// since a collector never sees the source. A reuse-only port, bound to an in-scope List<E> or not applied, never
+// minted. One constructor call at STEP undercuts both the pipeline and a loop (CONTAINER each and up), so it is
+// chosen wherever it grounds. A Set of enum elements proven non-null (EnumSetContainer.holdsNonNullEnums) is
+// declined: it is collected into an EnumSet instead. Not a PureStrategy: that proof reads the demand's
+// declaredNullness, which differs from mapper to mapper.
+@AutoService(ExpansionStrategy.class)
+@NoArgsConstructor
+public final class SetCopy implements ExpansionStrategy {
+
+    private static final String SOURCE_ROLE = "source";
+    private static final OperationCodegen COPY = inputs -> CodeBlock.of("new $T<>($L)", HashSet.class, inputs.single());
+
+    // Only ever lands on a Set target.
+    @Override
+    public Applicability applicability() {
+        return producing().targets("java.util.Set");
+    }
+
+    @Override
+    public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
+        final var to = demand.targetType();
+        if (!ctx.isSet(to)) {
+            return Stream.empty();
+        }
+        final var element = ctx.typeArgument(to, 0);
+        final var list = ctx.typeElementNamed("java.util.List");
+        if (list == null
+                || !ctx.isReferenceType(element)
+                || EnumSetContainer.holdsNonNullEnums(element, demand, ctx)) {
+            return Stream.empty();
+        }
+        final var source = Port.byTypeOrDecline(SOURCE_ROLE, ctx.declaredType(list, element), NON_NULL);
+        return Stream.of(Offer.of(OperationSpec.of("copy", COPY, STEP, List.of(source), to, NON_NULL)));
+    }
+}
@@ -10,7 +10,8 @@ import static java.util.Objects.requireNonNull;
 // Shared base for the JDK containers whose element-sequence intermediate is java.util.stream.Stream. It names
 // Stream once for the built-in collection family (List/Set/array/Optional) so each need not repeat it; a
 // reactive container would instead declare its own intermediate (Flux/Mono) on the same hook, with no engine
-// change.
+// change. Each container marks itself a PureStrategy, so one whose closing reads the demand's declaredNullness
+// (SetContainer) can stay unmarked.
 abstract class StreamContainer extends Container {
 
     @Override
@@ -2,17 +2,20 @@ package io.github.joke.percolate.spi.builtins.container;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Offer;
 import io.github.joke.percolate.spi.Port;
 import io.github.joke.percolate.spi.PortType;
 import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.ScopeCodegen;
 import java.util.List;
 import java.util.stream.Stream;
 import lombok.NoArgsConstructor;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.ChildScopeSpec.lifted;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.OperationSpec.mapping;
@@ -35,7 +38,7 @@ import static io.github.joke.percolate.spi.Weights.CONTAINER;
 // rather than from any multi-kind composer.
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class StreamMap implements ExpansionStrategy {
+public final class StreamMap implements ExpansionStrategy, PureStrategy {
 
     private static final String SOURCE_ROLE = "stream";
     private static final ScopeCodegen MAP =
@@ -43,6 +46,12 @@ public final class StreamMap implements ExpansionStrategy {
     private static final ScopeCodegen FLAT_MAP =
             (operand, var, body) -> CodeBlock.of("$L$Z.flatMap($N -> $L)", operand, var, body);
 
+    // The map/flatMap only ever lands on a Stream target.
+    @Override
+    public Applicability applicability() {
+        return producing().targets("java.util.stream.Stream");
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var to = demand.targetType();
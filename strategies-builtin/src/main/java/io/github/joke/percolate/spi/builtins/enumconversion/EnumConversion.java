@@ -2,6 +2,7 @@ package io.github.joke.percolate.spi.builtins.enumconversion;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.BodyCodegen;
 import io.github.joke.percolate.spi.BodyRenderContext;
 import io.github.joke.percolate.spi.DirectiveInput;
@@ -11,6 +12,7 @@ import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.Port;
 import io.github.joke.percolate.spi.PortType;
 import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import io.github.joke.percolate.spi.SwitchStyle;
 import io.github.joke.percolate.spi.builtins.Labels;
@@ -26,6 +28,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Offer.refusal;
 import static io.github.joke.percolate.spi.PortType.variable;
@@ -38,6 +41,7 @@ import static java.lang.String.join;
 import static java.util.Locale.ROOT;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static java.util.stream.Collectors.toUnmodifiableSet;
+import static javax.lang.model.type.TypeKind.DECLARED;
 
 // Enum-to-enum conversion via a declared conversion method (design of change add-enum-conversion-mapping):
 // fires whenever the demanded target is an enum, declaring a bare top-level type-variable port that Grounding
@@ -54,7 +58,7 @@ import static java.util.stream.Collectors.toUnmodifiableSet;
 // conversion method" — resolved by cost, never by special-casing the engine).
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class EnumConversion implements ExpansionStrategy {
+public final class EnumConversion implements ExpansionStrategy, PureStrategy {
 
     private static final String VALUE_ROLE = "value";
     static final String ENUM_KEY = "enum";
@@ -70,6 +74,12 @@ public final class EnumConversion implements ExpansionStrategy {
     // processor actually runs on always has it, so a runtime valueOf lookup resolves it safely.
     private static final SourceVersion JAVA_14 = SourceVersion.valueOf("RELEASE_14");
 
+    // An enum target is always a declared type.
+    @Override
+    public Applicability applicability() {
+        return producing().kinds(DECLARED);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var target = demand.targetType();
@@ -3,6 +3,7 @@ package io.github.joke.percolate.spi.builtins.methodcall;
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.Ambient;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.IncomingValues;
 import io.github.joke.percolate.spi.MethodCandidate;
@@ -21,6 +22,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.OperationSpec.callOf;
 import static io.github.joke.percolate.spi.Weights.METHOD;
 import static java.util.stream.Collectors.toUnmodifiableList;
@@ -40,6 +42,12 @@ public final class MethodCallBridge implements ExpansionStrategy {
 
     private final SubtypeDistance subtypeDistance = new SubtypeDistance();
 
+    // Any target a mapper method may return; the callable-method index does the narrowing.
+    @Override
+    public Applicability applicability() {
+        return producing();
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         if (!demand.declaredChildren().isEmpty()) {
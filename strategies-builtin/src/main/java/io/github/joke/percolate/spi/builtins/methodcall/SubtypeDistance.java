@@ -14,7 +14,7 @@ import org.jetbrains.annotations.VisibleForTesting;
 // seam (change cutover-strategies-to-mock-seam, design D2) rather than only through a real type hierarchy. Kept
 // as a hand-rolled BFS rather than a library graph primitive: the supertype chain is derived on-demand from
 // ResolveCtx.superclassOf, so building a graph structure first would be more scaffolding than the walk it
-// replaces.
+// replaces. Visited types are keyed by ResolveCtx.typeKey rather than their rendered text.
 final class SubtypeDistance {
 
     @VisibleForTesting
@@ -34,8 +34,8 @@ final class SubtypeDistance {
         if (ctx.isSameType(start, target)) {
             return 0;
         }
-        final var visited = new HashSet<String>();
-        visited.add(start.toString());
+        final var visited = new HashSet<Object>();
+        visited.add(ctx.typeKey(start));
         final var queue = new ArrayDeque<Hop>();
         queue.add(new Hop(start, 0));
         while (!queue.isEmpty()) {
@@ -53,7 +53,7 @@ final class SubtypeDistance {
     Optional<Integer> advance(
             final Hop current,
             final TypeMirror target,
-            final Set<String> visited,
+            final Set<Object> visited,
             final Deque<Hop> queue,
             final ResolveCtx ctx) {
         final var hop = nextHop(current, visited, ctx);
@@ -69,12 +69,12 @@ final class SubtypeDistance {
 
     // The unvisited direct supertype hop of current, or empty when there is none left to walk.
     @VisibleForTesting
-    Optional<Hop> nextHop(final Hop current, final Set<String> visited, final ResolveCtx ctx) {
+    Optional<Hop> nextHop(final Hop current, final Set<Object> visited, final ResolveCtx ctx) {
         if (!ctx.isDeclared(current.type)) {
             return Optional.empty();
         }
         final var directSupertype = ctx.superclassOf(current.type);
-        if (!ctx.isDeclared(directSupertype) || !visited.add(directSupertype.toString())) {
+        if (!ctx.isDeclared(directSupertype) || !visited.add(ctx.typeKey(directSupertype))) {
             return Optional.empty();
         }
         return Optional.of(new Hop(directSupertype, current.depth + 1));
@@ -2,9 +2,11 @@ package io.github.joke.percolate.spi.builtins.primitive;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.Conversion;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.OperationCodegen;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.Map;
 import java.util.Set;
@@ -15,6 +17,7 @@ import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 import org.jspecify.annotations.Nullable;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Weights.STEP;
 import static io.github.joke.percolate.spi.builtins.Labels.conversion;
 import static java.util.Objects.requireNonNull;
@@ -32,7 +35,7 @@ import static javax.lang.model.type.TypeKind.SHORT;
 // (e.g. int → Long as widen-then-box) through deduped intermediate Values.
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class PrimitiveWrapperConversion extends Conversion {
+public final class PrimitiveWrapperConversion extends Conversion implements PureStrategy {
 
     private static final Set<String> WRAPPER_FQNS = Set.of(
             "java.lang.Boolean",
@@ -62,6 +65,14 @@ public final class PrimitiveWrapperConversion extends Conversion {
             DOUBLE,
             "doubleValue");
 
+    // Consulted only for a primitive (to unbox into) or one of its wrappers (to box into).
+    @Override
+    public Applicability applicability() {
+        return producing()
+                .kinds(BOOLEAN, BYTE, SHORT, CHAR, TypeKind.INT, LONG, FLOAT, DOUBLE)
+                .targets(WRAPPER_FQNS.toArray(String[]::new));
+    }
+
     @Override
     @VisibleForTesting
     protected Stream<Step> conversions(final TypeMirror target, final ResolveCtx ctx) {
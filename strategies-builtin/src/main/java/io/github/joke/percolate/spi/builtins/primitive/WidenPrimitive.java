@@ -2,9 +2,11 @@ package io.github.joke.percolate.spi.builtins.primitive;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.Conversion;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.OperationCodegen;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.Map;
 import java.util.Set;
@@ -14,6 +16,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Weights.STEP;
 import static io.github.joke.percolate.spi.builtins.Labels.conversion;
 import static javax.lang.model.type.TypeKind.BYTE;
@@ -31,7 +34,7 @@ import static javax.lang.model.type.TypeKind.SHORT;
 // (e.g. Integer → long as unbox-then-widen) through deduped intermediate Values.
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class WidenPrimitive extends Conversion {
+public final class WidenPrimitive extends Conversion implements PureStrategy {
 
     private static final Map<TypeKind, Set<TypeKind>> WIDENS_FROM = Map.of(
             SHORT,
@@ -45,6 +48,12 @@ public final class WidenPrimitive extends Conversion {
             DOUBLE,
             Set.of(BYTE, SHORT, CHAR, TypeKind.INT, LONG, FLOAT));
 
+    // Consulted only for the primitive kinds something widens into.
+    @Override
+    public Applicability applicability() {
+        return producing().kinds(WIDENS_FROM.keySet().toArray(TypeKind[]::new));
+    }
+
     @Override
     @VisibleForTesting
     protected Stream<Step> conversions(final TypeMirror target, final ResolveCtx ctx) {
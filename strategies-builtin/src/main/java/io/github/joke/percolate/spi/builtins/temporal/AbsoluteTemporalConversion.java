@@ -3,9 +3,11 @@ package io.github.joke.percolate.spi.builtins.temporal;
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.ClassName;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.Conversion;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.OperationCodegen;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +16,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Weights.STEP;
 import static io.github.joke.percolate.spi.builtins.Labels.conversion;
 import static java.util.stream.Stream.concat;
@@ -28,7 +31,7 @@ import static java.util.stream.Stream.concat;
 // the zone bridge (InstantLocalDateTimeBridge).
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class AbsoluteTemporalConversion extends Conversion {
+public final class AbsoluteTemporalConversion extends Conversion implements PureStrategy {
 
     private static final String INSTANT = "java.time.Instant";
     private static final String DATE = "java.util.Date";
@@ -40,6 +43,12 @@ public final class AbsoluteTemporalConversion extends Conversion {
     private static final List<String> METHOD_SPOKES = List.of(DATE, TIMESTAMP);
     private static final List<String> FIXED_OFFSET_SPOKES = List.of(OFFSET_DATE_TIME, ZONED_DATE_TIME);
 
+    // Consulted only for the hub and its spokes; every other target has no single hop here.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(INSTANT, DATE, TIMESTAMP, OFFSET_DATE_TIME, ZONED_DATE_TIME);
+    }
+
     @Override
     @VisibleForTesting
     protected Stream<Step> conversions(final TypeMirror target, final ResolveCtx ctx) {
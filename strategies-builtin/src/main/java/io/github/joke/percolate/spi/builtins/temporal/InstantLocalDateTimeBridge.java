@@ -3,6 +3,7 @@ package io.github.joke.percolate.spi.builtins.temporal;
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.ClassName;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.DirectiveInput;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Offer;
@@ -10,6 +11,7 @@ import io.github.joke.percolate.spi.OperationCodegen;
 import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.Port;
 import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +21,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Weights.STEP;
 import static io.github.joke.percolate.spi.builtins.Labels.conversion;
@@ -34,7 +37,7 @@ import static io.github.joke.percolate.spi.builtins.Labels.conversion;
 // is therefore never stamped, and the directive-options rail reports it as having no effect.
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class InstantLocalDateTimeBridge implements ExpansionStrategy {
+public final class InstantLocalDateTimeBridge implements ExpansionStrategy, PureStrategy {
 
     private static final String INSTANT = "java.time.Instant";
     private static final String LOCAL_DATE_TIME = "java.time.LocalDateTime";
@@ -46,6 +49,12 @@ public final class InstantLocalDateTimeBridge implements ExpansionStrategy {
     // in the feature that owns the option's meaning, rather than in a core class.
     private static final String TIME_ZONE_OPTION = "percolate.time.zone";
 
+    // Consulted only for either hub; the zone is optional, so no input is required.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(INSTANT, LOCAL_DATE_TIME);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var target = demand.targetType();
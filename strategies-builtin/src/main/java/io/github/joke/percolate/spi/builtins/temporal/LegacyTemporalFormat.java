@@ -3,6 +3,7 @@ package io.github.joke.percolate.spi.builtins.temporal;
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.ClassName;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.DirectiveInput;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Offer;
@@ -10,6 +11,7 @@ import io.github.joke.percolate.spi.OperationCodegen;
 import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.Port;
 import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +21,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Weights.STEP;
 import static io.github.joke.percolate.spi.builtins.Labels.conversion;
@@ -31,7 +34,7 @@ import static io.github.joke.percolate.spi.builtins.Labels.conversion;
 // a checked call in expression position.
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class LegacyTemporalFormat implements ExpansionStrategy {
+public final class LegacyTemporalFormat implements ExpansionStrategy, PureStrategy {
 
     private static final ClassName SIMPLE_DATE_FORMAT = ClassName.get("java.text", "SimpleDateFormat");
     private static final ClassName PARSE_EXCEPTION = ClassName.get("java.text", "ParseException");
@@ -43,6 +46,12 @@ public final class LegacyTemporalFormat implements ExpansionStrategy {
     private static final String VALUE_ROLE = "value";
     private static final String FORMAT_KEY = "format";
 
+    // Consulted only under a format directive, for a String or one of the legacy types it parses.
+    @Override
+    public Applicability applicability() {
+        return producing().requiring(FORMAT_KEY).targets(STRING, "java.util.Date", "java.sql.Timestamp");
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var formatInput = demand.directive().flatMap(directive -> directive.input(FORMAT_KEY));
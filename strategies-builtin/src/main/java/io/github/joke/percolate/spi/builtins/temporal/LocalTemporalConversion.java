@@ -2,9 +2,11 @@ package io.github.joke.percolate.spi.builtins.temporal;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.Conversion;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.OperationCodegen;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -12,6 +14,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Weights.STEP;
 import static io.github.joke.percolate.spi.builtins.Labels.conversion;
 
@@ -24,11 +27,17 @@ import static io.github.joke.percolate.spi.builtins.Labels.conversion;
 // conversion spec.)
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class LocalTemporalConversion extends Conversion {
+public final class LocalTemporalConversion extends Conversion implements PureStrategy {
 
     private static final String LOCAL_DATE = "java.time.LocalDate";
     private static final String LOCAL_DATE_TIME = "java.time.LocalDateTime";
 
+    // Consulted only for the two local types it converts between.
+    @Override
+    public Applicability applicability() {
+        return producing().targets(LOCAL_DATE, LOCAL_DATE_TIME);
+    }
+
     @Override
     @VisibleForTesting
     protected Stream<Step> conversions(final TypeMirror target, final ResolveCtx ctx) {
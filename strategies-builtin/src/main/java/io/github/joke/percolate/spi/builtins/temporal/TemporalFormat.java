@@ -3,6 +3,7 @@ package io.github.joke.percolate.spi.builtins.temporal;
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.ClassName;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.DirectiveInput;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.MemberRequest;
@@ -11,6 +12,7 @@ import io.github.joke.percolate.spi.OperationCodegen;
 import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.Port;
 import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +22,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Weights.STEP;
 import static io.github.joke.percolate.spi.builtins.Labels.conversion;
@@ -34,7 +37,7 @@ import static io.github.joke.percolate.spi.builtins.Labels.conversion;
 // always parses to the demanded java.time target).
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class TemporalFormat implements ExpansionStrategy {
+public final class TemporalFormat implements ExpansionStrategy, PureStrategy {
 
     private static final ClassName DATE_TIME_FORMATTER = ClassName.get("java.time.format", "DateTimeFormatter");
     private static final String STRING = "java.lang.String";
@@ -44,6 +47,12 @@ public final class TemporalFormat implements ExpansionStrategy {
     private static final String FORMAT_KEY = "format";
     private static final String DEDUP_PREFIX = "temporal-format:";
 
+    // Consulted only under a format directive, for a String or a roster type it parses.
+    @Override
+    public Applicability applicability() {
+        return producing().requiring(FORMAT_KEY).targets(STRING).targets(JAVA_TIME_ROSTER.toArray(String[]::new));
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var formatInput = demand.directive().flatMap(directive -> directive.input(FORMAT_KEY));
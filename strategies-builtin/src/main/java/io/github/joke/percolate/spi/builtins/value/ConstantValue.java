@@ -2,12 +2,14 @@ package io.github.joke.percolate.spi.builtins.value;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.DirectiveInput;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Offer;
 import io.github.joke.percolate.spi.OperationCodegen;
 import io.github.joke.percolate.spi.OperationSpec;
 import io.github.joke.percolate.spi.ProduceDemand;
+import io.github.joke.percolate.spi.PureStrategy;
 import io.github.joke.percolate.spi.ResolveCtx;
 import java.util.List;
 import java.util.Set;
@@ -16,6 +18,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.LiteralCoercion.coerce;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Weights.STEP;
@@ -30,10 +33,16 @@ import static io.github.joke.percolate.spi.Weights.STEP;
 // never the graph.
 @AutoService(ExpansionStrategy.class)
 @NoArgsConstructor
-public final class ConstantValue implements ExpansionStrategy {
+public final class ConstantValue implements ExpansionStrategy, PureStrategy {
 
     static final String CONSTANT_KEY = "constant";
 
+    // Consulted only when the directive carries a constant.
+    @Override
+    public Applicability applicability() {
+        return producing().requiring(CONSTANT_KEY);
+    }
+
     @Override
     public Stream<Offer> expand(final ProduceDemand demand, final ResolveCtx ctx) {
         final var target = demand.targetType();
@@ -2,6 +2,7 @@ package io.github.joke.percolate.spi.builtins.value;
 
 import com.google.auto.service.AutoService;
 import io.github.joke.percolate.lib.javapoet.CodeBlock;
+import io.github.joke.percolate.spi.Applicability;
 import io.github.joke.percolate.spi.DirectiveInput;
 import io.github.joke.percolate.spi.ExpansionStrategy;
 import io.github.joke.percolate.spi.Nullability;
@@ -19,6 +20,7 @@ import javax.lang.model.type.TypeMirror;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import static io.github.joke.percolate.spi.Applicability.producing;
 import static io.github.joke.percolate.spi.LiteralCoercion.coerce;
 import static io.github.joke.percolate.spi.Nullability.NON_NULL;
 import static io.github.joke.percolate.spi.Nullability.NULLABLE;
@@ -55,6 +57,12 @@ public final class NullnessCrossing implements ExpansionStrategy {
     private static final String VALUE_ROLE = "value";
     private static final int OUTCOMPETE_PRIORITY = -1;
 
+    // Guards and defaults cross nullness on a target of any type.
+    @Override
+    public Applicability applicability() {
+        return producing();
+    }
+
     @Override
     public int priority() {
         return OUTCOMPETE_PRIORITY;
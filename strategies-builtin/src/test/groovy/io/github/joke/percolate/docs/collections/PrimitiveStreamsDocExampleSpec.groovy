@@ -0,0 +1,78 @@
+package io.github.joke.percolate.docs.collections
+
+import com.google.testing.compile.Compilation
+import com.google.testing.compile.JavaFileObjects
+import io.github.joke.percolate.test.PercolateCompiler
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.tools.JavaFileObject
+
+/**
+ * Backs the collections page's primitive stream lanes. {@code ScoreMapper} is real source compiled by the ordinary
+ * {@code compileTestJava} task through the real starter, which is what the runtime features call. Which lane a plan
+ * takes does not show at runtime, so the same source is also compiled through the {@code compile-testing} harness
+ * — from the module directory Gradle runs tests in — and each method's generated body is checked for the pipeline
+ * the page promises: the unboxed lane where an element is unboxed or widened, entered directly rather than through
+ * a narrower lane and a widening.
+ */
+@Tag('integration')
+class PrimitiveStreamsDocExampleSpec extends Specification {
+
+    private static final String DOCS = 'src/test/java/io/github/joke/percolate/docs/collections'
+
+    ScoreMapper mapper = new ScoreMapperImpl()
+
+    @Shared
+    Compilation compilation = PercolateCompiler.compileWith(['-Apercolate.docTags=true'],
+            docSource('package-info.java'), docSource('ScoreMapper.java'))
+
+    def 'toArray unboxes a List<Integer> into an int[]'() {
+        expect:
+        mapper.toArray([3, 1, 2]) == [3, 1, 2] as int[]
+    }
+
+    def 'toDoubles widens each Integer into a List<Double>'() {
+        expect:
+        mapper.toDoubles([1, 2]) == [1.0d, 2.0d]
+    }
+
+    def 'toLongs widens an int[] into a List<Long>'() {
+        expect:
+        mapper.toLongs([1, 2] as int[]) == [1L, 2L]
+    }
+
+    def 'the generated ScoreMapperImpl compiles cleanly'() {
+        expect:
+        compilation.errors().empty
+    }
+
+    def '#method runs through #lane'() {
+        def body = bodyOf(method)
+
+        expect:
+        present.every { body.contains(it) }
+        absent.every { !body.contains(it) }
+
+        where:
+        method      | lane                            | present                         | absent
+        'toArray'   | 'an IntStream'                  | ['.mapToInt(', '.toArray()']    | ['.map(']
+        'toDoubles' | 'a DoubleStream, directly'      | ['.mapToDouble(', '.boxed()']   | ['.map(', '.asDoubleStream()']
+        'toLongs'   | 'an IntStream widened in place' | ['.asLongStream()', '.boxed()'] | ['.map(']
+    }
+
+    private static JavaFileObject docSource(final String file) {
+        JavaFileObjects.forResource(new File(DOCS, file).toURI().toURL())
+    }
+
+    // The generated method named name, as bracketed by its doc tags.
+    private String bodyOf(final String name) {
+        def generated = compilation.generatedSourceFile('io.github.joke.percolate.docs.collections.ScoreMapperImpl')
+        assert generated.present
+        def source = generated.get().getCharContent(true).toString()
+        def matcher = source =~ /(?s)\/\/ tag::${name}\[\](.*?)\/\/ end::${name}\[\]/
+        assert matcher.find()
+        matcher.group(1)
+    }
+}
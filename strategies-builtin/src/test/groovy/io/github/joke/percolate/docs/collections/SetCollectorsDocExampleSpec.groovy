@@ -0,0 +1,90 @@
+package io.github.joke.percolate.docs.collections
+
+import com.google.testing.compile.Compilation
+import com.google.testing.compile.JavaFileObjects
+import io.github.joke.percolate.test.PercolateCompiler
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.tools.JavaFileObject
+
+/**
+ * Backs the collections page's sets. {@code RoleMapper} is real source compiled by the ordinary
+ * {@code compileTestJava} task through the real starter, which is what the runtime features call — a null role
+ * included. Which set a plan builds does not show in a set's equality, so the same source is also compiled through
+ * the {@code compile-testing} harness, from the module directory Gradle runs tests in, and each method's generated
+ * body is checked for the set the page promises: an {@code EnumSet} only for enum elements proven non-null, else a
+ * {@code HashSet} copied from the list.
+ */
+@Tag('integration')
+class SetCollectorsDocExampleSpec extends Specification {
+
+    private static final String DOCS = 'src/test/java/io/github/joke/percolate/docs/collections'
+
+    RoleMapper mapper = new RoleMapperImpl()
+
+    @Shared
+    Compilation compilation = PercolateCompiler.compileWith(['-Apercolate.docTags=true'],
+            docSource('package-info.java'), docSource('RoleMapper.java'))
+
+    def 'toRoles collects the roles into an EnumSet'() {
+        when:
+        def roles = mapper.toRoles([Role.VIEWER, Role.ADMIN, Role.VIEWER])
+
+        then:
+        roles instanceof EnumSet
+        roles == [Role.ADMIN, Role.VIEWER] as Set
+    }
+
+    def 'toGrantedRoles keeps a null role'() {
+        when:
+        def roles = mapper.toGrantedRoles([Role.EDITOR, null])
+
+        then:
+        roles instanceof HashSet
+        roles == [Role.EDITOR, null] as Set
+    }
+
+    def 'toTagSet copies the tags into a HashSet'() {
+        when:
+        def tags = mapper.toTagSet(['b', 'a', 'b'])
+
+        then:
+        tags instanceof HashSet
+        tags == ['a', 'b'] as Set
+    }
+
+    def 'the generated RoleMapperImpl compiles cleanly'() {
+        expect:
+        compilation.errors().empty
+    }
+
+    def '#method builds #set'() {
+        def body = bodyOf(method)
+
+        expect:
+        present.every { body.contains(it) }
+        absent.every { !body.contains(it) }
+
+        where:
+        method           | set                  | present                        | absent
+        'toRoles'        | 'an EnumSet'         | ['EnumSet.noneOf(Role.class)'] | ['HashSet', 'toSet()']
+        'toGrantedRoles' | 'a presized HashSet' | ['new HashSet<>(roles)']       | ['EnumSet', '.stream()']
+        'toTagSet'       | 'a presized HashSet' | ['new HashSet<>(tags)']        | ['.stream()']
+    }
+
+    private static JavaFileObject docSource(final String file) {
+        JavaFileObjects.forResource(new File(DOCS, file).toURI().toURL())
+    }
+
+    // The generated method named name, as bracketed by its doc tags.
+    private String bodyOf(final String name) {
+        def generated = compilation.generatedSourceFile('io.github.joke.percolate.docs.collections.RoleMapperImpl')
+        assert generated.present
+        def source = generated.get().getCharContent(true).toString()
+        def matcher = source =~ /(?s)\/\/ tag::${name}\[\](.*?)\/\/ end::${name}\[\]/
+        assert matcher.find()
+        matcher.group(1)
+    }
+}
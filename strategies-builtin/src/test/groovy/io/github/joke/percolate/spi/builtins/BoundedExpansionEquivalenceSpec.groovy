@@ -0,0 +1,144 @@
+package io.github.joke.percolate.spi.builtins
+
+import com.google.testing.compile.Compilation
+import com.google.testing.compile.JavaFileObjects
+import io.github.joke.percolate.test.PercolateCompiler
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.tools.Diagnostic
+import javax.tools.JavaFileObject
+
+/**
+ * {@code -Apercolate.expansion.bounded} only holds back expanding candidates that cannot win, but equally cheap plans
+ * are told apart by the order their candidates landed, which holding back changes — so equivalence is checked on a
+ * corpus rather than guaranteed: each mapper here — temporal hub-and-spoke and format conversions, composed containers,
+ * and nullness crossings, the shapes that over-emit the most — is compiled with and without the option, and the two
+ * generated sources must be identical. So is every manual example: each package under {@code docs/} in the test
+ * sources, and each standalone example under {@code examples/} in the test resources, compiled both ways from the
+ * module directory Gradle runs tests in, must report the same diagnostics and generate the same files.
+ */
+@Tag('integration')
+class BoundedExpansionEquivalenceSpec extends Specification {
+
+    def 'bounded expansion generates exactly what full expansion does for #mapper'() {
+        when:
+        def full = PercolateCompiler.compileWith([], PACKAGE_INFO, source)
+        def bounded = PercolateCompiler.compileWith(['-Apercolate.expansion.bounded=true'], PACKAGE_INFO, source)
+
+        then:
+        full.errors().empty
+        bounded.errors().empty
+        sourceOf(bounded, "examples.bounded.${mapper}Impl") == sourceOf(full, "examples.bounded.${mapper}Impl")
+
+        where:
+        mapper              | source
+        'TemporalMapper'    | TEMPORAL_MAPPER
+        'CollectionsMapper' | COLLECTIONS_MAPPER
+        'NullnessMapper'    | NULLNESS_MAPPER
+    }
+
+    def 'bounded expansion generates exactly what full expansion does for the manual example #example'() {
+        when:
+        def full = PercolateCompiler.compileAll(sources)
+        def bounded = PercolateCompiler.compileWith(['-Apercolate.expansion.bounded=true'], sources as JavaFileObject[])
+
+        then:
+        diagnosticsOf(bounded) == diagnosticsOf(full)
+        generatedOf(bounded) == generatedOf(full)
+
+        where:
+        [example, sources] << corpus()
+    }
+
+    // ---- harness -------------------------------------------------------------------------------------------
+
+    private static final JavaFileObject PACKAGE_INFO = JavaFileObjects.forSourceLines(
+            'examples.bounded.package-info',
+            '@org.jspecify.annotations.NullMarked',
+            'package examples.bounded;')
+
+    private static final JavaFileObject TEMPORAL_MAPPER = JavaFileObjects.forSourceLines(
+            'examples.bounded.TemporalMapper',
+            'package examples.bounded;',
+            'import io.github.joke.percolate.Map;',
+            'import io.github.joke.percolate.Mapper;',
+            'import java.time.Instant;',
+            'import java.time.LocalDate;',
+            'import java.time.LocalDateTime;',
+            'import java.time.OffsetDateTime;',
+            '@Mapper',
+            'public interface TemporalMapper {',
+            '    Instant toInstant(java.util.Date createdAt);',
+            '    java.util.Date toDate(OffsetDateTime receivedAt);',
+            '    LocalDateTime toLocalDateTime(Instant timestamp);',
+            '    @Map(target = "", source = "text", format = "yyyy-MM-dd\'T\'HH:mmXXX")',
+            '    OffsetDateTime parseTimestamp(String text);',
+            '    @Map(target = "", source = "text", format = "yyyy-MM-dd")',
+            '    LocalDate parseDate(String text);',
+            '}')
+
+    private static final JavaFileObject COLLECTIONS_MAPPER = JavaFileObjects.forSourceLines(
+            'examples.bounded.CollectionsMapper',
+            'package examples.bounded;',
+            'import io.github.joke.percolate.Mapper;',
+            'import java.util.List;',
+            'import java.util.Optional;',
+            'import java.util.Set;',
+            'import java.util.stream.Stream;',
+            '@Mapper',
+            'public interface CollectionsMapper {',
+            '    List<String> toSortedTags(Set<String> tags);',
+            '    Set<String> toUniqueTags(Stream<String> tags);',
+            '    Set<String> toPresentTags(List<Optional<String>> maybeTags);',
+            '    Optional<Set<String>> toRoster(List<Optional<String>> maybeNames);',
+            '}')
+
+    private static final JavaFileObject NULLNESS_MAPPER = JavaFileObjects.forSourceLines(
+            'examples.bounded.NullnessMapper',
+            'package examples.bounded;',
+            'import io.github.joke.percolate.Mapper;',
+            'import java.util.Optional;',
+            'import org.jspecify.annotations.Nullable;',
+            '@Mapper',
+            'public interface NullnessMapper {',
+            '    Optional<String> wrap(@Nullable String name);',
+            '    String unwrapOrThrow(Optional<String> name);',
+            '    @Nullable String unwrap(Optional<String> name);',
+            '}')
+
+    // Every manual example as [name, sources]: one entry per docs/ package, whose files compile together, and one per
+    // standalone examples/ resource.
+    private static List<List<Object>> corpus() {
+        def docs = new File('src/test/java/io/github/joke/percolate/docs')
+        def examples = new File('src/test/resources/examples')
+        assert docs.directory && examples.directory
+        def packages = docs.listFiles().findAll { it.directory }.sort { it.name }.collect { dir ->
+            ['docs/' + dir.name, javaFilesIn(dir).collect { JavaFileObjects.forResource(it.toURI().toURL()) }]
+        }
+        def standalone = examples.listFiles().findAll { it.directory }.sort { it.name }.collectMany { dir ->
+            javaFilesIn(dir).collect { file ->
+                ['examples/' + dir.name + '/' + file.name, [JavaFileObjects.forResource(file.toURI().toURL())]]
+            }
+        }
+        packages + standalone
+    }
+
+    private static List<File> javaFilesIn(final File dir) {
+        dir.listFiles().findAll { it.name.endsWith('.java') }.sort { it.name }
+    }
+
+    private static List<String> diagnosticsOf(final Compilation compilation) {
+        compilation.diagnostics().collect { Diagnostic<?> diagnostic -> "${diagnostic.kind}: ${diagnostic.getMessage(null)}" }
+    }
+
+    private static Map<String, String> generatedOf(final Compilation compilation) {
+        compilation.generatedSourceFiles().collectEntries { [it.name, it.getCharContent(true).toString()] }
+    }
+
+    private static String sourceOf(final Compilation compilation, final String qualifiedName) {
+        def generated = compilation.generatedSourceFile(qualifiedName)
+        assert generated.present
+        generated.get().getCharContent(true).toString()
+    }
+}
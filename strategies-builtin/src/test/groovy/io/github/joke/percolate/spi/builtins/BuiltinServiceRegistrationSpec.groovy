@@ -35,6 +35,7 @@ class BuiltinServiceRegistrationSpec extends Specification {
         discovered.contains('io.github.joke.percolate.spi.builtins.container.SetContainer')
         discovered.contains('io.github.joke.percolate.spi.builtins.container.ArrayContainer')
         discovered.contains('io.github.joke.percolate.spi.builtins.container.OptionalContainer')
+        discovered.contains('io.github.joke.percolate.spi.builtins.container.SetCopy')
 
         // Path resolvers (formerly the separate PathSegmentResolver service)
         discovered.contains('io.github.joke.percolate.spi.builtins.accessor.GetterPathResolver')
@@ -0,0 +1,101 @@
+package io.github.joke.percolate.spi.builtins
+
+import com.google.testing.compile.Compilation
+import com.google.testing.compile.JavaFileObjects
+import io.github.joke.percolate.spi.PureStrategy
+import io.github.joke.percolate.spi.builtins.container.ListContainer
+import io.github.joke.percolate.spi.builtins.container.SetContainer
+import io.github.joke.percolate.test.PercolateCompiler
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.tools.JavaFileObject
+
+/**
+ * A {@code Set<Role>} is collected into an {@code EnumSet} only where its roles are proven non-null, and that proof
+ * reads the mapper's own {@code @NullMarked} scope. Two mappers of one round raise the same non-null
+ * {@code Set<Role>} demand from the same {@code List<Code>} source: {@code MarkedMapper}'s directly, in a
+ * {@code @NullMarked} package, and {@code UnmarkedMapper}'s as the minted set inside an {@code Optional}, in a package
+ * that is not. Their answers must never be shared, in either order the mappers are planned.
+ */
+@Tag('integration')
+class EnumSetAcrossMappersSpec extends Specification {
+
+    def 'each mapper sharing a Set<Role> demand closes it by its own scope, #order'() {
+        when:
+        def compilation = PercolateCompiler.compileWith([], sources as JavaFileObject[])
+
+        then:
+        compilation.errors().empty
+
+        expect:
+        def marked = sourceOf(compilation, 'examples.sets.marked.MarkedMapperImpl')
+        marked.contains('EnumSet.noneOf(Role.class)')
+        !marked.contains('toSet()')
+        def unmarked = sourceOf(compilation, 'examples.sets.unmarked.UnmarkedMapperImpl')
+        unmarked.contains('toSet()')
+        !unmarked.contains('EnumSet')
+
+        where:
+        order                   | sources
+        'marked mapper first'   | [MODEL, MARKED_INFO, MARKED_MAPPER, UNMARKED_MAPPER]
+        'unmarked mapper first' | [MODEL, MARKED_INFO, UNMARKED_MAPPER, MARKED_MAPPER]
+    }
+
+    def 'the Set container is asked afresh for every demand, where the List container is memoized'() {
+        expect:
+        !(new SetContainer() instanceof PureStrategy)
+        new ListContainer() instanceof PureStrategy
+    }
+
+    // ---- harness -------------------------------------------------------------------------------------------
+
+    private static final JavaFileObject MARKED_INFO = JavaFileObjects.forSourceLines(
+            'examples.sets.marked.package-info',
+            '@org.jspecify.annotations.NullMarked',
+            'package examples.sets.marked;')
+
+    private static final JavaFileObject MODEL = JavaFileObjects.forSourceLines(
+            'examples.sets.marked.Model',
+            'package examples.sets.marked;',
+            'public final class Model {',
+            '    private Model() {}',
+            '    public enum Code { ADMIN, VIEWER }',
+            '    public enum Role { ADMIN, VIEWER }',
+            '}')
+
+    private static final JavaFileObject MARKED_MAPPER = JavaFileObjects.forSourceLines(
+            'examples.sets.marked.MarkedMapper',
+            'package examples.sets.marked;',
+            'import examples.sets.marked.Model.Code;',
+            'import examples.sets.marked.Model.Role;',
+            'import io.github.joke.percolate.Mapper;',
+            'import java.util.List;',
+            'import java.util.Set;',
+            '@Mapper',
+            'public interface MarkedMapper {',
+            '    Set<Role> toRoles(List<Code> codes);',
+            '    Role toRole(Code code);',
+            '}')
+
+    private static final JavaFileObject UNMARKED_MAPPER = JavaFileObjects.forSourceLines(
+            'examples.sets.unmarked.UnmarkedMapper',
+            'package examples.sets.unmarked;',
+            'import examples.sets.marked.Model.Code;',
+            'import examples.sets.marked.Model.Role;',
+            'import io.github.joke.percolate.Mapper;',
+            'import java.util.List;',
+            'import java.util.Optional;',
+            'import java.util.Set;',
+            '@Mapper',
+            'public interface UnmarkedMapper {',
+            '    Optional<Set<Role>> toRoles(List<Code> codes);',
+            '    Role toRole(Code code);',
+            '}')
+
+    private static String sourceOf(final Compilation compilation, final String qualifiedName) {
+        def generated = compilation.generatedSourceFile(qualifiedName)
+        assert generated.present
+        generated.get().getCharContent(true).toString()
+    }
+}
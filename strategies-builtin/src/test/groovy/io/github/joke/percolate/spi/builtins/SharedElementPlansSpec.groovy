@@ -0,0 +1,93 @@
+package io.github.joke.percolate.spi.builtins
+
+import com.google.testing.compile.Compilation
+import com.google.testing.compile.JavaFileObjects
+import io.github.joke.percolate.test.PercolateCompiler
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.tools.JavaFileObject
+
+/**
+ * A repeated element mapping — {@code Date → Instant} under both a list and a set — is planned once and shared.
+ * Sharing must never change what is generated, so the mapper is compiled with and without
+ * {@code -Apercolate.childPlans.shared}; {@code -Apercolate.childPlans.helpers} then renders the shared plan once,
+ * as a private helper method every lambda calls.
+ */
+@Tag('integration')
+class SharedElementPlansSpec extends Specification {
+
+    private static final String IMPL = 'examples.shared.EventMapperImpl'
+
+    def 'sharing repeated element plans generates exactly what planning each one separately does'() {
+        when:
+        def shared = PercolateCompiler.compileWith([], PACKAGE_INFO, EVENT_MAPPER)
+        def separate = PercolateCompiler.compileWith(['-Apercolate.childPlans.shared=false'], PACKAGE_INFO, EVENT_MAPPER)
+
+        then:
+        shared.errors().empty
+        separate.errors().empty
+        sourceOf(shared, IMPL) == sourceOf(separate, IMPL)
+    }
+
+    def 'with helpers, the shared element plan renders once as a private method each lambda calls'() {
+        when:
+        def compilation = PercolateCompiler.compileWith(['-Apercolate.childPlans.helpers=true'], PACKAGE_INFO, EVENT_MAPPER)
+
+        then:
+        compilation.errors().empty
+
+        expect:
+        def source = sourceOf(compilation, IMPL)
+        source.count('private Instant mapDateToInstant(') == 1
+        source.count('mapDateToInstant(') == 3
+    }
+
+    def 'with helpers, an element plan mapped only once stays inline'() {
+        when:
+        def compilation = PercolateCompiler.compileWith(['-Apercolate.childPlans.helpers=true'], PACKAGE_INFO, SINGLE_MAPPER)
+
+        then:
+        compilation.errors().empty
+        !sourceOf(compilation, 'examples.shared.SingleMapperImpl').contains('private ')
+    }
+
+    // ---- harness -------------------------------------------------------------------------------------------
+
+    private static final JavaFileObject PACKAGE_INFO = JavaFileObjects.forSourceLines(
+            'examples.shared.package-info',
+            '@org.jspecify.annotations.NullMarked',
+            'package examples.shared;')
+
+    private static final JavaFileObject EVENT_MAPPER = JavaFileObjects.forSourceLines(
+            'examples.shared.EventMapper',
+            'package examples.shared;',
+            'import io.github.joke.percolate.Mapper;',
+            'import java.time.Instant;',
+            'import java.util.Date;',
+            'import java.util.List;',
+            'import java.util.Set;',
+            '@Mapper',
+            'public interface EventMapper {',
+            '    List<Instant> toInstants(List<Date> dates);',
+            '    Set<Instant> toInstantSet(Set<Date> dates);',
+            '}')
+
+    private static final JavaFileObject SINGLE_MAPPER = JavaFileObjects.forSourceLines(
+            'examples.shared.SingleMapper',
+            'package examples.shared;',
+            'import io.github.joke.percolate.Mapper;',
+            'import java.time.Instant;',
+            'import java.util.Date;',
+            'import java.util.List;',
+            '@Mapper',
+            'public interface SingleMapper {',
+            '    List<Instant> toInstants(List<Date> dates);',
+            '}')
+
+    private static String sourceOf(final Compilation compilation, final String qualifiedName) {
+        def generated = compilation.generatedSourceFile(qualifiedName)
+        assert generated.present
+        generated.get().getCharContent(true).toString()
+    }
+}
@@ -1,6 +1,9 @@
 package io.github.joke.percolate.spi.builtins.container
 
+import io.github.joke.percolate.lib.javapoet.ArrayTypeName
+import io.github.joke.percolate.lib.javapoet.ClassName
 import io.github.joke.percolate.lib.javapoet.CodeBlock
+import io.github.joke.percolate.spi.IncomingValues
 import io.github.joke.percolate.spi.OperationCodegen
 import io.github.joke.percolate.spi.ResolveCtx
 import io.github.joke.percolate.spi.Weights
@@ -10,6 +13,7 @@ import spock.lang.Tag
 
 import javax.lang.model.element.TypeElement
 import javax.lang.model.type.TypeMirror
+import javax.lang.model.type.TypeVisitor
 
 /**
  * {@link ArrayContainer} unit-tested mock-only over the {@link ResolveCtx} type-query seam (change
@@ -72,6 +76,25 @@ class ArrayContainerSpec extends Specification {
         CodeBlock.of('$L\n', new ArrayContainer().collect().get().render(CodeBlock.of('$N', 's'))).toString().contains('toArray()')
     }
 
+    def 'the collect names the erased target\'s own generator, so it answers a typed array, not an Object[]'() {
+        TypeMirror genericArray = Mock()
+        TypeMirror erasedArray = Mock()
+        ctx.isArray(genericArray) >> true
+        ctx.arrayComponent(genericArray) >> stringType
+        ctx.isReferenceType(stringType) >> true
+        ctx.typeElementNamed('java.util.stream.Stream') >> streamElement
+        ctx.declaredType(streamElement, stringType) >> streamOfString
+        ctx.erasure(genericArray) >> erasedArray
+        erasedArray.accept({ it instanceof TypeVisitor }, null) >> ArrayTypeName.of(ClassName.get('java.util', 'List'))
+        IncomingValues inputs = Stub() { single() >> CodeBlock.of('$N', 's') }
+
+        when:
+        def collect = new ArrayContainer().expand(Demands.forTarget(genericArray), ctx)*.spec.find { it.label == 'collect' }
+
+        then:
+        ((OperationCodegen) collect.codegen).render(inputs).toString() == 's.toArray(java.util.List[]::new)'
+    }
+
     def 'declines a target that is neither an array nor a Stream'() {
         ctx.isArray(stringType) >> false
         ctx.isDeclared(stringType) >> false
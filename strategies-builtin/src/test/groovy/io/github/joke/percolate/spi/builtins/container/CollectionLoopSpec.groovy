@@ -0,0 +1,151 @@
+package io.github.joke.percolate.spi.builtins.container
+
+import io.github.joke.percolate.lib.javapoet.ClassName
+import io.github.joke.percolate.lib.javapoet.CodeBlock
+import io.github.joke.percolate.spi.LoopCodegen
+import io.github.joke.percolate.spi.Nullability
+import io.github.joke.percolate.spi.PortType
+import io.github.joke.percolate.spi.ResolveCtx
+import io.github.joke.percolate.spi.Weights
+import io.github.joke.percolate.spi.builtins.test.Demands
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.type.TypeVisitor
+
+/**
+ * {@link CollectionLoop} unit-tested mock-only over the {@link ResolveCtx} type-query seam: the
+ * {@code percolate.collections.style} option gates it, a List or Set target is offered one loop per collection source
+ * kind over a type-variable port, and its {@link LoopCodegen} presizes the target and fills it in an enhanced for.
+ * Every {@link TypeMirror}/{@link TypeElement} is an opaque token compared only by identity. No javac.
+ */
+@Tag('unit')
+class CollectionLoopSpec extends Specification {
+
+    ResolveCtx ctx = Mock()
+    TypeElement listElement = Mock()
+    TypeElement setElement = Mock()
+    TypeMirror listRawType = Mock()
+    TypeMirror setRawType = Mock()
+    TypeMirror listOfString = Mock()
+    TypeMirror stringType = Mock()
+
+    def 'under the loop style a List<B> demand is offered a loop from each of List<A> and Set<A>'() {
+        ctx.option('percolate.collections.style') >> Optional.of('loop')
+        ctx.isList(listOfString) >> true
+        ctx.typeArgument(listOfString, 0) >> stringType
+        ctx.typeElementNamed('java.util.List') >> listElement
+        ctx.typeElementNamed('java.util.Set') >> setElement
+        listElement.asType() >> listRawType
+        setElement.asType() >> setRawType
+
+        when:
+        def specs = new CollectionLoop().expand(Demands.forTarget(listOfString), ctx)*.spec
+
+        then:
+        specs.size() == 2
+        specs.every { it.label == 'loop' && it.codegen instanceof LoopCodegen && it.weight == Weights.CONTAINER }
+        specs.every { it.outputType.is(listOfString) && it.childScope.get().elementOut.is(stringType) }
+        specs.every { it.childScope.get().elementInTemplate == PortType.variable(0) }
+        specs*.ports*.get(0)*.template == [
+                PortType.app(listElement, [PortType.variable(0)]),
+                PortType.app(setElement, [PortType.variable(0)])]
+        specs[0].ports[0].type.is(listRawType)
+        specs[1].ports[0].type.is(setRawType)
+    }
+
+    def 'the style is read case-insensitively'() {
+        ctx.option('percolate.collections.style') >> Optional.of(' LOOP ')
+
+        expect:
+        new CollectionLoop().isLoopStyle(ctx)
+    }
+
+    def 'unset, or set to anything else, keeps the stream style: nothing is offered'() {
+        ctx.option('percolate.collections.style') >> configured
+        ctx.isList(listOfString) >> true
+        ctx.typeArgument(listOfString, 0) >> stringType
+        ctx.typeElementNamed('java.util.List') >> listElement
+        ctx.typeElementNamed('java.util.Set') >> setElement
+
+        expect:
+        new CollectionLoop().expand(Demands.forTarget(listOfString), ctx).toList().empty
+
+        where:
+        configured << [Optional.empty(), Optional.of('stream'), Optional.of('loops')]
+    }
+
+    def 'declines a target that is neither a List nor a Set'() {
+        ctx.option('percolate.collections.style') >> Optional.of('loop')
+        ctx.isList(stringType) >> false
+        ctx.isSet(stringType) >> false
+
+        expect:
+        new CollectionLoop().expand(Demands.forTarget(stringType), ctx).toList().empty
+    }
+
+    def 'a List target is presized from the source and filled in an enhanced for'() {
+        ctx.isList(listOfString) >> true
+        def codegen = new CollectionLoop().codegenFor(listOfString, Demands.forTarget(listOfString), ctx).get()
+
+        when:
+        def init = codegen.init(CodeBlock.of('$N', 'items')).toString()
+        def fill = codegen.fill(CodeBlock.of('$N', 'items'), CodeBlock.of('$N', 'views'), ClassName.get(String),
+                'item', 'index', CodeBlock.of('$L;\n', 'int n = 1'), CodeBlock.of('$N', 'item')).toString()
+
+        then:
+        init == 'new java.util.ArrayList<>(items.size())'
+        fill == 'for (java.lang.String item : items) {\n  int n = 1;\n  views.add(item);\n}\n'
+    }
+
+    def 'a Set target is presized past the load factor, so filling never rehashes'() {
+        ctx.isList(listOfString) >> false
+        ctx.isSet(listOfString) >> true
+        def demand = Demands.forTarget(listOfString)
+
+        expect:
+        new CollectionLoop().codegenFor(listOfString, demand, ctx).get().init(CodeBlock.of('$N', 'items')).toString() ==
+                'new java.util.HashSet<>((int) (items.size() / 0.75f) + 1)'
+    }
+
+    def 'an EnumSet, or a Set of enum elements proven non-null, starts as an empty EnumSet'() {
+        TypeMirror target = Mock()
+        TypeMirror roleType = Mock()
+        ctx.isList(target) >> false
+        ctx.isSet(target) >> isSet
+        ctx.isType(target, 'java.util.EnumSet') >> !isSet
+        ctx.typeArgument(target, 0) >> roleType
+        ctx.isEnum(roleType) >> true
+        roleType.accept({ it instanceof TypeVisitor }, null) >> ClassName.get('com.example', 'Role')
+        def demand = Demands.declaring(target, declared)
+
+        expect:
+        new CollectionLoop().codegenFor(target, demand, ctx).get().init(CodeBlock.of('$N', 'items')).toString() ==
+                'java.util.EnumSet.noneOf(com.example.Role.class)'
+
+        where:
+        isSet | declared
+        true  | Nullability.NON_NULL
+        false | Nullability.NON_NULL
+        false | Nullability.NULLABLE
+    }
+
+    def 'a Set of enum elements that may be null starts as a presized HashSet, which takes the null'() {
+        TypeMirror target = Mock()
+        TypeMirror roleType = Mock()
+        ctx.isList(target) >> false
+        ctx.isSet(target) >> true
+        ctx.typeArgument(target, 0) >> roleType
+        ctx.isEnum(roleType) >> true
+        def demand = Demands.declaring(target, declared)
+
+        expect:
+        new CollectionLoop().codegenFor(target, demand, ctx).get().init(CodeBlock.of('$N', 'items')).toString() ==
+                'new java.util.HashSet<>((int) (items.size() / 0.75f) + 1)'
+
+        where:
+        declared << [Nullability.NULLABLE, Nullability.UNKNOWN]
+    }
+}
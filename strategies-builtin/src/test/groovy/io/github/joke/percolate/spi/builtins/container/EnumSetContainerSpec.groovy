@@ -0,0 +1,107 @@
+package io.github.joke.percolate.spi.builtins.container
+
+import io.github.joke.percolate.lib.javapoet.ClassName
+import io.github.joke.percolate.lib.javapoet.CodeBlock
+import io.github.joke.percolate.spi.IncomingValues
+import io.github.joke.percolate.spi.Nullability
+import io.github.joke.percolate.spi.OperationCodegen
+import io.github.joke.percolate.spi.ResolveCtx
+import io.github.joke.percolate.spi.Weights
+import io.github.joke.percolate.spi.builtins.test.Demands
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.type.TypeVisitor
+
+/**
+ * {@link EnumSetContainer} unit-tested mock-only over the {@link ResolveCtx} type-query seam: an EnumSet target is
+ * collected into {@code EnumSet.noneOf(E.class)}, its kind is formed only over an enum element, and a plain set may
+ * hold its elements in one only where they are enums proven non-null. Every
+ * {@link TypeMirror}/{@link TypeElement} is an opaque token compared only by identity, except where a rendering
+ * stubs its JavaPoet name. No javac.
+ */
+@Tag('unit')
+class EnumSetContainerSpec extends Specification {
+
+    ResolveCtx ctx = Mock()
+    TypeElement enumSetElement = Mock()
+    TypeElement streamElement = Mock()
+    TypeMirror enumSetOfRole = Mock()
+    TypeMirror streamOfRole = Mock()
+    TypeMirror roleType = Mock()
+    TypeMirror stringType = Mock()
+
+    def 'collects a Stream of the enum into EnumSet.noneOf and offers an EnumSet.of wrap'() {
+        ctx.isType(enumSetOfRole, 'java.util.EnumSet') >> true
+        ctx.typeArgument(enumSetOfRole, 0) >> roleType
+        ctx.isReferenceType(roleType) >> true
+        ctx.typeElementNamed('java.util.stream.Stream') >> streamElement
+        ctx.declaredType(streamElement, roleType) >> streamOfRole
+        roleType.accept({ it instanceof TypeVisitor }, null) >> ClassName.get('com.example', 'Role')
+        IncomingValues inputs = Stub() { single() >> CodeBlock.of('$N', 's') }
+
+        when:
+        def specs = new EnumSetContainer().expand(Demands.forTarget(enumSetOfRole), ctx)*.spec
+
+        then:
+        specs*.label == ['collect', 'wrap']
+        def collect = specs[0]
+        collect.weight == Weights.CONTAINER
+        collect.ports[0].type.is(streamOfRole)
+        collect.outputType.is(enumSetOfRole)
+        ((OperationCodegen) collect.codegen).render(inputs).toString() ==
+                's.collect(java.util.stream.Collectors.toCollection(() -> java.util.EnumSet.noneOf(com.example.Role.class)))'
+        specs[1].ports[0].type.is(roleType)
+        ((OperationCodegen) specs[1].codegen).render(inputs).toString() == 'java.util.EnumSet.of(s)'
+    }
+
+    def 'collect stays empty: an EnumSet is only created naming its element class'() {
+        expect:
+        new EnumSetContainer().collect().empty
+    }
+
+    def 'the kind is formed over an enum element only'() {
+        TypeMirror enumSetOfString = Mock()
+        ctx.isEnum(roleType) >> true
+        ctx.isEnum(stringType) >> false
+        ctx.isReferenceType(roleType) >> true
+        ctx.typeElementNamed('java.util.EnumSet') >> enumSetElement
+        ctx.declaredType(enumSetElement, roleType) >> enumSetOfRole
+        ctx.declaredType(enumSetElement, stringType) >> enumSetOfString
+
+        expect:
+        new EnumSetContainer().containerOf(roleType, ctx).get().is(enumSetOfRole)
+        new EnumSetContainer().containerOf(stringType, ctx).empty
+    }
+
+    def 'matches delegates the EnumSet question to the seam'() {
+        ctx.isType(enumSetOfRole, 'java.util.EnumSet') >> true
+
+        expect:
+        new EnumSetContainer().matches(enumSetOfRole, ctx)
+        !new EnumSetContainer().matches(stringType, ctx)
+    }
+
+    def 'a set holds its elements in an EnumSet only where they are enums proven non-null'() {
+        ctx.isEnum(roleType) >> isEnum
+        TypeMirror setOfRole = Mock()
+
+        expect:
+        EnumSetContainer.holdsNonNullEnums(roleType, Demands.declaring(setOfRole, declared, setNullness), ctx) == holds
+
+        where:
+        isEnum | declared             | setNullness          || holds
+        true   | Nullability.NON_NULL | Nullability.NON_NULL || true
+        true   | Nullability.NULLABLE | Nullability.NON_NULL || false
+        true   | Nullability.UNKNOWN  | Nullability.NON_NULL || false
+        true   | Nullability.NON_NULL | Nullability.UNKNOWN  || false
+        false  | Nullability.NON_NULL | Nullability.NON_NULL || false
+    }
+
+    def 'iterates via .stream()'() {
+        expect:
+        new EnumSetContainer().iterate().get().render(CodeBlock.of('$N', 'roles')).toString() == 'roles.stream()'
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.joke.percolate.spi.builtins.container
+
+import io.github.joke.percolate.lib.javapoet.CodeBlock
+import io.github.joke.percolate.lib.javapoet.TypeName
+import io.github.joke.percolate.spi.LoopCodegen
+import io.github.joke.percolate.spi.Port
+import io.github.joke.percolate.spi.ResolveCtx
+import io.github.joke.percolate.spi.Weights
+import io.github.joke.percolate.spi.builtins.test.Demands
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.type.PrimitiveType
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.type.TypeVisitor
+
+/**
+ * {@link PrimitiveArrayLoop} unit-tested mock-only over the {@link ResolveCtx} type-query seam: an array target is
+ * offered one loop per primitive array source kind, each over a reuse-only port with a concrete primitive child, and
+ * its {@link LoopCodegen} sizes the target from the source and fills it by index. Every {@link TypeMirror} is an
+ * opaque token compared only by identity, except where a rendering stubs its JavaPoet name. No javac.
+ */
+@Tag('unit')
+class PrimitiveArrayLoopSpec extends Specification {
+
+    static final List<TypeKind> PRIMITIVE_KINDS = [
+            TypeKind.BOOLEAN, TypeKind.BYTE, TypeKind.SHORT, TypeKind.CHAR,
+            TypeKind.INT, TypeKind.LONG, TypeKind.FLOAT, TypeKind.DOUBLE]
+
+    ResolveCtx ctx = Mock()
+    TypeMirror longArray = Mock()
+    TypeMirror longType = Mock()
+
+    def 'an array target is offered a loop from each primitive array kind, never minting the source'() {
+        ctx.isArray(longArray) >> true
+        ctx.arrayComponent(longArray) >> longType
+        ctx.isArray(longType) >> false
+        def primitives = PRIMITIVE_KINDS.collectEntries { [it, Mock(PrimitiveType)] }
+        def arrays = PRIMITIVE_KINDS.collectEntries { [it, Mock(TypeMirror)] }
+        ctx.primitiveType(_) >> { TypeKind kind -> primitives[kind] }
+        ctx.arrayType(_) >> { TypeMirror element -> arrays[primitives.find { it.value.is(element) }.key] }
+
+        when:
+        def specs = new PrimitiveArrayLoop().expand(Demands.forTarget(longArray), ctx)*.spec
+
+        then:
+        specs.size() == 8
+        specs.every { it.label == 'loop' && it.codegen instanceof LoopCodegen && it.weight == Weights.CONTAINER }
+        specs.every { it.outputType.is(longArray) && it.childScope.get().elementOut.is(longType) }
+        specs.every { it.ports[0].selector == Port.Selector.BY_TYPE && it.ports[0].onMiss == Port.OnMiss.DECLINE }
+        specs.collect { it.childScope.get().elementIn } == PRIMITIVE_KINDS.collect { primitives[it] }
+        specs.collect { it.ports[0].type } == PRIMITIVE_KINDS.collect { arrays[it] }
+    }
+
+    def 'declines a target that is not an array'() {
+        ctx.isArray(longType) >> false
+
+        expect:
+        new PrimitiveArrayLoop().expand(Demands.forTarget(longType), ctx).toList().empty
+    }
+
+    def 'declines a nested-array target, whose creation cannot put the length last'() {
+        TypeMirror longArrayArray = Mock()
+        ctx.isArray(longArrayArray) >> true
+        ctx.arrayComponent(longArrayArray) >> longArray
+        ctx.isArray(longArray) >> true
+
+        expect:
+        new PrimitiveArrayLoop().expand(Demands.forTarget(longArrayArray), ctx).toList().empty
+    }
+
+    def 'the target is sized from the source and filled by index, each element read as the primitive it is'() {
+        longType.accept({ it instanceof TypeVisitor }, null) >> TypeName.LONG
+        def codegen = new PrimitiveArrayLoop.IndexedFill(longType)
+
+        when:
+        def init = codegen.init(CodeBlock.of('$N', 'samples')).toString()
+        def fill = codegen.fill(CodeBlock.of('$N', 'samples'), CodeBlock.of('$N', 'widened'), TypeName.INT, 'element',
+                'index', CodeBlock.of(''), CodeBlock.of('$N', 'element')).toString()
+
+        then:
+        init == 'new long[samples.length]'
+        fill == 'for (int index = 0; index < samples.length; index++) {\n' +
+                '  int element = samples[index];\n' +
+                '  widened[index] = element;\n' +
+                '}\n'
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.joke.percolate.spi.builtins.container
+
+import io.github.joke.percolate.lib.javapoet.CodeBlock
+import io.github.joke.percolate.spi.IncomingValues
+import io.github.joke.percolate.spi.OperationCodegen
+import io.github.joke.percolate.spi.Port
+import io.github.joke.percolate.spi.PortType
+import io.github.joke.percolate.spi.ResolveCtx
+import io.github.joke.percolate.spi.ScopeCodegen
+import io.github.joke.percolate.spi.Weights
+import io.github.joke.percolate.spi.builtins.test.Demands
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+
+/**
+ * {@link PrimitiveStreams} unit-tested mock-only over the {@link ResolveCtx} type-query seam: a lane's own stream is
+ * entered by mapTo…, by widening a narrower lane, or by opening an in-scope primitive array; it is left by toArray into
+ * a primitive array or by boxed into a wrapper Stream. Every {@link TypeMirror}/{@link TypeElement} is an opaque token
+ * compared only by identity. No javac.
+ */
+@Tag('unit')
+class PrimitiveStreamsSpec extends Specification {
+
+    ResolveCtx ctx = Mock()
+    TypeElement streamElement = Mock()
+    TypeElement intStreamElement = Mock()
+    TypeElement longStreamElement = Mock()
+    TypeMirror streamRawType = Mock()
+    TypeMirror intStream = Mock()
+    TypeMirror longStream = Mock()
+    TypeMirror intType = Mock()
+    TypeMirror longType = Mock()
+    TypeMirror intArray = Mock()
+    TypeMirror longArray = Mock()
+
+    def setup() {
+        ctx.typeElementNamed('java.util.stream.Stream') >> streamElement
+        ctx.typeElementNamed('java.util.stream.IntStream') >> intStreamElement
+        ctx.typeElementNamed('java.util.stream.LongStream') >> longStreamElement
+        streamElement.asType() >> streamRawType
+        intStreamElement.asType() >> intStream
+        longStreamElement.asType() >> longStream
+        ctx.primitiveType(TypeKind.INT) >> intType
+        ctx.primitiveType(TypeKind.LONG) >> longType
+        ctx.arrayType(intType) >> intArray
+        ctx.arrayType(longType) >> longArray
+    }
+
+    def 'an IntStream is entered from any Stream<A> by mapToInt, or by opening an in-scope int[]'() {
+        ctx.isType(intStream, 'java.util.stream.IntStream') >> true
+
+        when:
+        def specs = new PrimitiveStreams().expand(Demands.forTarget(intStream), ctx)*.spec
+
+        then:
+        specs*.label == ['mapToInt', 'iterate']
+        specs.every { it.outputType.is(intStream) }
+
+        and: 'mapToInt: a type-variable Stream<A> port and a child A -> int, at a step'
+        def mapTo = specs[0]
+        mapTo.codegen instanceof ScopeCodegen
+        mapTo.weight == Weights.STEP
+        mapTo.ports[0].type.is(streamRawType)
+        mapTo.ports[0].template == PortType.app(streamElement, [PortType.variable(0)])
+        mapTo.childScope.get().elementInTemplate == PortType.variable(0)
+        mapTo.childScope.get().elementOut.is(intType)
+        ((ScopeCodegen) mapTo.codegen).weave(CodeBlock.of('$N', 's'), 'v', CodeBlock.of('$N', 'b')).toString() ==
+                's.mapToInt(v -> b)'
+
+        and: 'iterate: Arrays.stream over an int[] that is bound, never minted'
+        def iterate = specs[1]
+        iterate.weight == Weights.CONTAINER
+        iterate.ports[0].type.is(intArray)
+        iterate.ports[0].onMiss == Port.OnMiss.DECLINE
+        render(iterate.codegen) == 'java.util.Arrays.stream(s)'
+    }
+
+    def 'a LongStream is also entered by widening an IntStream in place'() {
+        ctx.isType(longStream, 'java.util.stream.LongStream') >> true
+
+        when:
+        def specs = new PrimitiveStreams().expand(Demands.forTarget(longStream), ctx)*.spec
+
+        then:
+        specs*.label == ['mapToLong', 'asLongStream', 'iterate']
+        def widen = specs[1]
+        widen.weight == 2 * Weights.STEP
+        widen.ports[0].type.is(intStream)
+        render(widen.codegen) == 's.asLongStream()'
+        specs[2].ports[0].type.is(longArray)
+    }
+
+    def 'a primitive array of a lane is collected from its stream by toArray'() {
+        ctx.isArray(intArray) >> true
+        ctx.arrayComponent(intArray) >> intType
+        ctx.kind(intType) >> TypeKind.INT
+
+        when:
+        def specs = new PrimitiveStreams().expand(Demands.forTarget(intArray), ctx)*.spec
+
+        then:
+        specs.size() == 1
+        specs[0].label == 'toArray'
+        specs[0].weight == Weights.CONTAINER
+        specs[0].ports[0].type.is(intStream)
+        render(specs[0].codegen) == 's.toArray()'
+    }
+
+    def 'a Stream of a lane wrapper is boxed out of the lane'() {
+        TypeMirror streamOfLong = Mock()
+        TypeMirror longWrapper = Mock()
+        ctx.isStream(streamOfLong) >> true
+        ctx.typeArgument(streamOfLong, 0) >> longWrapper
+        ctx.isType(longWrapper, 'java.lang.Long') >> true
+
+        when:
+        def specs = new PrimitiveStreams().expand(Demands.forTarget(streamOfLong), ctx)*.spec
+
+        then:
+        specs.size() == 1
+        specs[0].label == 'boxed'
+        specs[0].weight == Weights.STEP
+        specs[0].ports[0].type.is(longStream)
+        render(specs[0].codegen) == 's.boxed()'
+    }
+
+    def 'a Stream of any other element, or an array of a non-lane primitive, is offered nothing'() {
+        TypeMirror streamOfString = Mock()
+        TypeMirror stringType = Mock()
+        TypeMirror shortArray = Mock()
+        TypeMirror shortType = Mock()
+        ctx.isStream(streamOfString) >> true
+        ctx.typeArgument(streamOfString, 0) >> stringType
+        ctx.isArray(shortArray) >> true
+        ctx.arrayComponent(shortArray) >> shortType
+        ctx.kind(shortType) >> TypeKind.SHORT
+
+        expect:
+        new PrimitiveStreams().expand(Demands.forTarget(streamOfString), ctx).toList().empty
+        new PrimitiveStreams().expand(Demands.forTarget(shortArray), ctx).toList().empty
+    }
+
+    String render(codegen) {
+        IncomingValues inputs = Stub() { single() >> CodeBlock.of('$N', 's') }
+        ((OperationCodegen) codegen).render(inputs).toString()
+    }
+}
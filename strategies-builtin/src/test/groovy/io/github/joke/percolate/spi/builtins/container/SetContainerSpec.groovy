@@ -1,6 +1,8 @@
 package io.github.joke.percolate.spi.builtins.container
 
+import io.github.joke.percolate.lib.javapoet.ClassName
 import io.github.joke.percolate.lib.javapoet.CodeBlock
+import io.github.joke.percolate.spi.Nullability
 import io.github.joke.percolate.spi.OperationCodegen
 import io.github.joke.percolate.spi.ResolveCtx
 import io.github.joke.percolate.spi.Weights
@@ -10,6 +12,7 @@ import spock.lang.Tag
 
 import javax.lang.model.element.TypeElement
 import javax.lang.model.type.TypeMirror
+import javax.lang.model.type.TypeVisitor
 
 /**
  * {@link SetContainer} unit-tested mock-only over the {@link ResolveCtx} type-query seam (change
@@ -82,6 +85,45 @@ class SetContainerSpec extends Specification {
         wrap.outputType.is(setOfString)
     }
 
+    def 'a Set of enum elements proven non-null is collected into an EnumSet rather than Collectors.toSet()'() {
+        TypeMirror setOfRole = Mock()
+        TypeMirror roleType = Mock()
+        ctx.typeArgument(setOfRole, 0) >> roleType
+        ctx.isEnum(roleType) >> true
+        roleType.accept({ it instanceof TypeVisitor }, null) >> ClassName.get('com.example', 'Role')
+
+        expect:
+        new SetContainer().collectInto(setOfRole, Demands.declaring(setOfRole, Nullability.NON_NULL), ctx).get()
+                .render(CodeBlock.of('$N', 's')).toString() ==
+                's.collect(java.util.stream.Collectors.toCollection(() -> java.util.EnumSet.noneOf(com.example.Role.class)))'
+    }
+
+    def 'a Set of enum elements not proven non-null keeps Collectors.toSet(), which takes a null element'() {
+        TypeMirror setOfRole = Mock()
+        TypeMirror roleType = Mock()
+        ctx.typeArgument(setOfRole, 0) >> roleType
+        ctx.isEnum(roleType) >> true
+
+        expect:
+        new SetContainer().collectInto(setOfRole, Demands.declaring(setOfRole, declared, setNullness), ctx).get()
+                .render(CodeBlock.of('$N', 's')).toString() == 's.collect(java.util.stream.Collectors.toSet())'
+
+        where:
+        declared             | setNullness
+        Nullability.NULLABLE | Nullability.NON_NULL
+        Nullability.UNKNOWN  | Nullability.NON_NULL
+        Nullability.NON_NULL | Nullability.UNKNOWN
+    }
+
+    def 'a Set of any other element keeps Collectors.toSet()'() {
+        ctx.typeArgument(setOfString, 0) >> stringType
+        ctx.isEnum(stringType) >> false
+
+        expect:
+        new SetContainer().collectInto(setOfString, Demands.declaring(setOfString, Nullability.NON_NULL), ctx).get()
+                .render(CodeBlock.of('$N', 's')).toString() == 's.collect(java.util.stream.Collectors.toSet())'
+    }
+
     def 'declines a target that is neither a Set nor a Stream'() {
         ctx.isSet(listOfString) >> false
         ctx.isDeclared(listOfString) >> false
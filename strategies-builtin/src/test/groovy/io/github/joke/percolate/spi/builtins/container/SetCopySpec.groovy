@@ -0,0 +1,88 @@
+package io.github.joke.percolate.spi.builtins.container
+
+import io.github.joke.percolate.lib.javapoet.CodeBlock
+import io.github.joke.percolate.spi.IncomingValues
+import io.github.joke.percolate.spi.Nullability
+import io.github.joke.percolate.spi.Port
+import io.github.joke.percolate.spi.ResolveCtx
+import io.github.joke.percolate.spi.Weights
+import io.github.joke.percolate.spi.builtins.test.Demands
+import spock.lang.Specification
+import spock.lang.Tag
+
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.TypeMirror
+
+/**
+ * {@link SetCopy} unit-tested mock-only over the {@link ResolveCtx} type-query seam: a Set target is offered one copy
+ * of an in-scope List of the same element, over a reuse-only port, into a HashSet sized from the list — except where
+ * its elements are enums proven non-null, which an EnumSet holds instead. Every {@link TypeMirror}/{@link TypeElement}
+ * is an opaque token compared only by identity. No javac.
+ */
+@Tag('unit')
+class SetCopySpec extends Specification {
+
+    ResolveCtx ctx = Mock()
+    TypeElement listElement = Mock()
+    TypeMirror setOfString = Mock()
+    TypeMirror listOfString = Mock()
+    TypeMirror stringType = Mock()
+
+    def 'a Set target is offered a copy of a List of the same element, never minting the list'() {
+        ctx.isSet(setOfString) >> true
+        ctx.typeArgument(setOfString, 0) >> stringType
+        ctx.isReferenceType(stringType) >> true
+        ctx.typeElementNamed('java.util.List') >> listElement
+        ctx.declaredType(listElement, stringType) >> listOfString
+
+        when:
+        def specs = new SetCopy().expand(Demands.forTarget(setOfString), ctx)*.spec
+
+        then:
+        specs.size() == 1
+        def copy = specs[0]
+        copy.label == 'copy'
+        copy.weight == Weights.STEP
+        copy.childScope.empty
+        copy.outputType.is(setOfString)
+        copy.ports[0].type.is(listOfString)
+        copy.ports[0].selector == Port.Selector.BY_TYPE
+        copy.ports[0].onMiss == Port.OnMiss.DECLINE
+        copy.codegen.render(singleInput(CodeBlock.of('$N', 'tags'))).toString() == 'new java.util.HashSet<>(tags)'
+    }
+
+    def 'declines a Set of enum elements proven non-null, which is collected into an EnumSet'() {
+        TypeMirror setOfRole = Mock()
+        TypeMirror roleType = Mock()
+        ctx.isSet(setOfRole) >> true
+        ctx.typeArgument(setOfRole, 0) >> roleType
+        ctx.isReferenceType(roleType) >> true
+        ctx.isEnum(roleType) >> true
+        ctx.typeElementNamed('java.util.List') >> listElement
+
+        expect:
+        new SetCopy().expand(Demands.declaring(setOfRole, Nullability.NON_NULL), ctx).toList().empty
+        new SetCopy().expand(Demands.declaring(setOfRole, Nullability.NULLABLE), ctx).toList().size() == 1
+    }
+
+    def 'declines a target that is not a Set'() {
+        ctx.isSet(listOfString) >> false
+
+        expect:
+        new SetCopy().expand(Demands.forTarget(listOfString), ctx).toList().empty
+    }
+
+    def 'is consulted only for a produce demand of a Set target'() {
+        when:
+        def applicability = new SetCopy().applicability()
+
+        then:
+        applicability.produces
+        !applicability.descends
+        applicability.targetErasures == ['java.util.Set'] as Set
+    }
+
+    private static IncomingValues singleInput(final CodeBlock value) {
+        [single: { -> value }] as IncomingValues
+    }
+}
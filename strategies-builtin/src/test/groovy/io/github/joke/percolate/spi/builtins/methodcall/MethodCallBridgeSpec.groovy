@@ -225,6 +225,7 @@ class MethodCallBridgeSpec extends Specification {
         ctx.superclassOf(returnType) >> target
         ctx.isDeclared(target) >> true
         ctx.isSameType(target, target) >> true
+        ctx.typeKey(_) >> { TypeMirror type -> type.toString() }
 
         expect:
         new MethodCallBridge().buildSpec(candidate, target, Demands.forTarget(target), ctx).weight == Weights.METHOD + 1
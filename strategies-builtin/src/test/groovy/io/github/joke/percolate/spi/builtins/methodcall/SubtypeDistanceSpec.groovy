@@ -9,7 +9,8 @@ import javax.lang.model.type.TypeMirror
 /**
  * {@link SubtypeDistance} unit-tested mock-only over the {@link ResolveCtx} type-query seam: the BFS walk it performs
  * is driven entirely by stubbed seam questions ({@code isSameType}/{@code isAssignable}/{@code superclassOf}/
- * {@code isDeclared}), never a real type hierarchy. {@link TypeMirror} tokens are opaque and never stubbed themselves.
+ * {@code isDeclared}), never a real type hierarchy. {@link TypeMirror} tokens are opaque and never stubbed themselves;
+ * the seam's {@code typeKey} is stubbed to its text-form default, so only the last case stubs a token's text.
  */
 @Tag('unit')
 class SubtypeDistanceSpec extends Specification {
@@ -18,6 +19,10 @@ class SubtypeDistanceSpec extends Specification {
     TypeMirror from = Mock()
     TypeMirror to = Mock()
 
+    def setup() {
+        ctx.typeKey(_) >> { TypeMirror type -> type.toString() }
+    }
+
     def 'same-type return distance is 0'() {
         ctx.isSameType(from, to) >> true
         ctx.isAssignable(from, to) >> true
@@ -118,7 +123,7 @@ class SubtypeDistanceSpec extends Specification {
         new SubtypeDistance().bfsDistance(from, to, ctx) == 0
     }
 
-    // Visited-ness is keyed by the type's text, not by mirror identity: a second mirror for the same type closes the
+    // Visited-ness is keyed by the seam's typeKey, not by mirror identity: a second mirror with the same key closes the
     // cycle just as the first would, and the start type is seeded as visited before the walk begins.
     def 'bfsDistance treats a distinct mirror naming a visited type as already visited'() {
         TypeMirror mid = Mock()
@@ -13,7 +13,7 @@ import javax.lang.model.type.TypeMirror
 /**
  * Builds the myopic demand contexts the driver would hand a strategy, for unit specs that exercise a single strategy
  * in isolation. A {@link ProduceDemand} carries the demanded type and nullness, the in-effect {@code @Map}
- * {@link Directive}, the declared-children goal-spec set, the binding/slot name, and the nullness oracle; a
+ * {@link Directive}, the declared-children goal-spec set, the binding/slot name, and the nullness oracles; a
  * {@link DescendDemand} carries the concrete parent type, parent nullness, the single segment to resolve, and the
  * oracle. Neither exposes a candidate snapshot: the engine, not the strategy, sources every input port (design D1).
  */
@@ -47,6 +47,15 @@ final class Demands {
         demand(target, targetNullness, null, [] as Set, '', Nullability.NON_NULL)
     }
 
+    /**
+     * A bare demand asking for {@code target}, whose mapper method declares every type {@code declaredNullness} — e.g.
+     * {@code NON_NULL} for an unannotated element type argument inside {@code @NullMarked}.
+     */
+    static ProduceDemand declaring(final TypeMirror target, final Nullability declaredNullness,
+                                   final Nullability targetNullness = Nullability.NON_NULL) {
+        demand(target, targetNullness, null, [] as Set, '', Nullability.NON_NULL, declaredNullness)
+    }
+
     /** An assembly demand asking for {@code target} whose declared-children goal spec is {@code declaredChildren}. */
     static ProduceDemand assembling(final TypeMirror target, final Set<String> declaredChildren) {
         demand(target, Nullability.NON_NULL, null, declaredChildren, '', Nullability.NON_NULL)
@@ -94,7 +103,8 @@ final class Demands {
 
     private static ProduceDemand demand(final TypeMirror target, final Nullability targetNullness,
                                         final Directive directive, final Set<String> declaredChildren,
-                                        final String bindingName, final Nullability oracleNullness) {
+                                        final String bindingName, final Nullability oracleNullness,
+                                        final Nullability declaredNullness = Nullability.UNKNOWN) {
         new ProduceDemand() {
             TypeMirror targetType() { target }
 
@@ -108,6 +118,9 @@ final class Demands {
 
             @SuppressWarnings('UnusedMethodParameter')
             Nullability nullnessOf(final TypeMirror type, final Element scope) { oracleNullness }
+
+            @SuppressWarnings('UnusedMethodParameter')
+            Nullability declaredNullness(final TypeMirror type) { declaredNullness }
         }
     }
 
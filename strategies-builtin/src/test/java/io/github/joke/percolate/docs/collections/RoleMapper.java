@@ -0,0 +1,30 @@
+package io.github.joke.percolate.docs.collections;
+
+import io.github.joke.percolate.Mapper;
+import java.util.List;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+// tag::mapper[]
+@Mapper
+public interface RoleMapper {
+
+    // Enum elements proven non-null — this package is @NullMarked — are collected into an EnumSet.
+    Set<Role> toRoles(List<Role> roles);
+
+    // An element that may be null stays in a HashSet, which takes the null EnumSet.add would throw on. No element is
+    // converted, so the list is copied into a HashSet sized for it up front.
+    Set<@Nullable Role> toGrantedRoles(List<@Nullable Role> roles);
+
+    // Any other element copies the same way.
+    Set<String> toTagSet(List<String> tags);
+}
+// end::mapper[]
+
+// tag::model[]
+enum Role {
+    ADMIN,
+    EDITOR,
+    VIEWER
+}
+// end::model[]
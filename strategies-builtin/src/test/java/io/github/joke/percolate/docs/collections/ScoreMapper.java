@@ -0,0 +1,20 @@
+package io.github.joke.percolate.docs.collections;
+
+import io.github.joke.percolate.Mapper;
+import java.util.List;
+
+// tag::mapper[]
+@Mapper
+public interface ScoreMapper {
+
+    // Unboxed into an IntStream and collected into the primitive array: mapToInt(...).toArray().
+    int[] toArray(List<Integer> scores);
+
+    // Unboxed and widened into a DoubleStream, and boxed only on the way into the list: no Integer is turned into
+    // a Double element by element.
+    List<Double> toDoubles(List<Integer> scores);
+
+    // Already in the int lane: Arrays.stream, widened in place by asLongStream(), then boxed.
+    List<Long> toLongs(int[] scores);
+}
+// end::mapper[]